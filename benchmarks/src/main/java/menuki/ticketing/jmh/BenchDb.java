@@ -0,0 +1,109 @@
+package menuki.ticketing.jmh;
+
+import menuki.ticketing.data.jdbc.DatabaseConnection;
+import menuki.ticketing.data.jdbc.DatabaseInitializer;
+import menuki.ticketing.data.jdbc.JdbcSeatDao;
+import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.model.SeatType;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Database setup shared by the suites.
+ * By default each suite gets an in-memory H2 database in MySQL mode. Pass -Dbench.db.url (plus bench.db.user
+ * and bench.db.password) to run against a real MySQL server instead; BenchmarkRunner hands these on to
+ * the forked JVMs. The load generator uses it too, with a bigger pool.
+ */
+public final class BenchDb {
+
+    private BenchDb() {}
+
+    /*
+     * Points DatabaseConnection at the benchmark database and creates the tables
+     */
+    public static void open(String name) throws Exception {
+        open(name, 4);
+    }
+
+    public static void open(String name, int poolSize) throws Exception {
+        Properties p = new Properties();
+        p.setProperty("db.url", System.getProperty("bench.db.url",
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"));
+        p.setProperty("db.user", System.getProperty("bench.db.user", "sa"));
+        p.setProperty("db.password", System.getProperty("bench.db.password", ""));
+        p.setProperty("db.pool.minSize", "1");
+        p.setProperty("db.pool.maxSize", String.valueOf(poolSize));
+        // Thousands of load generator threads can queue for a small pool
+        p.setProperty("db.pool.borrowTimeoutMs", "60000");
+        DatabaseConnection.configure(p);
+
+        DatabaseInitializer.createSchema();
+    }
+
+    public static void close() {
+        DatabaseConnection.shutdown();
+    }
+
+    /*
+     * Creates (or recreates) an event with the given number of available seats
+     */
+    public static List<Seat> seedEvent(String eventId, Venue venue) throws Exception {
+        createEvent(eventId);
+        List<Seat> seats = seats(eventId, venue);
+        new JdbcSeatDao().insertAll(eventId, seats);
+        return seats;
+    }
+
+    /*
+     * An event with no seats, dropping any it had
+     */
+    public static void createEvent(String eventId) throws Exception {
+        deleteSeats(eventId);
+        try (Connection c = DatabaseConnection.getConnection()) {
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM events WHERE id = ?")) {
+                ps.setString(1, eventId);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = c.prepareStatement("INSERT INTO events(id, name) VALUES (?, ?)")) {
+                ps.setString(1, eventId);
+                ps.setString(2, "Benchmark " + eventId);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    public static void deleteSeats(String eventId) throws Exception {
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement("DELETE FROM seats WHERE event_id = ?")) {
+            ps.setString(1, eventId);
+            ps.executeUpdate();
+        }
+    }
+
+    public static void createUser(String username) throws Exception {
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "INSERT INTO users(username, password, role) VALUES (?, 'bench', 'USER')")) {
+            ps.setString(1, username);
+            ps.executeUpdate();
+        }
+    }
+
+    /*
+     * Seat objects of the venue, rows labelled R001, R002, ... (they have to fit the VARCHAR(4) column)
+     */
+    public static List<Seat> seats(String eventId, Venue venue) {
+        List<Seat> seats = new ArrayList<>(venue.size());
+        for (int r = 1; r <= venue.rows(); r++) {
+            String label = "R" + String.format("%03d", r);
+            for (int n = 1; n <= venue.seatsPerRow(); n++) {
+                seats.add(new Seat(eventId, label, n, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200));
+            }
+        }
+        return seats;
+    }
+}
@@ -0,0 +1,33 @@
+package menuki.ticketing.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar. Takes the usual JMH command line (suite regexes, -p venue=10x20, -f, -wi,
+ * ...) and always adds the GC profiler, so every result comes with its allocation rate (gc.alloc.rate.norm
+ * is bytes per operation). The suites report throughput and, from the sample mode, latency percentiles.
+ * bench.* system properties (e.g. -Dbench.db.url to run against MySQL) are passed on to the forked JVMs.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        List<String> forwarded = new ArrayList<>();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("bench.")) forwarded.add("-D" + name + "=" + System.getProperty(name));
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(cli)
+                .addProfiler(GCProfiler.class);
+        if (!forwarded.isEmpty()) options.jvmArgsAppend(forwarded.toArray(new String[0]));
+        new Runner(options.build()).run();
+    }
+}
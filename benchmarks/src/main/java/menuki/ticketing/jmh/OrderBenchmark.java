@@ -0,0 +1,63 @@
+package menuki.ticketing.jmh;
+
+import menuki.ticketing.data.jdbc.JdbcOrderDao;
+import menuki.ticketing.data.jdbc.JdbcOrderItemDao;
+import menuki.ticketing.data.jdbc.SnowflakeIdGenerator;
+import menuki.ticketing.model.Seat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * createOrder for carts of different sizes: the order row and its items in one transaction.
+ * Orders pile up during the run, as they would in a real database.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderBenchmark {
+
+    private static final String EVENT_ID = "JMH-ORDER";
+    private static final String USER = "jmh";
+
+    @Param({"1", "4", "16"})
+    public int cartSize;
+
+    private JdbcOrderDao orderDao;
+    private List<Seat> cart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchDb.open("order");
+        BenchDb.createUser(USER);
+        cart = BenchDb.seedEvent(EVENT_ID, Venue.parse(Venue.SMALL)).subList(0, cartSize);
+        // A fixed node id, so no node lease is needed
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(() -> 1, System::currentTimeMillis);
+        orderDao = new JdbcOrderDao(new JdbcOrderItemDao(ids), ids);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchDb.close();
+    }
+
+    @Benchmark
+    public long createOrder() throws Exception {
+        return orderDao.createOrder(USER, EVENT_ID, cart);
+    }
+}
@@ -0,0 +1,62 @@
+package menuki.ticketing.jmh;
+
+import menuki.ticketing.model.Seat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Seat methods the seat map calls per seat: the display id, the hash code, and putting every seat of
+ * the venue in a set (what a selection or a change set does). No database involved.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeatModelBenchmark {
+
+    @Param({Venue.SMALL, Venue.ARENA})
+    public String venue;
+
+    private List<Seat> seats;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        seats = BenchDb.seats("JMH-MODEL", Venue.parse(venue));
+    }
+
+    @Benchmark
+    public void displayIds(Blackhole bh) {
+        for (Seat s : seats) bh.consume(s.getDisplayId());
+    }
+
+    @Benchmark
+    public int hashCodes() {
+        int h = 0;
+        for (Seat s : seats) h += s.hashCode();
+        return h;
+    }
+
+    @Benchmark
+    public Set<Seat> hashSetOfVenue() {
+        Set<Seat> set = new HashSet<>(seats.size() * 2);
+        set.addAll(seats);
+        return set;
+    }
+}
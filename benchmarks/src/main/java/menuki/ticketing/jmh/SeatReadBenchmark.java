@@ -0,0 +1,79 @@
+package menuki.ticketing.jmh;
+
+import menuki.ticketing.data.jdbc.JdbcSeatDao;
+import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.service.JdbcSeatService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads behind the seat map and the dashboards: the seats of one event (as objects, as a SeatBlock and
+ * grouped by row the way the seat map wants them) and the available-seat counters of every event.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeatReadBenchmark {
+
+    private static final String EVENT_ID = "JMH-READ";
+    // Other events, so the counter query returns a realistic number of rows
+    private static final int OTHER_EVENTS = 50;
+
+    @Param({Venue.SMALL, Venue.THEATRE, Venue.ARENA})
+    public String venue;
+
+    private JdbcSeatDao seatDao;
+    private JdbcSeatService seatService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchDb.open("read");
+        BenchDb.seedEvent(EVENT_ID, Venue.parse(venue));
+        for (int i = 0; i < OTHER_EVENTS; i++) BenchDb.seedEvent("JMH-OTHER-" + i, Venue.parse("2x5"));
+        seatDao = new JdbcSeatDao();
+        seatService = new JdbcSeatService(seatDao);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchDb.close();
+    }
+
+    @Benchmark
+    public List<Seat> findByEvent() throws Exception {
+        return seatDao.findByEvent(EVENT_ID);
+    }
+
+    @Benchmark
+    public SeatBlock findBlockByEvent() throws Exception {
+        return seatDao.findBlockByEvent(EVENT_ID);
+    }
+
+    @Benchmark
+    public Map<String, List<Seat>> loadSeatsGroupedByRow() {
+        return seatService.loadSeatsGroupedByRow(EVENT_ID);
+    }
+
+    @Benchmark
+    public Map<String, Integer> countAvailableByEvent() throws Exception {
+        return seatDao.countAvailableByEvent();
+    }
+}
@@ -0,0 +1,77 @@
+package menuki.ticketing.jmh;
+
+import menuki.ticketing.data.jdbc.JdbcSeatDao;
+import menuki.ticketing.model.Seat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * reserveSeatsAtomic for carts of different sizes. Each call books the next cart along the venue; the
+ * cart is made available again before the next call, outside the measured time.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeatReservationBenchmark {
+
+    private static final String EVENT_ID = "JMH-RESERVE";
+
+    @Param({Venue.SMALL, Venue.ARENA})
+    public String venue;
+
+    @Param({"1", "4", "16"})
+    public int cartSize;
+
+    private JdbcSeatDao seatDao;
+    private long[][] carts;
+    private int next;
+    private long[] cart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchDb.open("reserve");
+        List<Seat> seats = BenchDb.seedEvent(EVENT_ID, Venue.parse(venue));
+        seatDao = new JdbcSeatDao();
+        carts = new long[seats.size() / cartSize][];
+        for (int c = 0; c < carts.length; c++) {
+            carts[c] = new long[cartSize];
+            for (int i = 0; i < cartSize; i++) carts[c][i] = seats.get(c * cartSize + i).getKey();
+        }
+    }
+
+    /*
+     * Frees the cart booked by the last call and picks the next one
+     */
+    @Setup(Level.Invocation)
+    public void nextCart() throws Exception {
+        if (cart != null) seatDao.markAvailable(EVENT_ID, cart);
+        cart = carts[next];
+        next = (next + 1) % carts.length;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchDb.close();
+    }
+
+    @Benchmark
+    public boolean reserveSeatsAtomic() throws Exception {
+        return seatDao.reserveSeatsAtomic(EVENT_ID, cart);
+    }
+}
@@ -0,0 +1,77 @@
+package menuki.ticketing.jmh;
+
+import menuki.ticketing.data.jdbc.JdbcSeatDao;
+import menuki.ticketing.model.Seat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating the seats of a new event: insertAll with prepared Seat objects, and createGrid, which makes
+ * them from row letters. The seats of the previous call are deleted before each call, outside the
+ * measured time.
+ * createGrid has single-letter rows, so it gets at most 26 rows and the same number of seats in total.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeatWriteBenchmark {
+
+    private static final String EVENT_ID = "JMH-WRITE";
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    @Param({Venue.SMALL, Venue.THEATRE, Venue.ARENA})
+    public String venue;
+
+    private JdbcSeatDao seatDao;
+    private List<Seat> seats;
+    private String gridRows;
+    private int gridSeatsPerRow;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchDb.open("write");
+        BenchDb.createEvent(EVENT_ID);
+        Venue v = Venue.parse(venue);
+        seatDao = new JdbcSeatDao();
+        seats = BenchDb.seats(EVENT_ID, v);
+        int rows = Math.min(LETTERS.length(), v.rows());
+        gridRows = LETTERS.substring(0, rows);
+        gridSeatsPerRow = v.size() / rows;
+    }
+
+    @Setup(Level.Invocation)
+    public void clearSeats() throws Exception {
+        BenchDb.deleteSeats(EVENT_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchDb.close();
+    }
+
+    @Benchmark
+    public void insertAll() throws Exception {
+        seatDao.insertAll(EVENT_ID, seats);
+    }
+
+    @Benchmark
+    public void createGrid() throws Exception {
+        seatDao.createGrid(EVENT_ID, gridRows, gridSeatsPerRow);
+    }
+}
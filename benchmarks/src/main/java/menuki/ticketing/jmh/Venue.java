@@ -0,0 +1,32 @@
+package menuki.ticketing.jmh;
+
+/**
+ * Venue size given as a JMH parameter, "rows x seats per row" (e.g. "10x20").
+ * The sizes the suites run with: a small room (200 seats), a theatre (2,000) and an arena (20,000).
+ */
+public final class Venue {
+
+    public static final String SMALL = "10x20";
+    public static final String THEATRE = "40x50";
+    public static final String ARENA = "100x200";
+
+    private final int rows;
+    private final int seatsPerRow;
+
+    //Constructor
+    private Venue(int rows, int seatsPerRow) {
+        this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
+    }
+
+    public static Venue parse(String spec) {
+        String[] parts = spec.toLowerCase().split("x");
+        if (parts.length != 2) throw new IllegalArgumentException("Venue must look like 10x20: " + spec);
+        return new Venue(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    }
+
+    //Getters
+    public int rows() { return rows; }
+    public int seatsPerRow() { return seatsPerRow; }
+    public int size() { return rows * seatsPerRow; }
+}
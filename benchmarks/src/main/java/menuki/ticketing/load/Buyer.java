@@ -0,0 +1,194 @@
+package menuki.ticketing.load;
+
+import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.service.OrderService;
+import menuki.ticketing.service.SeatService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One virtual buyer: runs its script against the services, the way the booking screen would, and
+ * records every step in the shared stats.
+ * A buyer never leaves seats behind: anything still held or reserved without an order when the script
+ * ends is released, so the inventory can be checked once the run is over.
+ */
+final class Buyer implements Runnable {
+
+    private final String username;
+    private final String eventId;
+    private final Script script;
+    private final SeatService seatService;
+    private final OrderService orderService;
+    private final LoadStats stats;
+    private final LoadOptions options;
+
+    private SeatBlock seatMap;
+    private int[] picked;
+    private long[] pickedKeys;
+    private boolean held;
+    private boolean reserved;
+    private boolean done;
+
+    //Constructor
+    Buyer(String username, String eventId, Script script, SeatService seatService, OrderService orderService,
+          LoadStats stats, LoadOptions options) {
+        this.username = username;
+        this.eventId = eventId;
+        this.script = script;
+        this.seatService = seatService;
+        this.orderService = orderService;
+        this.stats = stats;
+        this.options = options;
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (Script.Step step : script.getSteps()) {
+                if (done) break;
+                switch (step) {
+                    case BROWSE -> browse();
+                    case THINK -> think();
+                    case SELECT -> select();
+                    case HOLD, RESERVE -> claim(step);
+                    case CHECKOUT -> checkout();
+                    case ABANDON -> abandon();
+                }
+            }
+            if (held || reserved) abandon();
+        } catch (RuntimeException e) {
+            stats.errors.increment();
+            if (stats.errors.sum() <= 5) System.err.println("[LOAD] " + username + " failed: " + e);
+            try {
+                if (held || reserved) abandon();
+            } catch (RuntimeException ignored) {
+                // The consistency check at the end will show it
+            }
+        } finally {
+            stats.finished.increment();
+        }
+    }
+
+    private void browse() {
+        long start = System.nanoTime();
+        seatMap = seatService.loadSeatBlock(eventId);
+        stats.record(Script.Step.BROWSE, start);
+    }
+
+    private void think() {
+        if (options.thinkMillis <= 0) return;
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(options.thinkMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            done = true;
+        }
+    }
+
+    /*
+     * Picks a random number of random available seats from the last seat map. Ends the script if there
+     * are not enough left
+     */
+    private void select() {
+        if (seatMap == null) browse();
+        long start = System.nanoTime();
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int wanted = rnd.nextInt(options.minSeats, options.maxSeats + 1);
+
+        int[] available = new int[seatMap.size()];
+        int n = 0;
+        for (int i = 0; i < seatMap.size(); i++) {
+            if (seatMap.status(i) == SeatStatus.AVAILABLE) available[n++] = i;
+        }
+        if (n < wanted) {
+            stats.soldOut.increment();
+            picked = null;
+            done = true;
+            return;
+        }
+        // Partial Fisher-Yates: the first "wanted" entries become a random sample
+        for (int i = 0; i < wanted; i++) {
+            int j = i + rnd.nextInt(n - i);
+            int t = available[i];
+            available[i] = available[j];
+            available[j] = t;
+        }
+        picked = new int[wanted];
+        pickedKeys = new long[wanted];
+        for (int i = 0; i < wanted; i++) {
+            picked[i] = available[i];
+            pickedKeys[i] = seatMap.key(available[i]);
+        }
+        stats.record(Script.Step.SELECT, start);
+    }
+
+    /*
+     * Holds or reserves the picked seats. A conflict means someone else got one of them first: look at
+     * the seat map again, pick other seats and try again, up to the retry limit
+     */
+    private void claim(Script.Step step) {
+        if (picked == null) select();
+        for (int attempt = 0; !done; attempt++) {
+            long start = System.nanoTime();
+            boolean ok = step == Script.Step.HOLD
+                    ? seatService.holdSeats(eventId, pickedKeys, username)
+                    : seatService.reserveSeats(eventId, pickedKeys);
+            stats.record(step, start);
+            stats.claimAttempts.increment();
+            if (ok) {
+                if (step == Script.Step.HOLD) held = true;
+                else reserved = true;
+                return;
+            }
+            stats.conflicts.increment();
+            if (attempt >= options.retries) {
+                stats.gaveUp.increment();
+                done = true;
+                return;
+            }
+            browse();
+            select();
+        }
+    }
+
+    /*
+     * Turns the holds into reservations if there are any, then writes the order
+     */
+    private void checkout() {
+        if (!held && !reserved) return;
+        long start = System.nanoTime();
+        if (held) {
+            if (!seatService.confirmHolds(eventId, pickedKeys, username)) {
+                // The holds expired or were taken over; nothing of ours is left to release
+                held = false;
+                stats.lostHolds.increment();
+                stats.record(Script.Step.CHECKOUT, start);
+                done = true;
+                return;
+            }
+            held = false;
+            reserved = true;
+        }
+        List<Seat> seats = new ArrayList<>(picked.length);
+        for (int i : picked) seats.add(seatMap.seat(i));
+        orderService.createOrder(username, eventId, seats);
+        reserved = false;
+        stats.record(Script.Step.CHECKOUT, start);
+        stats.orders.increment();
+        stats.seatsSold.add(picked.length);
+        done = true;
+    }
+
+    private void abandon() {
+        if (!held && !reserved) return;
+        long start = System.nanoTime();
+        seatService.releaseSeats(eventId, pickedKeys);
+        held = false;
+        reserved = false;
+        stats.record(Script.Step.ABANDON, start);
+        stats.abandoned.increment();
+    }
+}
@@ -0,0 +1,84 @@
+package menuki.ticketing.load;
+
+import menuki.ticketing.data.jdbc.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks the event's seats and orders once the buyers are done. After a run:
+ * - every reserved seat is in exactly one order, and every ordered seat is reserved
+ * - no seat is still held (every buyer checked out or released)
+ * - the availability counter matches the available seats
+ * - the database agrees with what the buyers counted
+ */
+final class InventoryAudit {
+
+    private final List<String> problems = new ArrayList<>();
+    private final List<String> facts = new ArrayList<>();
+
+    private InventoryAudit() {}
+
+    static InventoryAudit run(String eventId, LoadStats stats) throws Exception {
+        InventoryAudit a = new InventoryAudit();
+        try (Connection c = DatabaseConnection.getDataSource().getConnection()) {
+            long reserved = a.count(c, "SELECT COUNT(*) FROM seats WHERE event_id = ? AND status = 'RESERVED'",
+                    eventId);
+            long held = a.count(c, "SELECT COUNT(*) FROM seats WHERE event_id = ? AND status = 'SELECTED'",
+                    eventId);
+            long available = a.count(c, "SELECT COUNT(*) FROM seats WHERE event_id = ? AND status = 'AVAILABLE'",
+                    eventId);
+            long counter = a.count(c,
+                    "SELECT COALESCE(MAX(available), -1) FROM event_availability WHERE event_id = ?", eventId);
+            long ordered = a.count(c, "SELECT COUNT(*) FROM order_items WHERE event_id = ?", eventId);
+            long orders = a.count(c, "SELECT COUNT(DISTINCT order_id) FROM order_items WHERE event_id = ?",
+                    eventId);
+            long doubleSold = a.count(c, """
+                SELECT COUNT(*) FROM (
+                  SELECT row_label, seat_number FROM order_items WHERE event_id = ?
+                   GROUP BY row_label, seat_number HAVING COUNT(*) > 1) d
+                """, eventId);
+            long orderedNotReserved = a.count(c, """
+                SELECT COUNT(*) FROM order_items oi
+                  JOIN seats s ON s.event_id = oi.event_id AND s.row_label = oi.row_label
+                              AND s.seat_number = oi.seat_number
+                 WHERE oi.event_id = ? AND s.status <> 'RESERVED'
+                """, eventId);
+
+            a.facts.add("seats: " + reserved + " reserved, " + held + " held, " + available + " available");
+            a.facts.add("orders: " + orders + " with " + ordered + " seats");
+            a.expect(doubleSold == 0, doubleSold + " seats were sold more than once");
+            a.expect(orderedNotReserved == 0, orderedNotReserved + " ordered seats are not reserved");
+            a.expect(reserved == ordered, reserved + " reserved seats but " + ordered + " ordered seats");
+            a.expect(held == 0, held + " seats are still held");
+            a.expect(counter == available,
+                    "availability counter says " + counter + ", " + available + " seats are available");
+            a.expect(orders == stats.orders.sum(),
+                    "buyers made " + stats.orders.sum() + " orders, database has " + orders);
+            a.expect(ordered == stats.seatsSold.sum(),
+                    "buyers sold " + stats.seatsSold.sum() + " seats, database has " + ordered);
+        }
+        return a;
+    }
+
+    private long count(Connection c, String sql, String eventId) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private void expect(boolean ok, String problem) {
+        if (!ok) problems.add(problem);
+    }
+
+    //Getters
+    boolean isConsistent() { return problems.isEmpty(); }
+    List<String> getProblems() { return problems; }
+    List<String> getFacts() { return facts; }
+}
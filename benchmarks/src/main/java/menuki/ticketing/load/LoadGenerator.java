@@ -0,0 +1,142 @@
+package menuki.ticketing.load;
+
+import menuki.ticketing.data.jdbc.DatabaseConnection;
+import menuki.ticketing.data.jdbc.JdbcOrderDao;
+import menuki.ticketing.data.jdbc.JdbcOrderItemDao;
+import menuki.ticketing.data.jdbc.SnowflakeIdGenerator;
+import menuki.ticketing.data.metrics.DaoMetrics;
+import menuki.ticketing.data.metrics.MeteredOrderDao;
+import menuki.ticketing.data.metrics.MeteredOrderItemDao;
+import menuki.ticketing.data.metrics.MethodMetrics;
+import menuki.ticketing.jmh.BenchDb;
+import menuki.ticketing.jmh.Venue;
+import menuki.ticketing.metrics.LatencyHistogram;
+import menuki.ticketing.service.InventorySeatService;
+import menuki.ticketing.service.JdbcOrderService;
+import menuki.ticketing.service.JdbcSeatService;
+import menuki.ticketing.service.OrderService;
+import menuki.ticketing.service.SeatService;
+import menuki.ticketing.service.inventory.SeatInventoryEngine;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless load test of the booking flow: thousands of virtual buyers, one virtual thread each, fight
+ * over the seats of one event through SeatService and OrderService, the same calls the booking screen
+ * makes, with no UI and no network in between.
+ * All buyers start at the same moment (an on-sale rush). When they are done it prints the latency of
+ * each step, how often buyers lost seats to each other, the order rate, and then checks that the seats
+ * and orders in the database add up.
+ * Runs against in-memory H2 by default, or MySQL with -Dbench.db.url. Exits with 1 if the check fails.
+ */
+public final class LoadGenerator {
+
+    private static final String EVENT_ID = "LOAD-EVENT";
+
+    private LoadGenerator() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        Venue venue = Venue.parse(options.venue);
+
+        BenchDb.open("load", options.poolSize);
+        BenchDb.seedEvent(EVENT_ID, venue);
+        createBuyers(options.buyers);
+
+        SeatService seatService = options.service.equals("jdbc")
+                ? new JdbcSeatService()
+                : new InventorySeatService(new JdbcSeatService(), SeatInventoryEngine.shared());
+        // A fixed node id, so no node lease is needed
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(() -> 1, System::currentTimeMillis);
+        OrderService orderService = new JdbcOrderService(
+                new MeteredOrderDao(new JdbcOrderDao(new MeteredOrderItemDao(new JdbcOrderItemDao(ids)), ids)));
+
+        System.out.println("[LOAD] " + options.buyers + " buyers, " + venue.size() + " seats (" + options.venue
+                + "), " + options.service + " seat service, pool " + options.poolSize);
+        for (Script s : options.scripts) System.out.println("[LOAD]   script " + s);
+
+        LoadStats stats = new LoadStats();
+        CountDownLatch start = new CountDownLatch(1);
+        long elapsedNanos;
+        try (ExecutorService buyers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int n = 0; n < options.buyers; n++) {
+                Buyer buyer = new Buyer(username(n), EVENT_ID, Script.pick(options.scripts, n), seatService,
+                        orderService, stats, options);
+                buyers.submit(() -> {
+                    start.await();
+                    buyer.run();
+                    return null;
+                });
+            }
+            long began = System.nanoTime();
+            start.countDown();
+            buyers.shutdown();
+            while (!buyers.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.out.println("[LOAD] " + stats.finished.sum() + "/" + options.buyers + " buyers done");
+            }
+            elapsedNanos = System.nanoTime() - began;
+        }
+
+        // Let the write-behind queue reach the database before looking at it
+        if (options.service.equals("inventory")) SeatInventoryEngine.shutdownShared();
+
+        report(stats, elapsedNanos, options);
+        InventoryAudit audit = InventoryAudit.run(EVENT_ID, stats);
+        for (String fact : audit.getFacts()) System.out.println("[LOAD] " + fact);
+        if (audit.isConsistent()) {
+            System.out.println("[LOAD] inventory consistent");
+        } else {
+            for (String p : audit.getProblems()) System.out.println("[LOAD] INCONSISTENT: " + p);
+        }
+        BenchDb.close();
+        System.exit(audit.isConsistent() ? 0 : 1);
+    }
+
+    private static String username(int n) {
+        return "buyer-" + n;
+    }
+
+    /*
+     * One user row per buyer (orders reference users), in batches
+     */
+    private static void createBuyers(int count) throws Exception {
+        try (Connection c = DatabaseConnection.getDataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "INSERT INTO users(username, password, role) VALUES (?, 'load', 'USER')")) {
+            c.setAutoCommit(false);
+            for (int n = 0; n < count; n++) {
+                ps.setString(1, username(n));
+                ps.addBatch();
+                if (n % 500 == 499) ps.executeBatch();
+            }
+            ps.executeBatch();
+            c.commit();
+            c.setAutoCommit(true);
+        }
+    }
+
+    private static void report(LoadStats stats, long elapsedNanos, LoadOptions options) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.println();
+        System.out.printf("[LOAD] %d buyers in %.2fs%n", options.buyers, seconds);
+        for (Script.Step step : Script.Step.values()) {
+            LatencyHistogram.Snapshot s = stats.latency(step);
+            if (s.getCount() > 0) System.out.printf("[LOAD]   %-8s %s%n", step.name().toLowerCase(), s);
+        }
+        System.out.printf("[LOAD] claims %d, conflicts %d (%.1f%%), gave up %d, sold out %d, lost holds %d%n",
+                stats.claimAttempts.sum(), stats.conflicts.sum(), stats.conflictRate() * 100,
+                stats.gaveUp.sum(), stats.soldOut.sum(), stats.lostHolds.sum());
+        System.out.printf("[LOAD] orders %d (%.1f/s), seats sold %d, abandoned %d, errors %d%n",
+                stats.orders.sum(), stats.orders.sum() / seconds, stats.seatsSold.sum(),
+                stats.abandoned.sum(), stats.errors.sum());
+        System.out.println("[LOAD] " + DatabaseConnection.poolStats());
+        // What the run cost at the DAO level
+        for (MethodMetrics.Snapshot m : DaoMetrics.snapshot()) {
+            if (m.getCalls() > 0) System.out.println("[LOAD]   " + m);
+        }
+    }
+}
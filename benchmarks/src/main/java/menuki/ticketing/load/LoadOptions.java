@@ -0,0 +1,72 @@
+package menuki.ticketing.load;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line of the load generator, as --name=value pairs. Anything not given keeps its default.
+ */
+final class LoadOptions {
+
+    int buyers = 2000;
+    String venue = "40x50";
+    int minSeats = 1;
+    int maxSeats = 4;
+    int retries = 3;
+    long thinkMillis = 50;
+    int poolSize = 16;
+    // "inventory" for the in-memory engine the app uses, "jdbc" for the plain JDBC service
+    String service = "inventory";
+    List<Script> scripts = new ArrayList<>();
+
+    static LoadOptions parse(String[] args) {
+        LoadOptions o = new LoadOptions();
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                usage();
+                System.exit(0);
+            }
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) throw new IllegalArgumentException("Unknown argument: " + arg);
+            String value = arg.substring(eq + 1);
+            switch (arg.substring(2, eq)) {
+                case "buyers" -> o.buyers = Integer.parseInt(value);
+                case "venue" -> o.venue = value;
+                case "seats" -> {
+                    int dash = value.indexOf('-');
+                    o.minSeats = Integer.parseInt(dash < 0 ? value : value.substring(0, dash));
+                    o.maxSeats = Integer.parseInt(dash < 0 ? value : value.substring(dash + 1));
+                }
+                case "retries" -> o.retries = Integer.parseInt(value);
+                case "think" -> o.thinkMillis = Long.parseLong(value);
+                case "pool" -> o.poolSize = Integer.parseInt(value);
+                case "service" -> o.service = value;
+                case "script" -> o.scripts.add(Script.parse(value));
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (o.minSeats < 1 || o.maxSeats < o.minSeats) {
+            throw new IllegalArgumentException("--seats must be a range like 1-4");
+        }
+        if (!o.service.equals("inventory") && !o.service.equals("jdbc")) {
+            throw new IllegalArgumentException("--service must be inventory or jdbc");
+        }
+        if (o.scripts.isEmpty()) o.scripts.addAll(Script.defaults());
+        return o;
+    }
+
+    static void usage() {
+        System.out.println("""
+            java -cp target/benchmarks.jar menuki.ticketing.load.LoadGenerator [options]
+              --buyers=2000        virtual buyers, one virtual thread each, all started at once
+              --venue=40x50        rows x seats per row of the event they fight over
+              --seats=1-4          seats each buyer wants (picked at random in the range)
+              --retries=3          new attempts after losing seats to another buyer
+              --think=50           longest think pause in ms
+              --pool=16            database connections
+              --service=inventory  inventory (in-memory engine, as in the app) or jdbc
+              --script=name=weight:step,...   repeatable; steps are browse, think, select, hold,
+                                   reserve, checkout and abandon
+            -Dbench.db.url/user/password run it against MySQL instead of in-memory H2.""");
+    }
+}
@@ -0,0 +1,47 @@
+package menuki.ticketing.load;
+
+import menuki.ticketing.metrics.LatencyHistogram;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters shared by all the buyers of a run: a latency histogram per step, and how the attempts ended.
+ * Everything is lock-free, so recording does not make the buyers wait for each other.
+ */
+final class LoadStats {
+
+    private final Map<Script.Step, LatencyHistogram> latencies = new EnumMap<>(Script.Step.class);
+
+    // Hold and reserve attempts, and those that lost a seat to another buyer
+    final LongAdder claimAttempts = new LongAdder();
+    final LongAdder conflicts = new LongAdder();
+    // Buyers that ran out of retries, and those that found too few seats left
+    final LongAdder gaveUp = new LongAdder();
+    final LongAdder soldOut = new LongAdder();
+    // Checkouts whose holds were gone by the time they confirmed
+    final LongAdder lostHolds = new LongAdder();
+    final LongAdder orders = new LongAdder();
+    final LongAdder seatsSold = new LongAdder();
+    final LongAdder abandoned = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final LongAdder finished = new LongAdder();
+
+    //Constructor
+    LoadStats() {
+        for (Script.Step s : Script.Step.values()) latencies.put(s, new LatencyHistogram());
+    }
+
+    void record(Script.Step step, long startNanos) {
+        latencies.get(step).recordSince(startNanos);
+    }
+
+    LatencyHistogram.Snapshot latency(Script.Step step) {
+        return latencies.get(step).snapshot();
+    }
+
+    double conflictRate() {
+        long attempts = claimAttempts.sum();
+        return attempts == 0 ? 0 : (double) conflicts.sum() / attempts;
+    }
+}
@@ -0,0 +1,95 @@
+package menuki.ticketing.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * What one kind of virtual buyer does, as a list of steps run in order, with a weight that decides how
+ * many of the buyers follow it.
+ * Written on the command line as name=weight:step,step,... for example buy=6:browse,think,select,hold,checkout
+ */
+final class Script {
+
+    enum Step {
+        // Load the seat map of the event
+        BROWSE,
+        // Pause for a random part of the think time (not measured)
+        THINK,
+        // Pick seats among the available ones of the last seat map
+        SELECT,
+        // Hold the picked seats; on a conflict browse, pick again and retry
+        HOLD,
+        // Reserve the picked seats straight away; on a conflict browse, pick again and retry
+        RESERVE,
+        // Confirm the holds (if any) and create the order
+        CHECKOUT,
+        // Release whatever was held or reserved
+        ABANDON
+    }
+
+    private final String name;
+    private final int weight;
+    private final List<Step> steps;
+
+    //Constructor
+    private Script(String name, int weight, List<Step> steps) {
+        this.name = name;
+        this.weight = weight;
+        this.steps = List.copyOf(steps);
+    }
+
+    static Script parse(String spec) {
+        int eq = spec.indexOf('=');
+        int colon = spec.indexOf(':', eq + 1);
+        if (eq <= 0 || colon < 0) {
+            throw new IllegalArgumentException("Script must look like name=weight:step,step: " + spec);
+        }
+        int weight = Integer.parseInt(spec.substring(eq + 1, colon).trim());
+        if (weight < 0) throw new IllegalArgumentException("Negative script weight: " + spec);
+        List<Step> steps = new ArrayList<>();
+        for (String s : spec.substring(colon + 1).split(",")) {
+            if (!s.isBlank()) steps.add(Step.valueOf(s.trim().toUpperCase(Locale.ROOT)));
+        }
+        if (steps.isEmpty()) throw new IllegalArgumentException("Script has no steps: " + spec);
+        return new Script(spec.substring(0, eq).trim(), weight, steps);
+    }
+
+    /*
+     * Scripts used when none are given: most buyers check out, some walk away from their holds, and some
+     * only look. "rush" skips the hold and reserves directly, like the old booking screen
+     */
+    static List<Script> defaults() {
+        return List.of(
+                parse("buy=6:browse,think,select,hold,think,checkout"),
+                parse("rush=2:browse,select,reserve,checkout"),
+                parse("abandon=1:browse,think,select,hold,think,abandon"),
+                parse("browse=1:browse,think,browse"));
+    }
+
+    /*
+     * Script of the n-th buyer, spread by weight so every run gets the same mix
+     */
+    static Script pick(List<Script> scripts, int n) {
+        int total = 0;
+        for (Script s : scripts) total += s.weight;
+        if (total == 0) return scripts.get(0);
+        int slot = Math.floorMod(n * 31, total);
+        for (Script s : scripts) {
+            if (slot < s.weight) return s;
+            slot -= s.weight;
+        }
+        return scripts.get(scripts.size() - 1);
+    }
+
+    //Getters
+    String getName() { return name; }
+    int getWeight() { return weight; }
+    List<Step> getSteps() { return steps; }
+
+    @Override
+    public String toString() {
+        List<String> names = steps.stream().map(s -> s.name().toLowerCase(Locale.ROOT)).toList();
+        return name + "=" + weight + ":" + String.join(",", names);
+    }
+}
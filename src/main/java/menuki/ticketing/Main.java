@@ -5,20 +5,58 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import menuki.ticketing.controller.FxIo;
 import menuki.ticketing.controller.LoginController;
+import menuki.ticketing.data.jdbc.DatabaseConnection;
 import menuki.ticketing.data.jdbc.DatabaseInitializer;
 import menuki.ticketing.data.jdbc.JdbcUserDao;   // needed
+import menuki.ticketing.data.jdbc.SnowflakeIdGenerator;
+import menuki.ticketing.data.cache.CachingEventDao;
+import menuki.ticketing.data.cache.CachingUserDao;
+import menuki.ticketing.data.metrics.DaoMetrics;
+import menuki.ticketing.data.metrics.DaoMetricsReporter;
+import menuki.ticketing.metrics.MetricsEndpoint;
+import menuki.ticketing.service.AvailabilityReconciler;
 import menuki.ticketing.service.LoginService;
+import menuki.ticketing.service.OrderCompensation;
+import menuki.ticketing.service.events.SeatChangePoller;
+import menuki.ticketing.service.inventory.SeatInventoryEngine;
+import java.util.concurrent.CompletableFuture;
 
 public class Main extends Application {
 
-    private static final LoginService LOGIN_SERVICE = new LoginService(new JdbcUserDao());
+    private static final LoginService LOGIN_SERVICE = new LoginService(CachingUserDao.shared());
     public static LoginService loginService() { return LOGIN_SERVICE; }
+
+    private AvailabilityReconciler reconciler;
+    private SeatChangePoller seatChangePoller;
+    private DaoMetricsReporter daoMetrics;
+    private MetricsEndpoint metricsEndpoint;
+    private Startup startup;
+
     @Override
     public void start(Stage stage) {
         try {
-            // Consider moving heavy DB work off the FX thread in a Task if it grows
-            DatabaseInitializer.initialize();
+            // Database work runs in the background while the login window is already up
+            startup = new Startup();
+            CompletableFuture<Void> schema = startup.step("schema", DatabaseInitializer::initialize);
+            // Warm-ups, so the first booking and the first dashboard do not pay for them. They only need the schema
+            CompletableFuture<Void> orderIds = startup.step("order ids", SnowflakeIdGenerator::shared, schema);
+            CompletableFuture<Void> events = startup.step("event cache", () -> CachingEventDao.shared().findAll(), schema);
+            startup.report(CompletableFuture.allOf(schema, orderIds, events));
+
+            // Fixes any drift in the per-event seat counters the dashboards read
+            reconciler = new AvailabilityReconciler();
+            reconciler.start(AvailabilityReconciler.DEFAULT_PERIOD);
+            // Brings seat changes made by other instances of the app to the open seat maps
+            seatChangePoller = new SeatChangePoller();
+            seatChangePoller.start(SeatChangePoller.DEFAULT_PERIOD);
+            // Orders whose seats the DB refuses after checkout are cancelled and the buyer is told
+            SeatInventoryEngine.shared().onRefusedClaim(OrderCompensation.shared());
+            // Prints DAO call counts and latencies for each interval that had any
+            daoMetrics = new DaoMetricsReporter();
+            daoMetrics.start(DaoMetricsReporter.DEFAULT_PERIOD);
+            metricsEndpoint = startMetricsEndpoint();
 
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/login.fxml"));
             Scene scene = new Scene(loader.load());
@@ -32,12 +70,21 @@ public class Main extends Application {
 //            controller.setLoginService(new LoginService(new JdbcUserDao()));
 
             controller.setLoginService(loginService());
+            // Logging in needs the users table
+            controller.setDatabaseReady(schema);
             // For tests/offline:
              // controller.setLoginService(new LoginService(new InMemoryUserDao()));
 
             stage.setTitle("Ticketing System - Login");
             stage.setScene(scene);
             stage.centerOnScreen();
+            scene.addPostLayoutPulseListener(new Runnable() {
+                @Override
+                public void run() {
+                    scene.removePostLayoutPulseListener(this);
+                    startup.firstFrame();
+                }
+            });
             stage.show();
         } catch (Exception e) {
             // Don’t swallow errors—fail fast with useful info
@@ -45,4 +92,40 @@ public class Main extends Application {
             throw new RuntimeException("App startup failed", e);
         }
     }
-}
\ No newline at end of file
+
+    /*
+     * Serves /metrics for Prometheus if db.properties has a metrics.port, on loopback unless metrics.host says
+     * otherwise. The app runs without it if the port cannot be opened
+     */
+    private static MetricsEndpoint startMetricsEndpoint() {
+        try {
+            String port = DatabaseConnection.setting(MetricsEndpoint.PORT_PROPERTY);
+            if (port == null || port.isBlank()) return null;
+            String host = DatabaseConnection.setting(MetricsEndpoint.HOST_PROPERTY);
+            return MetricsEndpoint.start(host, Integer.parseInt(port.trim()));
+        } catch (Exception e) {
+            System.err.println("[METRICS] endpoint not started: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void stop() {
+        // Write out pending seat changes, then close pooled DB connections on the way out
+        if (startup != null) startup.close();
+        if (reconciler != null) reconciler.close();
+        if (seatChangePoller != null) seatChangePoller.close();
+        if (daoMetrics != null) daoMetrics.close();
+        if (metricsEndpoint != null) metricsEndpoint.close();
+        // Lets a booking or save that is still running finish before the pool goes
+        FxIo.shutdownShared();
+        // Frees this instance's node id for order ids
+        SnowflakeIdGenerator.shutdownShared();
+        SeatInventoryEngine.shutdownShared();
+        if (DatabaseConnection.poolStats() != null) System.out.println(DatabaseConnection.poolStats());
+        CachingEventDao.shared().stats().forEach(System.out::println);
+        CachingUserDao.shared().stats().forEach(System.out::println);
+        DaoMetrics.snapshot().stream().filter(m -> m.getCalls() > 0).forEach(System.out::println);
+        DatabaseConnection.shutdown();
+    }
+}
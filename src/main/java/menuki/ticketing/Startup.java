@@ -0,0 +1,89 @@
+package menuki.ticketing;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the start-up work of the app off the FX thread, so the login window can show straight away.
+ * Each step starts as soon as the steps it depends on are done, so steps that do not depend on each other
+ * run at the same time. How long each step took, and how long the first frame took to appear, are printed
+ * as start-up metrics.
+ */
+public final class Startup implements AutoCloseable {
+
+    /**
+     * One piece of start-up work
+     */
+    @FunctionalInterface
+    public interface Step {
+        void run() throws Exception;
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final ExecutorService pool = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("startup-", 0).factory());
+    // Step name -> how long it ran, in the order the steps finished
+    private final Map<String, Long> stepMillis = Collections.synchronizedMap(new LinkedHashMap<>());
+    private volatile long firstFrameMillis = -1;
+
+    /*
+     * Runs the step once everything in after has completed. If one of those fails the step does not run and
+     * its future fails too
+     */
+    public CompletableFuture<Void> step(String name, Step work, CompletableFuture<?>... after) {
+        return CompletableFuture.allOf(after).thenRunAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                work.run();
+            } catch (Exception e) {
+                throw new CompletionException(new IllegalStateException("Start-up step '" + name + "' failed", e));
+            } finally {
+                stepMillis.put(name, (System.nanoTime() - start) / 1_000_000);
+            }
+        }, pool);
+    }
+
+    /*
+     * Called on the first pulse after the window is shown
+     */
+    public void firstFrame() {
+        if (firstFrameMillis >= 0) return;
+        firstFrameMillis = sinceStartMillis();
+        long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println("[STARTUP] first frame after " + firstFrameMillis + " ms (" + sinceJvmStart
+                + " ms since JVM start)");
+    }
+
+    /*
+     * Prints how long each step took, once all of them are done
+     */
+    public void report(CompletableFuture<?> all) {
+        all.whenComplete((v, e) -> {
+            StringBuilder sb = new StringBuilder("[STARTUP] ");
+            sb.append(e == null ? "ready" : "failed").append(" after ").append(sinceStartMillis()).append(" ms");
+            synchronized (stepMillis) {
+                stepMillis.forEach((name, ms) -> sb.append(", ").append(name).append(' ').append(ms).append(" ms"));
+            }
+            System.out.println(sb);
+        });
+    }
+
+    public long sinceStartMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    public long getFirstFrameMillis() { return firstFrameMillis; }
+
+    /*
+     * Steps that are still running finish; nothing new starts
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
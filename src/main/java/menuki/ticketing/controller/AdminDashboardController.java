@@ -12,13 +12,14 @@ import javafx.stage.Stage;
 import menuki.ticketing.model.Event;
 import java.time.LocalDate;
 import menuki.ticketing.data.dao.EventDao;
-import menuki.ticketing.data.jdbc.JdbcEventDao;
+import menuki.ticketing.data.cache.CachingEventDao;
 import menuki.ticketing.data.jdbc.JdbcOrderDao;
 import menuki.ticketing.data.dao.OrderDao;
+import menuki.ticketing.data.metrics.MeteredOrderDao;
+import menuki.ticketing.service.inventory.SeatInventoryEngine;
 import java.sql.SQLException;
 import java.time.LocalTime;
 import java.util.Map;
-import java.util.List;
 
 /**
  * This class is responsible for handling the admin dashboard and its functionalities.
@@ -41,8 +42,8 @@ public class AdminDashboardController extends BaseController {
     @FXML private TableColumn<Event, Number> colSeatsAvailable;
 
 
-    private final EventDao eventDao = new JdbcEventDao();
-    private final OrderDao orderDao = new JdbcOrderDao();
+    private final EventDao eventDao = CachingEventDao.shared();
+    private final OrderDao orderDao = new MeteredOrderDao(new JdbcOrderDao());
 
 
     /*
@@ -97,26 +98,29 @@ public class AdminDashboardController extends BaseController {
      * Used to get the most up-to-date table data
      */
     private void refreshEvents() {
-        try {
-            //Get all events
-            List<Event> list = eventDao.findAll();
-
-            //Extract the number of available seats per event
-            Map<String, Integer> availableByEvent = eventDao.countAvailableByEvent();
-
-            //Update seat availability in table
-            colSeatsAvailable.setCellValueFactory(c ->
-                    new javafx.beans.property.SimpleObjectProperty<>(
-                            availableByEvent.getOrDefault(c.getValue().getId(), 0)
-                    )
-            );
-            eventsTable.setItems(FXCollections.observableArrayList(list));
+        //Query off the FX thread; a newer refresh supersedes one still running
+        io.load("events",
+                () -> new EventListing(eventDao.findAll(), eventDao.countAvailableByEvent()),
+                this::showEvents,
+                ex -> {
+                    ex.printStackTrace();
+                    eventsTable.setItems(FXCollections.observableArrayList());
+                    new Alert(Alert.AlertType.ERROR, "Failed to load events: " + ex.getMessage()).showAndWait();
+                });
+    }
 
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            eventsTable.setItems(FXCollections.observableArrayList());
-            new Alert(Alert.AlertType.ERROR, "Failed to load events: " + ex.getMessage()).showAndWait();
-        }
+    /*
+     * Shows loaded events with their number of available seats
+     */
+    private void showEvents(EventListing listing) {
+        Map<String, Integer> availableByEvent = listing.getAvailableByEvent();
+        //Update seat availability in table
+        colSeatsAvailable.setCellValueFactory(c ->
+                new javafx.beans.property.SimpleObjectProperty<>(
+                        availableByEvent.getOrDefault(c.getValue().getId(), 0)
+                )
+        );
+        eventsTable.setItems(FXCollections.observableArrayList(listing.getEvents()));
     }
 
     /*
@@ -143,8 +147,9 @@ public class AdminDashboardController extends BaseController {
             //First delete the order items
             orderDao.deleteOrderItemsByEvent(eventId);
 
-            //Now delete the event
+            //Now delete the event and drop its in-memory seat inventory
             eventDao.deleteById(eventId);
+            SeatInventoryEngine.shared().evict(eventId);
             //Update table info
             refreshEvents();
 
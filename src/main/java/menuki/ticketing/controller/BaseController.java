@@ -10,10 +10,13 @@ import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.Node;
 import javafx.stage.Stage;
+import menuki.ticketing.model.Event;
 import menuki.ticketing.model.Session;
 import menuki.ticketing.service.LoginService;
-import menuki.ticketing.data.jdbc.JdbcUserDao;
+import menuki.ticketing.data.cache.CachingUserDao;
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /**
@@ -22,6 +25,9 @@ import java.util.function.Consumer;
  */
 public abstract class BaseController {
 
+    // Loads of this dashboard; closed when leaving it so late results are dropped
+    protected final FxIo.Scope io = FxIo.shared().scope();
+
     /*
      * Responsible for setting the welcome message label
      */
@@ -61,6 +67,7 @@ public abstract class BaseController {
         try {
             //Clear Session
             Session.clearSession();
+            io.close();
 
             //Go back to 'login' screen
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/login.fxml"));
@@ -68,7 +75,7 @@ public abstract class BaseController {
 
             Object ctrl = loader.getController();
             if (ctrl instanceof LoginController) {
-                ((LoginController) ctrl).setLoginService(new LoginService(new JdbcUserDao()));
+                ((LoginController) ctrl).setLoginService(new LoginService(CachingUserDao.shared()));
             }
 
             Stage stage = (Stage) ((Node) evt.getSource()).getScene().getWindow();
@@ -79,4 +86,21 @@ public abstract class BaseController {
             throw new RuntimeException("Failed to load login screen", e);
         }
     }
+
+    /*
+     * Events and their available seat counts, loaded together off the FX thread
+     */
+    protected static final class EventListing {
+        private final List<Event> events;
+        private final Map<String, Integer> availableByEvent;
+
+        //Constructor
+        protected EventListing(List<Event> events, Map<String, Integer> availableByEvent) {
+            this.events = events;
+            this.availableByEvent = availableByEvent;
+        }
+        //Getters
+        public List<Event> getEvents() { return events; }
+        public Map<String, Integer> getAvailableByEvent() { return availableByEvent; }
+    }
 }
@@ -11,9 +11,11 @@ import java.util.List;
 import menuki.ticketing.model.Event;
 import menuki.ticketing.model.Seat;
 import menuki.ticketing.data.jdbc.JdbcOrderDao;
+import menuki.ticketing.data.metrics.MeteredOrderDao;
 import menuki.ticketing.model.Session;
 import menuki.ticketing.service.JdbcOrderService;
 import menuki.ticketing.service.OrderService;
+import menuki.ticketing.service.SeatService;
 
 /**
  * Class that is the controller for checkouts and is directly linked to the checkout view
@@ -36,8 +38,11 @@ public class CheckoutController {
     private Event event;
     private List<Seat> seats = new ArrayList<>();
     private SeatMapController seatMapController;
+    private SeatService seatService;
 
-    private final OrderService orderService = new JdbcOrderService(new JdbcOrderDao());
+    private final OrderService orderService = new JdbcOrderService(new MeteredOrderDao(new JdbcOrderDao()));
+    // Runs the booking off the FX thread
+    private final FxIo.Scope io = FxIo.shared().scope();
 
 
     /*
@@ -47,6 +52,13 @@ public class CheckoutController {
         this.seatMapController = c;
     }
 
+    /*
+     * Sets the seat service used to turn the held seats into reservations
+     */
+    public void setSeatService(SeatService seatService) {
+        this.seatService = seatService;
+    }
+
 
     /*
      * This is automatically called on the controller after loading the FXML and injects the @FXML fields
@@ -56,6 +68,10 @@ public class CheckoutController {
         colSeatId.setCellValueFactory(new PropertyValueFactory<>("seatId"));
         colSeatType.setCellValueFactory(new PropertyValueFactory<>("type"));
         colPrice.setCellValueFactory(new PropertyValueFactory<>("priceAud"));
+        //The window is locked while the booking is being made so it cannot be confirmed twice or left half way
+        io.setOnBusy(busy -> {
+            if (seatsTable.getScene() != null) seatsTable.getScene().getRoot().setDisable(busy);
+        });
     }
 
     /*
@@ -116,40 +132,63 @@ public class CheckoutController {
      */
     @FXML
     private void onConfirm() {
-        try {
-            //If no seats have been booked, alert
-            if (event == null || seats == null || seats.isEmpty()) {
-                new Alert(Alert.AlertType.WARNING, "Nothing to confirm.").showAndWait();
-                return;
-            }
+        //If no seats have been booked, alert
+        if (event == null || seats == null || seats.isEmpty()) {
+            new Alert(Alert.AlertType.WARNING, "Nothing to confirm.").showAndWait();
+            return;
+        }
 
-            // For safety ensure user is logged in before continuing
-            String userId = Session.getCurrentUsername();
-            if (userId == null || userId.isBlank()) {
-                new Alert(Alert.AlertType.ERROR,
-                        "No logged-in user found. Please login before booking.").showAndWait();
+        // For safety ensure user is logged in before continuing
+        String userId = Session.getCurrentUsername();
+        if (userId == null || userId.isBlank()) {
+            new Alert(Alert.AlertType.ERROR,
+                    "No logged-in user found. Please login before booking.").showAndWait();
+            return;
+        }
+        if (io.isLoading("confirm")) return;
+
+        String eventId = event.getId();
+        List<Seat> booked = seats;
+        io.load("confirm", () -> book(eventId, booked, userId), orderId -> {
+            if (orderId == null) {
+                new Alert(Alert.AlertType.WARNING,
+                        "Your hold on some of these seats has expired. Please select them again.").showAndWait();
                 return;
             }
-
-            //making order and saving in DB via business logic in service layer
-
-            int orderId = orderService.createOrder(userId, event.getId(), seats);
-
             Alert ok = new Alert(Alert.AlertType.INFORMATION,
                     "Booking confirmed! Order #" + orderId, ButtonType.OK);
             ok.setHeaderText(null);
             ok.showAndWait();
-        } catch (Exception ex) {
+
+            Stage me = (Stage) seatsTable.getScene().getWindow();
+            me.close();
+
+            if (seatMapController != null) {
+                seatMapController.finishAfterConfirmed();
+            }
+        }, ex -> {
             ex.printStackTrace();
             new Alert(Alert.AlertType.ERROR, "Failed to create order: " + ex.getMessage()).showAndWait();
-            return;
-        }
+        });
+    }
 
-        Stage me = (Stage) seatsTable.getScene().getWindow();
-        me.close();
+    /*
+     * Turns the held seats into reservations and an order; null if a hold expired in the meantime.
+     * Runs off the FX thread
+     */
+    private Long book(String eventId, List<Seat> booked, String userId) {
+        long[] seatKeys = booked.stream().mapToLong(Seat::getKey).toArray();
+        if (seatService != null && !seatService.confirmHolds(eventId, seatKeys, userId)) {
+            return null;
+        }
 
-        if (seatMapController != null) {
-            seatMapController.finishAfterConfirmed();
+        //making order and saving in DB via business logic in service layer
+        try {
+            return orderService.createOrder(userId, eventId, booked);
+        } catch (RuntimeException e) {
+            //Do not keep the seats reserved if there is no order for them
+            if (seatService != null) seatService.releaseSeats(eventId, seatKeys);
+            throw e;
         }
     }
 
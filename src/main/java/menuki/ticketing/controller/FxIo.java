@@ -0,0 +1,240 @@
+package menuki.ticketing.controller;
+
+import javafx.application.Platform;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs the blocking calls of the controllers (JDBC through the DAOs and services) off the FX thread.
+ * Each call runs on its own virtual thread, so a slow database only parks cheap threads while the connection
+ * pool queues them; the result (or the error) is then handed to the FX thread.
+ * Controllers open a {@link Scope}: a newer load under the same key supersedes the older one, and closing the
+ * scope when the user navigates away cancels whatever is still in flight. A cancelled or superseded load never
+ * touches the UI. Calls that already started are left to finish rather than interrupted, since an interrupt
+ * would close the pooled connection under them.
+ */
+public final class FxIo implements AutoCloseable {
+
+    private static volatile FxIo shared;
+
+    private final ExecutorService io;
+    private final Executor ui;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    //Constructors
+    public FxIo() {
+        this(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fx-io-", 0).factory()), Platform::runLater);
+    }
+
+    public FxIo(ExecutorService io, Executor ui) {
+        this.io = io;
+        this.ui = ui;
+    }
+
+    /*
+     * The executor every controller uses
+     */
+    public static FxIo shared() {
+        FxIo s = shared;
+        if (s == null) {
+            synchronized (FxIo.class) {
+                s = shared;
+                if (s == null) shared = s = new FxIo();
+            }
+        }
+        return s;
+    }
+
+    /*
+     * Stops the shared executor on the way out, giving running calls a moment to finish
+     */
+    public static void shutdownShared() {
+        FxIo s;
+        synchronized (FxIo.class) {
+            s = shared;
+            shared = null;
+        }
+        if (s != null) s.close();
+    }
+
+    /*
+     * Opens a scope for one controller (or one screen of it)
+     */
+    public Scope scope() {
+        return new Scope();
+    }
+
+    /*
+     * Number of calls submitted and not yet handed back to the FX thread, across all scopes
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void close() {
+        io.shutdown();
+        try {
+            if (!io.awaitTermination(5, TimeUnit.SECONDS)) io.shutdownNow();
+        } catch (InterruptedException e) {
+            io.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A blocking call whose result is applied on the FX thread
+     */
+    @FunctionalInterface
+    public interface Query<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * The loads of one controller, keyed by what they load
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final Map<String, Load> current = new HashMap<>();
+        private Consumer<Boolean> onBusy = busy -> {};
+        private boolean closed;
+
+        private Scope() { }
+
+        /*
+         * Called on the FX thread with true when the first load of this scope starts and false when the last ends
+         */
+        public void setOnBusy(Consumer<Boolean> onBusy) {
+            this.onBusy = onBusy;
+        }
+
+        /*
+         * Runs the query off the FX thread, then onResult (or onError) on it, unless the load was cancelled or
+         * a newer load with the same key was started in the meantime
+         */
+        public <T> Load load(String key, Query<T> query, Consumer<? super T> onResult, Consumer<Throwable> onError) {
+            Load load = new Load(key);
+            boolean first;
+            synchronized (this) {
+                if (closed) {
+                    load.cancelled = true;
+                    return load;
+                }
+                Load previous = current.put(key, load);
+                if (previous != null) previous.cancelled = true;
+                first = previous == null && current.size() == 1;
+            }
+            if (first) ui.execute(() -> onBusy.accept(true));
+            inFlight.incrementAndGet();
+            Callable<Void> task = () -> {
+                T result = null;
+                Throwable error = null;
+                try {
+                    if (!load.cancelled) result = query.call();
+                } catch (Throwable t) {
+                    error = t;
+                }
+                T r = result;
+                Throwable e = error;
+                ui.execute(() -> finish(load, r, e, onResult, onError));
+                return null;
+            };
+            try {
+                io.submit(task);
+            } catch (RuntimeException rejected) {
+                // Shutting down: nothing will run, so nothing is applied
+                load.cancelled = true;
+                inFlight.decrementAndGet();
+                end(load);
+            }
+            return load;
+        }
+
+        /*
+         * Cancels the load with this key, if any
+         */
+        public void cancel(String key) {
+            Load load;
+            synchronized (this) {
+                load = current.get(key);
+            }
+            if (load != null) load.cancel();
+        }
+
+        /*
+         * True while a load with this key has not been applied yet
+         */
+        public synchronized boolean isLoading(String key) {
+            return current.containsKey(key);
+        }
+
+        /*
+         * True while any load of this scope has not been applied yet
+         */
+        public synchronized boolean isBusy() {
+            return !current.isEmpty();
+        }
+
+        /*
+         * Cancels everything in flight and refuses new loads, for when the user leaves the screen
+         */
+        @Override
+        public void close() {
+            Load[] loads;
+            synchronized (this) {
+                closed = true;
+                loads = current.values().toArray(new Load[0]);
+            }
+            for (Load load : loads) load.cancel();
+        }
+
+        private <T> void finish(Load load, T result, Throwable error, Consumer<? super T> onResult, Consumer<Throwable> onError) {
+            inFlight.decrementAndGet();
+            end(load);
+            if (load.cancelled) return;
+            if (error != null) onError.accept(error);
+            else onResult.accept(result);
+        }
+
+        /*
+         * Forgets a load that is done (or will never run) and reports the scope going idle
+         */
+        private void end(Load load) {
+            boolean idle;
+            synchronized (this) {
+                if (!current.remove(load.key, load)) return;
+                idle = current.isEmpty();
+            }
+            if (idle) ui.execute(() -> onBusy.accept(false));
+        }
+    }
+
+    /**
+     * Handle of one submitted load
+     */
+    public static final class Load {
+
+        private final String key;
+        private volatile boolean cancelled;
+
+        private Load(String key) {
+            this.key = key;
+        }
+
+        /*
+         * Drops the result; the query is skipped if it has not started yet
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() { return cancelled; }
+    }
+}
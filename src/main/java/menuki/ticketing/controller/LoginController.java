@@ -1,15 +1,19 @@
 package menuki.ticketing.controller;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import menuki.ticketing.model.User;
 import menuki.ticketing.service.LoginService;
 import menuki.ticketing.model.Session;
@@ -21,8 +25,12 @@ public class LoginController {
 
     @FXML private TextField usernameField;
     @FXML private PasswordField passwordField;
+    @FXML private Button loginButton;
+    @FXML private Label statusLabel;
 
     private LoginService loginService;
+    // Completes once the database can be used; null when it already could (e.g. after a logout)
+    private CompletableFuture<?> databaseReady;
 
     /*
      * Sets loginService which is injected from Main
@@ -31,6 +39,26 @@ public class LoginController {
         this.loginService = loginService;
     }
 
+    /*
+     * Keeps the login button disabled until the database is set up, which Main does in the background
+     */
+    public void setDatabaseReady(CompletableFuture<?> ready) {
+        this.databaseReady = ready;
+        if (ready.isDone() && !ready.isCompletedExceptionally()) return;
+        loginButton.setDisable(true);
+        statusLabel.setText("Preparing database…");
+        ready.whenComplete((v, e) -> Platform.runLater(() -> {
+            if (e == null) {
+                statusLabel.setText("");
+                loginButton.setDisable(false);
+            } else {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                statusLabel.setText("Database unavailable");
+                new Alert(Alert.AlertType.ERROR, "Database setup failed: " + cause.getMessage()).showAndWait();
+            }
+        }));
+    }
+
 //----------------------------------------------------------------------------------------------------------------------
     /*
      * Dashboard navigator is an interface that helps utilize polymorphism to identify which dashboard controller to use.
@@ -80,6 +108,7 @@ public class LoginController {
             alert("Internal error: service not initialized.");
             return;
         }
+        if (databaseReady != null && (!databaseReady.isDone() || databaseReady.isCompletedExceptionally())) return;
         // Get user entry for credentials
         String username = usernameField.getText();
         String password = passwordField.getText();
@@ -10,8 +10,9 @@ import java.util.ArrayList;
 import java.util.List;
 import menuki.ticketing.data.dao.EventDao;
 import menuki.ticketing.data.dao.SeatDao;
-import menuki.ticketing.data.jdbc.JdbcEventDao;
+import menuki.ticketing.data.cache.CachingEventDao;
 import menuki.ticketing.data.jdbc.JdbcSeatDao;
+import menuki.ticketing.data.metrics.MeteredSeatDao;
 import menuki.ticketing.model.Event;
 import menuki.ticketing.service.EventService;
 import menuki.ticketing.service.JdbcEventService;
@@ -32,12 +33,13 @@ public class NewEventController {
     @FXML private TextField      txtStdPrice;
 
 
-    private final EventDao eventDao = new JdbcEventDao();
-    private final SeatDao seatDao = new JdbcSeatDao();
+    private final EventDao eventDao = CachingEventDao.shared();
+    private final SeatDao seatDao = new MeteredSeatDao(new JdbcSeatDao());
 
     private final EventService eventService = new JdbcEventService(eventDao, seatDao);
     private final SeatService seatService = new JdbcSeatService(seatDao);
-
+    // Runs the save off the FX thread
+    private final FxIo.Scope io = FxIo.shared().scope();
 
 
     //Used when updating the events table after saving the new event
@@ -96,6 +98,8 @@ public class NewEventController {
      */
     @FXML
     private void handleSave() {
+        //Already saving
+        if (io.isLoading("save")) return;
         //Getting values of the input fields (trim when needed)
         String name   = txtName.getText() == null ? "" : txtName.getText().trim();
         LocalDate date = dpDate.getValue();
@@ -139,33 +143,20 @@ public class NewEventController {
         txtVipPrice.setDisable(true);
         txtStdPrice.setDisable(true);
 
-        // Background job (runs off the UI thread so the app doesn't freeze while saving)
-        javafx.concurrent.Task<Void> task = new javafx.concurrent.Task<Void>() {
-            @Override
-            protected Void call() throws Exception {
-
-
-                String eventId = eventService.generateNextEventId();
-                Event event = new Event(eventId, name, date, null, startTime, endTime, 0);
-
-                // Creating event and seating setup is covered by the service layer
-                eventService.createEventWithSeating(event, vipRows, vipCents, stdCents);
-                return null;
+        // Saving runs off the UI thread so the app doesn't freeze while saving
+        io.load("save", () -> {
+            String eventId = eventService.generateNextEventId();
+            Event event = new Event(eventId, name, date, null, startTime, endTime, 0);
 
-
-            }
-
-        };
-        // Attaching UI thread handlers for the background Task
-        task.setOnSucceeded(e -> {
+            // Creating event and seating setup is covered by the service layer
+            eventService.createEventWithSeating(event, vipRows, vipCents, stdCents);
+            return event;
+        }, saved -> {
             if (onSaved != null) onSaved.run();
             Stage s = (Stage) txtName.getScene().getWindow();
             s.close();
-        });
-
-        task.setOnFailed(e -> {
-            Throwable ex = task.getException();
-            new Alert(Alert.AlertType.ERROR, "Failed to save event: " + (ex != null ? ex.getMessage() : "")).showAndWait();
+        }, ex -> {
+            new Alert(Alert.AlertType.ERROR, "Failed to save event: " + ex.getMessage()).showAndWait();
             // Re-enable form so user can retry
             txtName.setDisable(false);
             dpDate.setDisable(false);
@@ -174,8 +165,6 @@ public class NewEventController {
             txtVipPrice.setDisable(false);
             txtStdPrice.setDisable(false);
         });
-        //Ensures we launch background task without freezing the UI
-        new Thread(task, "save-event-task").start();
     }
 
     /*
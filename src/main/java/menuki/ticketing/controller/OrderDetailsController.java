@@ -5,14 +5,11 @@ import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
-import java.sql.SQLException;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import menuki.ticketing.data.dao.EventDao;
 import menuki.ticketing.data.dao.OrderItemDao;
-import menuki.ticketing.model.Event;
-import menuki.ticketing.model.Order;
 import menuki.ticketing.model.OrderItem;
+import menuki.ticketing.model.OrderSummary;
 
 
 /**
@@ -40,17 +37,18 @@ public class OrderDetailsController {
 
     private final DateTimeFormatter dateFmt = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
-    private Order order;
+    private OrderSummary order;
     private OrderItemDao orderItemDao;
-    private EventDao eventDao;
+    // Loads of this window; closed when it is hidden
+    private final FxIo.Scope io = FxIo.shared().scope();
 
     /*
-     *This is called from OrdersController after FXML load.
+     *This is called from OrdersController after FXML load. The summary already carries the event, so only
+     *the seats are left to load
      */
-    public void initData(Order order, OrderItemDao orderItemDao, EventDao eventDao) {
+    public void initData(OrderSummary order, OrderItemDao orderItemDao) {
         this.order = order;
         this.orderItemDao = orderItemDao;
-        this.eventDao = eventDao;
         loadData();
     }
 
@@ -90,40 +88,41 @@ public class OrderDetailsController {
                         : (order.getUserId() == null ? "-" : order.getUserId())
         );
 
-        try {
-            // Load order items
-            List<OrderItem> items = orderItemDao.findByOrderId(order.getId());
-            itemsTable.setItems(FXCollections.observableArrayList(items));
-            //Add that no items message if there are no items resulting from event cancellation
-            lblNote.setVisible(items.isEmpty());
-
-            // Subtotal
-            int totalCents = items.stream().mapToInt(OrderItem::getPriceCents).sum();
-            lblSubtotal.setText(String.format("$%.2f", totalCents / 100.0));
-
-            // Event details
-            String eventId = items.isEmpty() ? null : items.get(0).getEventId();
-            if (eventId != null) {
-                Event ev = eventDao.findById(eventId);
-                if (ev != null) {
-                    eventTitle.setText(ev.getName());
-                    lblEvent.setText(ev.getName() + " (" + ev.getId() + ")");
-                    lblDate.setText(ev.getDate() != null ? dateFmt.format(ev.getDate()) : "-");
-                } else {
-                    eventTitle.setText(eventId);
-                    lblEvent.setText(eventId);
-                    lblDate.setText("-");
-                }
-            } else {
-                eventTitle.setText("Order Details");
-                lblEvent.setText("-");
-                lblDate.setText("-");
-            }
-
-        } catch (SQLException e) {
+        // Event details come with the summary
+        String eventId = order.getEventId();
+        if (order.getEventName() != null) {
+            eventTitle.setText(order.getEventName());
+            lblEvent.setText(order.getEventName() + " (" + eventId + ")");
+            lblDate.setText(order.getEventDate() != null ? dateFmt.format(order.getEventDate()) : "-");
+        } else if (eventId != null) {
+            eventTitle.setText(eventId);
+            lblEvent.setText(eventId);
+            lblDate.setText("-");
+        } else {
+            eventTitle.setText("Order Details");
+            lblEvent.setText("-");
+            lblDate.setText("-");
+        }
+
+        //The items are loaded off the FX thread, then shown on it
+        long orderId = order.getId();
+        io.load("details", () -> orderItemDao.findByOrderId(orderId), this::showItems, e -> {
             e.printStackTrace();
             new Alert(Alert.AlertType.ERROR, "Failed to load order details: " + e.getMessage()).showAndWait();
-        }
+        });
+    }
+
+    /*
+     * Fills in the items and subtotal of a loaded order
+     */
+    private void showItems(List<OrderItem> items) {
+        itemsTable.setItems(FXCollections.observableArrayList(items));
+        //Add that no items message if there are no items resulting from event cancellation
+        lblNote.setVisible(items.isEmpty());
+
+        // Subtotal
+        int totalCents = items.stream().mapToInt(OrderItem::getPriceCents).sum();
+        lblSubtotal.setText(String.format("$%.2f", totalCents / 100.0));
     }
 
     /*
@@ -142,4 +141,11 @@ public class OrderDetailsController {
         Stage s = (Stage) itemsTable.getScene().getWindow();
         s.close();
     }
+
+    /*
+     * Drops the loads still in flight; called when the window is hidden
+     */
+    public void close() {
+        io.close();
+    }
 }
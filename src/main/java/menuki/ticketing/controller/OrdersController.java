@@ -1,6 +1,9 @@
 package menuki.ticketing.controller;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -9,26 +12,41 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import javafx.beans.property.SimpleStringProperty;
-import menuki.ticketing.model.Order;
+import menuki.ticketing.model.OrderPage;
+import menuki.ticketing.model.OrderSummary;
 import menuki.ticketing.model.User;
 import menuki.ticketing.service.OrderService;
+import menuki.ticketing.data.jdbc.JdbcOrderItemDao;
+import menuki.ticketing.data.metrics.MeteredOrderItemDao;
 
 /**
  * This class is the controller for the order view, which shows all the orders of the current user.
+ * Orders are loaded a page at a time, newest first; the next page is loaded when the table is scrolled to the end.
  */
 public class OrdersController {
     // Table columns
-    @FXML private TableView<Order> ordersTable;
-    @FXML private TableColumn<Order, Integer> colId;
-    @FXML private TableColumn<Order, String>  colCreated;
-    @FXML private TableColumn<Order, Void>    colAction;
+    @FXML private TableView<OrderSummary> ordersTable;
+    @FXML private TableColumn<OrderSummary, Long>    colId;
+    @FXML private TableColumn<OrderSummary, String>  colCreated;
+    @FXML private TableColumn<OrderSummary, String>  colEvent;
+    @FXML private TableColumn<OrderSummary, Integer> colSeats;
+    @FXML private TableColumn<OrderSummary, String>  colTotal;
+    @FXML private TableColumn<OrderSummary, String>  colStatus;
+    @FXML private TableColumn<OrderSummary, Void>    colAction;
+    @FXML private Label statusLabel;
+
+    private static final int PAGE_SIZE = 50;
 
     private final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
     private User currentUser;
     private OrderService orderService;
+    // Loads of this window; closed when it is hidden
+    private final FxIo.Scope io = FxIo.shared().scope();
+    // Orders shown so far; the last one is where the next page starts
+    private final ObservableList<OrderSummary> rows = FXCollections.observableArrayList();
+    private boolean hasMore;
 
     /*
      * This is called by the dashboard when this view is opened
@@ -45,14 +63,31 @@ public class OrdersController {
      */
     @FXML
     private void initialize() {
+        ordersTable.setItems(rows);
         colId.setCellValueFactory(new PropertyValueFactory<>("id"));
 
         // CreatedAt (formatted)
         colCreated.setCellValueFactory(cell ->
                 new SimpleStringProperty(
-                        cell.getValue().getCreatedAt() == null
+                        cell.getValue().getBookedAt() == null
                                 ? ""
-                                : dtf.format(cell.getValue().getCreatedAt())
+                                : dtf.format(cell.getValue().getBookedAt())
+                )
+        );
+        // Event name, or a note if the event was deleted
+        colEvent.setCellValueFactory(cell ->
+                new SimpleStringProperty(
+                        cell.getValue().getEventName() != null ? cell.getValue().getEventName() : "(event removed)"
+                )
+        );
+        colSeats.setCellValueFactory(new PropertyValueFactory<>("seatCount"));
+        colTotal.setCellValueFactory(cell ->
+                new SimpleStringProperty(String.format("$%.2f", cell.getValue().getTotalCents() / 100.0))
+        );
+        // Cancelled orders say why
+        colStatus.setCellValueFactory(cell ->
+                new SimpleStringProperty(
+                        cell.getValue().isCancelled() ? "Cancelled: " + cell.getValue().getCancelReason() : "Confirmed"
                 )
         );
 
@@ -63,7 +98,7 @@ public class OrdersController {
             {
                 btn.getStyleClass().add("button");
                 btn.setOnAction(e -> {
-                    Order order = getTableView().getItems().get(getIndex());
+                    OrderSummary order = getTableView().getItems().get(getIndex());
                     onViewClicked(order);
                 });
             }
@@ -72,22 +107,63 @@ public class OrdersController {
                 setGraphic(empty ? null : btn);
             }
         });
+
+        // The scroll bars exist once the table has its skin
+        ordersTable.skinProperty().addListener((obs, old, skin) -> loadMoreAtEnd());
     }
 
     /*
-     * Used to populate the orders onto the screen
+     * Loads the next page whenever the table is scrolled to its end
+     */
+    private void loadMoreAtEnd() {
+        for (Node n : ordersTable.lookupAll(".scroll-bar")) {
+            if (n instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                bar.valueProperty().addListener((obs, old, value) -> {
+                    if (value.doubleValue() >= bar.getMax() - 0.01) loadNextPage();
+                });
+            }
+        }
+    }
+
+    /*
+     * Used to populate the orders onto the screen, starting again from the newest
      */
     private void loadData() {
         if (currentUser == null || orderService == null) return;
-        List<Order> rows = orderService.findByUser(currentUser.getUsername());
-        ordersTable.setItems(FXCollections.observableArrayList(rows));
+        rows.clear();
+        hasMore = true;
+        loadNextPage();
+    }
+
+    /*
+     * Loads the page after the last order shown, unless there is none or it is already loading
+     */
+    private void loadNextPage() {
+        if (!hasMore || io.isLoading("orders")) return;
+        String username = currentUser.getUsername();
+        OrderSummary after = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        ordersTable.setPlaceholder(new Label("Loading orders…"));
+        io.load("orders", () -> orderService.findPageByUser(username, after, PAGE_SIZE), this::showPage, ex -> {
+            ex.printStackTrace();
+            ordersTable.setPlaceholder(new Label("Failed to load orders"));
+            new Alert(Alert.AlertType.ERROR, "Failed to load orders: " + ex.getMessage()).showAndWait();
+        });
+    }
+
+    private void showPage(OrderPage page) {
+        rows.addAll(page.getOrders());
+        hasMore = page.hasMore();
+        ordersTable.setPlaceholder(new Label("No orders found"));
+        if (statusLabel != null) {
+            statusLabel.setText(hasMore ? rows.size() + " orders shown, scroll for more" : rows.size() + " orders");
+        }
     }
 
 
     /*
      * Defines functionality that will take place when the View button is clicked
      */
-    private void onViewClicked(Order order) {
+    private void onViewClicked(OrderSummary order) {
         try {
             //Loads the order_details view to view order specific details
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/order_details.fxml"));
@@ -96,17 +172,15 @@ public class OrdersController {
             // Get the controller
             OrderDetailsController controller = loader.getController();
 
-            // Initialize with order and DAOs
-            controller.initData(
-                    order,
-                    new menuki.ticketing.data.jdbc.JdbcOrderItemDao(),
-                    new menuki.ticketing.data.jdbc.JdbcEventDao()
-            );
+            // Initialize with the order summary; only its seats are left to load
+            controller.initData(order, new MeteredOrderItemDao(new JdbcOrderItemDao()));
 
             Stage stage = new Stage();
             stage.setTitle("Order #" + order.getId());
             stage.setScene(new Scene(root, 700, 520));
             stage.initOwner(ordersTable.getScene().getWindow());
+            //However the window is closed, loads still running for it are dropped
+            stage.setOnHidden(e -> controller.close());
             stage.show();
 
         } catch (Exception e) {
@@ -124,4 +198,11 @@ public class OrdersController {
         Stage stage = (Stage) ordersTable.getScene().getWindow();
         stage.close();
     }
+
+    /*
+     * Drops the loads still in flight; called when the window is hidden
+     */
+    public void close() {
+        io.close();
+    }
 }
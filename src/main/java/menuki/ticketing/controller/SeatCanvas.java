@@ -0,0 +1,275 @@
+package menuki.ticketing.controller;
+
+import javafx.application.Platform;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.model.SeatType;
+import menuki.ticketing.service.events.Coalescer;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Seat map drawn on a single Canvas, for venues too big for a Button per seat.
+ * Seats sit on a fixed grid of cells (rows centred like the button grid), so turning a pixel into a seat
+ * is a division and an array lookup. Only the cells inside the viewport are painted, and a seat change
+ * repaints just that seat's cell. Repaint requests are folded into one paint per frame.
+ * Mouse wheel zooms around the pointer, dragging pans, clicking a seat calls the click handler.
+ */
+public class SeatCanvas extends Region {
+
+    // World size of a seat cell (seat plus gap) at zoom 1
+    private static final double CELL_W = 44;
+    private static final double CELL_H = 44;
+    private static final double SEAT = 38;
+    private static final double MIN_ZOOM = 0.05;
+    private static final double MAX_ZOOM = 4;
+    // Below this many pixels per seat only the fill is worth drawing
+    private static final double DETAIL_PX = 14;
+    private static final double DRAG_SLOP = 4;
+
+    private static final Color BACKGROUND = Color.web("#fafafa");
+    private static final Color AVAILABLE = Color.WHITE;
+    private static final Color SELECTED = Color.web("#a0c4ff");
+    private static final Color TAKEN = Color.web("#c7c7c7");
+    private static final Color BORDER = Color.web("#999999");
+    private static final Color VIP_BORDER = Color.web("#f59e0b");
+    private static final Color TEXT = Color.web("#333333");
+
+    private final Canvas canvas = new Canvas();
+    private final Coalescer repaint = new Coalescer(Platform::runLater, this::paint);
+    // Seats to repaint on the next paint, unless everything is
+    private final BitSet dirtySeats = new BitSet();
+    private boolean dirtyAll = true;
+    // Fitting needs the final size, which is only known at the first layout
+    private boolean fitPending;
+
+    private SeatBlock seats;
+    private IntPredicate selected = i -> false;
+    private IntConsumer onSeatClicked = i -> {};
+    // First cell of each row, so shorter rows are centred
+    private int[] rowPad = new int[0];
+    private int columns;
+
+    // View: world position of the top left corner and pixels per world unit
+    private double panX;
+    private double panY;
+    private double zoom = 1;
+    private double pressX;
+    private double pressY;
+    private boolean dragged;
+
+    //Constructor
+    private SeatCanvas() {
+    }
+
+    /*
+     * A seat canvas with its mouse handling wired up. FXML creates it through here (fx:factory="create"),
+     * so no handler can see a half-built instance
+     */
+    public static SeatCanvas create() {
+        SeatCanvas seatCanvas = new SeatCanvas();
+        seatCanvas.wire();
+        return seatCanvas;
+    }
+
+    private void wire() {
+        getChildren().add(canvas);
+        setMinSize(0, 0);
+        setOnScroll(e -> {
+            zoomAt(e.getX(), e.getY(), Math.pow(1.0015, e.getDeltaY()));
+            e.consume();
+        });
+        setOnMousePressed(e -> {
+            pressX = e.getX();
+            pressY = e.getY();
+            dragged = false;
+        });
+        setOnMouseDragged(e -> {
+            double dx = e.getX() - pressX;
+            double dy = e.getY() - pressY;
+            if (!dragged && Math.abs(dx) < DRAG_SLOP && Math.abs(dy) < DRAG_SLOP) return;
+            dragged = true;
+            panX -= dx / zoom;
+            panY -= dy / zoom;
+            pressX = e.getX();
+            pressY = e.getY();
+            repaintAll();
+        });
+        setOnMouseClicked(e -> {
+            if (dragged || e.getButton() != MouseButton.PRIMARY) return;
+            int i = seatAt(e.getX(), e.getY());
+            if (i >= 0) onSeatClicked.accept(i);
+        });
+    }
+
+    /*
+     * Shows a new seat block, zoomed so the whole map fits
+     */
+    public void setSeats(SeatBlock seats) {
+        this.seats = seats;
+        columns = 0;
+        for (int r = 0; r < seats.rowCount(); r++) {
+            columns = Math.max(columns, seats.rowEnd(r) - seats.rowStart(r));
+        }
+        rowPad = new int[seats.rowCount()];
+        for (int r = 0; r < rowPad.length; r++) {
+            rowPad[r] = (columns - (seats.rowEnd(r) - seats.rowStart(r))) / 2;
+        }
+        if (getWidth() > 0 && getHeight() > 0) fitToView();
+        else fitPending = true;
+    }
+
+    public void setSelected(IntPredicate selected) { this.selected = selected; }
+    public void setOnSeatClicked(IntConsumer onSeatClicked) { this.onSeatClicked = onSeatClicked; }
+
+    /*
+     * Zooms and centres so every seat is visible (or to 1:1 if the map is smaller than the view)
+     */
+    public void fitToView() {
+        if (seats == null) return;
+        double w = Math.max(1, getWidth());
+        double h = Math.max(1, getHeight());
+        double worldW = columns * CELL_W;
+        double worldH = seats.rowCount() * CELL_H;
+        zoom = clamp(Math.min(1, Math.min(w / worldW, h / worldH)));
+        panX = (worldW - w / zoom) / 2;
+        panY = Math.min(0, (worldH - h / zoom) / 2);
+        repaintAll();
+    }
+
+    /*
+     * Seat index under a point of this node, or -1. Constant time: one cell division and a range check
+     */
+    public int seatAt(double x, double y) {
+        if (seats == null) return -1;
+        double wx = x / zoom + panX;
+        double wy = y / zoom + panY;
+        if (wx < 0 || wy < 0) return -1;
+        int col = (int) (wx / CELL_W);
+        int row = (int) (wy / CELL_H);
+        // The gap around a seat does not count as the seat
+        if (wx - col * CELL_W > SEAT || wy - row * CELL_H > SEAT) return -1;
+        if (row >= seats.rowCount()) return -1;
+        int k = col - rowPad[row];
+        if (k < 0 || k >= seats.rowEnd(row) - seats.rowStart(row)) return -1;
+        return seats.rowStart(row) + k;
+    }
+
+    /*
+     * Repaints one seat on the next frame (e.g. its status or selection changed)
+     */
+    public void repaintSeat(int index) {
+        dirtySeats.set(index);
+        repaint.signal();
+    }
+
+    /*
+     * Repaints the whole viewport on the next frame
+     */
+    public void repaintAll() {
+        dirtyAll = true;
+        repaint.signal();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double w = getWidth();
+        double h = getHeight();
+        if (canvas.getWidth() != w || canvas.getHeight() != h) {
+            canvas.setWidth(w);
+            canvas.setHeight(h);
+            repaintAll();
+        }
+        if (fitPending && w > 0 && h > 0) {
+            fitPending = false;
+            fitToView();
+        }
+    }
+
+    private void zoomAt(double x, double y, double factor) {
+        double next = clamp(zoom * factor);
+        // Keep the world point under the pointer where it is
+        panX += x / zoom - x / next;
+        panY += y / zoom - y / next;
+        zoom = next;
+        repaintAll();
+    }
+
+    private static double clamp(double z) {
+        return Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, z));
+    }
+
+    /*
+     * Paints what changed since the last frame: either the visible cells or just the dirty seats
+     */
+    private void paint() {
+        if (seats == null) return;
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        if (dirtyAll) {
+            dirtyAll = false;
+            dirtySeats.clear();
+            g.setFill(BACKGROUND);
+            g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+            int r0 = Math.max(0, (int) Math.floor(panY / CELL_H));
+            int r1 = Math.min(seats.rowCount() - 1, (int) Math.floor((panY + canvas.getHeight() / zoom) / CELL_H));
+            int c0 = (int) Math.floor(panX / CELL_W);
+            int c1 = (int) Math.floor((panX + canvas.getWidth() / zoom) / CELL_W);
+            for (int r = r0; r <= r1; r++) {
+                int first = seats.rowStart(r) + Math.max(0, c0 - rowPad[r]);
+                int last = seats.rowStart(r) + Math.min(seats.rowEnd(r) - seats.rowStart(r) - 1, c1 - rowPad[r]);
+                for (int i = first; i <= last; i++) paintSeat(g, i, r, true);
+            }
+        } else {
+            for (int i = dirtySeats.nextSetBit(0); i >= 0; i = dirtySeats.nextSetBit(i + 1)) {
+                paintSeat(g, i, seats.rowOf(i), false);
+            }
+            dirtySeats.clear();
+        }
+    }
+
+    /*
+     * Paints one seat cell. Off-screen seats are skipped; a repaint clears the cell first
+     */
+    private void paintSeat(GraphicsContext g, int i, int row, boolean fresh) {
+        int col = rowPad[row] + (i - seats.rowStart(row));
+        double x = (col * CELL_W - panX) * zoom;
+        double y = (row * CELL_H - panY) * zoom;
+        double size = SEAT * zoom;
+        if (x + size < 0 || y + size < 0 || x > canvas.getWidth() || y > canvas.getHeight()) return;
+        if (!fresh) {
+            g.setFill(BACKGROUND);
+            g.fillRect(x - 1, y - 1, size + 2, size + 2);
+        }
+
+        boolean available = seats.status(i) == SeatStatus.AVAILABLE;
+        g.setFill(!available ? TAKEN : selected.test(i) ? SELECTED : AVAILABLE);
+        boolean vip = seats.type(i) == SeatType.VIP;
+        if (size < DETAIL_PX) {
+            // Zoomed far out: a plain square, VIP seats in their border colour when free
+            if (vip && available && !selected.test(i)) g.setFill(VIP_BORDER);
+            g.fillRect(x, y, size, size);
+            return;
+        }
+        double arc = 6 * zoom;
+        g.fillRoundRect(x, y, size, size, arc, arc);
+        g.setStroke(vip ? VIP_BORDER : BORDER);
+        g.setLineWidth(vip ? 2 : 1);
+        g.strokeRoundRect(x + 0.5, y + 0.5, size - 1, size - 1, arc, arc);
+        if (size >= 2 * DETAIL_PX) {
+            g.setFill(TEXT);
+            g.setFont(Font.font(10 * zoom));
+            g.setTextAlign(TextAlignment.CENTER);
+            g.setTextBaseline(VPos.CENTER);
+            g.fillText(seats.displayId(i), x + size / 2, y + size / 2, size - 2);
+        }
+    }
+}
@@ -10,9 +10,17 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Region;
+import javafx.event.EventHandler;
 import javafx.stage.Stage;
+import javafx.stage.Window;
+import javafx.stage.WindowEvent;
 import menuki.ticketing.model.*;
 import menuki.ticketing.service.SeatService;
+import menuki.ticketing.service.events.Coalescer;
+import menuki.ticketing.service.events.SeatChangeBus;
+import javafx.application.Platform;
+import javafx.css.PseudoClass;
+import menuki.ticketing.service.inventory.SeatScoring;
 import javafx.scene.control.OverrunStyle;
 import java.text.NumberFormat;
 import java.time.LocalDate;
@@ -30,11 +38,14 @@ import java.util.List;
 public class SeatMapController {
 
     @FXML private GridPane seatGrid;
+    @FXML private ScrollPane seatScroll;
+    @FXML private SeatCanvas seatCanvas;
     @FXML private Label eventNameLabel;
     @FXML private Label seatLabel;
     @FXML private Label typeLabel;
     @FXML private Label priceLabel;
     @FXML private Button addToCartBtn;
+    @FXML private Spinner<Integer> bestCountSpinner;
     @FXML private ListView<String> cartList;
     @FXML private Label statusLabel;
 
@@ -46,11 +57,35 @@ public class SeatMapController {
     private LocalTime startTime;
     private LocalTime endTime;
 
+    // Venues bigger than this are drawn on the canvas instead of a Button per seat
+    private static final int CANVAS_THRESHOLD = Integer.getInteger("seatmap.canvasThreshold", 2000);
+    // Seat button states, styled by seat_map.css
+    private static final PseudoClass SELECTED = PseudoClass.getPseudoClass("selected");
+    private static final PseudoClass TAKEN = PseudoClass.getPseudoClass("taken");
+    // Key of the holds and releases that change the cart
+    private static final String CART = "cart";
+
     // UI state
-    private final Map<String, Button> seatButtons = new HashMap<>();
-    private final Map<String, Seat> seatById = new HashMap<>();
-    private final Set<String> selectedSeats = new LinkedHashSet<>();
-    private final List<String> cart = new ArrayList<>();
+    // Seats of the event in columnar form; buttons are indexed the same way
+    private SeatBlock seats;
+    private Button[] seatButtons = new Button[0];
+    private boolean onCanvas;
+    // Seats whose status or selection changed since they were last styled
+    private final BitSet dirtySeats = new BitSet();
+    // Seat version the map is showing; only seats changed after it are fetched to bring the map up to date
+    private long seatsVersion;
+    // Live updates: changes to this event, from this user or anyone else, patch the map once per frame
+    private final Coalescer liveSync = new Coalescer(Platform::runLater, this::syncSeats);
+    private SeatChangeBus.Subscription seatChanges;
+    // The window showing the map; closing it stops live updates like leaving the map does
+    private Window window;
+    private final EventHandler<WindowEvent> onWindowHidden = e -> stopLiveUpdates();
+    // Seat loads run off the FX thread; closed when leaving the map so late results are dropped
+    private final FxIo.Scope io = FxIo.shared().scope();
+    // A change arrived while the whole map was being loaded; caught up once it is shown
+    private boolean syncMissed;
+    private final SeatKeySet selectedSeats = new SeatKeySet();
+    private final SeatKeySet cart = new SeatKeySet();
 
     /*
      * Used for injecting the seatService (done from a different controller)
@@ -76,10 +111,34 @@ public class SeatMapController {
         this.endTime = endTime;
         //Update UI header
         if (eventNameLabel != null) eventNameLabel.setText(eventName);
-        //Build the seat map
+        //Build the seat map (it stays up to date from the version it loaded while it is open)
         renderGrid();
     }
 
+    /*
+     * Stops live updates and pending loads if the window is closed while the map is shown. The window is shared
+     * with the other screens, so the handler is added next to theirs and removed again when leaving the map
+     */
+    public void stopWhenHidden(Window window) {
+        this.window = window;
+        window.addEventHandler(WindowEvent.WINDOW_HIDDEN, onWindowHidden);
+    }
+
+    /*
+     * Stops live updates when leaving the seat map
+     */
+    private void stopLiveUpdates() {
+        if (seatChanges != null) {
+            seatChanges.close();
+            seatChanges = null;
+        }
+        if (window != null) {
+            window.removeEventHandler(WindowEvent.WINDOW_HIDDEN, onWindowHidden);
+            window = null;
+        }
+        io.close();
+    }
+
 
     /*
      * This is automatically called on the controller after loading the FXML and injects the @FXML fields
@@ -94,36 +153,64 @@ public class SeatMapController {
         }
         //Disable add to cart button as long as no items are added
         if (addToCartBtn != null) addToCartBtn.setDisable(true);
+        //Number of seats wanted together for best available
+        if (bestCountSpinner != null) {
+            bestCountSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 10, 2));
+        }
+        //Large venues are drawn on the canvas, which reports clicks by seat index like the buttons do
+        if (seatCanvas != null) {
+            seatCanvas.setSelected(i -> selectedSeats.contains(seats.key(i)));
+            seatCanvas.setOnSeatClicked(this::onSeatClicked);
+        }
 
     }
 
     /*
-     * Builds seat map for the selected event
+     * Loads the seats of the selected event off the FX thread, then builds the seat map
      */
     private void renderGrid() {
+        status("Loading seats…");
+        //Get the seats in columnar form: rows are contiguous and seats within a row are ordered left to right
+        io.load("grid", () -> seatService.loadSeatBlock(eventId), this::showSeats, ex -> {
+            ex.printStackTrace();
+            status("Failed to load seats: " + ex.getMessage());
+        });
+    }
+
+    /*
+     * Builds seat map from a loaded seat block
+     */
+    private void showSeats(SeatBlock loaded) {
         seatGrid.getChildren().clear();
-        seatButtons.clear();
-        seatById.clear();
         selectedSeats.clear();
+        dirtySeats.clear();
+
+        seats = loaded;
+        seatsVersion = seats.getVersion();
+        //Keep it up to date while it is open, starting right after the version just loaded
+        if (seatChanges != null) seatChanges.close();
+        seatChanges = SeatChangeBus.shared().subscribe(eventId, seatsVersion, change -> liveSync.signal());
+        if (syncMissed) {
+            syncMissed = false;
+            liveSync.signal();
+        }
+        onCanvas = seatCanvas != null && seats.size() > CANVAS_THRESHOLD;
+        showCanvas(onCanvas);
+        if (onCanvas) {
+            seatButtons = new Button[0];
+            seatCanvas.setSeats(seats);
+            status("Loaded " + seats.size() + " seats (scroll to zoom, drag to pan).");
+            return;
+        }
+        seatButtons = new Button[seats.size()];
 
-        //Get the seats grouped by row & flatten to a single list for UI prep
-        Map<String, List<Seat>> byRow = seatService.loadSeatsGroupedByRow(eventId);
-        List<Seat> seats = byRow.values().stream().flatMap(List::stream).toList();
-
-
-        //Store every seat in a map with the key being the display ID
-        seats.forEach(s -> seatById.put(s.getDisplayId(), s));
-
-
-
-        int maxWidth = byRow.values().stream().mapToInt(List::size).max().orElse(0);
-        int rowIndex = 0;
-        for (List<Seat> rowSeats : byRow.values()) {
-            //Seats within a row should be ordered smallest to largest (left to right)
-            rowSeats.sort(Comparator.comparingInt(Seat::getSeat_number));
-
+        int maxWidth = 0;
+        for (int r = 0; r < seats.rowCount(); r++) {
+            maxWidth = Math.max(maxWidth, seats.rowEnd(r) - seats.rowStart(r));
+        }
+        for (int r = 0; r < seats.rowCount(); r++) {
             // Padding to center the row
-            int pad = (maxWidth - rowSeats.size()) / 2;
+            int pad = (maxWidth - (seats.rowEnd(r) - seats.rowStart(r))) / 2;
 
             int colIndex = 0;
             //Adding left side blank to center shorter rows
@@ -131,30 +218,41 @@ public class SeatMapController {
                 Region spacer = new Region();
                 spacer.setMinSize(10, 10);
                 GridPane.setHalignment(spacer, HPos.CENTER);
-                seatGrid.add(spacer, colIndex++, rowIndex);
+                seatGrid.add(spacer, colIndex++, r);
             }
             // Display a button for each seat
-            for (Seat s : rowSeats) {
-                Button btn = makeSeatButton(s);
-                seatButtons.put(s.getDisplayId(), btn);
-                seatGrid.add(btn, colIndex++, rowIndex);
+            for (int i = seats.rowStart(r); i < seats.rowEnd(r); i++) {
+                Button btn = makeSeatButton(i);
+                seatButtons[i] = btn;
+                seatGrid.add(btn, colIndex++, r);
             }
-
-            rowIndex++;
         }
 
-        updateButtons();
         status("Loaded " + seats.size() + " seats.");
     }
 
 
 
+    /*
+     * Switches between the button grid and the canvas
+     */
+    private void showCanvas(boolean canvas) {
+        if (seatScroll != null) {
+            seatScroll.setVisible(!canvas);
+            seatScroll.setManaged(!canvas);
+        }
+        if (seatCanvas != null) {
+            seatCanvas.setVisible(canvas);
+            seatCanvas.setManaged(canvas);
+        }
+    }
+
     /*
      * Used to make a button for each seat
      */
-    private Button makeSeatButton(Seat s) {
+    private Button makeSeatButton(int i) {
 
-        Button btn = new Button(s.getDisplayId());
+        Button btn = new Button(seats.displayId(i));
         // Widen so the number fits
         btn.setPrefSize(52, 38);
         btn.setMinWidth(52);
@@ -162,41 +260,43 @@ public class SeatMapController {
 
         //If text to be displayed on seat is too long, just cut off extra characters
         btn.setTextOverrun(OverrunStyle.CLIP);
-        btn.setStyle(styleFor(s, false) + " -fx-font-size: 11px;");
+        btn.getStyleClass().add("seat");
+        if (seats.type(i) == SeatType.VIP) btn.getStyleClass().add("vip");
 
-        //Disable already reserved seats
-        btn.setDisable(s.getStatus() == SeatStatus.RESERVED);
+        //Disable seats that are already reserved or held
+        boolean taken = seats.status(i) != SeatStatus.AVAILABLE;
+        btn.pseudoClassStateChanged(TAKEN, taken);
+        btn.setDisable(taken);
         //If a seat is selected then call onSeatClicked
-        btn.setOnAction(e -> onSeatClicked(s));
+        btn.setOnAction(e -> onSeatClicked(i));
         return btn;
     }
 
     /*
      * Defines functionality that will take place when the seat is clicked
      */
-    private void onSeatClicked(Seat seat) {
-        //Cannot select reserved seats
-        if (seat.getStatus() == SeatStatus.RESERVED) return; // disabled
+    private void onSeatClicked(int i) {
+        //Cannot select reserved or held seats
+        if (seats.status(i) != SeatStatus.AVAILABLE) return; // disabled
 
         //Toggle (select /de-select seats)
-        String did = seat.getDisplayId();
-        if (selectedSeats.contains(did)) {
-            selectedSeats.remove(did);
-        } else {
-            selectedSeats.add(did);
+        long key = seats.key(i);
+        if (!selectedSeats.remove(key)) {
+            selectedSeats.add(key);
         }
-        showSeatDetails(seat);
+        dirtySeats.set(i);
+        showSeatDetails(i);
         updateButtons();
     }
 
     /*
      * Used to display details of a selected seat
      */
-    private void showSeatDetails(Seat seat) {
+    private void showSeatDetails(int i) {
         //Seat Info
-        seatLabel.setText(seat.getDisplayId());
-        typeLabel.setText(seat.getType().name());
-        priceLabel.setText(NumberFormat.getCurrencyInstance().format(seat.getPriceCents() / 100.0));
+        seatLabel.setText(seats.displayId(i));
+        typeLabel.setText(seats.type(i).name());
+        priceLabel.setText(NumberFormat.getCurrencyInstance().format(seats.priceCents(i) / 100.0));
 
         //Add to cart button should be disabled if no seats selected
         if (addToCartBtn != null) {
@@ -205,32 +305,92 @@ public class SeatMapController {
     }
 
     /*
-     *Adjust button styling and whether it is enabled/disabled based on seat status/type
+     * Restyles the seats whose status or selection changed since the last call; the rest are left alone
      */
     private void updateButtons() {
 
-        for (Seat s : seatById.values()) {
-            Button b = seatButtons.get(s.getDisplayId());
-            boolean isSelected = selectedSeats.contains(s.getDisplayId());
-            b.setStyle(styleFor(s, isSelected));
-            b.setDisable(s.getStatus() == SeatStatus.RESERVED);
+        for (int i = dirtySeats.nextSetBit(0); i >= 0; i = dirtySeats.nextSetBit(i + 1)) {
+            restyle(i);
         }
+        dirtySeats.clear();
         //Add to cart button should be disabled if no seats selected
         if (addToCartBtn != null) addToCartBtn.setDisable(selectedSeats.isEmpty());
     }
 
     /*
-     * Defines styling based on button type/status
+     * Brings the seat map up to date by fetching only the seats that changed since it was loaded and restyling
+     * their buttons. Selected seats someone else took are dropped from the selection.
+     * Falls back to rebuilding the grid if the layout itself changed (seats added or re-priced)
+     */
+    private void syncSeats() {
+        //One fetch at a time; changes arriving meanwhile are caught up by one more fetch once it is applied
+        if (io.isLoading("grid") || io.isLoading("sync")) {
+            syncMissed = true;
+            return;
+        }
+        if (seats == null) return;
+        SeatBlock base = seats;
+        long since = seatsVersion;
+        io.load("sync", () -> seatService.loadSeatChanges(eventId, since), changed -> applyChanges(base, changed), ex -> {
+            ex.printStackTrace();
+            status("Failed to refresh seats: " + ex.getMessage());
+        });
+    }
+
+    /*
+     * Patches the map with the seats fetched by syncSeats
+     */
+    private void applyChanges(SeatBlock base, SeatBlock changed) {
+        //The map was reloaded while fetching; its own version decides what is still missing
+        if (base != seats) {
+            liveSync.signal();
+            return;
+        }
+        for (int k = 0; k < changed.size(); k++) {
+            int i = seats.indexOf(changed.key(k));
+            if (i < 0 || changed.type(k) != seats.type(i) || changed.priceCents(k) != seats.priceCents(i)) {
+                renderGrid();
+                return;
+            }
+            seats.setStatus(i, changed.status(k));
+            if (changed.status(k) != SeatStatus.AVAILABLE) selectedSeats.remove(seats.key(i));
+            dirtySeats.set(i);
+        }
+        seatsVersion = changed.getVersion();
+        updateButtons();
+        if (syncMissed) {
+            syncMissed = false;
+            liveSync.signal();
+        }
+    }
+
+    /*
+     * Redraws one seat after its status or selection changed
      */
-    private String styleFor(Seat s, boolean isSelected) {
-        String base = "-fx-pref-width:38; -fx-pref-height:38; "
-                + "-fx-background-radius:6; -fx-border-radius:6; -fx-border-color:#999;";
-        String bg   = (s.getStatus() == SeatStatus.RESERVED)
-                ? "-fx-background-color:#c7c7c7; -fx-opacity:0.85;"
-                : isSelected ? "-fx-background-color:#a0c4ff;"
-                : "-fx-background-color:#ffffff;";
-        String vip  = (s.getType() == SeatType.VIP) ? " -fx-border-color:#f59e0b; -fx-border-width:2;" : "";
-        return base + " " + bg + vip;
+    private void restyle(int i) {
+        if (onCanvas) {
+            seatCanvas.repaintSeat(i);
+            return;
+        }
+        //Only pseudo-class flags change; the look of each state is precomputed by the stylesheet
+        Button b = seatButtons[i];
+        boolean taken = seats.status(i) != SeatStatus.AVAILABLE;
+        b.pseudoClassStateChanged(TAKEN, taken);
+        b.pseudoClassStateChanged(SELECTED, !taken && selectedSeats.contains(seats.key(i)));
+        b.setDisable(taken);
+    }
+
+    /*
+     * Drops the whole selection, marking the seats that were selected for restyling
+     */
+    private void clearSelection() {
+        for (long key : selectedSeats.toSortedArray()) markDirty(key);
+        selectedSeats.clear();
+    }
+
+    private void markDirty(long key) {
+        int i = seats.indexOf(key);
+        if (i >= 0) dirtySeats.set(i);
     }
 
     /*
@@ -239,34 +399,93 @@ public class SeatMapController {
     @FXML
     private void onAddToCart() {
         //If no seats are selected this cannot be done
-        if (selectedSeats.isEmpty()) return;
-        List<String> ids = new ArrayList<>(selectedSeats);
-        boolean ok = seatService.reserveSeats(eventId, ids);
+        if (selectedSeats.isEmpty() || cartBusy()) return;
+        long[] keys = selectedSeats.toSortedArray();
+        String username = Session.getCurrentUsername();
+        if (addToCartBtn != null) addToCartBtn.setDisable(true);
+        status("Holding " + SeatKey.join(keys) + "…");
+        //Seats are held for this user until checkout (or until the hold expires)
+        io.load(CART, () -> seatService.holdSeats(eventId, keys, username), ok -> {
+            //If not able to hold seats.
+            if (!ok) {
+                status("Some seats were already booked by someone else. Refreshing…");
+                updateButtons();
+                syncSeats();
+                return;
+            }
+            //Mark the seats as held in the local state
+            setStatus(keys, SeatStatus.SELECTED);
 
-        //If not able to reserve seats.
-        if (!ok) {
-            status("Some seats were already booked by someone else. Refreshing…");
-            selectedSeats.clear();
-            renderGrid();
-            return;
-        }
-        //Utilizing defined business logic to mark seats as reserved
-        seatService.markReserved(ids.stream().map(seatById::get).toList());
+            //Add selected seats to cart
+            for (long key : keys) cart.add(key);
+            refreshCartList();
 
-        //Add selected seats to cart
-        cart.addAll(ids);
-        cartList.getItems().setAll(cart);
+            //Update seat from selected to reserved
+            for (long key : keys) selectedSeats.remove(key);
+            updateButtons();
 
-        //Update seat from selected to reserved
-        selectedSeats.clear();
-        updateButtons();
+            status("Held for " + SeatHold.DEFAULT_TTL.toMinutes() + " minutes: " + SeatKey.join(keys));
+        }, ex -> cartFailed("hold seats", ex));
+    }
 
-        if (addToCartBtn != null) addToCartBtn.setDisable(true);
 
-        status("Booked: " + String.join(", ", ids));
+
+    /*
+     * Defines functionality that will take place when the Best Available button is clicked.
+     * The best block of seats together is picked and held in one step
+     */
+    @FXML
+    private void onBestAvailable() {
+        if (cartBusy()) return;
+        int quantity = bestCountSpinner != null ? bestCountSpinner.getValue() : 1;
+        String username = Session.getCurrentUsername();
+        status("Finding the best " + quantity + " seats…");
+        SeatScoring scoring = SeatScoring.defaults();
+        io.load(CART, () -> seatService.holdBestAvailable(eventId, quantity, scoring, username), keys -> {
+            //If there is no block of that size left
+            if (keys.length == 0) {
+                status("No " + quantity + " seats together are available. Refreshing…");
+                syncSeats();
+                return;
+            }
+            //Mark the seats as held in the local state
+            setStatus(keys, SeatStatus.SELECTED);
+            for (long key : keys) {
+                selectedSeats.remove(key);
+                cart.add(key);
+            }
+
+            refreshCartList();
+            updateButtons();
+            status("Held for " + SeatHold.DEFAULT_TTL.toMinutes() + " minutes: " + SeatKey.join(keys));
+        }, ex -> cartFailed("hold seats", ex));
     }
 
+    /*
+     * Holds and releases run off the FX thread one at a time. A running one is never superseded, since dropping
+     * its result would lose track of seats it already held; clicks meanwhile are ignored
+     */
+    private boolean cartBusy() {
+        if (!io.isLoading(CART)) return false;
+        status("Still updating your cart…");
+        return true;
+    }
 
+    private void cartFailed(String what, Throwable ex) {
+        ex.printStackTrace();
+        status("Failed to " + what + ": " + ex.getMessage());
+        updateButtons();
+    }
+
+    /*
+     * Shows the cart in seat order; display IDs are only built here
+     */
+    private void refreshCartList() {
+        long[] keys = cart.toSortedArray();
+        List<String> items = new ArrayList<>(keys.length);
+        for (long key : keys) items.add(SeatKey.displayId(key));
+        cartList.getItems().setAll(items);
+    }
 
     /*
      * Defines functionality that will take place when the Clear cart button is clicked
@@ -280,22 +499,61 @@ public class SeatMapController {
             return;
         }
 
+        if (cartBusy()) return;
         // Release these seats in DB
-        List<String> ids = new ArrayList<>(cart);
-        //Utilizing business logic from service layer to release seats and mark as available
-        seatService.releaseSeats(eventId, ids);
-        seatService.markAvailable(ids.stream().map(seatById::get).toList());
+        long[] keys = cart.toSortedArray();
+        status("Releasing " + SeatKey.join(keys) + "…");
+        //Utilizing business logic from service layer to release seats, then mark them as available locally
+        io.load(CART, () -> release(keys), released -> {
+            discardCart(released);
+            status("Cart cleared; seats released.");
+        }, ex -> cartFailed("release seats", ex));
+    }
 
-        cart.clear();
-        cartList.getItems().clear();
-        selectedSeats.clear();
+    private long[] release(long[] keys) {
+        seatService.releaseSeats(eventId, keys);
+        return keys;
+    }
+
+    /*
+     * Empties the cart after its seats were released
+     */
+    private void discardCart(long[] released) {
+        setStatus(released, SeatStatus.AVAILABLE);
+        for (long key : released) cart.remove(key);
+        refreshCartList();
+        clearSelection();
         updateButtons();
         //Disable add to cart button
         if (addToCartBtn != null) addToCartBtn.setDisable(true);
-        status("Cart cleared; seats released.");
     }
 
 
+    /*
+     * Seat objects for seat keys, only built for the seats that go to checkout
+     */
+    private List<Seat> seatsOf(long[] keys) {
+        List<Seat> out = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            int i = seats.indexOf(key);
+            if (i >= 0) out.add(seats.seat(i));
+        }
+        return out;
+    }
+
+    /*
+     * Updates the local status of seats (skipping any that are not on this map)
+     */
+    private void setStatus(long[] keys, SeatStatus status) {
+        for (long key : keys) {
+            int i = seats.indexOf(key);
+            if (i >= 0) {
+                seats.setStatus(i, status);
+                dirtySeats.set(i);
+            }
+        }
+    }
+
     /*
      * Used to update status label with the message passed (UI purposes)
      */
@@ -312,6 +570,7 @@ public class SeatMapController {
     @FXML
     private void onCheckout() {
         try {
+            if (cartBusy()) return;
             //If trying to check out with an empty cart
             if (cart == null || cart.isEmpty()) {
                 new Alert(Alert.AlertType.WARNING, "Your cart is empty. Please add seats first.").showAndWait();
@@ -332,15 +591,12 @@ public class SeatMapController {
             Event ev = new Event(this.eventId, this.eventName, this.date, this.venue, this.startTime, this.endTime, 0);
 
             //Turning cart seat IDs to seat objects
-            List<Seat> cartSeats = new ArrayList<>();
-            for (String did : cart) {
-                Seat s = seatById.get(did);
-                if (s != null) cartSeats.add(s);
-            }
+            List<Seat> cartSeats = seatsOf(cart.toSortedArray());
 
 
             ctrl.setData(ev, cartSeats);
             ctrl.setSeatMapController(this);
+            ctrl.setSeatService(seatService);
 
             // Show checkout window
             Stage dialog = new Stage();
@@ -362,6 +618,7 @@ public class SeatMapController {
     @FXML
     private void onBack() {
         try {
+            if (cartBusy()) return;
             // If cart has items, inform user and get a confirmation
             if (!cart.isEmpty()) {
                 Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
@@ -378,24 +635,31 @@ public class SeatMapController {
                     return;
                 }
 
-                // User confirmed, release seats in DB and also update the local state accordingly
-                List<String> ids = new ArrayList<>(cart);
-                try {
-                    seatService.releaseSeats(eventId, ids);
-                } catch (RuntimeException e) {
-                    e.printStackTrace();
-                }
-                //Utilizing business logic from service layer (to mark seats as available)
-                seatService.markAvailable(ids.stream().map(seatById::get).toList());
-
-                cart.clear();
-                cartList.getItems().clear();
-                selectedSeats.clear();
-                updateButtons();
-                status("Cart discarded; seats released.");
+                // User confirmed, release seats in DB and leave once that is done (held seats run out anyway)
+                long[] keys = cart.toSortedArray();
+                status("Releasing " + SeatKey.join(keys) + "…");
+                io.load(CART, () -> release(keys), released -> {
+                    discardCart(released);
+                    showDashboard();
+                }, ex -> {
+                    ex.printStackTrace();
+                    showDashboard();
+                });
+                return;
             }
+            showDashboard();
+        } catch (Exception e) {
+            e.printStackTrace();
+            new Alert(Alert.AlertType.ERROR, "Failed to go back: " + e.getMessage()).showAndWait();
+        }
+    }
 
-            // Return back to the user dashboard
+    /*
+     * Returns to the user dashboard
+     */
+    private void showDashboard() {
+        try {
+            stopLiveUpdates();
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/user_dashboard.fxml"));
             if (loader.getLocation() == null) {
                 throw new IllegalStateException("FXML not found: /views/user_dashboard.fxml");
@@ -425,6 +689,7 @@ public class SeatMapController {
             cart.clear();
             if (cartList != null) cartList.getItems().clear();
             selectedSeats.clear();
+            stopLiveUpdates();
 
             //Load user Dashboard
 
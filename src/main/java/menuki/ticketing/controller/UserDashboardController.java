@@ -1,5 +1,6 @@
 package menuki.ticketing.controller;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.Parent;
 import javafx.scene.control.*;
@@ -11,12 +12,15 @@ import menuki.ticketing.data.jdbc.JdbcOrderDao;
 import menuki.ticketing.data.jdbc.JdbcSeatDao;
 import menuki.ticketing.model.*;
 import menuki.ticketing.service.JdbcOrderService;
-import menuki.ticketing.service.JdbcSeatService;
+import menuki.ticketing.service.InventorySeatService;
+import menuki.ticketing.service.OrderCompensation;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import menuki.ticketing.data.dao.EventDao;
-import menuki.ticketing.data.jdbc.JdbcEventDao;
+import menuki.ticketing.data.cache.CachingEventDao;
+import menuki.ticketing.data.metrics.MeteredOrderDao;
+import menuki.ticketing.data.metrics.MeteredSeatDao;
 import menuki.ticketing.service.OrderService;
 import java.sql.SQLException;
 import java.time.LocalDate;
@@ -42,8 +46,8 @@ public class UserDashboardController extends BaseController {
     @FXML private TableColumn<Event, Number>     colSeats;
     @FXML private TableColumn<Event, Void>       colView;
 
-    private final EventDao eventDao = new JdbcEventDao();
-    private final SeatDao seatDao = new JdbcSeatDao();
+    private final EventDao eventDao = CachingEventDao.shared();
+    private final SeatDao seatDao = new MeteredSeatDao(new JdbcSeatDao());
     //Used for identifying available seats
     private final Map<String, Integer> availableByEvent = new HashMap<String, Integer>();
 
@@ -67,6 +71,18 @@ public class UserDashboardController extends BaseController {
 
         //Use to show up-to-date data in the table
         refreshEvents();
+        showNotices();
+    }
+
+    /*
+     * Tells the user about orders that had to be cancelled since the dashboard was last shown
+     */
+    private void showNotices() {
+        if (!Session.isLoggedIn()) return;
+        List<String> notices = OrderCompensation.shared().takeNotices(Session.getCurrentUsername());
+        if (notices.isEmpty()) return;
+        //Once the dashboard is on screen
+        Platform.runLater(() -> new Alert(Alert.AlertType.WARNING, String.join("\n", notices)).showAndWait());
     }
 
 
@@ -74,28 +90,31 @@ public class UserDashboardController extends BaseController {
      * Used to get the most up-to-date table data
      */
     private void refreshEvents() {
-        try {
-            //Get all events
+        if (statusLabel != null) statusLabel.setText("Loading events…");
+        //Query off the FX thread; seat counts are best effort, the events table still shows without them
+        io.load("events", () -> {
             List<Event> list = eventDao.findAll();
-
-            availableByEvent.clear();
+            Map<String, Integer> counts = new HashMap<String, Integer>();
             try {
-
-                availableByEvent.putAll(seatDao.countAvailableByEvent());
+                counts.putAll(seatDao.countAvailableByEvent());
             } catch (SQLException ignored) { }
+            return new EventListing(list, counts);
+        }, listing -> {
+            availableByEvent.clear();
+            availableByEvent.putAll(listing.getAvailableByEvent());
             //Populating the events table again
-            eventsTable.setItems(FXCollections.<Event>observableArrayList(list));
+            eventsTable.setItems(FXCollections.<Event>observableArrayList(listing.getEvents()));
             if (statusLabel != null) {
-                statusLabel.setText("Loaded events: " + list.size());
+                statusLabel.setText("Loaded events: " + listing.getEvents().size());
             }
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace();
             eventsTable.setItems(FXCollections.<Event>observableArrayList());
             if (statusLabel != null) {
                 statusLabel.setText("Failed to load events: " + ex.getMessage());
             }
             new Alert(Alert.AlertType.ERROR, "Failed to load events: " + ex.getMessage()).showAndWait();
-        }
+        });
     }
 
     /*
@@ -109,13 +128,16 @@ public class UserDashboardController extends BaseController {
 
             //Controller management
             SeatMapController ctrl = loader.getController();
-            ctrl.setSeatService(new JdbcSeatService());
+            ctrl.setSeatService(new InventorySeatService());
             ctrl.initForEvent(ev.getId(), ev.getName(), ev.getDate(), ev.getVenue(), ev.getStartTime(), ev.getEndTime());
 
+            //Leaving the dashboard: a refresh still running is of no use any more
+            io.close();
             Stage stage = (Stage) eventsTable.getScene().getWindow();
             stage.setTitle("Seating – " + ev.getName());
             stage.setScene(new Scene(root));
             stage.setMaximized(true);
+            ctrl.stopWhenHidden(stage);
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -136,7 +158,7 @@ public class UserDashboardController extends BaseController {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/orders.fxml"));
             Parent root = loader.load();
 
-            OrderService orderService = new JdbcOrderService(new JdbcOrderDao());
+            OrderService orderService = new JdbcOrderService(new MeteredOrderDao(new JdbcOrderDao()));
             // For safety ensuring that there is a proper logged-in user before displaying orders
             String uname = Session.getCurrentUsername();
             if (uname == null || uname.isBlank()) {
@@ -156,6 +178,8 @@ public class UserDashboardController extends BaseController {
             stage.setScene(new Scene(root));
             stage.setMaximized(true);
             stage.initOwner(eventsTable.getScene().getWindow());
+            //However the window is closed, loads still running for it are dropped
+            stage.setOnHidden(e -> ctrl.close());
             stage.show();
 
         } catch (Exception e) {
@@ -0,0 +1,62 @@
+package menuki.ticketing.data.cache;
+
+/**
+ * Snapshot of the counters of one LoadingCache
+ */
+public final class CacheStats {
+    private final String name;
+    private final int size;
+    private final int maxSize;
+    private final long hits;
+    private final long negativeHits;
+    private final long misses;
+    private final long loads;
+    private final long loadFailures;
+    private final long avgLoadNanos;
+    private final long maxLoadNanos;
+    private final long evictions;
+
+    //Constructor
+    public CacheStats(String name, int size, int maxSize, long hits, long negativeHits, long misses, long loads,
+                      long loadFailures, long avgLoadNanos, long maxLoadNanos, long evictions) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.negativeHits = negativeHits;
+        this.misses = misses;
+        this.loads = loads;
+        this.loadFailures = loadFailures;
+        this.avgLoadNanos = avgLoadNanos;
+        this.maxLoadNanos = maxLoadNanos;
+        this.evictions = evictions;
+    }
+
+    //Getters
+    public String getName() { return name; }
+    public int getSize() { return size; }
+    public int getMaxSize() { return maxSize; }
+    public long getHits() { return hits; }
+    public long getNegativeHits() { return negativeHits; }
+    public long getMisses() { return misses; }
+    public long getLoads() { return loads; }
+    public long getLoadFailures() { return loadFailures; }
+    public long getAvgLoadNanos() { return avgLoadNanos; }
+    public long getMaxLoadNanos() { return maxLoadNanos; }
+    public long getEvictions() { return evictions; }
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "Cache[" + name + "]{size=" + size + "/" + maxSize
+                + ", hits=" + hits + " (negative=" + negativeHits + "), misses=" + misses
+                + String.format(", hitRate=%.2f", hitRate())
+                + ", loads=" + loads + ", failures=" + loadFailures
+                + ", avgLoadUs=" + avgLoadNanos / 1000 + ", maxLoadUs=" + maxLoadNanos / 1000
+                + ", evictions=" + evictions + "}";
+    }
+}
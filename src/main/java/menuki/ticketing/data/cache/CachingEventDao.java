@@ -0,0 +1,103 @@
+package menuki.ticketing.data.cache;
+
+import menuki.ticketing.data.dao.EventDao;
+import menuki.ticketing.data.jdbc.JdbcEventDao;
+import menuki.ticketing.data.metrics.MeteredEventDao;
+import menuki.ticketing.model.Event;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EventDao decorator that caches event lookups and the event list, which are read far more often than
+ * events are added or deleted. Writes through this DAO invalidate what they touch; changes made elsewhere
+ * (another instance of the app) show up once the TTL runs out.
+ * Seat counts and existence checks are not cached: they change with every booking or guard an insert.
+ */
+public class CachingEventDao implements EventDao {
+
+    private static final int MAX_EVENTS = 1024;
+    private static final Duration TTL = Duration.ofSeconds(60);
+    private static final Duration NEGATIVE_TTL = Duration.ofSeconds(5);
+    private static final String ALL = "all";
+
+    private static final CachingEventDao SHARED = new CachingEventDao(new MeteredEventDao(new JdbcEventDao()));
+
+    private final EventDao delegate;
+    private final LoadingCache<String, Event> byId;
+    private final LoadingCache<String, List<Event>> all;
+
+    //Constructor
+    public CachingEventDao(EventDao delegate) {
+        this.delegate = delegate;
+        this.byId = new LoadingCache<>("events.byId", MAX_EVENTS, TTL, NEGATIVE_TTL);
+        this.all = new LoadingCache<>("events.all", 1, TTL, NEGATIVE_TTL);
+    }
+
+    /*
+     * The instance the controllers share, so they share its cache
+     */
+    public static CachingEventDao shared() {
+        return SHARED;
+    }
+
+    @Override
+    public void insert(Event event) throws SQLException {
+        try {
+            delegate.insert(event);
+        } finally {
+            invalidate(event.getId());
+        }
+    }
+
+    @Override
+    public Event findById(String id) throws SQLException {
+        return byId.get(id, delegate::findById);
+    }
+
+    /*
+     * Callers get their own copy of the cached list
+     */
+    @Override
+    public List<Event> findAll() throws SQLException {
+        return new ArrayList<>(all.get(ALL, key -> List.copyOf(delegate.findAll())));
+    }
+
+    @Override
+    public boolean existsById(String id) throws SQLException {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public boolean deleteById(String id) throws SQLException {
+        try {
+            return delegate.deleteById(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public Map<String, Integer> countAvailableByEvent() throws SQLException {
+        return delegate.countAvailableByEvent();
+    }
+
+    @Override
+    public String getNextEventId() throws SQLException {
+        return delegate.getNextEventId();
+    }
+
+    /*
+     * Forgets one event and the list it is part of
+     */
+    public void invalidate(String id) {
+        byId.invalidate(id);
+        all.invalidateAll();
+    }
+
+    public List<CacheStats> stats() {
+        return List.of(byId.stats(), all.stats());
+    }
+}
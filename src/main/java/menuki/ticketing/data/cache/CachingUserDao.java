@@ -0,0 +1,90 @@
+package menuki.ticketing.data.cache;
+
+import menuki.ticketing.data.dao.UserDao;
+import menuki.ticketing.data.jdbc.JdbcUserDao;
+import menuki.ticketing.data.metrics.MeteredUserDao;
+import menuki.ticketing.model.User;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * UserDao decorator that caches user lookups, so logging in does not query the users table every time.
+ * Unknown usernames are cached briefly as well. Inserts through this DAO invalidate the user; the existence
+ * check used before registering stays uncached.
+ */
+public class CachingUserDao implements UserDao {
+
+    private static final int MAX_USERS = 1024;
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final Duration NEGATIVE_TTL = Duration.ofSeconds(5);
+    private static final String ALL = "all";
+
+    private static final CachingUserDao SHARED = new CachingUserDao(new MeteredUserDao(new JdbcUserDao()));
+
+    private final UserDao delegate;
+    private final LoadingCache<String, User> byUsername;
+    private final LoadingCache<String, List<User>> all;
+
+    //Constructor
+    public CachingUserDao(UserDao delegate) {
+        this.delegate = delegate;
+        this.byUsername = new LoadingCache<>("users.byUsername", MAX_USERS, TTL, NEGATIVE_TTL);
+        this.all = new LoadingCache<>("users.all", 1, TTL, NEGATIVE_TTL);
+    }
+
+    /*
+     * The instance the login screens share, so they share its cache
+     */
+    public static CachingUserDao shared() {
+        return SHARED;
+    }
+
+    @Override
+    public User findByUsername(String username) {
+        try {
+            return byUsername.get(username, delegate::findByUsername);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding user by username: " + e.getMessage(), e);
+        }
+    }
+
+    /*
+     * Callers get their own copy of the cached list
+     */
+    @Override
+    public List<User> findAll() {
+        try {
+            return new ArrayList<>(all.get(ALL, key -> List.copyOf(delegate.findAll())));
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching users: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean existsByUsername(String username) throws SQLException {
+        return delegate.existsByUsername(username);
+    }
+
+    @Override
+    public void insert(User user) throws SQLException {
+        try {
+            delegate.insert(user);
+        } finally {
+            invalidate(user.getUsername());
+        }
+    }
+
+    /*
+     * Forgets one user and the list they are part of
+     */
+    public void invalidate(String username) {
+        byUsername.invalidate(username);
+        all.invalidateAll();
+    }
+
+    public List<CacheStats> stats() {
+        return List.of(byUsername.stats(), all.stats());
+    }
+}
@@ -0,0 +1,177 @@
+package menuki.ticketing.data.cache;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU cache in front of a DAO lookup.
+ * Entries live for a TTL; "not found" is cached too, for a shorter TTL, so lookups of missing rows do not
+ * hit the database every time. Concurrent misses on the same key share one load (single flight).
+ * Invalidating a key also makes a load of it that is still running not store its (possibly stale) result.
+ */
+public final class LoadingCache<K, V> {
+
+    /**
+     * The lookup being cached
+     */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier nanoClock;
+
+    // Access ordered, so the eldest entry is the least recently used; guarded by this
+    private final LinkedHashMap<K, Cached<V>> entries;
+    private final Map<K, CompletableFuture<V>> loading = new HashMap<>();
+
+    private long hits;
+    private long negativeHits;
+    private long misses;
+    private long loads;
+    private long loadFailures;
+    private long totalLoadNanos;
+    private long maxLoadNanos;
+    private long evictions;
+
+    //Constructors
+    public LoadingCache(String name, int maxSize, Duration ttl, Duration negativeTtl) {
+        this(name, maxSize, ttl, negativeTtl, System::nanoTime);
+    }
+
+    LoadingCache(String name, int maxSize, Duration ttl, Duration negativeTtl, LongSupplier nanoClock) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Cached<V>> eldest) {
+                if (size() <= LoadingCache.this.maxSize) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /*
+     * Cached value for the key (null if the row does not exist), loading it if it is missing or expired
+     */
+    public V get(K key, Loader<K, V> loader) throws SQLException {
+        CompletableFuture<V> flight;
+        boolean leader = false;
+        synchronized (this) {
+            Cached<V> e = entries.get(key);
+            if (e != null && e.expiresAt - nanoClock.getAsLong() > 0) {
+                hits++;
+                if (e.value == null) negativeHits++;
+                return e.value;
+            }
+            misses++;
+            flight = loading.get(key);
+            if (flight == null) {
+                flight = new CompletableFuture<>();
+                loading.put(key, flight);
+                leader = true;
+            }
+        }
+        if (leader) return load(key, loader, flight);
+        return await(flight);
+    }
+
+    /*
+     * Drops the key, e.g. after the row was inserted, changed or deleted
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        loading.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        loading.clear();
+    }
+
+    /*
+     * Snapshot of the counters
+     */
+    public synchronized CacheStats stats() {
+        long timed = loads + loadFailures;
+        return new CacheStats(name, entries.size(), maxSize, hits, negativeHits, misses, loads, loadFailures,
+                timed == 0 ? 0 : totalLoadNanos / timed, maxLoadNanos, evictions);
+    }
+
+    /*
+     * Runs the load for every caller waiting on this key and stores the result, unless the key was
+     * invalidated while loading
+     */
+    private V load(K key, Loader<K, V> loader, CompletableFuture<V> flight) throws SQLException {
+        long start = nanoClock.getAsLong();
+        try {
+            V value = loader.load(key);
+            long now = nanoClock.getAsLong();
+            synchronized (this) {
+                loads++;
+                recordLoadTime(now - start);
+                if (loading.get(key) == flight) {
+                    loading.remove(key);
+                    entries.put(key, new Cached<>(value, now + (value == null ? negativeTtlNanos : ttlNanos)));
+                }
+            }
+            flight.complete(value);
+            return value;
+        } catch (SQLException | RuntimeException | Error e) {
+            synchronized (this) {
+                loadFailures++;
+                recordLoadTime(nanoClock.getAsLong() - start);
+                if (loading.get(key) == flight) loading.remove(key);
+            }
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void recordLoadTime(long nanos) {
+        totalLoadNanos += nanos;
+        maxLoadNanos = Math.max(maxLoadNanos, nanos);
+    }
+
+    /*
+     * Waits for the load another caller is running; its failure is this caller's failure
+     */
+    private static <V> V await(CompletableFuture<V> flight) throws SQLException {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a cached load", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException se) throw se;
+            if (cause instanceof RuntimeException re) throw re;
+            throw new SQLException("Cached load failed", cause);
+        }
+    }
+
+    private static final class Cached<V> {
+        private final V value;
+        private final long expiresAt;
+
+        //Constructor
+        private Cached(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -10,8 +10,6 @@ import java.util.Map;
  */
 public interface EventDao {
 
-    void createTableIfNotExists() throws SQLException;
-
     void insert(Event event) throws SQLException;
 
     Event findById(String id) throws SQLException;
@@ -1,6 +1,8 @@
 package menuki.ticketing.data.dao;
 
 import menuki.ticketing.model.Order;
+import menuki.ticketing.model.OrderPage;
+import menuki.ticketing.model.OrderSummary;
 import menuki.ticketing.model.Seat;
 import java.sql.SQLException;
 import java.util.List;
@@ -11,12 +13,21 @@ import java.util.List;
  */
 public interface OrderDao {
 
-    void createTableIfNotExists() throws SQLException;
-
-    int createOrder(String userId, String eventId, List<Seat> seats) throws SQLException;
+    long createOrder(String userId, String eventId, List<Seat> seats) throws SQLException;
 
     List<Order> findByUser(String username) throws java.sql.SQLException;
 
+    /*
+     * Up to limit order summaries of the user, newest first, starting after the given order (null for the first page)
+     */
+    OrderPage findPageByUser(String username, OrderSummary after, int limit) throws SQLException;
+
+    /*
+     * Flags the user's confirmed orders that include any of the event's seats as cancelled. Returns their ids
+     */
+    List<Long> cancelOrdersWithSeats(String userId, String eventId, long[] seatKeys, String reason)
+            throws SQLException;
+
     int countItemsForEvent(String eventId) throws java.sql.SQLException;
 
     int deleteOrderItemsByEvent(String eventId) throws java.sql.SQLException;
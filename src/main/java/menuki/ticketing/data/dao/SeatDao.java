@@ -1,7 +1,10 @@
 package menuki.ticketing.data.dao;
 
 import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.model.SeatHold;
 import java.sql.SQLException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -11,19 +14,23 @@ import java.util.Map;
  */
 public interface SeatDao {
 
-    void createTableIfNotExists() throws SQLException;
-
     boolean hasAnyForEvent(String eventId) throws SQLException;
 
     List<Seat> findByEvent(String eventId) throws SQLException;
 
-    boolean reserveSeatsAtomic(String eventId, List<String> seatIds) throws SQLException;
+    SeatBlock findBlockByEvent(String eventId) throws SQLException;
+
+    SeatBlock findChangedSince(String eventId, long sinceVersion) throws SQLException;
+
+    long currentVersion(String eventId) throws SQLException;
 
-    void markReserved(String eventId, List<String> seatIds) throws SQLException;
+    boolean reserveSeatsAtomic(String eventId, long[] seatKeys) throws SQLException;
+
+    void markReserved(String eventId, long[] seatKeys) throws SQLException;
 
     void insertAll(String eventId, List<Seat> seats) throws SQLException;
 
-    void markAvailable(String eventId, List<String> seatIds) throws SQLException;
+    void markAvailable(String eventId, long[] seatKeys) throws SQLException;
 
     void createGrid(String eventId, String rows, int seatsPerRow) throws SQLException;
 
@@ -32,4 +39,18 @@ public interface SeatDao {
     void setStandardSeats(String eventId, List<String> excludedVipRows, int priceCents) throws SQLException;
 
     Map<String, Integer> countAvailableByEvent() throws SQLException;
+
+    int countAvailable(String eventId) throws SQLException;
+
+    int reconcileAvailability() throws SQLException;
+
+    boolean holdSeats(String eventId, long[] seatKeys, String holderId, Instant expiresAt) throws SQLException;
+
+    boolean confirmHolds(String eventId, long[] seatKeys, String holderId) throws SQLException;
+
+    int releaseHolds(String eventId, long[] seatKeys) throws SQLException;
+
+    int releaseExpiredHolds(String eventId, Instant now) throws SQLException;
+
+    List<SeatHold> findHolds(String eventId) throws SQLException;
 }
@@ -14,8 +14,6 @@ public interface UserDao {
 
     List<User> findAll();
 
-    void createTableIfNotExists() throws SQLException;
-
     boolean existsByUsername(String username) throws SQLException;
 
     void insert(User user) throws SQLException;
@@ -0,0 +1,465 @@
+package menuki.ticketing.data.jdbc;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Bounded JDBC connection pool used behind DatabaseConnection.
+ * Connections handed out are proxies, closing one returns the physical connection to the pool.
+ * Supports min/max size, idle eviction, validation on borrow, leak detection and borrow-wait metrics.
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+
+    /*
+     * Opens a new physical connection (normally DriverManager, replaced with stubs in tests)
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final Settings settings;
+
+    // Caps the number of connections that can be checked out at the same time
+    private final Semaphore permits;
+    // Idle connections, most recently used first so the hot ones stay warm
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger total = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // Metrics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+
+    //Constructor
+    public ConnectionPool(ConnectionFactory factory, Settings settings) {
+        this.factory = factory;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.getMaxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        // Fill up to the minimum in the background so the first borrow does not pay for every handshake
+        housekeeper.execute(this::fillToMinimum);
+        long period = settings.getHousekeepingPeriodMs();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /*
+     * Borrow a connection, waiting up to the borrow timeout for one to become free
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(settings.getBorrowTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.incrementAndGet();
+                throw new SQLTimeoutException("Timed out after " + settings.getBorrowTimeoutMs()
+                        + " ms waiting for a connection (active=" + active.size() + ", max=" + settings.getMaxSize() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+
+        try {
+            PooledConnection pc = takeIdleOrCreate();
+            recordWait(System.nanoTime() - start);
+            pc.borrowedAt = System.currentTimeMillis();
+            pc.borrowStack = settings.getLeakThresholdMs() > 0 ? new Throwable("Connection borrowed here") : null;
+            pc.leakReported = false;
+            active.add(pc);
+            return pc.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pool uses the credentials from db.properties");
+    }
+
+    /*
+     * Reuse an idle connection when one passes validation, otherwise open a new physical connection
+     */
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            if (isUsable(pc)) return pc;
+            discard(pc);
+        }
+        return create();
+    }
+
+    /*
+     * Validation on borrow. Connections used very recently skip the round trip
+     */
+    private boolean isUsable(PooledConnection pc) {
+        long idleFor = System.currentTimeMillis() - pc.lastReturnedAt;
+        if (idleFor < settings.getValidationBypassMs()) return true;
+        try {
+            if (pc.physical.isValid(settings.getValidationTimeoutSec())) return true;
+        } catch (SQLException ignore) { }
+        validationFailures.incrementAndGet();
+        return false;
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection physical = factory.create();
+        total.incrementAndGet();
+        createdCount.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    /*
+     * Called when a borrowed handle is closed
+     */
+    private void giveBack(PooledConnection pc) {
+        active.remove(pc);
+        try {
+            // Never hand the next borrower someone else's open transaction
+            if (!pc.physical.getAutoCommit()) {
+                pc.physical.rollback();
+                pc.physical.setAutoCommit(true);
+            }
+            if (closed || pc.physical.isClosed()) {
+                discard(pc);
+            } else {
+                pc.lastReturnedAt = System.currentTimeMillis();
+                idle.offerFirst(pc);
+            }
+        } catch (SQLException e) {
+            discard(pc);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pc) {
+        total.decrementAndGet();
+        try { pc.physical.close(); } catch (SQLException ignore) {}
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /*
+     * Periodic maintenance: idle eviction, leak detection and topping back up to the minimum size
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // Evict connections idle for too long, oldest ones are at the tail
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && total.get() > settings.getMinSize()) {
+                PooledConnection pc = it.next();
+                if (now - pc.lastReturnedAt < settings.getIdleTimeoutMs()) break;
+                if (idle.remove(pc)) {
+                    discard(pc);
+                    evictedCount.incrementAndGet();
+                }
+            }
+
+            // Report connections held longer than the leak threshold, once per borrow
+            long threshold = settings.getLeakThresholdMs();
+            if (threshold > 0) {
+                for (PooledConnection pc : active) {
+                    if (!pc.leakReported && now - pc.borrowedAt > threshold) {
+                        pc.leakReported = true;
+                        leaksDetected.incrementAndGet();
+                        System.err.println("[POOL] Possible connection leak: held for "
+                                + (now - pc.borrowedAt) + " ms");
+                        if (pc.borrowStack != null) pc.borrowStack.printStackTrace();
+                    }
+                }
+            }
+
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && total.get() < settings.getMinSize()) {
+            try {
+                PooledConnection pc = create();
+                pc.lastReturnedAt = System.currentTimeMillis();
+                idle.offerLast(pc);
+            } catch (SQLException e) {
+                System.err.println("[POOL] Could not pre-open connection: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /*
+     * Snapshot of the pool counters
+     */
+    public Stats stats() {
+        long borrows = borrowCount.get();
+        return new Stats(
+                total.get(), idle.size(), active.size(), settings.getMaxSize(),
+                borrows, borrowTimeouts.get(),
+                borrows == 0 ? 0 : totalWaitNanos.get() / borrows, maxWaitNanos.get(),
+                createdCount.get(), evictedCount.get(), validationFailures.get(), leaksDetected.get());
+    }
+
+    /*
+     * Closes idle connections now, borrowed ones are closed when they come back
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) discard(pc);
+    }
+
+    // DataSource plumbing that the pool does not need
+    @Override public PrintWriter getLogWriter() { return null; }
+    @Override public void setLogWriter(PrintWriter out) { }
+    @Override public void setLoginTimeout(int seconds) { }
+    @Override public int getLoginTimeout() { return 0; }
+    @Override public Logger getParentLogger() throws SQLFeatureNotSupportedException { throw new SQLFeatureNotSupportedException(); }
+    @Override public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) return iface.cast(this);
+        throw new SQLException("Not a wrapper for " + iface);
+    }
+    @Override public boolean isWrapperFor(Class<?> iface) { return iface.isInstance(this); }
+
+
+    /*
+     * Physical connection plus the bookkeeping the pool needs about it
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long lastReturnedAt;
+        private volatile long borrowedAt;
+        private volatile Throwable borrowStack;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /*
+         * Each borrow gets its own handle so a double close cannot return the connection twice
+         */
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    /*
+     * Intercepts close() on borrowed connections, everything else goes to the physical connection
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pc;
+        private boolean released;
+
+        private Handle(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!released) {
+                        released = true;
+                        giveBack(pc);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return released || pc.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled[" + pc.physical + "]";
+                }
+                default -> { }
+            }
+            if (released) throw new SQLException("Connection has already been returned to the pool");
+            try {
+                return method.invoke(pc.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+
+    /*
+     * Pool sizing and timing, read from db.properties (db.pool.*) with sensible defaults
+     */
+    public static final class Settings {
+        private final int minSize;
+        private final int maxSize;
+        private final long borrowTimeoutMs;
+        private final long idleTimeoutMs;
+        private final long leakThresholdMs;
+        private final long validationBypassMs;
+        private final int validationTimeoutSec;
+        private final long housekeepingPeriodMs;
+
+        //Constructor
+        public Settings(int minSize, int maxSize, long borrowTimeoutMs, long idleTimeoutMs,
+                        long leakThresholdMs, long validationBypassMs, int validationTimeoutSec,
+                        long housekeepingPeriodMs) {
+            if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+                throw new IllegalArgumentException("Invalid pool size min=" + minSize + " max=" + maxSize);
+            }
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            this.borrowTimeoutMs = borrowTimeoutMs;
+            this.idleTimeoutMs = idleTimeoutMs;
+            this.leakThresholdMs = leakThresholdMs;
+            this.validationBypassMs = validationBypassMs;
+            this.validationTimeoutSec = validationTimeoutSec;
+            this.housekeepingPeriodMs = housekeepingPeriodMs;
+        }
+
+        /*
+         * Reads the db.pool.* keys, anything missing falls back to the defaults
+         */
+        public static Settings from(Properties p) {
+            return new Settings(
+                    intProp(p, "db.pool.minSize", 2),
+                    intProp(p, "db.pool.maxSize", 10),
+                    longProp(p, "db.pool.borrowTimeoutMs", 10_000),
+                    longProp(p, "db.pool.idleTimeoutMs", 300_000),
+                    longProp(p, "db.pool.leakThresholdMs", 30_000),
+                    longProp(p, "db.pool.validationBypassMs", 500),
+                    intProp(p, "db.pool.validationTimeoutSec", 2),
+                    longProp(p, "db.pool.housekeepingPeriodMs", 5_000));
+        }
+
+        private static int intProp(Properties p, String key, int def) {
+            String v = p.getProperty(key);
+            return (v == null || v.isBlank()) ? def : Integer.parseInt(v.trim());
+        }
+
+        private static long longProp(Properties p, String key, long def) {
+            String v = p.getProperty(key);
+            return (v == null || v.isBlank()) ? def : Long.parseLong(v.trim());
+        }
+
+        //Getters
+        public int getMinSize() { return minSize; }
+        public int getMaxSize() { return maxSize; }
+        public long getBorrowTimeoutMs() { return borrowTimeoutMs; }
+        public long getIdleTimeoutMs() { return idleTimeoutMs; }
+        public long getLeakThresholdMs() { return leakThresholdMs; }
+        public long getValidationBypassMs() { return validationBypassMs; }
+        public int getValidationTimeoutSec() { return validationTimeoutSec; }
+        public long getHousekeepingPeriodMs() { return housekeepingPeriodMs; }
+    }
+
+
+    /*
+     * Point-in-time view of the pool counters
+     */
+    public static final class Stats {
+        private final int total;
+        private final int idle;
+        private final int active;
+        private final int maxSize;
+        private final long borrowCount;
+        private final long borrowTimeouts;
+        private final long avgWaitNanos;
+        private final long maxWaitNanos;
+        private final long createdCount;
+        private final long evictedCount;
+        private final long validationFailures;
+        private final long leaksDetected;
+
+        //Constructor
+        public Stats(int total, int idle, int active, int maxSize, long borrowCount, long borrowTimeouts,
+                     long avgWaitNanos, long maxWaitNanos, long createdCount, long evictedCount,
+                     long validationFailures, long leaksDetected) {
+            this.total = total;
+            this.idle = idle;
+            this.active = active;
+            this.maxSize = maxSize;
+            this.borrowCount = borrowCount;
+            this.borrowTimeouts = borrowTimeouts;
+            this.avgWaitNanos = avgWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.createdCount = createdCount;
+            this.evictedCount = evictedCount;
+            this.validationFailures = validationFailures;
+            this.leaksDetected = leaksDetected;
+        }
+
+        //Getters
+        public int getTotal() { return total; }
+        public int getIdle() { return idle; }
+        public int getActive() { return active; }
+        public int getMaxSize() { return maxSize; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getBorrowTimeouts() { return borrowTimeouts; }
+        public long getAvgWaitNanos() { return avgWaitNanos; }
+        public long getMaxWaitNanos() { return maxWaitNanos; }
+        public long getCreatedCount() { return createdCount; }
+        public long getEvictedCount() { return evictedCount; }
+        public long getValidationFailures() { return validationFailures; }
+        public long getLeaksDetected() { return leaksDetected; }
+
+        @Override
+        public String toString() {
+            return "Pool{total=" + total + ", idle=" + idle + ", active=" + active + "/" + maxSize
+                    + ", borrows=" + borrowCount + ", timeouts=" + borrowTimeouts
+                    + ", avgWaitUs=" + avgWaitNanos / 1000 + ", maxWaitUs=" + maxWaitNanos / 1000
+                    + ", created=" + createdCount + ", evicted=" + evictedCount
+                    + ", validationFailures=" + validationFailures + ", leaks=" + leaksDetected + "}";
+        }
+    }
+}
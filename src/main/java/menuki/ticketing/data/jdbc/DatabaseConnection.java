@@ -1,21 +1,31 @@
-
 package menuki.ticketing.data.jdbc;
 
 import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.util.Properties;
+import javax.sql.DataSource;
 
 /**
  * Establishes connection between the Java code and the actual database.
- * Utilises db.properties
- * Used in other files to obtain JDBC connection
+ * Utilises db.properties, which is read and parsed only once.
+ * Used in other files to obtain JDBC connection. Normal connections are borrowed from a ConnectionPool.
  */
 public class DatabaseConnection {
 
     /* Contains the DB specific info needed for connection details */
     private static final String PROPERTIES_FILE = "/db.properties";
 
+    /* Parsed settings and the pool built from them, created on first use */
+    private static volatile Config config;
+    private static volatile ConnectionPool pool;
+
+    /*
+     * Used to prevent class from being instantiated
+     */
+    private DatabaseConnection() {
+    }
+
     /*
      * Loads DB configuration settings
      */
@@ -29,60 +39,145 @@ public class DatabaseConnection {
     }
 
     /*
-     * Establishing root or server level JDBC connection
+     * Returns the parsed configuration, reading db.properties the first time only
      */
-    public static Connection getRootConnection() throws Exception {
-        Properties p = loadProps();
-        String url = p.getProperty("db.url");
+    private static Config config() throws Exception {
+        Config c = config;
+        if (c == null) {
+            synchronized (DatabaseConnection.class) {
+                c = config;
+                if (c == null) {
+                    c = new Config(loadProps());
+                    config = c;
+                }
+            }
+        }
+        return c;
+    }
 
-        // Check if url contains any parameters after a '?' and seperate them from teh main URL part
-        int q = url.indexOf("?");
-        String base = (q >= 0) ? url.substring(0, q) : url;
-        String params = (q >= 0) ? url.substring(q) : "";
+    /*
+     * A setting from db.properties that is not about the connection itself (e.g. metrics.port), or null
+     */
+    public static String setting(String key) throws Exception {
+        return config().props.getProperty(key);
+    }
 
-        // if JDBC URL has a specific DB name remove it so we just have the server connection
-        int slash = base.lastIndexOf("/");
-        String prefix = (slash > "jdbc:mysql://".length()) ? base.substring(0, slash) : base;
+    /*
+     * Returns the shared pool, creating it on first use
+     */
+    private static ConnectionPool pool() throws Exception {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (DatabaseConnection.class) {
+                p = pool;
+                if (p == null) {
+                    Config c = config();
+                    p = new ConnectionPool(
+                            () -> DriverManager.getConnection(c.url, c.user, c.password),
+                            ConnectionPool.Settings.from(c.props));
+                    pool = p;
+                }
+            }
+        }
+        return p;
+    }
 
-        String finalUrl = prefix + params;
-        return DriverManager.getConnection(finalUrl, p.getProperty("db.user"), p.getProperty("db.password"));
+    /*
+     * Replaces the configuration (e.g. to point tests or benchmarks at another database)
+     */
+    public static synchronized void configure(Properties props) {
+        shutdown();
+        config = new Config(props);
     }
 
     /*
-     * Connect to a specific DB and get the connection
+     * Closes the pool. A new one is created if a connection is requested afterwards
      */
-    public static Connection getConnection(String dbName) throws Exception {
-        Properties p = loadProps();
-        String url = p.getProperty("db.url");
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
 
-        // Separate JDBC URL into base and params
-        int q = url.indexOf("?");
-        String base = (q >= 0) ? url.substring(0, q) : url;
-        String params = (q >= 0) ? url.substring(q) : "";
+    /*
+     * The pooled DataSource that every DAO borrows from
+     */
+    public static DataSource getDataSource() throws Exception {
+        return pool();
+    }
 
+    /*
+     * Pool counters (borrow waits, timeouts, leaks...), null if the pool has not been created yet
+     */
+    public static ConnectionPool.Stats poolStats() {
+        ConnectionPool p = pool;
+        return p == null ? null : p.stats();
+    }
 
-        //If the current base URL has a DB name at the end remove it so we can add a new DB name later on
-        int slash = base.lastIndexOf("/");
-        String prefix = (slash > "jdbc:mysql://".length()) ? base.substring(0, slash) : base;
+    /*
+     * Establishing root or server level JDBC connection (not pooled, only needed to create the DB)
+     */
+    public static Connection getRootConnection() throws Exception {
+        Config c = config();
+        return DriverManager.getConnection(c.rootUrl, c.user, c.password);
+    }
 
+    /*
+     * Connect to a specific DB and get the connection (not pooled)
+     */
+    public static Connection getConnection(String dbName) throws Exception {
+        Config c = config();
         // If no params were given use a default string
-        String paramPart = params.isEmpty()
+        String paramPart = c.params.isEmpty()
                 ? "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC"
-                : params;
+                : c.params;
 
-        String finalUrl = prefix + "/" + dbName + paramPart;
-        return DriverManager.getConnection(finalUrl, p.getProperty("db.user"), p.getProperty("db.password"));
+        String finalUrl = c.serverPrefix + "/" + dbName + paramPart;
+        return DriverManager.getConnection(finalUrl, c.user, c.password);
     }
 
     /*
-     * Create a normal JDBC connection to DB specified in db.properties and return
+     * Borrow a JDBC connection to the DB specified in db.properties. Closing it returns it to the pool.
+     * Inside a TransactionScope this is the connection bound to the scope instead
      */
     public static Connection getConnection() throws Exception {
-        Properties p = loadProps();
-        String url = p.getProperty("db.url");
-        if (url == null || url.isBlank()) {
-            throw new IllegalStateException("db.url missing in db.properties");
+        Connection bound = TransactionScope.currentConnection();
+        if (bound != null) return bound;
+        return pool().getConnection();
+    }
+
+
+    /*
+     * db.properties parsed into the pieces the connection methods need
+     */
+    private static final class Config {
+        private final Properties props;
+        private final String url;
+        private final String user;
+        private final String password;
+        private final String serverPrefix;
+        private final String params;
+        private final String rootUrl;
+
+        private Config(Properties p) {
+            this.props = p;
+            this.url = p.getProperty("db.url");
+            if (url == null || url.isBlank()) {
+                throw new IllegalStateException("db.url missing in db.properties");
+            }
+            this.user = p.getProperty("db.user");
+            this.password = p.getProperty("db.password");
+
+            // Check if url contains any parameters after a '?' and seperate them from teh main URL part
+            int q = url.indexOf("?");
+            String base = (q >= 0) ? url.substring(0, q) : url;
+            this.params = (q >= 0) ? url.substring(q) : "";
+
+            // if JDBC URL has a specific DB name remove it so we just have the server connection
+            int slash = base.lastIndexOf("/");
+            this.serverPrefix = (slash > "jdbc:mysql://".length()) ? base.substring(0, slash) : base;
+            this.rootUrl = serverPrefix + params;
         }
-        return DriverManager.getConnection(url, p.getProperty("db.user"), p.getProperty("db.password"));
     }
 }
@@ -1,9 +1,14 @@
 package menuki.ticketing.data.jdbc;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Stream;
 
 import menuki.ticketing.data.dao.SeatDao;
 import menuki.ticketing.model.Event;
@@ -11,12 +16,133 @@ import menuki.ticketing.model.User;
 import menuki.ticketing.service.JdbcSeatService;
 
 /**
- * Class responsible for setting up the database and preparing it for the program to use
+ * Class responsible for setting up the database and preparing it for the program to use.
+ * The schema is built by the numbered migrations below, which hold all of its DDL; a database that has them
+ * all only costs one query at startup.
  */
 public final class DatabaseInitializer {
 
     private static final String DB_NAME = "ticketingSystem";
 
+    /*
+     * Statements of the order id widening (V9); checked by type first since MODIFY rebuilds the table
+     */
+    private static final String[] WIDEN_ORDER_IDS = {
+            "ALTER TABLE orders MODIFY id BIGINT NOT NULL",
+            "ALTER TABLE order_items MODIFY id BIGINT NOT NULL",
+            "ALTER TABLE order_items MODIFY order_id BIGINT NOT NULL"
+    };
+
+    /*
+     * Every change to the schema, oldest first. Never edit or renumber one that has shipped: add a new one
+     */
+    static final List<Migration> SCHEMA = List.of(
+            // The tables as the first release created them. Frozen: later changes are steps of their own
+            Migration.sql(1, "baseline tables: events, users, seats, orders, order_items", """
+                    CREATE TABLE IF NOT EXISTS events (
+                      id    VARCHAR(64) PRIMARY KEY,
+                      name  VARCHAR(255) NOT NULL,
+                      date  DATE NULL,
+                      venue VARCHAR(255),
+                      start_time TIME NULL,
+                      end_time   TIME NULL
+                    )""", """
+                    CREATE TABLE IF NOT EXISTS users (
+                      username VARCHAR(50) PRIMARY KEY,
+                      password VARCHAR(255) NOT NULL,
+                      role ENUM('ADMIN', 'USER') NOT NULL DEFAULT 'USER'
+                    )""", """
+                    CREATE TABLE IF NOT EXISTS seats (
+                      event_id    VARCHAR(64)  NOT NULL,
+                      row_label   VARCHAR(4)   NOT NULL,
+                      seat_number INT          NOT NULL,
+                      type        ENUM('STANDARD','VIP') NOT NULL,
+                      status      ENUM('AVAILABLE','SELECTED','RESERVED') NOT NULL DEFAULT 'AVAILABLE',
+                      price_cents INT NOT NULL,
+                      PRIMARY KEY (event_id, row_label, seat_number),
+                      FOREIGN KEY (event_id) REFERENCES events(id)
+                        ON DELETE CASCADE ON UPDATE CASCADE
+                    )""", """
+                    CREATE TABLE IF NOT EXISTS orders (
+                      id INT AUTO_INCREMENT PRIMARY KEY,
+                      user_id VARCHAR(50) NOT NULL,
+                      booked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                      total_cents INT NOT NULL,
+                      FOREIGN KEY (user_id) REFERENCES users(username)
+                        ON DELETE CASCADE ON UPDATE CASCADE
+                    )""", """
+                    CREATE TABLE IF NOT EXISTS order_items (
+                      id           INT AUTO_INCREMENT PRIMARY KEY,
+                      order_id     INT         NOT NULL,
+                      event_id     VARCHAR(64) NOT NULL,
+                      row_label    VARCHAR(4)  NOT NULL,
+                      seat_number  INT         NOT NULL,
+                      price_cents  INT         NOT NULL,
+                      FOREIGN KEY (order_id) REFERENCES orders(id)
+                        ON DELETE CASCADE ON UPDATE CASCADE,
+                      FOREIGN KEY (event_id, row_label, seat_number)
+                        REFERENCES seats(event_id, row_label, seat_number)
+                        ON DELETE RESTRICT ON UPDATE CASCADE
+                    )"""),
+            // Seat holds with an expiry, swept by the expiry scan
+            Migration.columns(2, "seats", "held_by VARCHAR(50) NULL", "hold_expires_at TIMESTAMP NULL"),
+            Migration.index(3, "seats", "idx_seats_hold_expiry", "status", "hold_expires_at"),
+            // Available seat counters, kept up to date by every seat write. Events that already have seats get
+            // theirs from a full count once
+            Migration.sql(4, "event_availability counters", """
+                    CREATE TABLE IF NOT EXISTS event_availability (
+                      event_id  VARCHAR(64) PRIMARY KEY,
+                      available INT NOT NULL,
+                      total     INT NOT NULL,
+                      FOREIGN KEY (event_id) REFERENCES events(id)
+                        ON DELETE CASCADE ON UPDATE CASCADE
+                    )""", """
+                    INSERT INTO event_availability (event_id, available, total)
+                    SELECT s.event_id, SUM(CASE WHEN s.status = 'AVAILABLE' THEN 1 ELSE 0 END), COUNT(*)
+                    FROM seats s
+                    WHERE NOT EXISTS (SELECT 1 FROM event_availability a WHERE a.event_id = s.event_id)
+                    GROUP BY s.event_id"""),
+            // Seat versions, so seat maps can load only what changed
+            Migration.columns(5, "seats", "version BIGINT NOT NULL DEFAULT 0"),
+            Migration.index(6, "seats", "idx_seats_version", "event_id", "version"),
+            Migration.columns(7, "event_availability", "version BIGINT NOT NULL DEFAULT 0"),
+            // Blocks of ids handed out by HiLoIdAllocator
+            Migration.sql(8, "id_sequences table", """
+                    CREATE TABLE IF NOT EXISTS id_sequences (
+                      name       VARCHAR(64) PRIMARY KEY,
+                      next_value BIGINT NOT NULL
+                    )"""),
+            // Order ids are generated by the app (SnowflakeIdGenerator) and no longer fit an INT
+            Migration.java(9, "widen order ids to BIGINT without auto increment",
+                    String.join(";\n", WIDEN_ORDER_IDS), DatabaseInitializer::widenOrderIds),
+            // Node ids leased by SnowflakeIdGenerator
+            Migration.sql(10, "node_leases table", """
+                    CREATE TABLE IF NOT EXISTS node_leases (
+                      node_id    INT PRIMARY KEY,
+                      owner      VARCHAR(64) NOT NULL,
+                      expires_at TIMESTAMP   NOT NULL
+                    )"""),
+            // Order history: keyset paging of a user's orders by booked_at, id
+            Migration.index(11, "orders", "idx_orders_user_booked", "user_id", "booked_at", "id"),
+            // countItemsForEvent / deleteOrderItemsByEvent
+            Migration.index(12, "order_items", "idx_order_items_event", "event_id"),
+            // Event list, ordered by date
+            Migration.index(13, "events", "idx_events_date", "date"),
+            // Orders cancelled because the DB refused their seats after checkout (V14 is the demo data)
+            Migration.columns(15, "orders",
+                    "status ENUM('CONFIRMED','CANCELLED') NOT NULL DEFAULT 'CONFIRMED'",
+                    "cancel_reason VARCHAR(255) NULL")
+    );
+
+    /*
+     * The schema plus the demo data the app starts with
+     */
+    static final List<Migration> MIGRATIONS = Stream.concat(SCHEMA.stream(), Stream.of(
+            Migration.java(14, "seed demo users, event and seats",
+                    "users admin, user1, user2; event E-2001 with its seats",
+                    c -> seedDemoData())
+    )).toList();
+
     /*
      * Used to prevent class from being instantiated
      */
@@ -24,73 +150,101 @@ public final class DatabaseInitializer {
     }
 
     /*
-     * Creates the database and the tables if they are not created
+     * Creates the database and brings its schema up to date
      */
     public static void initialize() {
         try {
-           //Ensure if the DB exists
+            SchemaMigrator migrator = new SchemaMigrator(MIGRATIONS);
+            try {
+                if (migrator.isUpToDate()) {
+                    System.out.println("Database schema is at V" + migrator.latestVersion() + ".");
+                    return;
+                }
+            } catch (SQLException e) {
+                // The database itself may not exist yet; created below
+                System.out.println("Schema check failed (" + e.getMessage() + "), setting up the database.");
+            }
+
+            //Ensure if the DB exists
             try (Connection root = DatabaseConnection.getRootConnection();
                  Statement st = root.createStatement()) {
                 st.executeUpdate("CREATE DATABASE IF NOT EXISTS " + DB_NAME);
             }
 
-            //Create tables if they do not exist and populate with dummy data where needed
-            JdbcEventDao eventDao = new JdbcEventDao();
-            eventDao.createTableIfNotExists();
-
-            JdbcUserDao userDao = new JdbcUserDao();
-            userDao.createTableIfNotExists();
-
-
-            SeatDao seatDao = new JdbcSeatDao();
-            seatDao.createTableIfNotExists();
-
-            JdbcOrderDao orderDao = new JdbcOrderDao();
-            orderDao.createTableIfNotExists();
-
-            JdbcOrderItemDao orderItemDao = new JdbcOrderItemDao();
-            orderItemDao.createTableIfNotExists();
+            int applied = migrator.migrate();
+            System.out.println("Database initialized (" + applied + " migrations applied, schema at V"
+                    + migrator.latestVersion() + ").");
+        } catch (Exception e) {
+            throw new RuntimeException("Database initialization failed", e);
+        }
+    }
 
-            if (!userDao.existsByUsername("admin")) {
-                userDao.insert(new User("admin", "admin123", "ADMIN"));
-            }
-            if (!userDao.existsByUsername("user1")) {
-                userDao.insert(new User("user1", "password", "USER"));
-            }
-            if (!userDao.existsByUsername("user2")) {
-                userDao.insert(new User("user2", "password", "USER"));
-            }
+    /*
+     * Brings the schema up to date without the demo data (tests and benchmarks that bring their own)
+     */
+    public static void createSchema() throws SQLException {
+        new SchemaMigrator(SCHEMA).migrate();
+    }
 
-            final String DEFAULT_EVENT_ID = "E-2001";
-            final String DEFAULT_EVENT_NAME = "Demo Event";
-            final LocalDate DEFAULT_EVENT_DATE = LocalDate.parse("2025-10-08");
-            final String DEFAULT_EVENT_VENUE = "Main Hall";
-            final LocalTime DEFAULT_EVENT_START_TIME = LocalTime.parse("02:00");
-            final LocalTime DEFAULT_EVENT_END_TIME = LocalTime.parse("03:00");
-
-            //Ensures there is always at least one event in the database to make it easier for the demo
-            if (!eventDao.existsById(DEFAULT_EVENT_ID)) {
-                eventDao.insert(new Event(
-                        DEFAULT_EVENT_ID,
-                        DEFAULT_EVENT_NAME,
-                        DEFAULT_EVENT_DATE,
-                        DEFAULT_EVENT_VENUE,
-                        DEFAULT_EVENT_START_TIME,
-                        DEFAULT_EVENT_END_TIME,
-                        236
-                ));
-                System.out.println("Seeded default event: " + DEFAULT_EVENT_ID);
+    /*
+     * Widens the order ids of tables made before the app generated them; MySQL checks no foreign keys while
+     * both sides of order_items.order_id change type
+     */
+    private static void widenOrderIds(Connection c) throws SQLException {
+        try (ResultSet rs = c.getMetaData().getColumns(c.getCatalog(), null, "orders", "id")) {
+            if (!rs.next() || rs.getInt("DATA_TYPE") == Types.BIGINT) return;
+        }
+        try (Statement alter = c.createStatement()) {
+            alter.execute("SET FOREIGN_KEY_CHECKS = 0");
+            try {
+                for (String sql : WIDEN_ORDER_IDS) alter.execute(sql);
+            } finally {
+                alter.execute("SET FOREIGN_KEY_CHECKS = 1");
             }
+        }
+    }
 
+    /*
+     * Users and an event with seats, so the demo has something to log in to and book
+     */
+    private static void seedDemoData() throws SQLException {
+        JdbcUserDao userDao = new JdbcUserDao();
+        if (!userDao.existsByUsername("admin")) {
+            userDao.insert(new User("admin", "admin123", "ADMIN"));
+        }
+        if (!userDao.existsByUsername("user1")) {
+            userDao.insert(new User("user1", "password", "USER"));
+        }
+        if (!userDao.existsByUsername("user2")) {
+            userDao.insert(new User("user2", "password", "USER"));
+        }
 
-            // Generate seats for that event if none exist yet
-            JdbcSeatService seatService = new JdbcSeatService(seatDao);
-            seatService.loadSeatsForEvent(DEFAULT_EVENT_ID);
-            System.out.println("Seeded seats for event: " + DEFAULT_EVENT_ID);
-            System.out.println("Database initialized.");
-        } catch (Exception e) {
-            throw new RuntimeException("Database initialization failed", e);
+        final String DEFAULT_EVENT_ID = "E-2001";
+        final String DEFAULT_EVENT_NAME = "Demo Event";
+        final LocalDate DEFAULT_EVENT_DATE = LocalDate.parse("2025-10-08");
+        final String DEFAULT_EVENT_VENUE = "Main Hall";
+        final LocalTime DEFAULT_EVENT_START_TIME = LocalTime.parse("02:00");
+        final LocalTime DEFAULT_EVENT_END_TIME = LocalTime.parse("03:00");
+
+        //Ensures there is at least one event in the database to make it easier for the demo
+        JdbcEventDao eventDao = new JdbcEventDao();
+        if (!eventDao.existsById(DEFAULT_EVENT_ID)) {
+            eventDao.insert(new Event(
+                    DEFAULT_EVENT_ID,
+                    DEFAULT_EVENT_NAME,
+                    DEFAULT_EVENT_DATE,
+                    DEFAULT_EVENT_VENUE,
+                    DEFAULT_EVENT_START_TIME,
+                    DEFAULT_EVENT_END_TIME,
+                    236
+            ));
+            System.out.println("Seeded default event: " + DEFAULT_EVENT_ID);
         }
+
+        // Generate seats for that event if none exist yet
+        SeatDao seatDao = new JdbcSeatDao();
+        JdbcSeatService seatService = new JdbcSeatService(seatDao);
+        seatService.loadSeatBlock(DEFAULT_EVENT_ID);
+        System.out.println("Seeded seats for event: " + DEFAULT_EVENT_ID);
     }
 }
-
@@ -0,0 +1,112 @@
+package menuki.ticketing.data.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Hands out ids from blocks reserved in the id_sequences table.
+ * A block is reserved with one UPDATE that moves the sequence forward by the block size; the row lock it
+ * takes makes the read of the new value that follows see only this reservation, so two app instances
+ * can never get overlapping blocks. Ids of a block are then handed out from memory.
+ * Ids stay unique but are not gap-free: a block that is not used up is lost when the app stops.
+ * Reservations run on a connection of their own, outside any TransactionScope of the caller, so the
+ * sequence row is only locked for the reservation itself.
+ */
+public final class HiLoIdAllocator {
+
+    /*
+     * First value of a sequence that does not exist yet, e.g. one past the ids already in use
+     */
+    @FunctionalInterface
+    public interface Seed {
+        long firstValue(Connection c) throws SQLException;
+    }
+
+    private final String sequence;
+    private final int blockSize;
+    private final Seed seed;
+
+    // Next id to hand out and the end of the current block (exclusive); guarded by this
+    private long next;
+    private long limit;
+
+    //Constructor
+    public HiLoIdAllocator(String sequence, int blockSize, Seed seed) {
+        if (blockSize < 1) throw new IllegalArgumentException("blockSize must be at least 1");
+        this.sequence = sequence;
+        this.blockSize = blockSize;
+        this.seed = seed;
+    }
+
+    /*
+     * Next id of the sequence; only reaches the database when the current block is used up
+     */
+    public synchronized long next() throws SQLException {
+        if (next >= limit) {
+            long end = reserveBlock();
+            next = end - blockSize;
+            limit = end;
+        }
+        return next++;
+    }
+
+    /*
+     * Moves the sequence forward by one block and returns the new end of the sequence (exclusive)
+     */
+    private long reserveBlock() throws SQLException {
+        try (Connection c = DatabaseConnection.getDataSource().getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                if (advance(c) == 0) {
+                    // First use: start after what is already there. Two instances seeding at once both end up
+                    // advancing the single row that the insert leaves behind
+                    ensureRow(c, seed.firstValue(c));
+                    advance(c);
+                }
+                long end = current(c);
+                c.commit();
+                return end;
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("reserve block of " + sequence + " failed", e);
+        }
+    }
+
+    private int advance(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(
+                "UPDATE id_sequences SET next_value = next_value + ? WHERE name = ?")) {
+            ps.setInt(1, blockSize);
+            ps.setString(2, sequence);
+            return ps.executeUpdate();
+        }
+    }
+
+    private void ensureRow(Connection c, long firstValue) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("""
+                INSERT INTO id_sequences (name, next_value) VALUES (?, ?)
+                ON DUPLICATE KEY UPDATE next_value = next_value
+                """)) {
+            ps.setString(1, sequence);
+            ps.setLong(2, firstValue);
+            ps.executeUpdate();
+        }
+    }
+
+    private long current(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT next_value FROM id_sequences WHERE name = ?")) {
+            ps.setString(1, sequence);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) throw new SQLException("Sequence " + sequence + " is missing");
+                return rs.getLong(1);
+            }
+        }
+    }
+}
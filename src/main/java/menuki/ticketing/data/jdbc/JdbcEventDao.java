@@ -15,29 +15,12 @@ import java.util.Map;
  */
 public class JdbcEventDao implements EventDao {
 
-    /*
-     * Creates the Events table if it does not exist
-     */
-    @Override
-    public void createTableIfNotExists() throws SQLException {
-        try (Connection c = DatabaseConnection.getConnection();
-             Statement st = c.createStatement()) {
-
-            st.execute("""
-            CREATE TABLE IF NOT EXISTS events (
-              id    VARCHAR(64) PRIMARY KEY,
-              name  VARCHAR(255) NOT NULL,
-              date  DATE NULL,
-              venue VARCHAR(255),
-              start_time TIME NULL,
-              end_time   TIME NULL
-            )
-        """);
-        } catch (Exception e) {
-            if (e instanceof SQLException se) throw se;
-            throw new SQLException("createTableIfNotExists(events) failed", e);
-        }
-    }
+    private static final String EVENT_ID_PREFIX = "E-";
+    private static final long FIRST_EVENT_NUMBER = 2001;
+    private static final int EVENT_ID_BLOCK = 10;
+    // Shared by every instance so ids are handed out from one block per app
+    private static final HiLoIdAllocator EVENT_IDS =
+            new HiLoIdAllocator("events", EVENT_ID_BLOCK, JdbcEventDao::firstFreeEventNumber);
 
 
 
@@ -163,17 +146,14 @@ public class JdbcEventDao implements EventDao {
     @Override
     public Map<String, Integer> countAvailableByEvent() throws SQLException {
         /* Query explanation:
-         * Start with events table (FROM events e). LEFT JOIN seats table so match rows by event_id in both tables.
-         * LEFT JOIN gives a result even if there are no seats (available = 0).
-         * If AVAILABLE have a temp value of 1 else 0.
-         * Add up all the 1's and 0's for each event. COALESCE ensures that if an event has no seats, when SUM returns NULL, replace that with 0.
+         * Start with events table (FROM events e). LEFT JOIN the seat counters (one row per event, kept up to
+         * date by JdbcSeatDao) so every event is listed, and COALESCE gives 0 for events that have no seats.
          */
         final String sql = """
         SELECT e.id AS event_id,
-               COALESCE(SUM(CASE WHEN s.status='AVAILABLE' THEN 1 ELSE 0 END), 0) AS available
+               COALESCE(a.available, 0) AS available
         FROM events e
-        LEFT JOIN seats s ON s.event_id = e.id
-        GROUP BY e.id
+        LEFT JOIN event_availability a ON a.event_id = e.id
         """;
 
         Map<String, Integer> out = new java.util.HashMap<>();
@@ -193,29 +173,27 @@ public class JdbcEventDao implements EventDao {
 
 
     /*
-     * Generates an ID for an event to act as a unique identifier
+     * Generates an ID for an event to act as a unique identifier (E-2001, E-2002, ...).
+     * Numbers come from blocks reserved in the id_sequences table, so no two admins (or app instances) get the same one
      */
     @Override
     public String getNextEventId() throws SQLException {
-        final String sql =
-                "SELECT MAX(CAST(SUBSTRING_INDEX(id, '-', -1) AS UNSIGNED)) FROM events";
-
-        try (Connection c = DatabaseConnection.getConnection();
-             Statement st = c.createStatement();
-             ResultSet rs = st.executeQuery(sql)) {
+        return EVENT_ID_PREFIX + EVENT_IDS.next();
+    }
 
-            int next = 2001; // Starting point if table is empty
-            if (rs.next()) {
-                int maxSuffix = rs.getInt(1); // 0 if null
-                if (maxSuffix >= 2001) next = maxSuffix + 1;
+    /*
+     * Where the event sequence starts the first time it is used: after the highest E-NNNN already in the table
+     */
+    private static long firstFreeEventNumber(Connection c) throws SQLException {
+        long next = FIRST_EVENT_NUMBER;
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT id FROM events WHERE id LIKE 'E-%'")) {
+            while (rs.next()) {
+                try {
+                    next = Math.max(next, Long.parseLong(rs.getString(1).substring(EVENT_ID_PREFIX.length())) + 1);
+                } catch (NumberFormatException ignored) { }
             }
-            return "E-" + next;
-
-        } catch (Exception e) {
-            throw new SQLException("Failed to fetch next event id", e);
         }
+        return next;
     }
-
-
-
 }
@@ -1,12 +1,18 @@
 package menuki.ticketing.data.jdbc;
 
 import menuki.ticketing.data.dao.OrderDao;
+import menuki.ticketing.data.dao.OrderItemDao;
+import menuki.ticketing.data.metrics.MeteredOrderItemDao;
 import menuki.ticketing.model.Order;
+import menuki.ticketing.model.OrderPage;
+import menuki.ticketing.model.OrderSummary;
 import menuki.ticketing.model.Seat;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 
 /**
@@ -14,34 +20,31 @@ import java.util.Objects;
  */
 public class JdbcOrderDao implements OrderDao {
 
-    /*
-     * Creates the Orders table if it does not exist
-     */
-    @Override
-    public void createTableIfNotExists() throws SQLException {
-        try (Connection c = DatabaseConnection.getConnection();
-             Statement st = c.createStatement()) {
-            st.execute("""
-                CREATE TABLE IF NOT EXISTS orders (
-                    id INT AUTO_INCREMENT PRIMARY KEY,
-                    user_id VARCHAR(50) NOT NULL,
-                    booked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    total_cents INT NOT NULL,
-                    FOREIGN KEY (user_id) REFERENCES users(username)
-                        ON DELETE CASCADE ON UPDATE CASCADE
-                )
-            """);
-        } catch (Exception e) {
-            if (e instanceof SQLException se) throw se;
-            throw new SQLException("createTableIfNotExists(orders) failed", e);
-        }
+    private final OrderItemDao orderItemDao;
+    // Order ids are made up here instead of by AUTO_INCREMENT; null means the shared generator
+    private final SnowflakeIdGenerator ids;
+
+    //Constructors
+    public JdbcOrderDao() {
+        this(new MeteredOrderItemDao(new JdbcOrderItemDao()));
+    }
+
+    public JdbcOrderDao(OrderItemDao orderItemDao) {
+        this(orderItemDao, null);
+    }
+
+    public JdbcOrderDao(OrderItemDao orderItemDao, SnowflakeIdGenerator ids) {
+        this.orderItemDao = orderItemDao;
+        this.ids = ids;
     }
 
     /*
-     * This is used to Create an order/ Insert an order to teh orders table
+     * This is used to Create an order/ Insert an order to teh orders table.
+     * The order id is generated here, so the order row and the item rows are written straight away
+     * without waiting for a generated key
      */
     @Override
-    public int createOrder(String userId, String eventId, List<Seat> seats) throws SQLException {
+    public long createOrder(String userId, String eventId, List<Seat> seats) throws SQLException {
         Objects.requireNonNull(userId, "userId");
         if (seats == null || seats.isEmpty()) {
             throw new IllegalArgumentException("No seats provided");
@@ -49,48 +52,36 @@ public class JdbcOrderDao implements OrderDao {
         //Using java streams to calculate total
         int totalCents = seats.stream().mapToInt(Seat::getPriceCents).sum();
         final String insertOrderSql =
-                "INSERT INTO orders (user_id, total_cents) VALUES (?, ?)";
+                "INSERT INTO orders (id, user_id, total_cents) VALUES (?, ?, ?)";
+        long orderId = ids().nextId();
+
+        //The order and its items are written in one unit of work on one connection
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection()) {
+
+            //Insert into orders table
+            try (PreparedStatement ps = c.prepareStatement(insertOrderSql)) {
+                ps.setLong(1, orderId);
+                ps.setString(2, userId);
+                ps.setInt(3, totalCents);
+                ps.executeUpdate();
+            }
 
-        Connection c = null;
-        try {
-            c = DatabaseConnection.getConnection();
-            boolean origAuto = c.getAutoCommit();
-            c.setAutoCommit(false);
-            try {
-                int orderId;
-
-                //Insert into orders table
-                try (PreparedStatement ps = c.prepareStatement(insertOrderSql, Statement.RETURN_GENERATED_KEYS)) {
-                    ps.setString(1, userId);
-                    ps.setInt(2, totalCents);
-                    ps.executeUpdate();
-                    try (ResultSet rs = ps.getGeneratedKeys()) {
-                        if (!rs.next()) throw new SQLException("Failed to obtain generated order id");
-                        orderId = rs.getInt(1);
-                    }
-                }
+            //insert order_items, this joins the same transaction scope
+            orderItemDao.insertItems(orderId, seats);
 
-                //insert order_items using the same connection
-                JdbcOrderItemDao orderItemDao = new JdbcOrderItemDao();
-                orderItemDao.insertItems(c, orderId, seats);
-
-                c.commit();
-                return orderId;
-            } catch (Exception ex) {
-                c.rollback();
-                if (ex instanceof SQLException se) throw se;
-                throw new SQLException("createOrder failed", ex);
-            } finally {
-                c.setAutoCommit(true);
-            }
+            tx.commit();
+            return orderId;
         } catch (Exception e) {
             if (e instanceof SQLException se) throw se;
-            throw new SQLException("Failed to get or use DB connection", e);
-        } finally {
-            if (c != null) try { c.close(); } catch (SQLException ignore) {}
+            throw new SQLException("createOrder failed", e);
         }
     }
 
+    private SnowflakeIdGenerator ids() throws SQLException {
+        return ids != null ? ids : SnowflakeIdGenerator.shared();
+    }
+
 
     /*
      * Find orders for a certain user
@@ -112,7 +103,7 @@ public class JdbcOrderDao implements OrderDao {
                 try (ResultSet rs = ps.executeQuery()) {
                     while (rs.next()) {
                         Order order = new Order();
-                        order.setId(rs.getInt("id"));
+                        order.setId(rs.getLong("id"));
                         order.setUserId(rs.getString("user_id"));
                         order.setCreatedAt(rs.getTimestamp("booked_at").toLocalDateTime());
                         orders.add(order);
@@ -129,6 +120,112 @@ public class JdbcOrderDao implements OrderDao {
         }
     }
 
+    /*
+     * One page of a user's order history with the event and seat count of each order.
+     * Keyset pagination: the page starts right after the (booked_at, id) of the last order already shown, so
+     * every page is a short range scan of idx_orders_user_booked however far back the user scrolls.
+     * The page of orders is picked first and only its items are joined and counted
+     */
+    @Override
+    public OrderPage findPageByUser(String userId, OrderSummary after, int limit) throws SQLException {
+        final String sql = """
+            SELECT p.id, p.user_id, p.booked_at, p.total_cents, p.status, p.cancel_reason,
+                   MIN(oi.event_id) AS event_id, MIN(e.name) AS event_name, MIN(e.date) AS event_date,
+                   COUNT(oi.id) AS seat_count
+              FROM (SELECT id, user_id, booked_at, total_cents, status, cancel_reason
+                      FROM orders
+                     WHERE user_id = ? %s
+                     ORDER BY booked_at DESC, id DESC
+                     LIMIT ?) p
+              LEFT JOIN order_items oi ON oi.order_id = p.id
+              LEFT JOIN events e ON e.id = oi.event_id
+             GROUP BY p.id, p.user_id, p.booked_at, p.total_cents, p.status, p.cancel_reason
+             ORDER BY p.booked_at DESC, p.id DESC
+            """.formatted(after == null ? "" : "AND booked_at <= ? AND (booked_at < ? OR id < ?)");
+
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            int p = 1;
+            ps.setString(p++, userId);
+            if (after != null) {
+                Timestamp bookedAt = Timestamp.valueOf(after.getBookedAt());
+                ps.setTimestamp(p++, bookedAt);
+                ps.setTimestamp(p++, bookedAt);
+                ps.setLong(p++, after.getId());
+            }
+            //One extra row tells whether there is another page
+            ps.setInt(p, limit + 1);
+
+            List<OrderSummary> rows = new ArrayList<>(limit + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Date eventDate = rs.getDate("event_date");
+                    rows.add(new OrderSummary(
+                            rs.getLong("id"),
+                            rs.getString("user_id"),
+                            rs.getTimestamp("booked_at").toLocalDateTime(),
+                            rs.getInt("total_cents"),
+                            rs.getString("event_id"),
+                            rs.getString("event_name"),
+                            eventDate == null ? null : eventDate.toLocalDate(),
+                            rs.getInt("seat_count"),
+                            "CANCELLED".equals(rs.getString("status")),
+                            rs.getString("cancel_reason")));
+                }
+            }
+            boolean hasMore = rows.size() > limit;
+            return new OrderPage(hasMore ? rows.subList(0, limit) : rows, hasMore);
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("findPageByUser failed", e);
+        }
+    }
+
+    /*
+     * Flags the user's confirmed orders holding any of these seats as cancelled (used when the DB refused
+     * the seats after the order was made). Items are kept, so the order still shows what was bought
+     */
+    @Override
+    public List<Long> cancelOrdersWithSeats(String userId, String eventId, long[] seatKeys, String reason)
+            throws SQLException {
+        if (seatKeys == null || seatKeys.length == 0) return List.of();
+        final SeatInList select = SeatInList.of("""
+            SELECT id FROM orders
+             WHERE user_id = ? AND status = 'CONFIRMED'
+               AND id IN (SELECT order_id FROM order_items WHERE event_id = ? AND %s)
+            """);
+        final String cancelSql =
+                "UPDATE orders SET status = 'CANCELLED', cancel_reason = ? WHERE id = ? AND status = 'CONFIRMED'";
+
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection()) {
+            Set<Long> ids = new LinkedHashSet<>();
+            for (long[] chunk : SeatInList.chunks(seatKeys)) {
+                try (PreparedStatement ps = c.prepareStatement(select.sql(chunk))) {
+                    ps.setString(1, userId);
+                    ps.setString(2, eventId);
+                    SeatInList.bind(ps, 3, chunk);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) ids.add(rs.getLong(1));
+                    }
+                }
+            }
+            List<Long> cancelled = new ArrayList<>();
+            try (PreparedStatement ps = c.prepareStatement(cancelSql)) {
+                for (long id : ids) {
+                    ps.setString(1, reason);
+                    ps.setLong(2, id);
+                    if (ps.executeUpdate() == 1) cancelled.add(id);
+                }
+            }
+            tx.commit();
+            return cancelled;
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("cancelOrdersWithSeats failed", e);
+        }
+    }
+
     /*
      *Count order items per event
      */
@@ -13,67 +13,57 @@ import java.util.List;
  */
 public class JdbcOrderItemDao implements OrderItemDao {
 
+    // Item ids are made up here instead of by AUTO_INCREMENT; null means the shared generator
+    private final SnowflakeIdGenerator ids;
 
-    /*
-     * Creates the order_items table if it does not exist
-     */
-    @Override
-    public void createTableIfNotExists() throws SQLException {
-        try (Connection c = DatabaseConnection.getConnection();
-             Statement st = c.createStatement()) {
+    //Constructors
+    public JdbcOrderItemDao() {
+        this(null);
+    }
 
-            st.execute("""
-                CREATE TABLE IF NOT EXISTS order_items (
-                  id           INT AUTO_INCREMENT PRIMARY KEY,
-                  order_id     INT         NOT NULL,
-                  event_id     VARCHAR(64) NOT NULL,
-                  row_label    VARCHAR(4)  NOT NULL,
-                  seat_number  INT         NOT NULL,
-                  price_cents  INT         NOT NULL,
-                  FOREIGN KEY (order_id) REFERENCES orders(id)
-                    ON DELETE CASCADE ON UPDATE CASCADE,
-                  FOREIGN KEY (event_id, row_label, seat_number)
-                    REFERENCES seats(event_id, row_label, seat_number)
-                    ON DELETE RESTRICT ON UPDATE CASCADE
-                )
-            """);
-        } catch (Exception e) {
-            if (e instanceof SQLException se) throw se;
-            throw new SQLException("createTableIfNotExists(order_items) failed", e);
-        }
+    public JdbcOrderItemDao(SnowflakeIdGenerator ids) {
+        this.ids = ids;
     }
 
     /*
-     * Used to insert items to the order_items table
+     * Used to insert items to the order_items table, all of them in one multi-row INSERT.
+     * Joins the caller's TransactionScope (e.g. createOrder) so the items commit together with the order
      */
     @Override
-    public void insertItems(Connection c, int orderId, List<Seat> seats) throws SQLException {
+    public void insertItems(long orderId, List<Seat> seats) throws SQLException {
         //If no seats, nothing to add to table
         if (seats == null || seats.isEmpty()) return;
 
-        final String sql =
-                "INSERT INTO order_items (order_id, event_id, row_label, seat_number, price_cents) " +
-                        "VALUES (?,?,?,?,?)";
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO order_items (id, order_id, event_id, row_label, seat_number, price_cents) VALUES ");
+        for (int i = 0; i < seats.size(); i++) sql.append(i == 0 ? "(?,?,?,?,?,?)" : ",(?,?,?,?,?,?)");
 
-        try (PreparedStatement ps = c.prepareStatement(sql)) {
+        SnowflakeIdGenerator generator = ids != null ? ids : SnowflakeIdGenerator.shared();
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            int p = 1;
             for (Seat s : seats) {
-                ps.setInt(1, orderId);
-                ps.setString(2, s.getEventId());
-                ps.setString(3, s.getRowLabel());
-                ps.setInt(4, s.getSeat_number());
-                ps.setInt(5, s.getPriceCents());
-                ps.addBatch();
+                ps.setLong(p++, generator.nextId());
+                ps.setLong(p++, orderId);
+                ps.setString(p++, s.getEventId());
+                ps.setString(p++, s.getRowLabel());
+                ps.setInt(p++, s.getSeat_number());
+                ps.setInt(p++, s.getPriceCents());
             }
-            ps.executeBatch();
+            ps.executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("insertItems failed", e);
         }
     }
 
-
     /*
      * Find order_items by order
      */
     @Override
-    public List<OrderItem> findByOrderId(int orderId) throws SQLException {
+    public List<OrderItem> findByOrderId(long orderId) throws SQLException {
         List<OrderItem> out = new ArrayList<>();
         final String sql = "SELECT id, order_id, event_id, row_label, seat_number, price_cents FROM order_items WHERE order_id=?";
 
@@ -82,12 +72,12 @@ public class JdbcOrderItemDao implements OrderItemDao {
         try {
             c = DatabaseConnection.getConnection();
             try (PreparedStatement ps = c.prepareStatement(sql)) {
-                ps.setInt(1, orderId);
+                ps.setLong(1, orderId);
                 try (ResultSet rs = ps.executeQuery()) {
                     while (rs.next()) {
                         out.add(new OrderItem(
-                                rs.getInt("id"),
-                                rs.getInt("order_id"),
+                                rs.getLong("id"),
+                                rs.getLong("order_id"),
                                 rs.getString("event_id"),
                                 rs.getString("row_label"),
                                 rs.getInt("seat_number"),
@@ -2,9 +2,13 @@ package menuki.ticketing.data.jdbc;
 
 import menuki.ticketing.data.dao.SeatDao;
 import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.model.SeatHold;
+import menuki.ticketing.model.SeatKey;
 import menuki.ticketing.model.SeatStatus;
 import menuki.ticketing.model.SeatType;
 import java.sql.*;
+import java.time.Instant;
 import java.util.*;
 
 
@@ -13,39 +17,8 @@ import java.util.*;
  */
 public class JdbcSeatDao implements SeatDao {
 
-    /*
-     * Creates the Orders table if it does not exist
-     */
-    @Override
-    public void createTableIfNotExists() throws SQLException {
-        final String sql = """
-        CREATE TABLE IF NOT EXISTS seats (
-          event_id    VARCHAR(64)  NOT NULL,
-          row_label   VARCHAR(4)   NOT NULL,
-          seat_number INT          NOT NULL,
-          type        ENUM('STANDARD','VIP') NOT NULL,
-          status      ENUM('AVAILABLE','SELECTED','RESERVED') NOT NULL DEFAULT 'AVAILABLE',
-          price_cents INT NOT NULL,
-          PRIMARY KEY (event_id, row_label, seat_number),
-          FOREIGN KEY (event_id) REFERENCES events(id)
-            ON DELETE CASCADE ON UPDATE CASCADE
-        )
-        """;
-
-        Connection c = null;
-        try {
-            c = DatabaseConnection.getConnection();
-            try (Statement st = c.createStatement()) {
-                st.execute(sql);
-            }
-        } catch (Exception e) {
-            if (e instanceof SQLException se) throw se;
-            throw new SQLException("createTableIfNotExists(seats) failed", e);
-        } finally {
-            if (c != null) try { c.close(); } catch (SQLException ignore) {}
-        }
-    }
-
+    private static final SeatType[] SEAT_TYPES = SeatType.values();
+    private static final SeatStatus[] SEAT_STATUSES = SeatStatus.values();
 
     /*
      * Checks if there is at leats one seat for that specific event
@@ -76,85 +49,150 @@ public class JdbcSeatDao implements SeatDao {
      */
     @Override
     public List<Seat> findByEvent(String eventId) throws SQLException {
+        return findBlockByEvent(eventId).toSeats();
+    }
+
+    /*
+     * Get seats by event in columnar form, filled straight from the ResultSet without a Seat per row
+     */
+    @Override
+    public SeatBlock findBlockByEvent(String eventId) throws SQLException {
         final String sql = """
-            SELECT row_label, seat_number, type, status, price_cents
+            SELECT row_label, seat_number, type, status, price_cents, version
             FROM seats
             WHERE event_id = ?
             ORDER BY row_label, seat_number
             """;
-        // Store query results for seats in a List
-        List<Seat> out = new ArrayList<>();
+        return readBlock(eventId, sql, 0, ps -> {
+            ps.setString(1, eventId);
+            return 2;
+        });
+    }
+
+    /*
+     * Get only the seats of an event that changed after the given version (e.g. the version of the block
+     * a client is showing). The block returned carries the version to ask from next time
+     */
+    @Override
+    public SeatBlock findChangedSince(String eventId, long sinceVersion) throws SQLException {
+        final String sql = """
+            SELECT row_label, seat_number, type, status, price_cents, version
+            FROM seats
+            WHERE event_id = ? AND version > ?
+            ORDER BY row_label, seat_number
+            """;
+        return readBlock(eventId, sql, sinceVersion, ps -> {
+            ps.setString(1, eventId);
+            ps.setLong(2, sinceVersion);
+            return 3;
+        });
+    }
+
+    /*
+     * Latest seat version of an event (0 if its seats never changed)
+     */
+    @Override
+    public long currentVersion(String eventId) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT version FROM event_availability WHERE event_id = ?")) {
+            ps.setString(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("currentVersion failed", e);
+        }
+    }
+
+    /*
+     * Reads seats into a SeatBlock. The block's version is the highest seat version seen: writers to an event
+     * queue on its counter row, so they commit in version order and nothing older can show up later
+     */
+    private static SeatBlock readBlock(String eventId, String sql, long sinceVersion, LeadingParams params)
+            throws SQLException {
+        SeatBlock.Builder out = SeatBlock.builder(eventId, 1);
+        long version = sinceVersion;
 
         Connection c = null;
         try {
             c = DatabaseConnection.getConnection();
-            try (PreparedStatement ps = c.prepareStatement(sql)) {
-                ps.setString(1, eventId);
+            // The driver buffers the whole result anyway, so scrolling to the end to count the rows is free
+            try (PreparedStatement ps = c.prepareStatement(sql, ResultSet.TYPE_SCROLL_INSENSITIVE,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                params.bind(ps);
                 try (ResultSet rs = ps.executeQuery()) {
+                    // Size the arrays once instead of growing them
+                    if (rs.last()) {
+                        out.expectSize(rs.getRow());
+                        rs.beforeFirst();
+                    }
                     while (rs.next()) {
-                        out.add(new Seat(
-                                eventId,
-                                rs.getString("row_label"),
-                                rs.getInt("seat_number"),
-                                SeatType.valueOf(rs.getString("type").toUpperCase()),
-                                SeatStatus.valueOf(rs.getString("status").toUpperCase()),
-                                rs.getInt("price_cents")
-                        ));
+                        out.add(rs.getString(1), rs.getInt(2), typeOf(rs.getString(3)),
+                                statusOf(rs.getString(4)), rs.getInt(5));
+                        version = Math.max(version, rs.getLong(6));
                     }
                 }
             }
         } catch (Exception e) {
             if (e instanceof SQLException se) throw se;
-            throw new SQLException("findByEvent failed", e);
+            throw new SQLException("readBlock failed", e);
         } finally {
             if (c != null) try { c.close(); } catch (SQLException ignore) {}
         }
-        return out;
+        return out.version(version).build();
     }
 
     /*
-     * Used to reserve seats
+     * Seat type of a column value, matched without upper-casing a copy of the string
      */
-    @Override
-    public boolean reserveSeatsAtomic(String eventId, List<String> seatIds) throws SQLException {
-        if (seatIds == null || seatIds.isEmpty()) return true;
-
-        final String update = """
-        UPDATE seats
-           SET status = 'RESERVED'
-         WHERE event_id = ?
-           AND row_label = ?
-           AND seat_number = ?
-           AND status = 'AVAILABLE'
-        """;
+    private static SeatType typeOf(String value) {
+        for (SeatType t : SEAT_TYPES) {
+            if (t.name().equalsIgnoreCase(value)) return t;
+        }
+        throw new IllegalArgumentException("Unknown seat type: " + value);
+    }
 
-        Connection c = null;
-        try {
-            c = DatabaseConnection.getConnection();
-            c.setAutoCommit(false);
-            int affected = 0;
-            try (PreparedStatement ps = c.prepareStatement(update)) {
-                for (String id : seatIds) {
-                    ps.setString(1, eventId);
-                    ps.setString(2, parseRowLabel(id));
-                    ps.setInt(3, parseSeatNumber(id));
-                    ps.addBatch();
-                }
-                int[] counts = ps.executeBatch();
-                for (int n : counts) affected += (n > 0 ? 1 : 0);
-            }
-            if (affected != seatIds.size()) { c.rollback(); return false; }
-            c.commit();
+    /*
+     * Seat status of a column value, matched without upper-casing a copy of the string
+     */
+    private static SeatStatus statusOf(String value) {
+        for (SeatStatus st : SEAT_STATUSES) {
+            if (st.name().equalsIgnoreCase(value)) return st;
+        }
+        throw new IllegalArgumentException("Unknown seat status: " + value);
+    }
+
+    /*
+     * Used to reserve seats. One set-based UPDATE per chunk of seats, all or nothing
+     */
+    @Override
+    public boolean reserveSeatsAtomic(String eventId, long[] seatKeys) throws SQLException {
+        if (seatKeys == null || seatKeys.length == 0) return true;
+        final SeatInList update = SeatInList.of("""
+            UPDATE seats
+               SET status = 'RESERVED', version = ?
+             WHERE event_id = ?
+               AND status = 'AVAILABLE'
+               AND %s
+            """);
+
+        //Either every seat is reserved or none is. Joins the caller's TransactionScope if there is one
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection()) {
+            //Closing the scope without committing rolls back
+            long version = nextVersion(c, eventId);
+            if (!updateAll(c, update, seatKeys, ps -> {
+                ps.setLong(1, version);
+                ps.setString(2, eventId);
+                return 3;
+            })) return false;
+            adjustAvailability(c, eventId, -SeatInList.distinctCount(seatKeys), 0);
+            tx.commit();
             return true;
         } catch (Exception e) {
-            if (c != null) try { c.rollback(); } catch (SQLException ignore) {}
             if (e instanceof SQLException se) throw se;
             throw new SQLException("reserveSeatsAtomic failed", e);
-        } finally {
-            if (c != null) {
-                try { c.setAutoCommit(true); } catch (SQLException ignore) {}
-                try { c.close(); } catch (SQLException ignore) {}
-            }
         }
     }
 
@@ -162,33 +200,37 @@ public class JdbcSeatDao implements SeatDao {
      * Mark seat status as reserved
      */
     @Override
-    public void markReserved(String eventId, List<String> seatIds) throws SQLException {
-        if (seatIds == null || seatIds.isEmpty()) return;
-        final String update = """
+    public void markReserved(String eventId, long[] seatKeys) throws SQLException {
+        if (seatKeys == null || seatKeys.length == 0) return;
+        final SeatInList update = SeatInList.of("""
             UPDATE seats
-               SET status = 'RESERVED'
+               SET status = 'RESERVED', held_by = NULL, hold_expires_at = NULL, version = ?
              WHERE event_id = ?
-               AND row_label = ?
-               AND seat_number = ?
-            """;
-
-
-        Connection c = null;
-        try {
-            c = DatabaseConnection.getConnection();
-            try (PreparedStatement ps = c.prepareStatement(update)) {
-                for (String id : seatIds) {
-                    ps.setString(1, eventId);
-                    ps.setString(2, parseRowLabel(id));
-                    ps.setInt(3, parseSeatNumber(id));
-                    ps.executeUpdate();
-                }
-            }
+               AND status = ?
+               AND %s
+            """);
+
+        //Available and held seats are updated separately so the counter knows how many were available
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection()) {
+            long version = nextVersion(c, eventId);
+            int wasAvailable = updateEach(c, update, seatKeys, ps -> {
+                ps.setLong(1, version);
+                ps.setString(2, eventId);
+                ps.setString(3, SeatStatus.AVAILABLE.name());
+                return 4;
+            });
+            updateEach(c, update, seatKeys, ps -> {
+                ps.setLong(1, version);
+                ps.setString(2, eventId);
+                ps.setString(3, SeatStatus.SELECTED.name());
+                return 4;
+            });
+            adjustAvailability(c, eventId, -wasAvailable, 0);
+            tx.commit();
         } catch (Exception e) {
             if (e instanceof SQLException se) throw se;
             throw new SQLException("markReserved failed", e);
-        } finally {
-            if (c != null) try { c.close(); } catch (SQLException ignore) {}
         }
     }
 
@@ -202,16 +244,13 @@ public class JdbcSeatDao implements SeatDao {
         if (seats == null || seats.isEmpty()) return;
 
         final String insert = """
-        INSERT INTO seats(event_id,row_label,seat_number,type,status,price_cents)
-        VALUES (?,?,?,?,?,?)
+        INSERT INTO seats(event_id,row_label,seat_number,type,status,price_cents,version)
+        VALUES (?,?,?,?,?,?,?)
         """;
-        Connection c = null;
-        long T0 = System.currentTimeMillis();
-        try {
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection()) {
 
-            c = DatabaseConnection.getConnection();
-            System.out.println("[DAO.insertAll] Using connection URL: " + c.getMetaData().getURL());
-            c.setAutoCommit(false);
+            long version = nextVersion(c, eventId);
             try (PreparedStatement ps = c.prepareStatement(insert)) {
                 for (Seat s : seats) {
                     ps.setString(1, eventId);
@@ -220,26 +259,18 @@ public class JdbcSeatDao implements SeatDao {
                     ps.setString(4, s.getType().name());
                     ps.setString(5, s.getStatus().name());
                     ps.setInt(6, s.getPriceCents());
+                    ps.setLong(7, version);
                     ps.addBatch();
                 }
                 //Executing in batches to speed up
-                System.out.println("[DAO.insertAll] batching " + seats.size() + " seats...");
-                int[] counts = ps.executeBatch();
-                long tBatch = System.currentTimeMillis();
-                System.out.println("[DAO.insertAll] executeBatch took " + (tBatch - T0) + " ms, rows=" + counts.length);
+                ps.executeBatch();
             }
-            c.commit();
-            long tCommit = System.currentTimeMillis();
-            System.out.println("[DAO.insertAll] commit took " + (tCommit - T0) + " ms (since start)");
+            int available = (int) seats.stream().filter(s -> s.getStatus() == SeatStatus.AVAILABLE).count();
+            adjustAvailability(c, eventId, available, seats.size());
+            tx.commit();
         } catch (Exception e) {
-            if (c != null) try { c.rollback(); } catch (SQLException ignore) {}
             if (e instanceof SQLException se) throw se;
             throw new SQLException("insertAll failed", e);
-        } finally {
-            if (c != null) {
-                try { c.setAutoCommit(true); } catch (SQLException ignore) {}
-                try { c.close(); } catch (SQLException ignore) {}
-            }
         }
     }
 
@@ -247,57 +278,106 @@ public class JdbcSeatDao implements SeatDao {
      * Change seat status to AVAILABLE
      */
     @Override
-    public void markAvailable(String eventId, List<String> seatIds) throws SQLException {
-        if (seatIds == null || seatIds.isEmpty()) return;
-
-        final String update = """
-        UPDATE seats
-           SET status = 'AVAILABLE'
-         WHERE event_id = ?
-           AND row_label = ?
-           AND seat_number = ?
-        """;
-
-        Connection c = null;
-        try {
-            c = DatabaseConnection.getConnection(); // was: try (Connection c = conn(); ...
-            try (PreparedStatement ps = c.prepareStatement(update)) {
-                for (String id : seatIds) {
-                    ps.setString(1, eventId);
-                    ps.setString(2, parseRowLabel(id));
-                    ps.setInt(3, parseSeatNumber(id));
-                    ps.addBatch();
-                }
-                ps.executeBatch();
-            }
+    public void markAvailable(String eventId, long[] seatKeys) throws SQLException {
+        if (seatKeys == null || seatKeys.length == 0) return;
+        final SeatInList update = SeatInList.of("""
+            UPDATE seats
+               SET status = 'AVAILABLE', held_by = NULL, hold_expires_at = NULL, version = ?
+             WHERE event_id = ?
+               AND status <> 'AVAILABLE'
+               AND %s
+            """);
+
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection()) {
+            long version = nextVersion(c, eventId);
+            int released = updateEach(c, update, seatKeys, ps -> {
+                ps.setLong(1, version);
+                ps.setString(2, eventId);
+                return 3;
+            });
+            adjustAvailability(c, eventId, released, 0);
+            tx.commit();
         } catch (Exception e) {
             if (e instanceof SQLException se) throw se;
             throw new SQLException("markAvailable failed", e);
-        } finally {
-            if (c != null) try { c.close(); } catch (SQLException ignore) {}
         }
     }
 
     /*
-     * Used to extract the row from the display ID
+     * Runs a set-based seat UPDATE once per chunk of seats. Returns the number of rows changed
+     */
+    private static int updateEach(Connection c, SeatInList update, long[] seatKeys, LeadingParams lead)
+            throws SQLException {
+        int affected = 0;
+        for (long[] chunk : SeatInList.chunks(seatKeys)) {
+            try (PreparedStatement ps = c.prepareStatement(update.sql(chunk))) {
+                SeatInList.bind(ps, lead.bind(ps), chunk);
+                affected += ps.executeUpdate();
+            }
+        }
+        return affected;
+    }
+
+    /*
+     * Runs a conditional set-based seat UPDATE and checks that it changed every (distinct) seat.
+     * Callers run it inside a TransactionScope so a short count can be rolled back
+     */
+    private static boolean updateAll(Connection c, SeatInList update, long[] seatKeys, LeadingParams lead)
+            throws SQLException {
+        int expected = SeatInList.distinctCount(seatKeys);
+        return updateEach(c, update, seatKeys, lead) == expected;
+    }
+
+    /*
+     * Binds the parameters that come before the IN-list and returns the next parameter index
      */
-    private static String parseRowLabel(String displayId) {
-        int dash = displayId.indexOf('-');
-        return (dash > 0) ? displayId.substring(0, dash) : displayId;
+    @FunctionalInterface
+    private interface LeadingParams {
+        int bind(PreparedStatement ps) throws SQLException;
     }
+
     /*
-     * Used to extract seat number from display ID
+     * Takes the next seat version of the event, to stamp on every seat the caller's transaction changes.
+     * Must be the first statement of a seat write: it locks the event's counter row until the transaction ends,
+     * so writers to one event commit in version order
      */
-    private static int parseSeatNumber(String displayId) {
-        int dash = displayId.indexOf('-');
-        if (dash >= 0 && dash + 1 < displayId.length()) {
-            try { return Integer.parseInt(displayId.substring(dash + 1)); }
-            catch (NumberFormatException ignore) {}
+    private static long nextVersion(Connection c, String eventId) throws SQLException {
+        final String bump = """
+            INSERT INTO event_availability (event_id, available, total, version) VALUES (?, 0, 0, 1)
+            ON DUPLICATE KEY UPDATE version = version + 1
+            """;
+        try (PreparedStatement ps = c.prepareStatement(bump)) {
+            ps.setString(1, eventId);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = c.prepareStatement("SELECT version FROM event_availability WHERE event_id = ?")) {
+            ps.setString(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
         }
-        //In case it is not formatted as expected
-        return Integer.parseInt(displayId.replaceAll("\\D+", ""));
     }
 
+    /*
+     * Applies a change to the event's available/total seat counters. Must run on the same connection
+     * (and transaction) as the seat UPDATE it accounts for, so both commit or roll back together
+     */
+    private static void adjustAvailability(Connection c, String eventId, int availableDelta, int totalDelta)
+            throws SQLException {
+        if (availableDelta == 0 && totalDelta == 0) return;
+        final String sql = """
+            INSERT INTO event_availability (event_id, available, total) VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE available = available + VALUES(available), total = total + VALUES(total)
+            """;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, eventId);
+            ps.setInt(2, availableDelta);
+            ps.setInt(3, totalDelta);
+            ps.executeUpdate();
+        }
+    }
 
     /*
      * Use to set which rows will be VIP rows
@@ -306,24 +386,24 @@ public class JdbcSeatDao implements SeatDao {
     public void setVipSeats(String eventId, List<String> vipRows, int priceCents) throws SQLException {
         if (vipRows == null || vipRows.isEmpty()) return;
         String placeholders = String.join(",", Collections.nCopies(vipRows.size(), "?"));
-        String sql = "UPDATE seats SET price_cents=?, type='VIP' " +
+        String sql = "UPDATE seats SET price_cents=?, type='VIP', version=? " +
                 "WHERE event_id=? AND row_label IN (" + placeholders + ")";
 
-        Connection c = null;
-        try {
-            c = DatabaseConnection.getConnection();
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection()) {
+            long version = nextVersion(c, eventId);
             try (PreparedStatement ps = c.prepareStatement(sql)) {
                 int i = 1;
                 ps.setInt(i++, priceCents);
+                ps.setLong(i++, version);
                 ps.setString(i++, eventId);
                 for (String r : vipRows) ps.setString(i++, r);
                 ps.executeUpdate();
             }
+            tx.commit();
         } catch (Exception e) {
             if (e instanceof SQLException se) throw se;
             throw new SQLException("setVipSeats failed", e);
-        } finally {
-            if (c != null) try { c.close(); } catch (SQLException ignore) {}
         }
     }
 
@@ -333,29 +413,29 @@ public class JdbcSeatDao implements SeatDao {
      */
     @Override
     public void setStandardSeats(String eventId, List<String> excludedVipRows, int priceCents) throws SQLException {
-        String sql = "UPDATE seats SET price_cents=?, type='STANDARD' WHERE event_id=?";
+        String sql = "UPDATE seats SET price_cents=?, type='STANDARD', version=? WHERE event_id=?";
         if (excludedVipRows != null && !excludedVipRows.isEmpty()) {
             String placeholders = String.join(",", Collections.nCopies(excludedVipRows.size(), "?"));
             sql += " AND row_label NOT IN (" + placeholders + ")";
         }
 
-        Connection c = null;
-        try {
-            c = DatabaseConnection.getConnection();
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection()) {
+            long version = nextVersion(c, eventId);
             try (PreparedStatement ps = c.prepareStatement(sql)) {
                 int i = 1;
                 ps.setInt(i++, priceCents);
+                ps.setLong(i++, version);
                 ps.setString(i++, eventId);
                 if (excludedVipRows != null) {
                     for (String r : excludedVipRows) ps.setString(i++, r);
                 }
                 ps.executeUpdate();
             }
+            tx.commit();
         } catch (Exception e) {
             if (e instanceof SQLException se) throw se;
             throw new SQLException("setStandardSeats failed", e);
-        } finally {
-            if (c != null) try { c.close(); } catch (SQLException ignore) {}
         }
     }
 
@@ -369,14 +449,14 @@ public class JdbcSeatDao implements SeatDao {
 
         //Initially all seats are available, STANDARD and cost 0
         final String sql =
-                "INSERT INTO seats (event_id, row_label, seat_number, status, type, price_cents) " +
-                        "VALUES (?, ?, ?, 'AVAILABLE', 'STANDARD', 0)";
+                "INSERT INTO seats (event_id, row_label, seat_number, status, type, price_cents, version) " +
+                        "VALUES (?, ?, ?, 'AVAILABLE', 'STANDARD', 0, ?)";
 
-        java.sql.Connection c = null;
-        try {
-            c = DatabaseConnection.getConnection();
-            c.setAutoCommit(false);
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection()) {
 
+            long version = nextVersion(c, eventId);
+            int created = 0;
             try (PreparedStatement ps = c.prepareStatement(sql)) {
                 for (String row : rowLabels) {
                     String r = row.trim();
@@ -386,40 +466,31 @@ public class JdbcSeatDao implements SeatDao {
                         ps.setString(1, eventId);
                         ps.setString(2, r);
                         ps.setInt(3, i);
+                        ps.setLong(4, version);
                         ps.addBatch();
+                        created++;
                     }
                 }
                 ps.executeBatch();
             }
+            adjustAvailability(c, eventId, created, created);
 
-            c.commit();
+            tx.commit();
 
         } catch (Exception e) {
-            if (c != null) {
-                try { c.rollback(); } catch (SQLException ignore) {}
-            }
             if (e instanceof SQLException) throw (SQLException) e;
             throw new SQLException("createGrid failed", e);
-
-        } finally {
-            if (c != null) {
-                try { c.close(); } catch (SQLException ignore) {}
-            }
         }
     }
 
 
     /*
-     * Used to get the number of seats available for a specific event
+     * Used to get the number of seats available for a specific event.
+     * Reads the maintained counters (one row per event) instead of counting the seats
      */
     @Override
     public Map<String, Integer> countAvailableByEvent() throws SQLException {
-        final String sql = """
-            SELECT event_id,
-                   SUM(CASE WHEN status='AVAILABLE' THEN 1 ELSE 0 END) AS available
-            FROM seats
-            GROUP BY event_id
-        """;
+        final String sql = "SELECT event_id, available FROM event_availability";
         Map<String, Integer> out = new HashMap<>();
 
         Connection c = null;
@@ -440,5 +511,279 @@ public class JdbcSeatDao implements SeatDao {
         }
     }
 
+    /*
+     * Used to get the number of seats available for one event: a primary key lookup of its counter row
+     */
+    @Override
+    public int countAvailable(String eventId) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT available FROM event_availability WHERE event_id = ?")) {
+            ps.setString(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("countAvailable failed", e);
+        }
+    }
+
+
+    /*
+     * Finds events whose counters no longer match their seats and recounts them. Returns how many were fixed.
+     * The first pass counts every seat without locks, so each suspect event is then recounted under its
+     * counter row lock; writers update that row in their own transaction, so none can slip in between
+     */
+    @Override
+    public int reconcileAvailability() throws SQLException {
+        final String actual = """
+            SELECT event_id, SUM(CASE WHEN status = 'AVAILABLE' THEN 1 ELSE 0 END) AS available, COUNT(*) AS total
+            FROM seats
+            GROUP BY event_id
+            """;
+        final String counters = "SELECT event_id, available, total FROM event_availability";
+
+        Map<String, Long> expected = new HashMap<>();
+        Set<String> suspects = new HashSet<>();
+        try (Connection c = DatabaseConnection.getConnection()) {
+            try (PreparedStatement ps = c.prepareStatement(actual);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) expected.put(rs.getString(1), packCounts(rs.getInt(2), rs.getInt(3)));
+            }
+            try (PreparedStatement ps = c.prepareStatement(counters);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String eventId = rs.getString(1);
+                    Long want = expected.remove(eventId);
+                    long have = packCounts(rs.getInt(2), rs.getInt(3));
+                    if (want == null ? have != 0 : want != have) suspects.add(eventId);
+                }
+            }
+            // Events with seats but no counter row at all
+            suspects.addAll(expected.keySet());
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("reconcileAvailability failed", e);
+        }
+
+        int fixed = 0;
+        for (String eventId : suspects) {
+            if (recountAvailability(eventId)) fixed++;
+        }
+        return fixed;
+    }
+
+    /*
+     * Recounts one event's seats with its counter row locked. Returns true if the counter was wrong
+     */
+    private boolean recountAvailability(String eventId) throws SQLException {
+        final String lock = "SELECT available, total FROM event_availability WHERE event_id = ? FOR UPDATE";
+        final String count = """
+            SELECT COALESCE(SUM(CASE WHEN status = 'AVAILABLE' THEN 1 ELSE 0 END), 0), COUNT(*)
+            FROM seats
+            WHERE event_id = ?
+            """;
+        final String fix = "UPDATE event_availability SET available = ?, total = ? WHERE event_id = ?";
 
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection()) {
+            long have;
+            try (PreparedStatement ps = c.prepareStatement(lock)) {
+                ps.setString(1, eventId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    have = rs.next() ? packCounts(rs.getInt(1), rs.getInt(2)) : -1;
+                }
+            }
+            int available, total;
+            try (PreparedStatement ps = c.prepareStatement(count)) {
+                ps.setString(1, eventId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    available = rs.getInt(1);
+                    total = rs.getInt(2);
+                }
+            }
+            if (have == packCounts(available, total)) return false;
+
+            if (have < 0) {
+                adjustAvailability(c, eventId, available, total);
+            } else {
+                try (PreparedStatement ps = c.prepareStatement(fix)) {
+                    ps.setInt(1, available);
+                    ps.setInt(2, total);
+                    ps.setString(3, eventId);
+                    ps.executeUpdate();
+                }
+            }
+            tx.commit();
+            return true;
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("recountAvailability failed", e);
+        }
+    }
+
+    private static long packCounts(int available, int total) {
+        return ((long) total << 32) | (available & 0xFFFFFFFFL);
+    }
+
+    /*
+     * Puts a temporary hold on seats for one user. Either every seat is held or none is
+     */
+    @Override
+    public boolean holdSeats(String eventId, long[] seatKeys, String holderId, Instant expiresAt) throws SQLException {
+        if (seatKeys == null || seatKeys.length == 0) return true;
+        final SeatInList update = SeatInList.of("""
+            UPDATE seats
+               SET status = 'SELECTED', held_by = ?, hold_expires_at = ?, version = ?
+             WHERE event_id = ?
+               AND status = 'AVAILABLE'
+               AND %s
+            """);
+
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection()) {
+            Timestamp expires = Timestamp.from(expiresAt);
+            long version = nextVersion(c, eventId);
+            if (!updateAll(c, update, seatKeys, ps -> {
+                ps.setString(1, holderId);
+                ps.setTimestamp(2, expires);
+                ps.setLong(3, version);
+                ps.setString(4, eventId);
+                return 5;
+            })) return false;
+            adjustAvailability(c, eventId, -SeatInList.distinctCount(seatKeys), 0);
+            tx.commit();
+            return true;
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("holdSeats failed", e);
+        }
+    }
+
+    /*
+     * Turns a user's holds into reservations (checkout). Fails unless every seat is still held by that user
+     */
+    @Override
+    public boolean confirmHolds(String eventId, long[] seatKeys, String holderId) throws SQLException {
+        if (seatKeys == null || seatKeys.length == 0) return true;
+        final SeatInList update = SeatInList.of("""
+            UPDATE seats
+               SET status = 'RESERVED', held_by = NULL, hold_expires_at = NULL, version = ?
+             WHERE event_id = ?
+               AND status = 'SELECTED'
+               AND held_by = ?
+               AND %s
+            """);
+
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection()) {
+            long version = nextVersion(c, eventId);
+            if (!updateAll(c, update, seatKeys, ps -> {
+                ps.setLong(1, version);
+                ps.setString(2, eventId);
+                ps.setString(3, holderId);
+                return 4;
+            })) return false;
+            tx.commit();
+            return true;
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("confirmHolds failed", e);
+        }
+    }
+
+    /*
+     * Releases held seats in bulk (used for expired holds). Seats no longer held are left alone.
+     * One UPDATE per chunk of seats instead of one per row
+     */
+    @Override
+    public int releaseHolds(String eventId, long[] seatKeys) throws SQLException {
+        if (seatKeys == null || seatKeys.length == 0) return 0;
+        final SeatInList update = SeatInList.of("""
+            UPDATE seats
+               SET status = 'AVAILABLE', held_by = NULL, hold_expires_at = NULL, version = ?
+             WHERE event_id = ?
+               AND status = 'SELECTED'
+               AND %s
+            """);
+
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection()) {
+            long version = nextVersion(c, eventId);
+            int released = updateEach(c, update, seatKeys, ps -> {
+                ps.setLong(1, version);
+                ps.setString(2, eventId);
+                return 3;
+            });
+            adjustAvailability(c, eventId, released, 0);
+            tx.commit();
+            return released;
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("releaseHolds failed", e);
+        }
+    }
+
+    /*
+     * Releases every hold of the event that has already expired (e.g. left behind by a crashed client)
+     */
+    @Override
+    public int releaseExpiredHolds(String eventId, Instant now) throws SQLException {
+        final String sql = """
+            UPDATE seats
+               SET status = 'AVAILABLE', held_by = NULL, hold_expires_at = NULL, version = ?
+             WHERE event_id = ?
+               AND status = 'SELECTED'
+               AND (hold_expires_at IS NULL OR hold_expires_at <= ?)
+            """;
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection()) {
+            long version = nextVersion(c, eventId);
+            int released;
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setLong(1, version);
+                ps.setString(2, eventId);
+                ps.setTimestamp(3, Timestamp.from(now));
+                released = ps.executeUpdate();
+            }
+            adjustAvailability(c, eventId, released, 0);
+            tx.commit();
+            return released;
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("releaseExpiredHolds failed", e);
+        }
+    }
+
+    /*
+     * Get the current holds for an event
+     */
+    @Override
+    public List<SeatHold> findHolds(String eventId) throws SQLException {
+        final String sql = """
+            SELECT row_label, seat_number, held_by, hold_expires_at
+            FROM seats
+            WHERE event_id = ? AND status = 'SELECTED'
+            """;
+        List<SeatHold> out = new ArrayList<>();
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp expires = rs.getTimestamp("hold_expires_at");
+                    out.add(new SeatHold(
+                            eventId,
+                            SeatKey.of(rs.getString("row_label"), rs.getInt("seat_number")),
+                            rs.getString("held_by"),
+                            expires != null ? expires.toInstant() : Instant.EPOCH));
+                }
+            }
+            return out;
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("findHolds failed", e);
+        }
+    }
 }
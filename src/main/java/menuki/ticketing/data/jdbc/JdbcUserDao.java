@@ -11,28 +11,6 @@ import java.util.List;
  */
 public class JdbcUserDao implements UserDao {
 
-    /*
-     * Creates the Orders table if it does not exist
-     */
-    @Override
-    public void createTableIfNotExists() throws SQLException {
-        final String sql = """
-        CREATE TABLE IF NOT EXISTS users (
-          username VARCHAR(50) PRIMARY KEY,
-          password VARCHAR(255) NOT NULL,
-          role ENUM('ADMIN', 'USER') NOT NULL DEFAULT 'USER'
-        );
-        """;
-
-        try (Connection c = DatabaseConnection.getConnection();
-             Statement stmt = c.createStatement()) {
-            stmt.execute(sql);
-        } catch (Exception e) {
-            if (e instanceof SQLException) throw (SQLException) e;
-            throw new SQLException("createTableIfNotExists(users) failed", e);
-        }
-    }
-
 
     /*
      * This is used to check if a username already exists in the database
@@ -0,0 +1,150 @@
+package menuki.ticketing.data.jdbc;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * One numbered step of the schema, applied once by the SchemaMigrator and recorded in schema_version.
+ * The checksum covers the step's definition (its SQL text, or for Java steps a text saying what they do);
+ * a recorded checksum that no longer matches means an applied step was edited afterwards, which is refused.
+ * Change the schema with a new step instead.
+ */
+public final class Migration {
+
+    /**
+     * The work of a step, on the migrator's connection
+     */
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection c) throws SQLException;
+    }
+
+    private final int version;
+    private final String description;
+    private final long checksum;
+    private final Step step;
+
+    //Constructor
+    private Migration(int version, String description, String definition, Step step) {
+        if (version < 1) throw new IllegalArgumentException("Migration versions start at 1");
+        this.version = version;
+        this.description = description;
+        this.checksum = checksumOf(version + "|" + description + "|" + definition);
+        this.step = step;
+    }
+
+    /*
+     * Statements run in order. Write them so they can run again (IF NOT EXISTS, NOT EXISTS guards): a step
+     * that failed half way is simply repeated
+     */
+    public static Migration sql(int version, String description, String... statements) {
+        return new Migration(version, description, String.join(";\n", statements), c -> {
+            try (Statement st = c.createStatement()) {
+                for (String sql : statements) st.execute(sql);
+            }
+        });
+    }
+
+    /*
+     * A step written in Java. The definition is what the checksum covers, so it must change whenever what the
+     * step does changes (e.g. the SQL it runs)
+     */
+    public static Migration java(int version, String description, String definition, Step step) {
+        return new Migration(version, description, definition, step);
+    }
+
+    /*
+     * Adds columns ("name TYPE ...") the table does not have yet, so tables that already got them from an
+     * older build are left alone
+     */
+    public static Migration columns(int version, String table, String... columns) {
+        List<String> names = Arrays.stream(columns).map(col -> col.substring(0, col.indexOf(' '))).toList();
+        return new Migration(version, "columns " + String.join(", ", names) + " on " + table,
+                String.join(",\n", columns), c -> {
+                    for (int i = 0; i < columns.length; i++) {
+                        if (hasColumn(c, table, names.get(i))) {
+                            System.out.println("[SCHEMA] " + table + " already has column " + names.get(i));
+                            continue;
+                        }
+                        try (Statement st = c.createStatement()) {
+                            st.execute("ALTER TABLE " + table + " ADD COLUMN " + columns[i]);
+                        }
+                    }
+                });
+    }
+
+    /*
+     * Adds an index unless the table already has one starting with these columns (under any name, e.g. the
+     * index MySQL made for a foreign key). On MySQL the index is built online, so the table stays writable
+     * while it builds
+     */
+    public static Migration index(int version, String table, String name, String... columns) {
+        String cols = String.join(", ", columns);
+        return new Migration(version, "index " + name + " on " + table + " (" + cols + ")",
+                "ADD INDEX " + name + " (" + cols + ")", c -> {
+                    if (hasIndexCovering(c, table, columns)) {
+                        System.out.println("[SCHEMA] " + table + " already has an index on (" + cols + ")");
+                        return;
+                    }
+                    try (Statement st = c.createStatement()) {
+                        st.execute(SchemaMigrator.isMySql(c)
+                                ? "ALTER TABLE " + table + " ADD INDEX " + name + " (" + cols + "), "
+                                        + "ALGORITHM=INPLACE, LOCK=NONE"
+                                : "CREATE INDEX " + name + " ON " + table + " (" + cols + ")");
+                    }
+                });
+    }
+
+    //Getters
+    public int getVersion() { return version; }
+    public String getDescription() { return description; }
+    public long getChecksum() { return checksum; }
+
+    void apply(Connection c) throws SQLException {
+        step.apply(c);
+    }
+
+    /*
+     * Whether an index of the table starts with the given columns, in that order
+     */
+    static boolean hasIndexCovering(Connection c, String table, String... columns) throws SQLException {
+        Map<String, List<String>> columnsByIndex = new LinkedHashMap<>();
+        try (ResultSet rs = c.getMetaData().getIndexInfo(c.getCatalog(), null, table, false, false)) {
+            while (rs.next()) {
+                String index = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (index == null || column == null) continue;
+                List<String> cols = columnsByIndex.computeIfAbsent(index, k -> new ArrayList<>());
+                int position = rs.getInt("ORDINAL_POSITION");
+                while (cols.size() < position) cols.add(null);
+                cols.set(position - 1, column.toLowerCase());
+            }
+        }
+        List<String> wanted = Arrays.stream(columns).map(String::toLowerCase).toList();
+        for (List<String> cols : columnsByIndex.values()) {
+            if (cols.size() >= wanted.size() && cols.subList(0, wanted.size()).equals(wanted)) return true;
+        }
+        return false;
+    }
+
+    static boolean hasColumn(Connection c, String table, String column) throws SQLException {
+        try (ResultSet rs = c.getMetaData().getColumns(c.getCatalog(), null, table, column)) {
+            return rs.next();
+        }
+    }
+
+    private static long checksumOf(String definition) {
+        CRC32 crc = new CRC32();
+        crc.update(definition.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
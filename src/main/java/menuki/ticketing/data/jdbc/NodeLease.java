@@ -0,0 +1,183 @@
+package menuki.ticketing.data.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lease on a node id (0..maxNode) in the node_leases table, so every running instance of the app generates
+ * ids under a node id no other instance holds at the same time.
+ * Expiry is kept in database time, so clock differences between app machines do not matter. The lease is
+ * renewed on a background thread; if it runs out without being renewed (database unreachable, process
+ * stalled) the node id stops being handed out until a new lease is taken, so an instance that took the
+ * expired lease over cannot produce the same ids.
+ */
+public final class NodeLease implements AutoCloseable {
+
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(60);
+
+    private final int maxNode;
+    private final Duration ttl;
+    private final String owner;
+    private final ScheduledExecutorService renewer;
+
+    // Written under this lock, read without it
+    private volatile int nodeId = -1;
+    // Local (monotonic) time after which the lease may have expired in the database
+    private volatile long validUntilNanos;
+    private volatile boolean closed;
+
+    //Constructor
+    private NodeLease(int maxNode, Duration ttl) {
+        this.maxNode = maxNode;
+        this.ttl = ttl;
+        this.owner = ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "node-lease-renewer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /*
+     * Takes a free (or expired) node id between 0 and maxNode and keeps it renewed until closed
+     */
+    public static NodeLease acquire(int maxNode, Duration ttl) throws SQLException {
+        NodeLease lease = new NodeLease(maxNode, ttl);
+        synchronized (lease) {
+            lease.take();
+        }
+        long period = Math.max(1, ttl.toMillis() / 3);
+        lease.renewer.scheduleAtFixedRate(lease::renew, period, period, TimeUnit.MILLISECONDS);
+        return lease;
+    }
+
+    /*
+     * The leased node id. Throws if the lease could not be kept, rather than risk sharing the id
+     */
+    public int nodeId() {
+        int id = nodeId;
+        if (closed) throw new IllegalStateException("Node lease closed");
+        if (id < 0 || System.nanoTime() - validUntilNanos > 0) {
+            throw new IllegalStateException("Node lease " + id + " expired");
+        }
+        return id;
+    }
+
+    public String getOwner() { return owner; }
+
+    /*
+     * Stops renewing and frees the node id for other instances
+     */
+    @Override
+    public void close() {
+        int released;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            released = nodeId;
+        }
+        renewer.shutdownNow();
+        if (released < 0) return;
+        try (Connection c = DatabaseConnection.getDataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement("DELETE FROM node_leases WHERE node_id = ? AND owner = ?")) {
+            ps.setInt(1, released);
+            ps.setString(2, owner);
+            ps.executeUpdate();
+        } catch (Exception e) {
+            System.err.println("[NODE-LEASE] Could not release node " + released + ": " + e.getMessage());
+        }
+    }
+
+    /*
+     * Extends the lease; takes a new node id if this one was lost (e.g. it expired and was taken over)
+     */
+    private synchronized void renew() {
+        if (closed) return;
+        long started = System.nanoTime();
+        try (Connection c = DatabaseConnection.getDataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement("""
+                 UPDATE node_leases SET expires_at = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP)
+                  WHERE node_id = ? AND owner = ?
+                 """)) {
+            ps.setLong(1, ttl.toSeconds());
+            ps.setInt(2, nodeId);
+            ps.setString(3, owner);
+            if (ps.executeUpdate() == 1) {
+                validUntilNanos = started + ttl.toNanos();
+                return;
+            }
+            System.err.println("[NODE-LEASE] Lost node " + nodeId + ", taking a new one");
+            take();
+        } catch (Exception e) {
+            System.err.println("[NODE-LEASE] Renewing node " + nodeId + " failed: " + e.getMessage());
+        }
+    }
+
+    /*
+     * Claims the lowest node id that is free or whose lease has expired. A claim that loses a race with
+     * another instance moves on to the next id
+     */
+    private void take() throws SQLException {
+        long started = System.nanoTime();
+        try (Connection c = DatabaseConnection.getDataSource().getConnection()) {
+            Map<Integer, Boolean> expiredById = new HashMap<>();
+            try (Statement st = c.createStatement();
+                 ResultSet rs = st.executeQuery(
+                         "SELECT node_id, expires_at < CURRENT_TIMESTAMP AS expired FROM node_leases")) {
+                while (rs.next()) expiredById.put(rs.getInt(1), rs.getBoolean(2));
+            }
+            for (int candidate = 0; candidate <= maxNode; candidate++) {
+                Boolean expired = expiredById.get(candidate);
+                if (expired == Boolean.FALSE) continue;
+                if (expired == null ? insert(c, candidate) : takeOver(c, candidate)) {
+                    nodeId = candidate;
+                    validUntilNanos = started + ttl.toNanos();
+                    System.out.println("[NODE-LEASE] Leased node " + candidate + " as " + owner);
+                    return;
+                }
+            }
+            throw new SQLException("All " + (maxNode + 1) + " node ids are leased");
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("Leasing a node id failed", e);
+        }
+    }
+
+    private boolean insert(Connection c, int candidate) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("""
+                INSERT INTO node_leases (node_id, owner, expires_at)
+                VALUES (?, ?, TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP))
+                """)) {
+            ps.setInt(1, candidate);
+            ps.setString(2, owner);
+            ps.setLong(3, ttl.toSeconds());
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            // Someone else inserted it first
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) return false;
+            throw e;
+        }
+    }
+
+    private boolean takeOver(Connection c, int candidate) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("""
+                UPDATE node_leases SET owner = ?, expires_at = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP)
+                 WHERE node_id = ? AND expires_at < CURRENT_TIMESTAMP
+                """)) {
+            ps.setString(1, owner);
+            ps.setLong(2, ttl.toSeconds());
+            ps.setInt(3, candidate);
+            return ps.executeUpdate() == 1;
+        }
+    }
+}
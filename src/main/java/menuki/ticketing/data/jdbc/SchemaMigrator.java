@@ -0,0 +1,181 @@
+package menuki.ticketing.data.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Brings the schema up to date by applying the Migrations that schema_version has no record of, in
+ * version order, and recording each one as it finishes.
+ * When every migration is recorded the check is a single query and no DDL runs at all. Recorded checksums
+ * are compared with the migrations first, so an edited migration is noticed instead of silently skipped.
+ * On MySQL a named lock keeps two instances that start at once from migrating at the same time; the steps
+ * themselves are written to be safe to repeat, so a step that failed half way can simply run again.
+ */
+public final class SchemaMigrator {
+
+    private static final String LOCK_NAME = "ticketing_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private final List<Migration> migrations;
+
+    //Constructor
+    public SchemaMigrator(List<Migration> migrations) {
+        List<Migration> sorted = new ArrayList<>(migrations);
+        sorted.sort((a, b) -> Integer.compare(a.getVersion(), b.getVersion()));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getVersion() == sorted.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException("Two migrations with version " + sorted.get(i).getVersion());
+            }
+        }
+        this.migrations = List.copyOf(sorted);
+    }
+
+    /*
+     * Creates the schema_version table if it does not exist
+     */
+    public static void createTableIfNotExists(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("""
+            CREATE TABLE IF NOT EXISTS schema_version (
+              version      INT          PRIMARY KEY,
+              description  VARCHAR(200) NOT NULL,
+              checksum     BIGINT       NOT NULL,
+              installed_at TIMESTAMP    DEFAULT CURRENT_TIMESTAMP,
+              execution_ms BIGINT       NOT NULL
+            )
+        """);
+        }
+    }
+
+    /*
+     * Whether every migration has been applied (and none was changed since). Only reads
+     */
+    public boolean isUpToDate() throws SQLException {
+        try (Connection c = DatabaseConnection.getDataSource().getConnection()) {
+            return pending(c, applied(c)).isEmpty();
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("schema version check failed", e);
+        }
+    }
+
+    /*
+     * Applies the pending migrations and returns how many ran
+     */
+    public int migrate() throws SQLException {
+        try (Connection c = DatabaseConnection.getDataSource().getConnection()) {
+            // Fast path: nothing to do, no DDL and no lock
+            if (pending(c, applied(c)).isEmpty()) return 0;
+
+            createTableIfNotExists(c);
+            boolean locked = lock(c);
+            try {
+                // Another instance may have migrated while this one waited for the lock
+                List<Migration> todo = pending(c, applied(c));
+                for (Migration m : todo) {
+                    long start = System.nanoTime();
+                    System.out.println("[SCHEMA] Applying V" + m.getVersion() + ": " + m.getDescription());
+                    m.apply(c);
+                    record(c, m, (System.nanoTime() - start) / 1_000_000);
+                }
+                return todo.size();
+            } finally {
+                if (locked) unlock(c);
+            }
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("schema migration failed", e);
+        }
+    }
+
+    /*
+     * Version of the newest migration this build knows
+     */
+    public int latestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).getVersion();
+    }
+
+    /*
+     * Migrations without a record, after checking that the recorded ones still match
+     */
+    private List<Migration> pending(Connection c, Map<Integer, Long> applied) throws SQLException {
+        List<Migration> out = new ArrayList<>();
+        for (Migration m : migrations) {
+            Long checksum = applied.get(m.getVersion());
+            if (checksum == null) {
+                out.add(m);
+            } else if (checksum != m.getChecksum()) {
+                throw new SQLException("Migration V" + m.getVersion() + " (" + m.getDescription()
+                        + ") was changed after it was applied; add a new migration instead");
+            }
+        }
+        return out;
+    }
+
+    /*
+     * Recorded checksums by version; empty if there is no schema_version table yet
+     */
+    private static Map<Integer, Long> applied(Connection c) throws SQLException {
+        Map<Integer, Long> out = new TreeMap<>();
+        if (!hasTable(c, "schema_version")) return out;
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) out.put(rs.getInt(1), rs.getLong(2));
+        }
+        return out;
+    }
+
+    private static void record(Connection c, Migration m, long elapsedMs) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(
+                "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+            ps.setInt(1, m.getVersion());
+            ps.setString(2, m.getDescription());
+            ps.setLong(3, m.getChecksum());
+            ps.setLong(4, elapsedMs);
+            ps.executeUpdate();
+        }
+    }
+
+    private static boolean hasTable(Connection c, String table) throws SQLException {
+        try (ResultSet rs = c.getMetaData().getTables(c.getCatalog(), null, table, new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    /*
+     * Takes the migration lock on MySQL; other databases (H2 in tests) run without it
+     */
+    private static boolean lock(Connection c) throws SQLException {
+        if (!isMySql(c)) return false;
+        try (PreparedStatement ps = c.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for another instance to finish migrating");
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void unlock(Connection c) {
+        try (PreparedStatement ps = c.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("[SCHEMA] Could not release migration lock: " + e.getMessage());
+        }
+    }
+
+    static boolean isMySql(Connection c) throws SQLException {
+        return c.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+    }
+}
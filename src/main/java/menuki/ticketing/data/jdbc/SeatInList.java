@@ -0,0 +1,130 @@
+package menuki.ticketing.data.jdbc;
+
+import menuki.ticketing.model.SeatKey;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds set-based seat statements of the form
+ * "... row_label IN (?,...) AND (row_label, seat_number) IN ((?,?),(?,?),...)".
+ * The row_label list is redundant but lets the optimiser walk the primary key by row instead of scanning
+ * the event (H2 needs it, MySQL does not mind).
+ * Both lists are rounded up to a fixed bucket size and the spare slots repeat the last value, so only a
+ * handful of distinct SQL strings ever exist per statement and the driver's prepared statement cache keeps
+ * hitting instead of parsing a new statement for every cart size.
+ */
+final class SeatInList {
+
+    // IN-list sizes that get their own SQL text. Larger lists are split into chunks of the biggest bucket
+    private static final int[] BUCKETS = {1, 2, 4, 8, 16, 32, 64, 128, 256, 512};
+    static final int MAX_BUCKET = BUCKETS[BUCKETS.length - 1];
+
+    private final String template;
+    // Indexed by [row bucket][seat bucket]
+    private final String[][] sqlByBucket = new String[BUCKETS.length][BUCKETS.length];
+
+    // Statements are shared by every DAO instance
+    private static final ConcurrentHashMap<String, SeatInList> CACHE = new ConcurrentHashMap<>();
+
+    /*
+     * The IN-list builder for a statement. The template must contain exactly one "%s" where the
+     * row-value predicate goes
+     */
+    static SeatInList of(String template) {
+        return CACHE.computeIfAbsent(template, SeatInList::new);
+    }
+
+    //Constructor
+    private SeatInList(String template) {
+        this.template = template;
+    }
+
+    /*
+     * Smallest bucket that fits n seats
+     */
+    static int bucketFor(int n) {
+        for (int b : BUCKETS) {
+            if (n <= b) return b;
+        }
+        return MAX_BUCKET;
+    }
+
+    /*
+     * SQL that fits the given seats (distinct, at most MAX_BUCKET of them)
+     */
+    String sql(long[] seatKeys) {
+        int rowSlot = slotFor(bucketFor(rowsOf(seatKeys).length));
+        int seatSlot = slotFor(bucketFor(seatKeys.length));
+        String sql = sqlByBucket[rowSlot][seatSlot];
+        if (sql == null) {
+            String rows = String.join(",", Collections.nCopies(BUCKETS[rowSlot], "?"));
+            String pairs = String.join(",", Collections.nCopies(BUCKETS[seatSlot], "(?,?)"));
+            sql = template.formatted("row_label IN (" + rows + ") AND (row_label, seat_number) IN (" + pairs + ")");
+            sqlByBucket[rowSlot][seatSlot] = sql;
+        }
+        return sql;
+    }
+
+    /*
+     * Binds the seats starting at the given parameter index, padding both lists up to their bucket size.
+     * Row labels are decoded once per row, not once per seat. Returns the next free parameter index
+     */
+    static int bind(PreparedStatement ps, int index, long[] seatKeys) throws SQLException {
+        int[] rows = rowsOf(seatKeys);
+        String[] labels = new String[rows.length];
+        for (int r = 0; r < rows.length; r++) labels[r] = SeatKey.rowLabelOf(rows[r]);
+
+        int rowBucket = bucketFor(rows.length);
+        for (int k = 0; k < rowBucket; k++) {
+            ps.setString(index++, labels[Math.min(k, rows.length - 1)]);
+        }
+        int seatBucket = bucketFor(seatKeys.length);
+        for (int k = 0; k < seatBucket; k++) {
+            long key = seatKeys[Math.min(k, seatKeys.length - 1)];
+            ps.setString(index++, labels[Arrays.binarySearch(rows, SeatKey.rowCode(key))]);
+            ps.setInt(index++, SeatKey.seatNumber(key));
+        }
+        return index;
+    }
+
+    /*
+     * Distinct row codes of the seats, sorted
+     */
+    private static int[] rowsOf(long[] seatKeys) {
+        int[] rows = new int[seatKeys.length];
+        for (int i = 0; i < seatKeys.length; i++) rows[i] = SeatKey.rowCode(seatKeys[i]);
+        return Arrays.stream(rows).sorted().distinct().toArray();
+    }
+
+    /*
+     * Sorts the seats, removes duplicates and splits them into chunks no bigger than the largest bucket.
+     * Duplicates would make the affected row count smaller than the list
+     */
+    static List<long[]> chunks(long[] seatKeys) {
+        long[] distinct = Arrays.stream(seatKeys).sorted().distinct().toArray();
+        List<long[]> out = new ArrayList<>();
+        for (int from = 0; from < distinct.length; from += MAX_BUCKET) {
+            out.add(Arrays.copyOfRange(distinct, from, Math.min(distinct.length, from + MAX_BUCKET)));
+        }
+        return out;
+    }
+
+    /*
+     * Number of different seats in the list
+     */
+    static int distinctCount(long[] seatKeys) {
+        return (int) Arrays.stream(seatKeys).distinct().count();
+    }
+
+    private static int slotFor(int bucket) {
+        for (int i = 0; i < BUCKETS.length; i++) {
+            if (BUCKETS[i] == bucket) return i;
+        }
+        throw new IllegalArgumentException("Not a bucket size: " + bucket);
+    }
+}
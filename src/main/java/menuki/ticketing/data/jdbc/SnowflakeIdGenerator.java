@@ -0,0 +1,98 @@
+package menuki.ticketing.data.jdbc;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * 64-bit ids for orders and order items, made up client side so rows can be written without asking the
+ * database for a generated key first.
+ * Layout (most significant first): 1 unused sign bit, 41 bits of milliseconds since 2025-01-01 UTC
+ * (enough for about 69 years), 10 bits of node id and 12 bits of sequence within the millisecond.
+ * Ids of one node are increasing; ids of different nodes never collide as long as no two instances hold
+ * the same node id at once, which the NodeLease takes care of.
+ */
+public final class SnowflakeIdGenerator {
+
+    public static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    // A clock stepping back by up to this much is waited out, more than that fails the call
+    private static final long MAX_BACKWARD_MILLIS = 5;
+
+    private static SnowflakeIdGenerator shared;
+    private static NodeLease sharedLease;
+
+    private final IntSupplier nodeId;
+    private final LongSupplier clockMillis;
+    // Guarded by this
+    private long lastMillis = -1;
+    private long sequence;
+
+    //Constructor
+    public SnowflakeIdGenerator(IntSupplier nodeId, LongSupplier clockMillis) {
+        this.nodeId = nodeId;
+        this.clockMillis = clockMillis;
+    }
+
+    /*
+     * The generator of this app instance, leasing its node id on first use
+     */
+    public static synchronized SnowflakeIdGenerator shared() throws SQLException {
+        if (shared == null) {
+            sharedLease = NodeLease.acquire(MAX_NODE, NodeLease.DEFAULT_TTL);
+            shared = new SnowflakeIdGenerator(sharedLease::nodeId, System::currentTimeMillis);
+        }
+        return shared;
+    }
+
+    /*
+     * Gives the node id back on the way out
+     */
+    public static synchronized void shutdownShared() {
+        if (sharedLease != null) sharedLease.close();
+        sharedLease = null;
+        shared = null;
+    }
+
+    public synchronized long nextId() {
+        int node = nodeId.getAsInt();
+        if (node < 0 || node > MAX_NODE) throw new IllegalStateException("Node id out of range: " + node);
+        long now = clockMillis.getAsLong();
+        if (now < lastMillis) {
+            if (lastMillis - now > MAX_BACKWARD_MILLIS) {
+                throw new IllegalStateException("Clock moved backwards by " + (lastMillis - now) + " ms");
+            }
+            now = waitUntilAfter(lastMillis - 1);
+        }
+        if (now == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            // Sequence used up for this millisecond
+            if (sequence == 0) now = waitUntilAfter(lastMillis);
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+        return ((now - EPOCH_MILLIS) << (NODE_BITS + SEQUENCE_BITS)) | ((long) node << SEQUENCE_BITS) | sequence;
+    }
+
+    public static long millisOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE);
+    }
+
+    private long waitUntilAfter(long millis) {
+        long now = clockMillis.getAsLong();
+        while (now <= millis) {
+            Thread.onSpinWait();
+            now = clockMillis.getAsLong();
+        }
+        return now;
+    }
+}
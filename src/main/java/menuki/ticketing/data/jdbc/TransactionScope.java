@@ -0,0 +1,184 @@
+package menuki.ticketing.data.jdbc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Unit of work that binds one connection to the current thread.
+ * While a scope is open, every DatabaseConnection.getConnection() call (and so every DAO call)
+ * on that thread reuses the bound connection, and everything commits once at the end.
+ *
+ * Usage:
+ *   try (TransactionScope tx = TransactionScope.begin()) {
+ *       eventDao.insert(event);
+ *       seatDao.insertAll(eventId, seats);
+ *       tx.commit();
+ *   }
+ *
+ * Closing a scope without committing rolls it back. Scopes opened inside another scope join it,
+ * and if they close without committing the whole unit of work is rolled back.
+ */
+public final class TransactionScope implements AutoCloseable {
+
+    /*
+     * A block of DAO calls to run inside a scope
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run() throws SQLException;
+    }
+
+    private static final ThreadLocal<TransactionScope> CURRENT = new ThreadLocal<>();
+
+    private final TransactionScope root;
+    // Only set on the outermost scope
+    private final Connection connection;
+    private final Connection participant;
+    private boolean rollbackOnly;
+    private boolean committed;
+    private boolean closed;
+
+    //Constructors
+
+    //Outermost scope, owns the connection
+    private TransactionScope(Connection connection) {
+        this.root = this;
+        this.connection = connection;
+        this.participant = participantView(connection);
+    }
+
+    //Nested scope, joins the outer one
+    private TransactionScope(TransactionScope outer) {
+        this.root = outer.root;
+        this.connection = null;
+        this.participant = null;
+    }
+
+    /*
+     * Opens a scope, or joins the one already open on this thread
+     */
+    public static TransactionScope begin() throws SQLException {
+        TransactionScope current = CURRENT.get();
+        if (current != null) return new TransactionScope(current);
+
+        Connection c;
+        try {
+            c = DatabaseConnection.getConnection();
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("Failed to begin transaction", e);
+        }
+        try {
+            c.setAutoCommit(false);
+        } catch (SQLException e) {
+            try { c.close(); } catch (SQLException ignore) {}
+            throw e;
+        }
+        TransactionScope scope = new TransactionScope(c);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /*
+     * Runs the work in a scope and commits it if it completes without throwing
+     */
+    public static <T> T inTransaction(Work<T> work) throws SQLException {
+        try (TransactionScope tx = begin()) {
+            T result = work.run();
+            tx.commit();
+            return result;
+        }
+    }
+
+    /*
+     * Whether a scope is open on this thread
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /*
+     * The connection bound to this thread's scope, or null if there is none.
+     * Closing it, committing it or changing autocommit on it is ignored as the scope owns it
+     */
+    static Connection currentConnection() {
+        TransactionScope current = CURRENT.get();
+        return current == null ? null : current.participant;
+    }
+
+    /*
+     * Commits the unit of work. On a nested scope this only marks that part as successful
+     */
+    public void commit() throws SQLException {
+        if (closed) throw new SQLException("Transaction scope already closed");
+        if (root != this) {
+            committed = true;
+            return;
+        }
+        if (rollbackOnly) {
+            throw new SQLException("Transaction was marked rollback-only by a nested operation");
+        }
+        connection.commit();
+        committed = true;
+    }
+
+    /*
+     * Rolls back if commit was not called and releases the connection (outermost scope only)
+     */
+    @Override
+    public void close() throws SQLException {
+        if (closed) return;
+        closed = true;
+        if (root != this) {
+            if (!committed) root.rollbackOnly = true;
+            return;
+        }
+        CURRENT.remove();
+        try {
+            if (!committed) connection.rollback();
+        } finally {
+            try { connection.setAutoCommit(true); } catch (SQLException ignore) {}
+            connection.close();
+        }
+    }
+
+    /*
+     * View of the bound connection handed to DAOs. Transaction control stays with the scope,
+     * a DAO calling rollback() marks the whole unit of work for rollback instead
+     */
+    private Connection participantView(Connection c) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close", "commit", "setAutoCommit" -> {
+                            return null;
+                        }
+                        case "getAutoCommit" -> {
+                            return false;
+                        }
+                        case "rollback" -> {
+                            if (args == null || args.length == 0) {
+                                rollbackOnly = true;
+                                return null;
+                            }
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        default -> { }
+                    }
+                    try {
+                        return method.invoke(c, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
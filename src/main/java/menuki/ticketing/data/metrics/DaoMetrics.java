@@ -0,0 +1,43 @@
+package menuki.ticketing.data.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process-wide registry of the DAO method counters, keyed like "SeatDao.findBlockByEvent".
+ * The metered DAOs look their counters up once when they are created, so a call never touches the map,
+ * and every instance of a DAO adds to the same counters.
+ */
+public final class DaoMetrics {
+
+    private static final ConcurrentMap<String, MethodMetrics> METHODS = new ConcurrentHashMap<>();
+
+    private DaoMetrics() {}
+
+    /*
+     * Counters of one DAO method, created on first use
+     */
+    public static MethodMetrics method(String dao, String method) {
+        return METHODS.computeIfAbsent(dao + "." + method, MethodMetrics::new);
+    }
+
+    /*
+     * Counters of every DAO method that has been set up so far, sorted by name
+     */
+    public static List<MethodMetrics.Snapshot> snapshot() {
+        List<MethodMetrics.Snapshot> out = new ArrayList<>(METHODS.size());
+        for (MethodMetrics m : METHODS.values()) out.add(m.snapshot());
+        out.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return out;
+    }
+
+    /*
+     * Counters of one method ("SeatDao.findBlockByEvent"), or null if no DAO of that kind was created yet
+     */
+    public static MethodMetrics.Snapshot snapshot(String name) {
+        MethodMetrics m = METHODS.get(name);
+        return m == null ? null : m.snapshot();
+    }
+}
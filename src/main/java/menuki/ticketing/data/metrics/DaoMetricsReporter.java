@@ -0,0 +1,63 @@
+package menuki.ticketing.data.metrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that prints what the DAOs did since its last run: one line per method that was called,
+ * with calls, errors, rows and latency percentiles for that interval only. Quiet intervals print nothing.
+ */
+public final class DaoMetricsReporter implements AutoCloseable {
+
+    public static final Duration DEFAULT_PERIOD = Duration.ofMinutes(1);
+
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, MethodMetrics.Snapshot> previous = new HashMap<>();
+
+    //Constructor
+    public DaoMetricsReporter() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dao-metrics-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void start(Duration period) {
+        long ms = period.toMillis();
+        scheduler.scheduleAtFixedRate(this::reportQuietly, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    /*
+     * Prints the interval since the previous report. Returns the methods that were called in it
+     */
+    public synchronized List<MethodMetrics.Snapshot> reportOnce() {
+        List<MethodMetrics.Snapshot> interval = new ArrayList<>();
+        for (MethodMetrics.Snapshot now : DaoMetrics.snapshot()) {
+            MethodMetrics.Snapshot before = previous.put(now.getName(), now);
+            MethodMetrics.Snapshot delta = before == null ? now : now.minus(before);
+            if (delta.getCalls() > 0) interval.add(delta);
+        }
+        for (MethodMetrics.Snapshot s : interval) System.out.println("[DAO] " + s);
+        return interval;
+    }
+
+    private void reportQuietly() {
+        try {
+            reportOnce();
+        } catch (RuntimeException e) {
+            System.err.println("[DAO] metrics report failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
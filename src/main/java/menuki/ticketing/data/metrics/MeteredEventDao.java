@@ -0,0 +1,64 @@
+package menuki.ticketing.data.metrics;
+
+import menuki.ticketing.data.dao.EventDao;
+import menuki.ticketing.model.Event;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EventDao decorator that records calls, errors, latency and rows for every method (see DaoMetrics)
+ */
+public class MeteredEventDao implements EventDao {
+
+    private static final String DAO = "EventDao";
+
+    private final EventDao delegate;
+    private final MethodMetrics insert = DaoMetrics.method(DAO, "insert");
+    private final MethodMetrics findById = DaoMetrics.method(DAO, "findById");
+    private final MethodMetrics findAll = DaoMetrics.method(DAO, "findAll");
+    private final MethodMetrics existsById = DaoMetrics.method(DAO, "existsById");
+    private final MethodMetrics deleteById = DaoMetrics.method(DAO, "deleteById");
+    private final MethodMetrics countAvailable = DaoMetrics.method(DAO, "countAvailableByEvent");
+    private final MethodMetrics nextId = DaoMetrics.method(DAO, "getNextEventId");
+
+    //Constructor
+    public MeteredEventDao(EventDao delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void insert(Event event) throws SQLException {
+        insert.write(() -> delegate.insert(event), 1);
+    }
+
+    @Override
+    public Event findById(String id) throws SQLException {
+        return findById.read(() -> delegate.findById(id), e -> 1);
+    }
+
+    @Override
+    public List<Event> findAll() throws SQLException {
+        return findAll.read(delegate::findAll, List::size);
+    }
+
+    @Override
+    public boolean existsById(String id) throws SQLException {
+        return existsById.call(() -> delegate.existsById(id));
+    }
+
+    @Override
+    public boolean deleteById(String id) throws SQLException {
+        return deleteById.write(() -> delegate.deleteById(id), deleted -> deleted ? 1 : 0);
+    }
+
+    @Override
+    public Map<String, Integer> countAvailableByEvent() throws SQLException {
+        return countAvailable.read(delegate::countAvailableByEvent, Map::size);
+    }
+
+    @Override
+    public String getNextEventId() throws SQLException {
+        return nextId.call(delegate::getNextEventId);
+    }
+}
@@ -0,0 +1,64 @@
+package menuki.ticketing.data.metrics;
+
+import menuki.ticketing.data.dao.OrderDao;
+import menuki.ticketing.model.Order;
+import menuki.ticketing.model.OrderPage;
+import menuki.ticketing.model.OrderSummary;
+import menuki.ticketing.model.Seat;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * OrderDao decorator that records calls, errors, latency and rows for every method (see DaoMetrics).
+ * An order counts as one row plus one per seat; the items are also counted under OrderItemDao when the
+ * order DAO writes them through a metered item DAO.
+ */
+public class MeteredOrderDao implements OrderDao {
+
+    private static final String DAO = "OrderDao";
+
+    private final OrderDao delegate;
+    private final MethodMetrics createOrder = DaoMetrics.method(DAO, "createOrder");
+    private final MethodMetrics findByUser = DaoMetrics.method(DAO, "findByUser");
+    private final MethodMetrics findPage = DaoMetrics.method(DAO, "findPageByUser");
+    private final MethodMetrics cancel = DaoMetrics.method(DAO, "cancelOrdersWithSeats");
+    private final MethodMetrics countItems = DaoMetrics.method(DAO, "countItemsForEvent");
+    private final MethodMetrics deleteItems = DaoMetrics.method(DAO, "deleteOrderItemsByEvent");
+
+    //Constructor
+    public MeteredOrderDao(OrderDao delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public long createOrder(String userId, String eventId, List<Seat> seats) throws SQLException {
+        int rows = 1 + (seats == null ? 0 : seats.size());
+        return createOrder.write(() -> delegate.createOrder(userId, eventId, seats), id -> rows);
+    }
+
+    @Override
+    public List<Order> findByUser(String username) throws SQLException {
+        return findByUser.read(() -> delegate.findByUser(username), List::size);
+    }
+
+    @Override
+    public OrderPage findPageByUser(String username, OrderSummary after, int limit) throws SQLException {
+        return findPage.read(() -> delegate.findPageByUser(username, after, limit), p -> p.getOrders().size());
+    }
+
+    @Override
+    public List<Long> cancelOrdersWithSeats(String userId, String eventId, long[] seatKeys, String reason)
+            throws SQLException {
+        return cancel.write(() -> delegate.cancelOrdersWithSeats(userId, eventId, seatKeys, reason), List::size);
+    }
+
+    @Override
+    public int countItemsForEvent(String eventId) throws SQLException {
+        return countItems.call(() -> delegate.countItemsForEvent(eventId));
+    }
+
+    @Override
+    public int deleteOrderItemsByEvent(String eventId) throws SQLException {
+        return deleteItems.write(() -> delegate.deleteOrderItemsByEvent(eventId), deleted -> deleted);
+    }
+}
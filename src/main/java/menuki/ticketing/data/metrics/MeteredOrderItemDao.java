@@ -0,0 +1,34 @@
+package menuki.ticketing.data.metrics;
+
+import menuki.ticketing.data.dao.OrderItemDao;
+import menuki.ticketing.model.OrderItem;
+import menuki.ticketing.model.Seat;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * OrderItemDao decorator that records calls, errors, latency and rows for every method (see DaoMetrics)
+ */
+public class MeteredOrderItemDao implements OrderItemDao {
+
+    private static final String DAO = "OrderItemDao";
+
+    private final OrderItemDao delegate;
+    private final MethodMetrics insertItems = DaoMetrics.method(DAO, "insertItems");
+    private final MethodMetrics findByOrderId = DaoMetrics.method(DAO, "findByOrderId");
+
+    //Constructor
+    public MeteredOrderItemDao(OrderItemDao delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void insertItems(long orderId, List<Seat> seats) throws SQLException {
+        insertItems.write(() -> delegate.insertItems(orderId, seats), seats == null ? 0 : seats.size());
+    }
+
+    @Override
+    public List<OrderItem> findByOrderId(long orderId) throws SQLException {
+        return findByOrderId.read(() -> delegate.findByOrderId(orderId), List::size);
+    }
+}
@@ -0,0 +1,155 @@
+package menuki.ticketing.data.metrics;
+
+import menuki.ticketing.data.dao.SeatDao;
+import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.model.SeatHold;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SeatDao decorator that records calls, errors, latency and rows for every method (see DaoMetrics).
+ * Writes that do not report how many rows they changed count the seats they were given.
+ */
+public class MeteredSeatDao implements SeatDao {
+
+    private static final String DAO = "SeatDao";
+
+    private final SeatDao delegate;
+    private final MethodMetrics hasAny = DaoMetrics.method(DAO, "hasAnyForEvent");
+    private final MethodMetrics findByEvent = DaoMetrics.method(DAO, "findByEvent");
+    private final MethodMetrics findBlock = DaoMetrics.method(DAO, "findBlockByEvent");
+    private final MethodMetrics findChanged = DaoMetrics.method(DAO, "findChangedSince");
+    private final MethodMetrics currentVersion = DaoMetrics.method(DAO, "currentVersion");
+    private final MethodMetrics reserveAtomic = DaoMetrics.method(DAO, "reserveSeatsAtomic");
+    private final MethodMetrics markReserved = DaoMetrics.method(DAO, "markReserved");
+    private final MethodMetrics insertAll = DaoMetrics.method(DAO, "insertAll");
+    private final MethodMetrics markAvailable = DaoMetrics.method(DAO, "markAvailable");
+    private final MethodMetrics createGrid = DaoMetrics.method(DAO, "createGrid");
+    private final MethodMetrics setVip = DaoMetrics.method(DAO, "setVipSeats");
+    private final MethodMetrics setStandard = DaoMetrics.method(DAO, "setStandardSeats");
+    private final MethodMetrics countAvailableByEvent = DaoMetrics.method(DAO, "countAvailableByEvent");
+    private final MethodMetrics countAvailable = DaoMetrics.method(DAO, "countAvailable");
+    private final MethodMetrics reconcile = DaoMetrics.method(DAO, "reconcileAvailability");
+    private final MethodMetrics hold = DaoMetrics.method(DAO, "holdSeats");
+    private final MethodMetrics confirm = DaoMetrics.method(DAO, "confirmHolds");
+    private final MethodMetrics releaseHolds = DaoMetrics.method(DAO, "releaseHolds");
+    private final MethodMetrics releaseExpired = DaoMetrics.method(DAO, "releaseExpiredHolds");
+    private final MethodMetrics findHolds = DaoMetrics.method(DAO, "findHolds");
+
+    //Constructor
+    public MeteredSeatDao(SeatDao delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean hasAnyForEvent(String eventId) throws SQLException {
+        return hasAny.call(() -> delegate.hasAnyForEvent(eventId));
+    }
+
+    @Override
+    public List<Seat> findByEvent(String eventId) throws SQLException {
+        return findByEvent.read(() -> delegate.findByEvent(eventId), List::size);
+    }
+
+    @Override
+    public SeatBlock findBlockByEvent(String eventId) throws SQLException {
+        return findBlock.read(() -> delegate.findBlockByEvent(eventId), SeatBlock::size);
+    }
+
+    @Override
+    public SeatBlock findChangedSince(String eventId, long sinceVersion) throws SQLException {
+        return findChanged.read(() -> delegate.findChangedSince(eventId, sinceVersion), SeatBlock::size);
+    }
+
+    @Override
+    public long currentVersion(String eventId) throws SQLException {
+        return currentVersion.call(() -> delegate.currentVersion(eventId));
+    }
+
+    @Override
+    public boolean reserveSeatsAtomic(String eventId, long[] seatKeys) throws SQLException {
+        return reserveAtomic.write(() -> delegate.reserveSeatsAtomic(eventId, seatKeys),
+                ok -> ok ? count(seatKeys) : 0);
+    }
+
+    @Override
+    public void markReserved(String eventId, long[] seatKeys) throws SQLException {
+        markReserved.write(() -> delegate.markReserved(eventId, seatKeys), count(seatKeys));
+    }
+
+    @Override
+    public void insertAll(String eventId, List<Seat> seats) throws SQLException {
+        insertAll.write(() -> delegate.insertAll(eventId, seats), seats == null ? 0 : seats.size());
+    }
+
+    @Override
+    public void markAvailable(String eventId, long[] seatKeys) throws SQLException {
+        markAvailable.write(() -> delegate.markAvailable(eventId, seatKeys), count(seatKeys));
+    }
+
+    @Override
+    public void createGrid(String eventId, String rows, int seatsPerRow) throws SQLException {
+        createGrid.write(() -> delegate.createGrid(eventId, rows, seatsPerRow),
+                rows == null ? 0 : rows.length() * seatsPerRow);
+    }
+
+    @Override
+    public void setVipSeats(String eventId, List<String> vipRows, int priceCents) throws SQLException {
+        // Re-pricing does not say how many seats it touched
+        setVip.write(() -> delegate.setVipSeats(eventId, vipRows, priceCents), 0);
+    }
+
+    @Override
+    public void setStandardSeats(String eventId, List<String> excludedVipRows, int priceCents) throws SQLException {
+        setStandard.write(() -> delegate.setStandardSeats(eventId, excludedVipRows, priceCents), 0);
+    }
+
+    @Override
+    public Map<String, Integer> countAvailableByEvent() throws SQLException {
+        return countAvailableByEvent.read(delegate::countAvailableByEvent, Map::size);
+    }
+
+    @Override
+    public int countAvailable(String eventId) throws SQLException {
+        return countAvailable.call(() -> delegate.countAvailable(eventId));
+    }
+
+    @Override
+    public int reconcileAvailability() throws SQLException {
+        return reconcile.write(delegate::reconcileAvailability, fixed -> fixed);
+    }
+
+    @Override
+    public boolean holdSeats(String eventId, long[] seatKeys, String holderId, Instant expiresAt) throws SQLException {
+        return hold.write(() -> delegate.holdSeats(eventId, seatKeys, holderId, expiresAt),
+                ok -> ok ? count(seatKeys) : 0);
+    }
+
+    @Override
+    public boolean confirmHolds(String eventId, long[] seatKeys, String holderId) throws SQLException {
+        return confirm.write(() -> delegate.confirmHolds(eventId, seatKeys, holderId),
+                ok -> ok ? count(seatKeys) : 0);
+    }
+
+    @Override
+    public int releaseHolds(String eventId, long[] seatKeys) throws SQLException {
+        return releaseHolds.write(() -> delegate.releaseHolds(eventId, seatKeys), released -> released);
+    }
+
+    @Override
+    public int releaseExpiredHolds(String eventId, Instant now) throws SQLException {
+        return releaseExpired.write(() -> delegate.releaseExpiredHolds(eventId, now), released -> released);
+    }
+
+    @Override
+    public List<SeatHold> findHolds(String eventId) throws SQLException {
+        return findHolds.read(() -> delegate.findHolds(eventId), List::size);
+    }
+
+    private static int count(long[] seatKeys) {
+        return seatKeys == null ? 0 : seatKeys.length;
+    }
+}
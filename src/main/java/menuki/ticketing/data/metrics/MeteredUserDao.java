@@ -0,0 +1,45 @@
+package menuki.ticketing.data.metrics;
+
+import menuki.ticketing.data.dao.UserDao;
+import menuki.ticketing.model.User;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * UserDao decorator that records calls, errors, latency and rows for every method (see DaoMetrics)
+ */
+public class MeteredUserDao implements UserDao {
+
+    private static final String DAO = "UserDao";
+
+    private final UserDao delegate;
+    private final MethodMetrics findByUsername = DaoMetrics.method(DAO, "findByUsername");
+    private final MethodMetrics findAll = DaoMetrics.method(DAO, "findAll");
+    private final MethodMetrics existsByUsername = DaoMetrics.method(DAO, "existsByUsername");
+    private final MethodMetrics insert = DaoMetrics.method(DAO, "insert");
+
+    //Constructor
+    public MeteredUserDao(UserDao delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public User findByUsername(String username) {
+        return findByUsername.read(() -> delegate.findByUsername(username), u -> 1);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return findAll.read(delegate::findAll, List::size);
+    }
+
+    @Override
+    public boolean existsByUsername(String username) throws SQLException {
+        return existsByUsername.call(() -> delegate.existsByUsername(username));
+    }
+
+    @Override
+    public void insert(User user) throws SQLException {
+        insert.write(() -> delegate.insert(user), 1);
+    }
+}
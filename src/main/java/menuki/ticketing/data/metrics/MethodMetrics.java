@@ -0,0 +1,165 @@
+package menuki.ticketing.data.metrics;
+
+import menuki.ticketing.metrics.LatencyHistogram;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Counters of one DAO method: calls, failed calls, latency, and the rows it read and wrote.
+ * Shared by every DAO instance of the same kind (see DaoMetrics.method), and updated without locks so
+ * it can stay on in production: a call costs two nanoTime reads, a histogram increment and a few
+ * LongAdder increments.
+ */
+public final class MethodMetrics {
+
+    /*
+     * A DAO call that returns something. E is inferred, so calls that throw nothing need no try/catch
+     */
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    @FunctionalInterface
+    public interface Run<E extends Exception> {
+        void run() throws E;
+    }
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rowsRead = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+
+    //Constructor
+    MethodMetrics(String name) {
+        this.name = name;
+    }
+
+    //Getters
+    public String getName() { return name; }
+
+    /*
+     * Times a call without counting rows (DDL, existence checks, scalar lookups)
+     */
+    public <T, E extends Exception> T call(Call<T, E> call) throws E {
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            done(start, 0, 0);
+            return result;
+        } catch (Exception e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    /*
+     * Times a query and counts the rows it returned, worked out from the result (null counts as none)
+     */
+    public <T, E extends Exception> T read(Call<T, E> call, ToIntFunction<? super T> rows) throws E {
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            done(start, result == null ? 0 : rows.applyAsInt(result), 0);
+            return result;
+        } catch (Exception e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    /*
+     * Times a write and counts the rows it changed, worked out from the result
+     */
+    public <T, E extends Exception> T write(Call<T, E> call, ToIntFunction<? super T> rows) throws E {
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            done(start, 0, result == null ? 0 : rows.applyAsInt(result));
+            return result;
+        } catch (Exception e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    /*
+     * Times a write that returns nothing, counting the rows it was asked to change
+     */
+    public <E extends Exception> void write(Run<E> run, int rows) throws E {
+        long start = System.nanoTime();
+        try {
+            run.run();
+            done(start, 0, rows);
+        } catch (Exception e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    private void done(long start, int read, int written) {
+        latency.recordSince(start);
+        calls.increment();
+        if (read > 0) rowsRead.add(read);
+        if (written > 0) rowsWritten.add(written);
+    }
+
+    private void failed(long start) {
+        latency.recordSince(start);
+        calls.increment();
+        errors.increment();
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(name, calls.sum(), errors.sum(), rowsRead.sum(), rowsWritten.sum(), latency.snapshot());
+    }
+
+    /**
+     * The counters of one method at one moment
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final long calls;
+        private final long errors;
+        private final long rowsRead;
+        private final long rowsWritten;
+        private final LatencyHistogram.Snapshot latency;
+
+        //Constructor
+        public Snapshot(String name, long calls, long errors, long rowsRead, long rowsWritten,
+                        LatencyHistogram.Snapshot latency) {
+            this.name = name;
+            this.calls = calls;
+            this.errors = errors;
+            this.rowsRead = rowsRead;
+            this.rowsWritten = rowsWritten;
+            this.latency = latency;
+        }
+
+        //Getters
+        public String getName() { return name; }
+        public long getCalls() { return calls; }
+        public long getErrors() { return errors; }
+        public long getRowsRead() { return rowsRead; }
+        public long getRowsWritten() { return rowsWritten; }
+        public LatencyHistogram.Snapshot getLatency() { return latency; }
+
+        /*
+         * What happened between an earlier snapshot of the same method and this one
+         */
+        public Snapshot minus(Snapshot earlier) {
+            return new Snapshot(name, calls - earlier.calls, errors - earlier.errors, rowsRead - earlier.rowsRead,
+                    rowsWritten - earlier.rowsWritten, latency.minus(earlier.latency));
+        }
+
+        @Override
+        public String toString() {
+            return name + "{calls=" + calls + ", errors=" + errors
+                    + ", rowsRead=" + rowsRead + ", rowsWritten=" + rowsWritten
+                    + String.format(", p50=%.2fms, p99=%.2fms, max=%.2fms", latency.percentileNanos(50) / 1e6,
+                            latency.percentileNanos(99) / 1e6, latency.getMaxNanos() / 1e6) + "}";
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package menuki.ticketing.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with a high dynamic range, in the style of HdrHistogram: values from 1 ns
+ * to about an hour are kept in log-linear buckets, 64 per power of two, so any recorded value is known
+ * to within about 1.6%. Values under 128 ns are exact.
+ * Recording is one array increment plus two atomic updates, safe from any number of threads. Snapshots
+ * copy the buckets without stopping writers, so a snapshot taken during recording can be a few values
+ * behind but is never inconsistent with itself.
+ */
+public final class LatencyHistogram {
+
+    // 2^SUB_BITS buckets below the first doubling, half as many per doubling after that
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int HALF = SUB_COUNT / 2;
+    // Longest latency kept apart; anything longer lands in the last bucket
+    public static final long MAX_TRACKABLE_NANOS = TimeUnit.HOURS.toNanos(1);
+    private static final int BUCKETS = indexOf(MAX_TRACKABLE_NANOS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(indexOf(Math.min(nanos, MAX_TRACKABLE_NANOS)));
+        totalNanos.addAndGet(nanos);
+        if (nanos > maxNanos.get()) maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /*
+     * Records the time since a System.nanoTime() reading
+     */
+    public void recordSince(long startNanos) {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) copy[i] = counts.get(i);
+        return new Snapshot(copy, totalNanos.get(), maxNanos.get());
+    }
+
+    /*
+     * Bucket of a value: exact below SUB_COUNT, then HALF buckets per power of two
+     */
+    static int indexOf(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BITS - 1);
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    /*
+     * Smallest value that lands in the bucket
+     */
+    static long lowestOf(int index) {
+        if (index < SUB_COUNT) return index;
+        int shift = index / HALF - 1;
+        return (long) (index % HALF + HALF) << shift;
+    }
+
+    /*
+     * Largest value that lands in the bucket
+     */
+    static long highestOf(int index) {
+        return lowestOf(index + 1) - 1;
+    }
+
+    /**
+     * The histogram at one moment. Percentiles are the midpoint of the bucket they fall in
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        //Constructor
+        private Snapshot(long[] counts, long totalNanos, long maxNanos) {
+            this.counts = counts;
+            long n = 0;
+            for (long c : counts) n += c;
+            this.count = n;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        //Getters
+        public long getCount() { return count; }
+        public long getTotalNanos() { return totalNanos; }
+        public long getMaxNanos() { return maxNanos; }
+
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /*
+         * Value below which the given percentage (0-100) of the recorded values fall
+         */
+        public long percentileNanos(double percentile) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(maxNanos, (lowestOf(i) + highestOf(i)) / 2);
+            }
+            return maxNanos;
+        }
+
+        /*
+         * Number of values at or below the given bound, to within the bucket precision (for cumulative
+         * "le" buckets)
+         */
+        public long countAtOrBelow(long nanos) {
+            int last = indexOf(Math.min(Math.max(nanos, 0), MAX_TRACKABLE_NANOS));
+            long n = 0;
+            for (int i = 0; i <= last; i++) n += counts[i];
+            return n;
+        }
+
+        /*
+         * What was recorded between an earlier snapshot and this one
+         */
+        public Snapshot minus(Snapshot earlier) {
+            long[] diff = new long[counts.length];
+            for (int i = 0; i < diff.length; i++) diff[i] = counts[i] - earlier.counts[i];
+            // The max of the interval is not known; the overall max is an upper bound
+            return new Snapshot(diff, totalNanos - earlier.totalNanos, maxNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d mean=%.2fms p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+                    count, getMeanNanos() / 1e6, percentileNanos(50) / 1e6, percentileNanos(90) / 1e6,
+                    percentileNanos(99) / 1e6, percentileNanos(99.9) / 1e6, maxNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package menuki.ticketing.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import menuki.ticketing.data.cache.CacheStats;
+import menuki.ticketing.data.cache.CachingEventDao;
+import menuki.ticketing.data.cache.CachingUserDao;
+import menuki.ticketing.data.jdbc.ConnectionPool;
+import menuki.ticketing.data.jdbc.DatabaseConnection;
+import menuki.ticketing.data.metrics.DaoMetrics;
+import menuki.ticketing.data.metrics.MethodMetrics;
+import menuki.ticketing.service.BookingMetrics;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Optional HTTP endpoint serving GET /metrics in the Prometheus text format, for scraping by a monitoring
+ * stack. It covers the connection pool, DAO calls and latencies, seat claims and orders, the caches, and
+ * JVM memory, GC and threads.
+ * Requests are handled on the endpoint's own virtual threads, so a scrape never takes a thread from the
+ * booking work; it only reads counters that are already kept, and touches neither the database nor the
+ * FX thread.
+ * There is no authentication, so it only listens on the loopback interface unless metrics.host names another
+ * address to bind (e.g. 0.0.0.0 behind a firewall that only lets the scraper in).
+ */
+public final class MetricsEndpoint implements AutoCloseable {
+
+    // Keys in db.properties; no port means no endpoint, no host means loopback only
+    public static final String PORT_PROPERTY = "metrics.port";
+    public static final String HOST_PROPERTY = "metrics.host";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    //Constructor
+    private MetricsEndpoint(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /*
+     * Starts serving on the loopback interface only, on the port (0 picks a free one)
+     */
+    public static MetricsEndpoint start(int port) throws IOException {
+        return start(null, port);
+    }
+
+    /*
+     * Starts serving on the given address; null or blank means loopback only
+     */
+    public static MetricsEndpoint start(String host, int port) throws IOException {
+        InetAddress address = host == null || host.isBlank()
+                ? InetAddress.getLoopbackAddress()
+                : InetAddress.getByName(host.trim());
+        HttpServer server = HttpServer.create(new InetSocketAddress(address, port), 0);
+        ExecutorService executor =
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("metrics-http-", 0).factory());
+        server.setExecutor(executor);
+        server.createContext("/metrics", MetricsEndpoint::handle);
+        server.start();
+        System.out.println("[METRICS] serving http://" + address.getHostAddress() + ":" + server.getAddress().getPort()
+                + "/metrics");
+        return new MetricsEndpoint(server, executor);
+    }
+
+    //Getters
+    public int getPort() { return server.getAddress().getPort(); }
+    public InetAddress getAddress() { return server.getAddress().getAddress(); }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET") && !exchange.getRequestMethod().equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", PrometheusText.CONTENT_TYPE);
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("[METRICS] scrape failed: " + e);
+            throw e;
+        }
+    }
+
+    /*
+     * The whole metrics page
+     */
+    public static String render() {
+        PrometheusText text = new PrometheusText();
+        writePool(text);
+        writeDao(text);
+        writeBooking(text);
+        writeCaches(text);
+        writeJvm(text);
+        return text.toString();
+    }
+
+    private static void writePool(PrometheusText t) {
+        ConnectionPool.Stats s = DatabaseConnection.poolStats();
+        if (s == null) return;
+        t.family("ticketing_db_pool_connections", "gauge", "Pooled database connections by state")
+                .sample("ticketing_db_pool_connections", s.getActive(), "state", "active")
+                .sample("ticketing_db_pool_connections", s.getIdle(), "state", "idle");
+        t.family("ticketing_db_pool_max_connections", "gauge", "Largest number of connections the pool opens")
+                .sample("ticketing_db_pool_max_connections", s.getMaxSize());
+        t.family("ticketing_db_pool_borrows_total", "counter", "Connections handed out")
+                .sample("ticketing_db_pool_borrows_total", s.getBorrowCount());
+        t.family("ticketing_db_pool_borrow_timeouts_total", "counter", "Borrows that gave up waiting")
+                .sample("ticketing_db_pool_borrow_timeouts_total", s.getBorrowTimeouts());
+        t.family("ticketing_db_pool_wait_seconds", "gauge", "Time spent waiting for a connection")
+                .sample("ticketing_db_pool_wait_seconds", s.getAvgWaitNanos() / 1e9, "stat", "avg")
+                .sample("ticketing_db_pool_wait_seconds", s.getMaxWaitNanos() / 1e9, "stat", "max");
+        t.family("ticketing_db_pool_connections_created_total", "counter", "Physical connections opened")
+                .sample("ticketing_db_pool_connections_created_total", s.getCreatedCount());
+        t.family("ticketing_db_pool_connections_evicted_total", "counter", "Connections closed as idle or broken")
+                .sample("ticketing_db_pool_connections_evicted_total", s.getEvictedCount());
+        t.family("ticketing_db_pool_validation_failures_total", "counter", "Connections that failed validation")
+                .sample("ticketing_db_pool_validation_failures_total", s.getValidationFailures());
+        t.family("ticketing_db_pool_leaks_total", "counter", "Connections held past the leak threshold")
+                .sample("ticketing_db_pool_leaks_total", s.getLeaksDetected());
+    }
+
+    private static void writeDao(PrometheusText t) {
+        List<MethodMetrics.Snapshot> methods = DaoMetrics.snapshot();
+        if (methods.isEmpty()) return;
+        t.family("ticketing_dao_call_duration_seconds", "histogram", "DAO call latency");
+        for (MethodMetrics.Snapshot m : methods) {
+            t.histogram("ticketing_dao_call_duration_seconds", m.getLatency(), daoLabels(m));
+        }
+        t.family("ticketing_dao_errors_total", "counter", "DAO calls that threw");
+        for (MethodMetrics.Snapshot m : methods) t.sample("ticketing_dao_errors_total", m.getErrors(), daoLabels(m));
+        t.family("ticketing_dao_rows_read_total", "counter", "Rows returned by DAO calls");
+        for (MethodMetrics.Snapshot m : methods) {
+            t.sample("ticketing_dao_rows_read_total", m.getRowsRead(), daoLabels(m));
+        }
+        t.family("ticketing_dao_rows_written_total", "counter", "Rows changed by DAO calls");
+        for (MethodMetrics.Snapshot m : methods) {
+            t.sample("ticketing_dao_rows_written_total", m.getRowsWritten(), daoLabels(m));
+        }
+    }
+
+    private static String[] daoLabels(MethodMetrics.Snapshot m) {
+        int dot = m.getName().indexOf('.');
+        return new String[]{"dao", m.getName().substring(0, dot), "method", m.getName().substring(dot + 1)};
+    }
+
+    private static void writeBooking(PrometheusText t) {
+        t.family("ticketing_seat_claims_total", "counter",
+                "Seat reservations, holds and hold confirmations, by whether they got the seats");
+        for (BookingMetrics.Claim c : BookingMetrics.Claim.values()) {
+            String op = c.name().toLowerCase(Locale.ROOT);
+            t.sample("ticketing_seat_claims_total", BookingMetrics.succeeded(c), "op", op, "outcome", "success");
+            t.sample("ticketing_seat_claims_total", BookingMetrics.conflicted(c), "op", op, "outcome", "conflict");
+        }
+        t.family("ticketing_orders_created_total", "counter", "Orders written")
+                .sample("ticketing_orders_created_total", BookingMetrics.ordersCreated());
+        t.family("ticketing_order_seats_total", "counter", "Seats in the orders written")
+                .sample("ticketing_order_seats_total", BookingMetrics.seatsOrdered());
+        t.family("ticketing_orders_failed_total", "counter", "Orders that could not be written")
+                .sample("ticketing_orders_failed_total", BookingMetrics.ordersFailed());
+    }
+
+    private static void writeCaches(PrometheusText t) {
+        List<CacheStats> caches = new ArrayList<>(CachingEventDao.shared().stats());
+        caches.addAll(CachingUserDao.shared().stats());
+        String requests = "ticketing_cache_requests_total";
+        t.family(requests, "counter", "Cache lookups by result");
+        for (CacheStats c : caches) {
+            t.sample(requests, c.getHits() - c.getNegativeHits(), "cache", c.getName(), "result", "hit")
+                    .sample(requests, c.getNegativeHits(), "cache", c.getName(), "result", "negative_hit")
+                    .sample(requests, c.getMisses(), "cache", c.getName(), "result", "miss");
+        }
+        String loads = "ticketing_cache_loads_total";
+        t.family(loads, "counter", "Cache loads by result");
+        for (CacheStats c : caches) {
+            t.sample(loads, c.getLoads(), "cache", c.getName(), "result", "success")
+                    .sample(loads, c.getLoadFailures(), "cache", c.getName(), "result", "failure");
+        }
+        t.family("ticketing_cache_evictions_total", "counter", "Entries evicted to stay under the size limit");
+        for (CacheStats c : caches) t.sample("ticketing_cache_evictions_total", c.getEvictions(), "cache", c.getName());
+        t.family("ticketing_cache_entries", "gauge", "Entries in the cache");
+        for (CacheStats c : caches) t.sample("ticketing_cache_entries", c.getSize(), "cache", c.getName());
+        t.family("ticketing_cache_max_entries", "gauge", "Size limit of the cache");
+        for (CacheStats c : caches) t.sample("ticketing_cache_max_entries", c.getMaxSize(), "cache", c.getName());
+    }
+
+    private static void writeJvm(PrometheusText t) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        MemoryUsage nonHeap = ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage();
+        t.family("jvm_memory_bytes_used", "gauge", "Used bytes of a memory area")
+                .sample("jvm_memory_bytes_used", heap.getUsed(), "area", "heap")
+                .sample("jvm_memory_bytes_used", nonHeap.getUsed(), "area", "nonheap");
+        t.family("jvm_memory_bytes_committed", "gauge", "Committed bytes of a memory area")
+                .sample("jvm_memory_bytes_committed", heap.getCommitted(), "area", "heap")
+                .sample("jvm_memory_bytes_committed", nonHeap.getCommitted(), "area", "nonheap");
+        t.family("jvm_memory_bytes_max", "gauge", "Max bytes of a memory area (-1 if unbounded)")
+                .sample("jvm_memory_bytes_max", heap.getMax(), "area", "heap")
+                .sample("jvm_memory_bytes_max", nonHeap.getMax(), "area", "nonheap");
+        t.family("jvm_memory_pool_bytes_used", "gauge", "Used bytes of a memory pool");
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            t.sample("jvm_memory_pool_bytes_used", pool.getUsage().getUsed(), "pool", pool.getName());
+        }
+        t.family("jvm_gc_collection_seconds", "summary", "Time spent in a garbage collector");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            // -1 means the collector does not report it
+            t.sample("jvm_gc_collection_seconds_count", Math.max(0, gc.getCollectionCount()), "gc", gc.getName())
+                    .sample("jvm_gc_collection_seconds_sum", Math.max(0, gc.getCollectionTime()) / 1e3,
+                            "gc", gc.getName());
+        }
+        t.family("jvm_threads_current", "gauge", "Live platform threads")
+                .sample("jvm_threads_current", ManagementFactory.getThreadMXBean().getThreadCount());
+        t.family("process_uptime_seconds", "gauge", "Time since the JVM started")
+                .sample("process_uptime_seconds", ManagementFactory.getRuntimeMXBean().getUptime() / 1e3);
+    }
+
+    /*
+     * Stops serving; a scrape in progress gets a second to finish
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.close();
+    }
+}
@@ -0,0 +1,73 @@
+package menuki.ticketing.metrics;
+
+/**
+ * Writes metrics in the Prometheus text exposition format (version 0.0.4).
+ * Each metric family is started with family(), which writes its HELP and TYPE lines, followed by its
+ * samples. Labels are given as name/value pairs: sample("x_total", 3, "dao", "SeatDao", "method", "find").
+ */
+public final class PrometheusText {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // Upper bounds of the latency histogram buckets, in seconds
+    private static final double[] LATENCY_BUCKETS =
+            {0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private final StringBuilder out = new StringBuilder(16 * 1024);
+
+    public PrometheusText family(String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help.replace("\\", "\\\\").replace("\n", "\\n"))
+                .append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    public PrometheusText sample(String name, double value, String... labels) {
+        out.append(name);
+        if (labels.length > 0) {
+            out.append('{');
+            for (int i = 0; i + 1 < labels.length; i += 2) {
+                if (i > 0) out.append(',');
+                out.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ').append(format(value)).append('\n');
+        return this;
+    }
+
+    /*
+     * The samples of one histogram (its buckets, sum and count) from a latency snapshot, in seconds.
+     * Bucket counts are as precise as the snapshot's buckets (about 1.6%)
+     */
+    public PrometheusText histogram(String name, LatencyHistogram.Snapshot s, String... labels) {
+        String[] withLe = new String[labels.length + 2];
+        System.arraycopy(labels, 0, withLe, 0, labels.length);
+        withLe[labels.length] = "le";
+        for (double le : LATENCY_BUCKETS) {
+            withLe[labels.length + 1] = format(le);
+            sample(name + "_bucket", s.countAtOrBelow((long) (le * 1e9)), withLe);
+        }
+        withLe[labels.length + 1] = "+Inf";
+        sample(name + "_bucket", s.getCount(), withLe);
+        sample(name + "_sum", s.getTotalNanos() / 1e9, labels);
+        sample(name + "_count", s.getCount(), labels);
+        return this;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) return "NaN";
+        if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) return Long.toString((long) value);
+        return Double.toString(value);
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+}
@@ -7,7 +7,7 @@ import java.time.LocalDateTime;
  * This is the model class for order. This defines the basic structure and operations for an order.
  */
 public class Order {
-    private int id;
+    private long id;
     private String userId;
     private String eventId;
     private int totalCents;
@@ -17,7 +17,7 @@ public class Order {
     //Constructors
     public Order() {}
 
-    public Order(int id, String userId, String eventId, int totalCents, String status, LocalDateTime createdAt) {
+    public Order(long id, String userId, String eventId, int totalCents, String status, LocalDateTime createdAt) {
         this.id = id;
         this.userId = userId;
         this.eventId = eventId;
@@ -27,7 +27,7 @@ public class Order {
     }
 
     //Getters
-    public int getId() { return id; }
+    public long getId() { return id; }
     public String getUserId() { return userId; }
     public String getEventId() { return eventId; }
     public int getTotalCents() { return totalCents; }
@@ -35,7 +35,7 @@ public class Order {
     public LocalDateTime getCreatedAt() { return createdAt; }
 
     //Setters
-    public void setId(int id) { this.id = id; }
+    public void setId(long id) { this.id = id; }
     public void setUserId(String userId) { this.userId = userId; }
     public void setEventId(String eventId) { this.eventId = eventId; }
     public void setTotalCents(int totalCents) { this.totalCents = totalCents; }
@@ -5,15 +5,15 @@ package menuki.ticketing.model;
  * This is the model class for OrderItem. This defines the basic structure and operations for an order item.
  */
 public class OrderItem {
-    private final int id;
-    private final int orderId;
+    private final long id;
+    private final long orderId;
     private final String eventId;
     private final String rowLabel;
     private final int seatNumber;
     private final int priceCents;
 
     //Constructors
-    public OrderItem(int id, int orderId, String eventId, String rowLabel, int seatNumber, int priceCents) {
+    public OrderItem(long id, long orderId, String eventId, String rowLabel, int seatNumber, int priceCents) {
         this.id = id;
         this.orderId = orderId;
         this.eventId = eventId;
@@ -24,8 +24,8 @@ public class OrderItem {
 
 
     //Getters
-    public int getId() { return id; }
-    public int getOrderId() { return orderId; }
+    public long getId() { return id; }
+    public long getOrderId() { return orderId; }
     public String getEventId() { return eventId; }
     public String getRowLabel() { return rowLabel; }
     public int getSeatNumber() { return seatNumber; }
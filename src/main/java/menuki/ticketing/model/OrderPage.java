@@ -0,0 +1,28 @@
+package menuki.ticketing.model;
+
+import java.util.List;
+
+/**
+ * A page of a user's order history, newest first. The next page starts after the last order of this one.
+ */
+public final class OrderPage {
+    private final List<OrderSummary> orders;
+    private final boolean hasMore;
+
+    //Constructor
+    public OrderPage(List<OrderSummary> orders, boolean hasMore) {
+        this.orders = orders;
+        this.hasMore = hasMore;
+    }
+
+    //Getters
+    public List<OrderSummary> getOrders() { return orders; }
+    public boolean hasMore() { return hasMore; }
+
+    /*
+     * Cursor for the next page, or null if this page is empty
+     */
+    public OrderSummary last() {
+        return orders.isEmpty() ? null : orders.get(orders.size() - 1);
+    }
+}
@@ -0,0 +1,50 @@
+package menuki.ticketing.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One row of a user's order history: the order with its event and seat count, read in one query.
+ * Event fields are null when the event (and so the order's seats) has been deleted.
+ * A cancelled order carries the reason it was cancelled.
+ */
+public final class OrderSummary {
+    private final long id;
+    private final String userId;
+    private final LocalDateTime bookedAt;
+    private final int totalCents;
+    private final String eventId;
+    private final String eventName;
+    private final LocalDate eventDate;
+    private final int seatCount;
+    private final boolean cancelled;
+    private final String cancelReason;
+
+    //Constructor
+    public OrderSummary(long id, String userId, LocalDateTime bookedAt, int totalCents,
+                        String eventId, String eventName, LocalDate eventDate, int seatCount,
+                        boolean cancelled, String cancelReason) {
+        this.id = id;
+        this.userId = userId;
+        this.bookedAt = bookedAt;
+        this.totalCents = totalCents;
+        this.eventId = eventId;
+        this.eventName = eventName;
+        this.eventDate = eventDate;
+        this.seatCount = seatCount;
+        this.cancelled = cancelled;
+        this.cancelReason = cancelReason;
+    }
+
+    //Getters
+    public long getId() { return id; }
+    public String getUserId() { return userId; }
+    public LocalDateTime getBookedAt() { return bookedAt; }
+    public int getTotalCents() { return totalCents; }
+    public String getEventId() { return eventId; }
+    public String getEventName() { return eventName; }
+    public LocalDate getEventDate() { return eventDate; }
+    public int getSeatCount() { return seatCount; }
+    public boolean isCancelled() { return cancelled; }
+    public String getCancelReason() { return cancelReason; }
+}
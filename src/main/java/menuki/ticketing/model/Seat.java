@@ -12,6 +12,7 @@ public class Seat {
     private final SeatType type;
     private SeatStatus status;
     private final int priceCents;
+    private final long key;
 
     //Constructor
     public Seat(String eventId, String rowLabel, int seat_number, SeatType type, SeatStatus status, int priceCents) {
@@ -21,6 +22,7 @@ public class Seat {
         this.type = type;
         this.status = status;
         this.priceCents = priceCents;
+        this.key = SeatKey.of(rowLabel, seat_number);
     }
     //Getters
     public String getEventId() { return eventId; }
@@ -30,8 +32,10 @@ public class Seat {
     public SeatStatus getStatus() { return status; }
     public void setStatus(SeatStatus status) { this.status = status; }
     public int getPriceCents() { return priceCents; }
+    public long getKey() { return key; }
     public String getDisplayId() {
-        return rowLabel + "-" + String.format("%02d", seat_number); // For UI (like "A-12")
+        // For UI (like "A-12"); code that identifies seats uses getKey instead
+        return rowLabel + (seat_number < 10 ? "-0" : "-") + seat_number;
     }
 
 
@@ -39,14 +43,12 @@ public class Seat {
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof Seat s)) return false;
-        return Objects.equals(eventId, s.eventId)
-                && Objects.equals(rowLabel, s.rowLabel)
-                && seat_number == s.seat_number;
+        return key == s.key && Objects.equals(eventId, s.eventId);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(eventId, rowLabel, seat_number);
+        return Objects.hash(eventId, key);
     }
 
 
@@ -0,0 +1,272 @@
+package menuki.ticketing.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Columnar form of all the seats of one event.
+ * Instead of one Seat object per seat, the seats are stored in parallel primitive arrays (row index,
+ * seat number, type, status and price) sorted by row and seat number, and each row label is stored once.
+ * Rows are contiguous, so the seats of row r are the indexes rowStart(r) to rowEnd(r) - 1.
+ * Statuses can be changed in place (by the UI thread); everything else is fixed once built.
+ * A block also carries the event's seat version it was read at: asking for the changes since that version
+ * later returns exactly the seats that changed in between (as another, usually tiny, block).
+ */
+public final class SeatBlock {
+
+    private static final SeatType[] TYPES = SeatType.values();
+    private static final SeatStatus[] STATUSES = SeatStatus.values();
+
+    private final String eventId;
+    private final int size;
+    private final long version;
+
+    // Per seat, indexed by seat index
+    private final int[] rowIndex;
+    private final int[] seatNumbers;
+    private final byte[] types;
+    private final byte[] statuses;
+    private final int[] prices;
+
+    // Per row, indexed by row index
+    private final String[] rowLabels;
+    private final int[] rowCodes;
+    private final int[] rowStart;
+
+    //Constructor
+    private SeatBlock(String eventId, long version, int size, int[] rowIndex, int[] seatNumbers, byte[] types,
+                      byte[] statuses, int[] prices, String[] rowLabels) {
+        this.eventId = eventId;
+        this.version = version;
+        this.size = size;
+        this.rowIndex = rowIndex;
+        this.seatNumbers = seatNumbers;
+        this.types = types;
+        this.statuses = statuses;
+        this.prices = prices;
+        this.rowLabels = rowLabels;
+        this.rowCodes = new int[rowLabels.length];
+        this.rowStart = new int[rowLabels.length + 1];
+        for (int r = 0; r < rowLabels.length; r++) rowCodes[r] = SeatKey.rowCode(rowLabels[r]);
+        for (int i = 0, r = 0; r <= rowLabels.length; r++) {
+            while (i < size && rowIndex[i] < r) i++;
+            rowStart[r] = i;
+        }
+    }
+
+    /*
+     * Block for seats that are already loaded as objects (in any order)
+     */
+    public static SeatBlock of(String eventId, List<Seat> seats) {
+        Builder b = builder(eventId, seats.size());
+        for (Seat s : seats) {
+            b.add(s.getRowLabel(), s.getSeat_number(), s.getType(), s.getStatus(), s.getPriceCents());
+        }
+        return b.build();
+    }
+
+    public static Builder builder(String eventId, int expectedSize) {
+        return new Builder(eventId, expectedSize);
+    }
+
+    //Getters
+    public String getEventId() { return eventId; }
+    public long getVersion() { return version; }
+    public int size() { return size; }
+    public int rowCount() { return rowLabels.length; }
+    public String rowLabel(int row) { return rowLabels[row]; }
+    public int rowStart(int row) { return rowStart[row]; }
+    public int rowEnd(int row) { return rowStart[row + 1]; }
+    public int rowOf(int index) { return rowIndex[index]; }
+    public int seatNumber(int index) { return seatNumbers[index]; }
+    public SeatType type(int index) { return TYPES[types[index]]; }
+    public SeatStatus status(int index) { return STATUSES[statuses[index]]; }
+    public int priceCents(int index) { return prices[index]; }
+    public void setStatus(int index, SeatStatus status) { statuses[index] = (byte) status.ordinal(); }
+
+    /*
+     * Seat key for a seat index
+     */
+    public long key(int index) {
+        return SeatKey.of(rowCodes[rowIndex[index]], seatNumbers[index]);
+    }
+
+    /*
+     * Seat index for a seat key, or -1 if the block has no such seat (binary search, seats are in key order)
+     */
+    public int indexOf(long seatKey) {
+        int r = Arrays.binarySearch(rowCodes, SeatKey.rowCode(seatKey));
+        if (r < 0) return -1;
+        int i = Arrays.binarySearch(seatNumbers, rowStart[r], rowStart[r + 1], SeatKey.seatNumber(seatKey));
+        return i >= 0 ? i : -1;
+    }
+
+    /*
+     * Display ID for a seat index, like "A-02" (for rendering only)
+     */
+    public String displayId(int index) {
+        int n = seatNumbers[index];
+        return rowLabels[rowIndex[index]] + (n < 10 ? "-0" : "-") + n;
+    }
+
+    /*
+     * Seat object for one seat, for code that still works with Seat (e.g. checkout)
+     */
+    public Seat seat(int index) {
+        return new Seat(eventId, rowLabels[rowIndex[index]], seatNumbers[index], type(index), status(index),
+                prices[index]);
+    }
+
+    /*
+     * Seat objects for every seat, sharing the row label strings
+     */
+    public List<Seat> toSeats() {
+        List<Seat> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) out.add(seat(i));
+        return out;
+    }
+
+
+    /**
+     * Fills a SeatBlock one seat at a time, e.g. straight from a ResultSet.
+     * Seats usually arrive sorted by row and seat number; if they do not, build() sorts them.
+     */
+    public static final class Builder {
+
+        private final String eventId;
+        private long version;
+        private int size;
+        private int[] rowIndex;
+        private int[] seatNumbers;
+        private byte[] types;
+        private byte[] statuses;
+        private int[] prices;
+        private final List<String> rowLabels = new ArrayList<>();
+        private boolean sorted = true;
+
+        //Constructor
+        private Builder(String eventId, int expectedSize) {
+            this.eventId = eventId;
+            int capacity = Math.max(1, expectedSize);
+            this.rowIndex = new int[capacity];
+            this.seatNumbers = new int[capacity];
+            this.types = new byte[capacity];
+            this.statuses = new byte[capacity];
+            this.prices = new int[capacity];
+        }
+
+        /*
+         * Version of the event's seats this block was read at
+         */
+        public Builder version(long version) {
+            this.version = version;
+            return this;
+        }
+
+        public Builder add(String rowLabel, int seatNumber, SeatType type, SeatStatus status, int priceCents) {
+            if (size == seatNumbers.length) grow();
+            int r = rowFor(rowLabel);
+            if (size > 0 && (r < rowIndex[size - 1] || (r == rowIndex[size - 1] && seatNumber <= seatNumbers[size - 1]))) {
+                sorted = false;
+            }
+            rowIndex[size] = r;
+            seatNumbers[size] = seatNumber;
+            types[size] = (byte) type.ordinal();
+            statuses[size] = (byte) status.ordinal();
+            prices[size] = priceCents;
+            size++;
+            return this;
+        }
+
+        /*
+         * Makes room for the given total number of seats up front, so the arrays are never copied to grow
+         */
+        public Builder expectSize(int total) {
+            if (total > seatNumbers.length) resize(total);
+            return this;
+        }
+
+        public SeatBlock build() {
+            if (!sorted || !rowsInOrder()) return sortedBlock();
+            // Trimming only copies if the builder was sized too big
+            if (size != seatNumbers.length) resize(size);
+            return new SeatBlock(eventId, version, size, rowIndex, seatNumbers, types, statuses, prices,
+                    rowLabels.toArray(new String[0]));
+        }
+
+        /*
+         * Row index for a label. Sorted input only ever compares with the last row, so this is O(1) per seat
+         */
+        private int rowFor(String rowLabel) {
+            int last = rowLabels.size() - 1;
+            if (last >= 0 && rowLabels.get(last).equals(rowLabel)) return last;
+            int r = rowLabels.indexOf(rowLabel);
+            if (r >= 0) return r;
+            rowLabels.add(rowLabel);
+            return last + 1;
+        }
+
+        /*
+         * Row labels must also be in key order (the DB collation may disagree)
+         */
+        private boolean rowsInOrder() {
+            for (int r = 1; r < rowLabels.size(); r++) {
+                if (SeatKey.rowCode(rowLabels.get(r - 1)) >= SeatKey.rowCode(rowLabels.get(r))) return false;
+            }
+            return true;
+        }
+
+        /*
+         * Slow path for unsorted input: order rows by row code and seats by key, dropping duplicate seats
+         */
+        private SeatBlock sortedBlock() {
+            String[] labels = rowLabels.toArray(new String[0]);
+            Integer[] rowOrder = new Integer[labels.length];
+            for (int r = 0; r < labels.length; r++) rowOrder[r] = r;
+            Arrays.sort(rowOrder, (a, b) -> Integer.compare(SeatKey.rowCode(labels[a]), SeatKey.rowCode(labels[b])));
+            int[] newRow = new int[labels.length];
+            String[] newLabels = new String[labels.length];
+            for (int r = 0; r < labels.length; r++) {
+                newRow[rowOrder[r]] = r;
+                newLabels[r] = labels[rowOrder[r]];
+            }
+
+            long[] order = new long[size];
+            for (int i = 0; i < size; i++) {
+                // Row, seat number and original position packed so one sort orders everything
+                order[i] = ((long) newRow[rowIndex[i]] << 48) | ((long) (seatNumbers[i] & 0xFFFFFF) << 24) | i;
+            }
+            Arrays.sort(order);
+
+            Builder b = new Builder(eventId, size);
+            b.rowLabels.addAll(Arrays.asList(newLabels));
+            for (long o : order) {
+                int i = (int) (o & 0xFFFFFF);
+                int r = newRow[rowIndex[i]];
+                if (b.size > 0 && b.rowIndex[b.size - 1] == r && b.seatNumbers[b.size - 1] == seatNumbers[i]) continue;
+                b.rowIndex[b.size] = r;
+                b.seatNumbers[b.size] = seatNumbers[i];
+                b.types[b.size] = types[i];
+                b.statuses[b.size] = statuses[i];
+                b.prices[b.size] = prices[i];
+                b.size++;
+            }
+            return new SeatBlock(eventId, version, b.size, Arrays.copyOf(b.rowIndex, b.size), Arrays.copyOf(b.seatNumbers, b.size),
+                    Arrays.copyOf(b.types, b.size), Arrays.copyOf(b.statuses, b.size), Arrays.copyOf(b.prices, b.size),
+                    newLabels);
+        }
+
+        private void grow() {
+            resize(seatNumbers.length * 2);
+        }
+
+        private void resize(int capacity) {
+            rowIndex = Arrays.copyOf(rowIndex, capacity);
+            seatNumbers = Arrays.copyOf(seatNumbers, capacity);
+            types = Arrays.copyOf(types, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+        }
+    }
+}
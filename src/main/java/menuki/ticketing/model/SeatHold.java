@@ -0,0 +1,32 @@
+package menuki.ticketing.model;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * This is the model class for a temporary hold on a seat. A held seat is kept for one user until
+ * the hold expires or the user checks out.
+ */
+public class SeatHold {
+    //How long a seat stays held before it is released automatically
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    private final String eventId;
+    private final long seatKey;
+    private final String holderId;
+    private final Instant expiresAt;
+
+    //Constructor
+    public SeatHold(String eventId, long seatKey, String holderId, Instant expiresAt) {
+        this.eventId = eventId;
+        this.seatKey = seatKey;
+        this.holderId = holderId;
+        this.expiresAt = expiresAt;
+    }
+
+    //Getters
+    public String getEventId() { return eventId; }
+    public long getSeatKey() { return seatKey; }
+    public String getHolderId() { return holderId; }
+    public Instant getExpiresAt() { return expiresAt; }
+}
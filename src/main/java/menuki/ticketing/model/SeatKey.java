@@ -0,0 +1,98 @@
+package menuki.ticketing.model;
+
+/**
+ * Compact identity of a seat within an event, packed into a long.
+ * The row label (up to 4 ASCII characters, as in the seats table) takes the high 32 bits with the first
+ * character in the top byte, and the seat number takes the low 32 bits. Keys therefore sort the same way
+ * as (row label, seat number), never need a lookup table to decode, and are never 0.
+ * Display strings like "A-02" are only built when something is rendered.
+ */
+public final class SeatKey {
+
+    private SeatKey() {}
+
+    /*
+     * Key for a row label and seat number
+     */
+    public static long of(String rowLabel, int seatNumber) {
+        return ((long) rowCode(rowLabel) << 32) | (seatNumber & 0xFFFFFFFFL);
+    }
+
+    /*
+     * Key for a row (as returned by rowCode) and seat number
+     */
+    public static long of(int rowCode, int seatNumber) {
+        return ((long) rowCode << 32) | (seatNumber & 0xFFFFFFFFL);
+    }
+
+    /*
+     * Row label packed into an int, one character per byte
+     */
+    public static int rowCode(String rowLabel) {
+        int n = rowLabel.length();
+        if (n == 0 || n > 4) throw new IllegalArgumentException("Row label must be 1-4 characters: " + rowLabel);
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+            int ch = i < n ? rowLabel.charAt(i) : 0;
+            if (ch > 0x7F) throw new IllegalArgumentException("Row label must be ASCII: " + rowLabel);
+            code = (code << 8) | ch;
+        }
+        return code;
+    }
+
+    //Accessors
+    public static int rowCode(long key) { return (int) (key >>> 32); }
+    public static int seatNumber(long key) { return (int) key; }
+
+    /*
+     * Row label of the key (builds a string, so not for hot loops)
+     */
+    public static String rowLabel(long key) {
+        return rowLabelOf(rowCode(key));
+    }
+
+    /*
+     * Row label for a row code
+     */
+    public static String rowLabelOf(int rowCode) {
+        char[] chars = new char[4];
+        int n = 0;
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            int ch = (rowCode >>> shift) & 0xFF;
+            if (ch == 0) break;
+            chars[n++] = (char) ch;
+        }
+        return new String(chars, 0, n);
+    }
+
+    /*
+     * Display form for the UI, like "A-02"
+     */
+    public static String displayId(long key) {
+        int n = seatNumber(key);
+        return rowLabel(key) + (n >= 0 && n < 10 ? "-0" : "-") + n;
+    }
+
+    /*
+     * Parses a display ID like "A-02" back into a key (for input from outside, e.g. tests and tools)
+     */
+    public static long parse(String displayId) {
+        int dash = displayId.lastIndexOf('-');
+        if (dash <= 0 || dash + 1 >= displayId.length()) {
+            throw new IllegalArgumentException("Not a seat ID: " + displayId);
+        }
+        return of(displayId.substring(0, dash), Integer.parseInt(displayId.substring(dash + 1)));
+    }
+
+    /*
+     * Display form of several keys, for messages
+     */
+    public static String join(long[] keys) {
+        StringBuilder sb = new StringBuilder();
+        for (long k : keys) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(displayId(k));
+        }
+        return sb.toString();
+    }
+}
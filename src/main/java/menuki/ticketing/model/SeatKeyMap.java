@@ -0,0 +1,179 @@
+package menuki.ticketing.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hash map from seat keys to values without boxing the keys.
+ * Open addressing with linear probing over parallel arrays; 0 marks an empty slot, which is safe because
+ * SeatKey never produces 0. Removal shifts the following entries back so no tombstones are needed.
+ * Not thread-safe (used by the UI thread).
+ */
+public final class SeatKeyMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    //Constructors
+    public SeatKeyMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public SeatKeyMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = find(key);
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    /*
+     * Stores the value and returns the previous one, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == 0) throw new IllegalArgumentException("0 is not a seat key");
+        int slot = slotOf(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                V old = (V) values[slot];
+                values[slot] = value;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) resize(keys.length * 2);
+        return null;
+    }
+
+    /*
+     * Removes the key and returns its value, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = find(key);
+        if (slot < 0) return null;
+        V old = (V) values[slot];
+        // Shift back entries of the same probe chain into the hole
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != 0) {
+            int home = slotOf(keys[next]);
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+        size--;
+        return old;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /*
+     * All keys, in no particular order
+     */
+    public long[] keys() {
+        long[] out = new long[size];
+        int n = 0;
+        for (long k : keys) {
+            if (k != 0) out[n++] = k;
+        }
+        return out;
+    }
+
+    /*
+     * All values, in no particular order
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> out = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) out.add((V) values[i]);
+        }
+        return out;
+    }
+
+    /*
+     * Calls the action for every entry
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Entry<? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) action.accept(keys[i], (V) values[i]);
+        }
+    }
+
+    private int find(long key) {
+        if (key == 0) return -1;
+        int slot = slotOf(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slotOf(long key) {
+        // Mix the row and seat halves so neighbouring seats spread over the table
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slotOf(oldKeys[i]);
+                while (keys[slot] != 0) slot = (slot + 1) & mask;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+
+    /*
+     * Callback for forEach
+     */
+    @FunctionalInterface
+    public interface Entry<V> {
+        void accept(long key, V value);
+    }
+}
@@ -0,0 +1,43 @@
+package menuki.ticketing.model;
+
+import java.util.Arrays;
+
+/**
+ * Set of seat keys without boxing, backed by a SeatKeyMap.
+ * Not thread-safe (used by the UI thread).
+ */
+public final class SeatKeySet {
+
+    private final SeatKeyMap<Boolean> map = new SeatKeyMap<>();
+
+    public int size() { return map.size(); }
+    public boolean isEmpty() { return map.isEmpty(); }
+    public boolean contains(long key) { return map.containsKey(key); }
+
+    /*
+     * Adds the key. Returns false if it was already there
+     */
+    public boolean add(long key) {
+        return map.put(key, Boolean.TRUE) == null;
+    }
+
+    /*
+     * Removes the key. Returns false if it was not there
+     */
+    public boolean remove(long key) {
+        return map.remove(key) != null;
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    /*
+     * The keys in seat order (row, then seat number)
+     */
+    public long[] toSortedArray() {
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        return keys;
+    }
+}
@@ -0,0 +1,71 @@
+package menuki.ticketing.service;
+
+import menuki.ticketing.data.dao.SeatDao;
+import menuki.ticketing.data.jdbc.JdbcSeatDao;
+import menuki.ticketing.data.metrics.MeteredSeatDao;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that keeps the per-event available seat counters honest.
+ * Every seat write updates the counters in its own transaction, so they should never drift; this catches
+ * the cases that bypass the DAO (manual SQL, restored backups, older app versions) and fixes them.
+ */
+public final class AvailabilityReconciler implements AutoCloseable {
+
+    public static final Duration DEFAULT_PERIOD = Duration.ofMinutes(5);
+
+    private final SeatDao seatDao;
+    private final ScheduledExecutorService scheduler;
+
+    //Constructors
+
+    //Normal one used by the app
+    public AvailabilityReconciler() {
+        this(new MeteredSeatDao(new JdbcSeatDao()));
+    }
+
+    public AvailabilityReconciler(SeatDao seatDao) {
+        this.seatDao = seatDao;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "availability-reconciler");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /*
+     * Runs a reconciliation every period, the first one after one period (the counters were just checked
+     * when the tables were created)
+     */
+    public void start(Duration period) {
+        long ms = period.toMillis();
+        scheduler.scheduleWithFixedDelay(this::runQuietly, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    /*
+     * Checks every event once. Returns the number of events whose counters had to be fixed
+     */
+    public int runOnce() throws SQLException {
+        int fixed = seatDao.reconcileAvailability();
+        if (fixed > 0) System.out.println("[RECONCILER] fixed seat counters of " + fixed + " event(s)");
+        return fixed;
+    }
+
+    private void runQuietly() {
+        try {
+            runOnce();
+        } catch (Exception e) {
+            // Try again next time; a failed run leaves the counters as they were
+            System.err.println("[RECONCILER] run failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
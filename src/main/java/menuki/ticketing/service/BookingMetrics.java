@@ -0,0 +1,54 @@
+package menuki.ticketing.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters of booking outcomes: seat claims (reserve, hold, confirm) that went through or
+ * lost to another user, and orders written or failed. The seat and order services update them; the
+ * metrics endpoint reads them.
+ */
+public final class BookingMetrics {
+
+    /*
+     * The ways a user claims seats
+     */
+    public enum Claim { RESERVE, HOLD, CONFIRM }
+
+    private static final LongAdder[] SUCCEEDED = adders(Claim.values().length);
+    private static final LongAdder[] CONFLICTED = adders(Claim.values().length);
+    private static final LongAdder ORDERS = new LongAdder();
+    private static final LongAdder ORDERED_SEATS = new LongAdder();
+    private static final LongAdder FAILED_ORDERS = new LongAdder();
+
+    private BookingMetrics() {}
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] out = new LongAdder[n];
+        for (int i = 0; i < n; i++) out[i] = new LongAdder();
+        return out;
+    }
+
+    /*
+     * Counts a claim and hands its result back, so a service can count where it returns
+     */
+    static boolean claim(Claim claim, boolean succeeded) {
+        (succeeded ? SUCCEEDED : CONFLICTED)[claim.ordinal()].increment();
+        return succeeded;
+    }
+
+    static void orderCreated(int seats) {
+        ORDERS.increment();
+        ORDERED_SEATS.add(seats);
+    }
+
+    static void orderFailed() {
+        FAILED_ORDERS.increment();
+    }
+
+    //Getters
+    public static long succeeded(Claim claim) { return SUCCEEDED[claim.ordinal()].sum(); }
+    public static long conflicted(Claim claim) { return CONFLICTED[claim.ordinal()].sum(); }
+    public static long ordersCreated() { return ORDERS.sum(); }
+    public static long seatsOrdered() { return ORDERED_SEATS.sum(); }
+    public static long ordersFailed() { return FAILED_ORDERS.sum(); }
+}
@@ -0,0 +1,184 @@
+package menuki.ticketing.service;
+
+import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.service.inventory.SeatInventory;
+import menuki.ticketing.service.inventory.SeatInventoryEngine;
+import menuki.ticketing.service.inventory.SeatScoring;
+import menuki.ticketing.service.inventory.WriteBehindQueue;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service layer for seats backed by the in-memory inventory engine.
+ * Seat maps, availability checks, reservations and releases are served from the event's bitmap,
+ * and the seats table is updated by the engine's write-behind queue.
+ * Anything else (layout generation, pricing) is handed to the JDBC seat service.
+ */
+public class InventorySeatService implements SeatService {
+
+    private final SeatService delegate;
+    private final SeatInventoryEngine engine;
+
+    //Constructors
+
+    //Normal one used by the app
+    public InventorySeatService() {
+        this(new JdbcSeatService(), SeatInventoryEngine.shared());
+    }
+
+    public InventorySeatService(SeatService delegate, SeatInventoryEngine engine) {
+        this.delegate = delegate;
+        this.engine = engine;
+    }
+
+    /*
+     * The event's inventory, loaded from the DB (via the JDBC service) only the first time
+     */
+    private SeatInventory inventory(String eventId) {
+        return engine.inventory(eventId, delegate::loadSeatBlock);
+    }
+
+    /*
+     * Business logic for getting the seats of an event, built from memory after the first load
+     */
+    @Override
+    public List<Seat> loadSeatsForEvent(String eventId) {
+        return inventory(eventId).toSeats();
+    }
+
+    /*
+     * Business logic for getting the seats of an event in columnar form, built from memory
+     */
+    @Override
+    public SeatBlock loadSeatBlock(String eventId) {
+        return inventory(eventId).toBlock();
+    }
+
+    /*
+     * Business logic for getting only the seats that changed since a block's version, from memory
+     */
+    @Override
+    public SeatBlock loadSeatChanges(String eventId, long sinceVersion) {
+        return inventory(eventId).changesSince(sinceVersion);
+    }
+
+    @Override
+    public void ensureSeatsForEvent(String eventId) {
+        delegate.ensureSeatsForEvent(eventId);
+    }
+
+    /*
+     * Business logic for reserving seats. All or nothing, decided in memory and persisted behind
+     */
+    @Override
+    public boolean reserveSeats(String eventId, long[] seatKeys) {
+        if (seatKeys == null || seatKeys.length == 0) return true;
+        SeatInventory inv = inventory(eventId);
+        int[] indexes = inv.indexesOf(seatKeys);
+        if (indexes == null || !inv.transitionAll(indexes, SeatInventory.AVAILABLE, SeatInventory.RESERVED)) {
+            return BookingMetrics.claim(BookingMetrics.Claim.RESERVE, false);
+        }
+        engine.persist(eventId, WriteBehindQueue.Op.RESERVE, seatKeys);
+        return BookingMetrics.claim(BookingMetrics.Claim.RESERVE, true);
+    }
+
+    /*
+     * Business logic for holding seats for a user, decided in memory and expired by the engine
+     */
+    @Override
+    public boolean holdSeats(String eventId, long[] seatKeys, String holderId) {
+        if (seatKeys == null || seatKeys.length == 0) return true;
+        return BookingMetrics.claim(BookingMetrics.Claim.HOLD, engine.hold(inventory(eventId), seatKeys, holderId));
+    }
+
+    /*
+     * Business logic for turning a user's holds into reservations at checkout
+     */
+    @Override
+    public boolean confirmHolds(String eventId, long[] seatKeys, String holderId) {
+        if (seatKeys == null || seatKeys.length == 0) return true;
+        return BookingMetrics.claim(BookingMetrics.Claim.CONFIRM,
+                engine.confirm(inventory(eventId), seatKeys, holderId));
+    }
+
+    /*
+     * Business logic for holding the best block of seats together, found and held in one step
+     */
+    @Override
+    public long[] holdBestAvailable(String eventId, int quantity, SeatScoring scoring, String holderId) {
+        return engine.holdBest(inventory(eventId), quantity, scoring, holderId);
+    }
+
+    /*
+     * Business logic for identifying seats held by others. Only seats still available are taken off sale,
+     * one by one, so a live hold or another sale is never overwritten
+     */
+    @Override
+    public void addHeldByOthers(String eventId, long[] seatKeys) {
+        SeatInventory inv = inventory(eventId);
+        for (long key : seatKeys) {
+            int i = inv.indexOf(key);
+            if (i >= 0 && inv.compareAndSet(i, SeatInventory.AVAILABLE, SeatInventory.RESERVED)) {
+                engine.persist(eventId, WriteBehindQueue.Op.RESERVE, new long[]{key});
+            }
+        }
+    }
+
+    /*
+     * Business logic for making seats available again (releasing)
+     */
+    @Override
+    public void releaseSeats(String eventId, long[] seatKeys) {
+        if (seatKeys == null || seatKeys.length == 0) return;
+        SeatInventory inv = inventory(eventId);
+        // Queued before the seats are freed in memory: once free, another user can reserve them, and that
+        // write must land after this one or the DB ends up with a sold seat marked available
+        engine.persist(eventId, WriteBehindQueue.Op.RELEASE, seatKeys);
+        for (long key : seatKeys) {
+            int i = inv.indexOf(key);
+            if (i >= 0) inv.release(i);
+        }
+    }
+
+    /*
+     * Business Logic for getting all seats for an event grouped by the row label (ready for UI)
+     */
+    @Override
+    public Map<String, List<Seat>> loadSeatsGroupedByRow(String eventId) {
+        return JdbcSeatService.groupByRow(loadSeatBlock(eventId));
+    }
+
+    /*
+     * Number of available seats for the event, read straight from the in-memory counter
+     */
+    @Override
+    public int countAvailable(String eventId) {
+        return inventory(eventId).availableCount();
+    }
+
+    @Override
+    public void markReserved(List<Seat> seats) {
+        delegate.markReserved(seats);
+    }
+
+    @Override
+    public void markAvailable(List<Seat> seats) {
+        delegate.markAvailable(seats);
+    }
+
+    /*
+     * Re-pricing changes seat details held in memory, so the event is reloaded next time
+     */
+    @Override
+    public void markVipSeats(String eventId, List<String> vipRows, int vipCents) {
+        delegate.markVipSeats(eventId, vipRows, vipCents);
+        engine.evict(eventId);
+    }
+
+    @Override
+    public void markStandardSeats(String eventId, List<String> vipRows, int stdCents) {
+        delegate.markStandardSeats(eventId, vipRows, stdCents);
+        engine.evict(eventId);
+    }
+}
@@ -4,6 +4,9 @@ import menuki.ticketing.data.dao.EventDao;
 import menuki.ticketing.data.dao.SeatDao;
 import menuki.ticketing.data.jdbc.JdbcEventDao;
 import menuki.ticketing.data.jdbc.JdbcSeatDao;
+import menuki.ticketing.data.jdbc.TransactionScope;
+import menuki.ticketing.data.metrics.MeteredEventDao;
+import menuki.ticketing.data.metrics.MeteredSeatDao;
 import menuki.ticketing.model.Event;
 import java.sql.SQLException;
 import java.util.List;
@@ -21,7 +24,7 @@ public class JdbcEventService implements EventService {
 
     //Constructors
     public JdbcEventService() {
-        this(new JdbcEventDao(), new JdbcSeatDao());
+        this(new MeteredEventDao(new JdbcEventDao()), new MeteredSeatDao(new JdbcSeatDao()));
     }
 
     public JdbcEventService(EventDao eventDao, SeatDao seatDao) {
@@ -66,22 +69,29 @@ public class JdbcEventService implements EventService {
         }
     }
 
+    /*
+     * Creates the event, its seats and the VIP/STANDARD pricing as one unit of work.
+     * Every DAO call below shares the scope's connection and nothing is visible until the single commit
+     */
     @Override
     public void createEventWithSeating(Event event, List<String> vipRows, int vipCents, int stdCents) {
-        //Create event using dao
-        try {
+        SeatService seatSvc = new JdbcSeatService(seatDao);
+
+        try (TransactionScope tx = TransactionScope.begin()) {
+            //Create event using dao
             eventDao.insert(event);
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to insert event", e);
-        }
 
-        SeatService seatSvc = new JdbcSeatService(seatDao);
-        //Loading seat objects associated with a specific event using the service layer
-        seatSvc.loadSeatsForEvent(event.getId());
+            //Generate the default seat layout for the new event using the service layer
+            seatSvc.ensureSeatsForEvent(event.getId());
+
+            // Assign VIP/STANDARD seats
+            seatSvc.markVipSeats(event.getId(), vipRows, vipCents);
+            seatSvc.markStandardSeats(event.getId(), vipRows, stdCents);
 
-        // Assign VIP/STANDARD seats
-        seatSvc.markVipSeats(event.getId(), vipRows, vipCents);
-        seatSvc.markStandardSeats(event.getId(), vipRows, stdCents);
+            tx.commit();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to create event with seating", e);
+        }
     }
 
 
@@ -2,6 +2,8 @@ package menuki.ticketing.service;
 
 import menuki.ticketing.data.dao.OrderDao;
 import menuki.ticketing.model.Order;
+import menuki.ticketing.model.OrderPage;
+import menuki.ticketing.model.OrderSummary;
 import menuki.ticketing.model.Seat;
 import java.sql.SQLException;
 import java.util.List;
@@ -13,20 +15,31 @@ import java.util.List;
 public class JdbcOrderService implements OrderService {
 
     private final OrderDao orderDao;
+    private final OrderCompensation compensation;
 
-    //Constructor
+    //Constructors
     public JdbcOrderService(OrderDao orderDao) {
+        this(orderDao, OrderCompensation.shared());
+    }
+
+    public JdbcOrderService(OrderDao orderDao, OrderCompensation compensation) {
         this.orderDao = orderDao;
+        this.compensation = compensation;
     }
 
     /*
-     * Business logic to create an order
+     * Business logic to create an order. The seats may already have been refused by the DB behind the
+     * in-memory inventory, in which case the new order is cancelled again (see OrderCompensation)
      */
     @Override
-    public int createOrder(String username, String eventId, List<Seat> seats) {
+    public long createOrder(String username, String eventId, List<Seat> seats) {
         try {
-            return orderDao.createOrder(username, eventId, seats);
+            long orderId = orderDao.createOrder(username, eventId, seats);
+            BookingMetrics.orderCreated(seats.size());
+            compensation.orderCreated(username, eventId, seats.stream().mapToLong(Seat::getKey).toArray());
+            return orderId;
         } catch (SQLException e) {
+            BookingMetrics.orderFailed();
             throw new RuntimeException("Order creation failed", e);
         }
     }
@@ -42,4 +55,16 @@ public class JdbcOrderService implements OrderService {
             throw new RuntimeException("findByUser failed", e);
         }
     }
+
+    /*
+     * Business logic to page through a user's order history
+     */
+    @Override
+    public OrderPage findPageByUser(String username, OrderSummary after, int limit) {
+        try {
+            return orderDao.findPageByUser(username, after, limit);
+        } catch (SQLException e) {
+            throw new RuntimeException("findPageByUser failed", e);
+        }
+    }
 }
@@ -2,15 +2,22 @@ package menuki.ticketing.service;
 
 import menuki.ticketing.data.dao.SeatDao;
 import menuki.ticketing.data.jdbc.JdbcSeatDao;
+import menuki.ticketing.data.metrics.MeteredSeatDao;
 import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.model.SeatHold;
 import menuki.ticketing.model.SeatStatus;
 import menuki.ticketing.model.SeatType;
+import menuki.ticketing.service.events.SeatChange;
+import menuki.ticketing.service.events.SeatChangeBus;
+import menuki.ticketing.service.inventory.SeatInventory;
+import menuki.ticketing.service.inventory.SeatScoring;
 import java.sql.SQLException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.stream.Collectors;
 
 
 /**
@@ -21,20 +28,23 @@ public class JdbcSeatService implements SeatService {
 
 
     private final SeatDao seatDao;
-
-    //thread-safe flag ensuring DB table us only created once
-    private static volatile boolean tableChecked = false;
+    private final SeatChangeBus bus;
 
     //Constructors
 
     //Normal one used by the app
     public JdbcSeatService() {
-        this(new JdbcSeatDao());
+        this(new MeteredSeatDao(new JdbcSeatDao()));
     }
 
     // For testing - inject any DAO implementation
     public JdbcSeatService(SeatDao seatDao) {
+        this(seatDao, SeatChangeBus.shared());
+    }
+
+    public JdbcSeatService(SeatDao seatDao, SeatChangeBus bus) {
         this.seatDao = seatDao;
+        this.bus = bus;
     }
 
     /*
@@ -42,27 +52,49 @@ public class JdbcSeatService implements SeatService {
      */
     @Override
     public List<Seat> loadSeatsForEvent(String eventId) {
+        return loadSeatBlock(eventId).toSeats();
+    }
+
+    /*
+     * Business logic for loading the seats of an event in columnar form (no Seat object per seat)
+     */
+    @Override
+    public SeatBlock loadSeatBlock(String eventId) {
+        try {
+            ensureSeatsForEvent(eventId);
+
+            return seatDao.findBlockByEvent(eventId);
+        } catch (SQLException e) {
+            throw new RuntimeException("loadSeatBlock failed", e);
+        }
+    }
+
+    /*
+     * Business logic for loading only the seats that changed since a block's version (e.g. to patch a seat map)
+     */
+    @Override
+    public SeatBlock loadSeatChanges(String eventId, long sinceVersion) {
+        try {
+            return seatDao.findChangedSince(eventId, sinceVersion);
+        } catch (SQLException e) {
+            throw new RuntimeException("loadSeatChanges failed", e);
+        }
+    }
+
+    /*
+     * Business logic for generating the default layout for an event that has no seats yet.
+     * Does no DDL so it is safe to call inside a TransactionScope
+     */
+    @Override
+    public void ensureSeatsForEvent(String eventId) {
         try {
-            // Done for performance by avoiding unwanted table creation
-            if (!tableChecked) {
-                synchronized (JdbcSeatService.class) {
-                    if (!tableChecked) {
-                        seatDao.createTableIfNotExists();
-                        tableChecked = true;
-                        System.out.println("[SERVICE] seats table ensured once");
-                    }
-                }
-            }
             // Check if there are seats stored for this event and if not, generate the default layout
             if (!seatDao.hasAnyForEvent(eventId)) {
                 List<Seat> all = generateDefaultLayout(eventId);
-                long t0 = System.currentTimeMillis();
                 seatDao.insertAll(eventId, all);
             }
-
-            return seatDao.findByEvent(eventId);
         } catch (SQLException e) {
-            throw new RuntimeException("loadSeatsForEvent failed", e);
+            throw new RuntimeException("ensureSeatsForEvent failed", e);
         }
     }
 
@@ -71,26 +103,82 @@ public class JdbcSeatService implements SeatService {
     * Business logic for reserving seats
     */
     @Override
-    public boolean reserveSeats(String eventId, List<String> seatIds) {
+    public boolean reserveSeats(String eventId, long[] seatKeys) {
         try {
-            return seatDao.reserveSeatsAtomic(eventId, seatIds);
+            boolean reserved = BookingMetrics.claim(BookingMetrics.Claim.RESERVE,
+                    seatDao.reserveSeatsAtomic(eventId, seatKeys));
+            return published(reserved, eventId, seatKeys, SeatStatus.RESERVED);
         } catch (SQLException e) {
             throw new RuntimeException("reserveSeats failed", e);
         }
     }
 
+    /*
+     * Business logic for holding seats for a user until the hold TTL runs out
+     */
+    @Override
+    public boolean holdSeats(String eventId, long[] seatKeys, String holderId) {
+        try {
+            boolean held = BookingMetrics.claim(BookingMetrics.Claim.HOLD,
+                    seatDao.holdSeats(eventId, seatKeys, holderId, Instant.now().plus(SeatHold.DEFAULT_TTL)));
+            return published(held, eventId, seatKeys, SeatStatus.SELECTED);
+        } catch (SQLException e) {
+            throw new RuntimeException("holdSeats failed", e);
+        }
+    }
+
+    /*
+     * Business logic for turning a user's holds into reservations at checkout
+     */
+    @Override
+    public boolean confirmHolds(String eventId, long[] seatKeys, String holderId) {
+        try {
+            boolean confirmed = BookingMetrics.claim(BookingMetrics.Claim.CONFIRM,
+                    seatDao.confirmHolds(eventId, seatKeys, holderId));
+            return published(confirmed, eventId, seatKeys, SeatStatus.RESERVED);
+        } catch (SQLException e) {
+            throw new RuntimeException("confirmHolds failed", e);
+        }
+    }
+
+    /*
+     * Business logic for holding the best block of seats together.
+     * The block is picked from a snapshot of the seats and held with a conditional UPDATE; if another
+     * user got there first a fresh snapshot is taken
+     */
+    @Override
+    public long[] holdBestAvailable(String eventId, int quantity, SeatScoring scoring, String holderId) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            SeatInventory snapshot = SeatInventory.of(loadSeatBlock(eventId));
+            int[] indexes = snapshot.findBest(quantity, scoring);
+            if (indexes == null) return new long[0];
+            long[] seatKeys = snapshot.keys(indexes);
+            if (holdSeats(eventId, seatKeys, holderId)) return seatKeys;
+        }
+        return new long[0];
+    }
+
     /*
      * Business logic for identifying seats held by others
      */
     @Override
-    public void addHeldByOthers(String eventId, List<String> seatIds) {
+    public void addHeldByOthers(String eventId, long[] seatKeys) {
         try {
-            seatDao.markReserved(eventId, seatIds);
+            seatDao.markReserved(eventId, seatKeys);
+            published(true, eventId, seatKeys, SeatStatus.RESERVED);
         } catch (SQLException e) {
             throw new RuntimeException("addHeldByOthers failed", e);
         }
     }
 
+    /*
+     * Tells the seat change bus about a write that went through. Returns whether it did, for chaining
+     */
+    private boolean published(boolean done, String eventId, long[] seatKeys, SeatStatus status) {
+        if (done && seatKeys != null) bus.publish(new SeatChange(eventId, seatKeys, status, false));
+        return done;
+    }
+
     /*
      * Business logic for generating the default seating arrangement
      */
@@ -122,9 +210,11 @@ public class JdbcSeatService implements SeatService {
      * Business logic for making seats available again (releasing)
      */
     @Override
-    public void releaseSeats(String eventId, List<String> seatIds) {
-        try { seatDao.markAvailable(eventId, seatIds); }
-        catch (SQLException e) { throw new RuntimeException("releaseSeats failed", e); }
+    public void releaseSeats(String eventId, long[] seatKeys) {
+        try {
+            seatDao.markAvailable(eventId, seatKeys);
+            published(true, eventId, seatKeys, SeatStatus.AVAILABLE);
+        } catch (SQLException e) { throw new RuntimeException("releaseSeats failed", e); }
     }
 
 
@@ -134,9 +224,32 @@ public class JdbcSeatService implements SeatService {
      */
     @Override
     public Map<String, List<Seat>> loadSeatsGroupedByRow(String eventId) {
-        List<Seat> seats = loadSeatsForEvent(eventId);
-        return seats.stream()
-                .collect(Collectors.groupingBy(Seat::getRowLabel, TreeMap::new, Collectors.toList()));
+        return groupByRow(loadSeatBlock(eventId));
+    }
+
+    /*
+     * Seats of a block grouped by row label. Rows in a block are already contiguous, so no hashing is needed
+     */
+    static Map<String, List<Seat>> groupByRow(SeatBlock block) {
+        Map<String, List<Seat>> out = new TreeMap<>();
+        for (int r = 0; r < block.rowCount(); r++) {
+            List<Seat> row = new ArrayList<>(block.rowEnd(r) - block.rowStart(r));
+            for (int i = block.rowStart(r); i < block.rowEnd(r); i++) row.add(block.seat(i));
+            out.put(block.rowLabel(r), row);
+        }
+        return out;
+    }
+
+    /*
+     * Business logic for counting the available seats of an event
+     */
+    @Override
+    public int countAvailable(String eventId) {
+        try {
+            return seatDao.countAvailable(eventId);
+        } catch (SQLException e) {
+            throw new RuntimeException("countAvailable failed", e);
+        }
     }
 
     /*
@@ -0,0 +1,120 @@
+package menuki.ticketing.service;
+
+import menuki.ticketing.data.dao.OrderDao;
+import menuki.ticketing.data.jdbc.JdbcOrderDao;
+import menuki.ticketing.data.metrics.MeteredOrderDao;
+import menuki.ticketing.model.SeatKey;
+import menuki.ticketing.service.inventory.WriteBehindQueue;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Undoes orders whose seats the DB refused after the in-memory inventory had sold them.
+ * A checkout is confirmed in memory and written behind, so the buyer gets an order before the DB has had
+ * its say. If the DB then refuses the seats (another instance sold them first) the buyer's orders holding
+ * them are flagged as cancelled, and the buyer is told the next time their dashboard is shown.
+ * The refusal can be written before the checkout has saved its order; it is then kept for a while and
+ * applied when that order is created.
+ */
+public final class OrderCompensation implements Consumer<WriteBehindQueue.RefusedClaim> {
+
+    private static final OrderCompensation SHARED =
+            new OrderCompensation(new MeteredOrderDao(new JdbcOrderDao()));
+
+    // How long a refusal waits for the order it belongs to
+    private static final long UNMATCHED_TTL_MS = 60_000;
+
+    private final OrderDao orderDao;
+    // Refusals that matched no order yet, oldest first, with the time they arrived
+    private final Map<WriteBehindQueue.RefusedClaim, Long> unmatched = new LinkedHashMap<>();
+    // Messages for each user, shown and dropped by their dashboard
+    private final Map<String, List<String>> notices = new HashMap<>();
+
+    //Constructor
+    public OrderCompensation(OrderDao orderDao) {
+        this.orderDao = orderDao;
+    }
+
+    /*
+     * Compensation shared by the whole application
+     */
+    public static OrderCompensation shared() {
+        return SHARED;
+    }
+
+    /*
+     * Cancels the orders for a refused sale, or keeps the refusal until its order is created.
+     * Plain reservations are not tied to a buyer or an order; reloading the event already puts them right
+     */
+    @Override
+    public synchronized void accept(WriteBehindQueue.RefusedClaim claim) {
+        if (claim.getHolderId() == null) return;
+        long now = System.currentTimeMillis();
+        dropExpired(now);
+        if (cancel(claim) == 0) unmatched.put(claim, now);
+    }
+
+    /*
+     * Called once an order is saved: cancels it straight away if its seats were already refused
+     */
+    public synchronized void orderCreated(String userId, String eventId, long[] seatKeys) {
+        if (unmatched.isEmpty()) return;
+        dropExpired(System.currentTimeMillis());
+        for (Iterator<WriteBehindQueue.RefusedClaim> it = unmatched.keySet().iterator(); it.hasNext(); ) {
+            WriteBehindQueue.RefusedClaim claim = it.next();
+            if (claim.getHolderId().equals(userId) && claim.getEventId().equals(eventId)
+                    && overlaps(claim.getSeatKeys(), seatKeys)) {
+                cancel(claim);
+                it.remove();
+            }
+        }
+    }
+
+    /*
+     * Messages for the user since this was last called, oldest first
+     */
+    public synchronized List<String> takeNotices(String userId) {
+        List<String> out = notices.remove(userId);
+        return out == null ? List.of() : out;
+    }
+
+    /*
+     * Flags the buyer's orders for the refused seats and leaves a notice for each. Returns how many
+     */
+    private int cancel(WriteBehindQueue.RefusedClaim claim) {
+        String reason = "seat(s) " + SeatKey.join(claim.getSeatKeys()) + " were sold elsewhere first";
+        try {
+            List<Long> ids = orderDao.cancelOrdersWithSeats(claim.getHolderId(), claim.getEventId(),
+                    claim.getSeatKeys(), reason);
+            for (long id : ids) {
+                System.err.println("[ORDERS] cancelled order " + id + " of " + claim.getHolderId() + ": " + reason);
+                notices.computeIfAbsent(claim.getHolderId(), u -> new ArrayList<>())
+                        .add("Order #" + id + " was cancelled: " + reason + ".");
+            }
+            return ids.size();
+        } catch (SQLException e) {
+            // Counted as handled: retrying on every new order would only repeat the failure
+            System.err.println("[ORDERS] could not cancel orders of " + claim.getHolderId() + " for "
+                    + claim.getEventId() + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private void dropExpired(long now) {
+        unmatched.values().removeIf(arrived -> now - arrived > UNMATCHED_TTL_MS);
+    }
+
+    private static boolean overlaps(long[] a, long[] b) {
+        for (long k : b) {
+            if (Arrays.stream(a).anyMatch(x -> x == k)) return true;
+        }
+        return false;
+    }
+}
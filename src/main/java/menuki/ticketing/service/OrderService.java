@@ -1,6 +1,8 @@
 package menuki.ticketing.service;
 
 import menuki.ticketing.model.Order;
+import menuki.ticketing.model.OrderPage;
+import menuki.ticketing.model.OrderSummary;
 import menuki.ticketing.model.Seat;
 
 import java.util.List;
@@ -10,6 +12,7 @@ import java.util.List;
  */
 public interface OrderService {
 
-    int createOrder(String userId, String eventId, List<Seat> seats);
+    long createOrder(String userId, String eventId, List<Seat> seats);
     List<Order> findByUser(String username);
+    OrderPage findPageByUser(String username, OrderSummary after, int limit);
 }
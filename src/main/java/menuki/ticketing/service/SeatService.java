@@ -1,6 +1,8 @@
 package menuki.ticketing.service;
 
 import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.service.inventory.SeatScoring;
 import java.util.List;
 import java.util.Map;
 
@@ -9,10 +11,17 @@ import java.util.Map;
  */
 public interface SeatService {
     List<Seat> loadSeatsForEvent(String eventId);
-    boolean reserveSeats(String eventId, List<String> seatIds);
-    void addHeldByOthers(String eventId, List<String> seatIds);
-    void releaseSeats(String eventId, List<String> seatIds);
+    SeatBlock loadSeatBlock(String eventId);
+    SeatBlock loadSeatChanges(String eventId, long sinceVersion);
+    void ensureSeatsForEvent(String eventId);
+    boolean reserveSeats(String eventId, long[] seatKeys);
+    boolean holdSeats(String eventId, long[] seatKeys, String holderId);
+    boolean confirmHolds(String eventId, long[] seatKeys, String holderId);
+    long[] holdBestAvailable(String eventId, int quantity, SeatScoring scoring, String holderId);
+    void addHeldByOthers(String eventId, long[] seatKeys);
+    void releaseSeats(String eventId, long[] seatKeys);
     Map<String, List<Seat>> loadSeatsGroupedByRow(String eventId);
+    int countAvailable(String eventId);
     void markReserved(List<Seat> seats);
     void markAvailable(List<Seat> seats);
     void markVipSeats(String eventId, List<String> vipRows, int vipCents);
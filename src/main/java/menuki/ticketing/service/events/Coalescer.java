@@ -0,0 +1,33 @@
+package menuki.ticketing.service.events;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Turns any number of signals into one run of an action on an executor.
+ * Signals that arrive before the queued run starts are folded into it, so with Platform::runLater as the
+ * executor a burst of seat changes costs one UI update per frame instead of one per change.
+ * A signal that arrives while the action is running queues exactly one more run.
+ */
+public final class Coalescer {
+
+    private final Executor executor;
+    private final Runnable action;
+    private final AtomicBoolean queued = new AtomicBoolean();
+
+    //Constructor
+    public Coalescer(Executor executor, Runnable action) {
+        this.executor = executor;
+        this.action = action;
+    }
+
+    public void signal() {
+        if (queued.compareAndSet(false, true)) executor.execute(this::runQueued);
+    }
+
+    private void runQueued() {
+        // Cleared before running so changes made during the run are not lost
+        queued.set(false);
+        action.run();
+    }
+}
@@ -0,0 +1,30 @@
+package menuki.ticketing.service.events;
+
+import menuki.ticketing.model.SeatStatus;
+
+/**
+ * Some seats of one event moved to a new status.
+ * Local changes are published by the seat services as they happen; remote ones come from the
+ * SeatChangePoller and may have been made by another instance of the app.
+ */
+public final class SeatChange {
+
+    private final String eventId;
+    private final long[] seatKeys;
+    private final SeatStatus status;
+    private final boolean remote;
+
+    //Constructor
+    public SeatChange(String eventId, long[] seatKeys, SeatStatus status, boolean remote) {
+        this.eventId = eventId;
+        this.seatKeys = seatKeys;
+        this.status = status;
+        this.remote = remote;
+    }
+
+    //Getters
+    public String getEventId() { return eventId; }
+    public long[] getSeatKeys() { return seatKeys; }
+    public SeatStatus getStatus() { return status; }
+    public boolean isRemote() { return remote; }
+}
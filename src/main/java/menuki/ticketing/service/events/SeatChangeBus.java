@@ -0,0 +1,111 @@
+package menuki.ticketing.service.events;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process publish/subscribe for seat changes.
+ * Listeners subscribe to one event (e.g. an open seat map) or to every event, and are called on the
+ * publishing thread, so they must only record the change and return (see Coalescer for handing work to the UI).
+ */
+public final class SeatChangeBus {
+
+    private static final SeatChangeBus SHARED = new SeatChangeBus();
+
+    private final ConcurrentHashMap<String, CopyOnWriteArrayList<Consumer<SeatChange>>> byEvent = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Consumer<SeatChange>> everyEvent = new CopyOnWriteArrayList<>();
+    // Oldest seat version a new subscriber has loaded, per event, until the poller takes it as its starting point
+    private final ConcurrentHashMap<String, Long> loadedVersions = new ConcurrentHashMap<>();
+
+    /*
+     * Bus shared by the whole application
+     */
+    public static SeatChangeBus shared() {
+        return SHARED;
+    }
+
+    /*
+     * Calls the listener with every change to the event until the subscription is closed.
+     * Remote changes are polled from whenever the poller first sees the subscription; use the overload taking
+     * the loaded version if the listener must not miss anything committed after its own load
+     */
+    public Subscription subscribe(String eventId, Consumer<SeatChange> listener) {
+        return subscribe(eventId, Long.MAX_VALUE, listener);
+    }
+
+    /*
+     * Calls the listener with every change to the event committed after the seat version it loaded, until
+     * the subscription is closed
+     */
+    public Subscription subscribe(String eventId, long loadedVersion, Consumer<SeatChange> listener) {
+        // Recorded before the listener is added, so a poll that sees the event watched also sees where to start
+        if (loadedVersion != Long.MAX_VALUE) loadedVersions.merge(eventId, loadedVersion, Math::min);
+        byEvent.compute(eventId, (id, list) -> {
+            if (list == null) list = new CopyOnWriteArrayList<>();
+            list.add(listener);
+            return list;
+        });
+        // Dropping the last listener removes the event, so watchedEvents() only lists events someone is looking at
+        return () -> byEvent.computeIfPresent(eventId, (id, list) -> {
+            list.remove(listener);
+            if (!list.isEmpty()) return list;
+            loadedVersions.remove(id);
+            return null;
+        });
+    }
+
+    /*
+     * Calls the listener with every change to any event until the subscription is closed
+     */
+    public Subscription subscribeAll(Consumer<SeatChange> listener) {
+        everyEvent.add(listener);
+        return () -> everyEvent.remove(listener);
+    }
+
+    /*
+     * Hands the change to every interested listener. A failing listener does not stop the others
+     */
+    public void publish(SeatChange change) {
+        if (change.getSeatKeys().length == 0) return;
+        for (Consumer<SeatChange> l : everyEvent) deliver(l, change);
+        CopyOnWriteArrayList<Consumer<SeatChange>> listeners = byEvent.get(change.getEventId());
+        if (listeners != null) {
+            for (Consumer<SeatChange> l : listeners) deliver(l, change);
+        }
+    }
+
+    /*
+     * Events that have at least one listener of their own (what the poller needs to watch)
+     */
+    public Set<String> watchedEvents() {
+        return Set.copyOf(byEvent.keySet());
+    }
+
+    /*
+     * Oldest version loaded by subscribers since the last call, or null if none said. The poller publishes
+     * from there so changes committed between their load and its next poll are not lost
+     */
+    public Long takeLoadedVersion(String eventId) {
+        return loadedVersions.remove(eventId);
+    }
+
+    private static void deliver(Consumer<SeatChange> listener, SeatChange change) {
+        try {
+            listener.accept(change);
+        } catch (RuntimeException e) {
+            System.err.println("[SEAT-BUS] listener failed: " + e.getMessage());
+        }
+    }
+
+
+    /*
+     * Stops a listener from getting further changes
+     */
+    @FunctionalInterface
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
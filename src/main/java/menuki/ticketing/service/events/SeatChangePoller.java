@@ -0,0 +1,110 @@
+package menuki.ticketing.service.events;
+
+import menuki.ticketing.data.dao.SeatDao;
+import menuki.ticketing.data.jdbc.JdbcSeatDao;
+import menuki.ticketing.data.metrics.MeteredSeatDao;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.model.SeatStatus;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Brings seat changes made by other instances of the app onto the local SeatChangeBus.
+ * Every period it asks the seats table for the changes since the last seat version it saw, for each event
+ * somebody here is watching (one indexed query per event, usually returning nothing), and publishes them
+ * as remote changes. This instance's own writes come back this way too, which listeners treat as a no-op refresh.
+ */
+public final class SeatChangePoller implements AutoCloseable {
+
+    public static final Duration DEFAULT_PERIOD = Duration.ofSeconds(1);
+
+    private final SeatDao seatDao;
+    private final SeatChangeBus bus;
+    private final ScheduledExecutorService scheduler;
+    // Last seat version published per watched event. Only touched by the polling thread (or runOnce callers)
+    private final Map<String, Long> lastVersions = new HashMap<>();
+
+    //Constructors
+
+    //Normal one used by the app
+    public SeatChangePoller() {
+        this(new MeteredSeatDao(new JdbcSeatDao()), SeatChangeBus.shared());
+    }
+
+    public SeatChangePoller(SeatDao seatDao, SeatChangeBus bus) {
+        this.seatDao = seatDao;
+        this.bus = bus;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "seat-change-poller");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void start(Duration period) {
+        long ms = period.toMillis();
+        scheduler.scheduleWithFixedDelay(this::runQuietly, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    /*
+     * Polls every watched event once. Returns the number of seat changes published
+     */
+    public synchronized int runOnce() throws SQLException {
+        Set<String> watched = bus.watchedEvents();
+        lastVersions.keySet().retainAll(watched);
+        int published = 0;
+        for (String eventId : watched) {
+            Long since = lastVersions.get(eventId);
+            // A subscriber that loaded an older version must still get everything after it, even if that
+            // republishes changes the other listeners have already seen (they treat it as a no-op refresh)
+            Long loaded = bus.takeLoadedVersion(eventId);
+            if (loaded != null && (since == null || loaded < since)) since = loaded;
+            if (since == null) {
+                // Newly watched by a subscriber that did not say what it loaded: start from now
+                lastVersions.put(eventId, seatDao.currentVersion(eventId));
+                continue;
+            }
+            SeatBlock changed = seatDao.findChangedSince(eventId, since);
+            published += publish(changed);
+            lastVersions.put(eventId, changed.getVersion());
+        }
+        return published;
+    }
+
+    /*
+     * Publishes a block of changed seats as one change per status
+     */
+    private int publish(SeatBlock changed) {
+        if (changed.size() == 0) return 0;
+        long[] keys = new long[changed.size()];
+        for (SeatStatus status : SeatStatus.values()) {
+            int n = 0;
+            for (int i = 0; i < changed.size(); i++) {
+                if (changed.status(i) == status) keys[n++] = changed.key(i);
+            }
+            if (n > 0) bus.publish(new SeatChange(changed.getEventId(), Arrays.copyOf(keys, n), status, true));
+        }
+        return changed.size();
+    }
+
+    private void runQuietly() {
+        try {
+            runOnce();
+        } catch (Exception e) {
+            // Try again next time from the same version, so nothing is skipped
+            System.err.println("[SEAT-POLLER] poll failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,112 @@
+package menuki.ticketing.service.inventory;
+
+/**
+ * Segment tree over the seats of one row that tracks runs of free seats.
+ * Every node keeps the free run touching its left edge, the one touching its right edge and the longest
+ * run inside it, so "is there a block of n seats" is O(1) and "first (or last) block of n seats at or
+ * after (or before) a position" is O(log width).
+ * Not thread-safe: SeatInventory synchronises on the tree.
+ */
+final class FreeRunTree {
+
+    private final int width;
+    private final int cap;
+    // Per node: free run at the left edge, at the right edge, and the longest one
+    private final int[] prefix;
+    private final int[] suffix;
+    private final int[] longest;
+
+    // Length of the free run ending just before the node being searched
+    private int run;
+
+    //Constructor - every seat starts out taken
+    FreeRunTree(int width) {
+        this.width = width;
+        this.cap = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.prefix = new int[2 * cap];
+        this.suffix = new int[2 * cap];
+        this.longest = new int[2 * cap];
+    }
+
+    int width() { return width; }
+
+    /*
+     * Longest run of free seats in the row
+     */
+    int longest() {
+        return longest[1];
+    }
+
+    /*
+     * Whether the seat at this position is free
+     */
+    boolean isFree(int pos) {
+        return longest[cap + pos] == 1;
+    }
+
+    /*
+     * Marks one seat free or taken and updates the nodes above it
+     */
+    void set(int pos, boolean free) {
+        int node = cap + pos;
+        int v = free ? 1 : 0;
+        prefix[node] = suffix[node] = longest[node] = v;
+        int len = 1;
+        for (node >>= 1; node >= 1; node >>= 1) {
+            int l = 2 * node, r = l + 1;
+            prefix[node] = prefix[l] == len ? len + prefix[r] : prefix[l];
+            suffix[node] = suffix[r] == len ? len + suffix[l] : suffix[r];
+            longest[node] = Math.max(Math.max(longest[l], longest[r]), suffix[l] + prefix[r]);
+            len <<= 1;
+        }
+    }
+
+    /*
+     * First position at or after 'from' where n free seats start, or -1
+     */
+    int firstFit(int from, int n) {
+        if (n <= 0 || n > width || from < 0 || longest[1] < n) return -1;
+        run = 0;
+        return search(1, 0, cap, from, n);
+    }
+
+    private int search(int node, int lo, int hi, int from, int n) {
+        if (hi <= from) return -1;
+        int len = hi - lo;
+        if (lo >= from) {
+            if (run + prefix[node] >= n) return lo - run;
+            if (longest[node] < n) {
+                run = prefix[node] == len ? run + len : suffix[node];
+                return -1;
+            }
+        }
+        int mid = (lo + hi) >>> 1;
+        int found = search(2 * node, lo, mid, from, n);
+        return found >= 0 ? found : search(2 * node + 1, mid, hi, from, n);
+    }
+
+    /*
+     * Last position at or before 'to' where n free seats start, or -1
+     */
+    int lastFit(int to, int n) {
+        if (n <= 0 || n > width || to < 0 || longest[1] < n) return -1;
+        run = 0;
+        return searchBack(1, 0, cap, Math.min(to, width - n) + n, n);
+    }
+
+    // Same as search but right to left over positions below 'limit'; run is the free run just after the node
+    private int searchBack(int node, int lo, int hi, int limit, int n) {
+        if (lo >= limit) return -1;
+        int len = hi - lo;
+        if (hi <= limit) {
+            if (suffix[node] + run >= n) return hi + run - n;
+            if (longest[node] < n) {
+                run = suffix[node] == len ? run + len : prefix[node];
+                return -1;
+            }
+        }
+        int mid = (lo + hi) >>> 1;
+        int found = searchBack(2 * node + 1, mid, hi, limit, n);
+        return found >= 0 ? found : searchBack(2 * node, lo, mid, limit, n);
+    }
+}
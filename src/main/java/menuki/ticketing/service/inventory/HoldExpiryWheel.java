@@ -0,0 +1,131 @@
+package menuki.ticketing.service.inventory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timing wheel used to expire seat holds in bulk.
+ * Time is cut into ticks and each deadline is dropped into the slot for its tick (modulo the wheel size),
+ * so scheduling is O(1) and every tick only looks at one slot. Deadlines further away than one turn of the
+ * wheel simply stay in their slot until the right turn comes round.
+ * Everything that expires on a tick is handed to the consumer as one list.
+ */
+public final class HoldExpiryWheel<T> implements AutoCloseable {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<ArrayDeque<Entry<T>>> slots;
+    private final Consumer<List<T>> onExpired;
+    private final LongSupplier clock;
+    private final long startMillis;
+    private final ScheduledExecutorService ticker;
+
+    // Last tick that has been processed
+    private long currentTick;
+
+    //Constructors
+
+    //Normal one used by the app, ticks on its own daemon thread
+    public HoldExpiryWheel(long tickMillis, int wheelSize, Consumer<List<T>> onExpired) {
+        this(tickMillis, wheelSize, onExpired, System::currentTimeMillis, true);
+    }
+
+    // For testing - drive the clock and call advance() manually
+    HoldExpiryWheel(long tickMillis, int wheelSize, Consumer<List<T>> onExpired, LongSupplier clock, boolean autoTick) {
+        if (Integer.bitCount(wheelSize) != 1) throw new IllegalArgumentException("wheelSize must be a power of two");
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) slots.add(new ArrayDeque<>());
+        this.onExpired = onExpired;
+        this.clock = clock;
+        this.startMillis = clock.getAsLong();
+        this.currentTick = 0;
+        if (autoTick) {
+            this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "hold-expiry-wheel");
+                t.setDaemon(true);
+                return t;
+            });
+            ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.ticker = null;
+        }
+    }
+
+    /*
+     * Schedules an item to expire at the given time. The returned handle can cancel it
+     */
+    public synchronized Entry<T> schedule(T item, long deadlineMillis) {
+        // Deadlines already passed go in the next slot to be processed
+        long tick = Math.max(currentTick + 1, (deadlineMillis - startMillis + tickMillis - 1) / tickMillis);
+        Entry<T> e = new Entry<>(item, tick);
+        slots.get((int) (tick & mask)).add(e);
+        return e;
+    }
+
+    /*
+     * Processes every tick up to the current time and hands the expired items over in one batch
+     */
+    public void advance() {
+        try {
+            List<T> expired = new ArrayList<>();
+            synchronized (this) {
+                long nowTick = (clock.getAsLong() - startMillis) / tickMillis;
+                // If the ticker fell behind, catch up, but never walk the wheel more than once
+                long from = Math.max(currentTick + 1, nowTick - mask);
+                for (long tick = from; tick <= nowTick; tick++) {
+                    collect(slots.get((int) (tick & mask)), nowTick, expired);
+                }
+                currentTick = Math.max(currentTick, nowTick);
+            }
+            // Handled outside the lock so new holds are never blocked by an expiry batch
+            if (!expired.isEmpty()) onExpired.accept(expired);
+        } catch (RuntimeException e) {
+            // Thrown out of the ticker it would cancel every later tick; the holds stay scheduled
+            System.err.println("[HOLD-EXPIRY] tick failed: " + e);
+        }
+    }
+
+    private void collect(ArrayDeque<Entry<T>> slot, long nowTick, List<T> expired) {
+        Iterator<Entry<T>> it = slot.iterator();
+        while (it.hasNext()) {
+            Entry<T> e = it.next();
+            if (e.cancelled) {
+                it.remove();
+            } else if (e.deadlineTick <= nowTick) {
+                it.remove();
+                expired.add(e.item);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (ticker != null) ticker.shutdownNow();
+    }
+
+
+    /*
+     * Handle for a scheduled item
+     */
+    public static final class Entry<T> {
+        private final T item;
+        private final long deadlineTick;
+        private volatile boolean cancelled;
+
+        private Entry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public void cancel() { cancelled = true; }
+    }
+}
@@ -0,0 +1,514 @@
+package menuki.ticketing.service.inventory;
+
+import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.model.SeatKey;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.model.SeatType;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-memory seat inventory for one event.
+ * Every seat gets a dense index (rows in label order, seats by number) and its state is stored as
+ * 2 bits in a packed bitmap, 32 seats per long. State changes are lock-free CAS operations on those words.
+ * Seat details that never change after loading (row, number, type, price) live in parallel arrays.
+ * Each row also keeps a FreeRunTree of its free seats so blocks of seats together can be found quickly.
+ * Every state change stamps the seat with the next version of the inventory, so the seats changed since
+ * a snapshot can be found without comparing the whole seat map.
+ */
+public final class SeatInventory {
+
+    // Seat states, as stored in the bitmap
+    public static final int AVAILABLE = 0;
+    public static final int HELD = 1;
+    public static final int RESERVED = 2;
+
+    private static final int SEATS_PER_WORD = 32;
+    private static final long STATE_MASK = 0b11L;
+    private static final SeatType[] TYPES = SeatType.values();
+    // Low bits of a seat's version slot count changes still stamping it
+    private static final int STAMP_SHIFT = 8;
+    private static final long IN_FLIGHT_MASK = (1L << STAMP_SHIFT) - 1;
+
+    private final String eventId;
+    private final AtomicLongArray words;
+    private final int size;
+
+    // Static seat details, indexed by seat index
+    private final int[] rowOf;
+    private final int[] seatNumbers;
+    private final byte[] types;
+    private final int[] prices;
+
+    // Row details, indexed by row index
+    private final String[] rowLabels;
+    private final int[] rowStart;
+    private final int[][] indexBySeatNumber;
+    // Row codes (see SeatKey) in row order, for binary search
+    private final int[] rowCodes;
+    private final boolean[] vipRow;
+    private final FreeRunTree[] freeRuns;
+    private final int widestRow;
+
+    private final AtomicInteger available = new AtomicInteger();
+    // Who holds each HELD seat. Claiming or expiring a hold CASes this slot first
+    private final AtomicReferenceArray<Hold> holds;
+
+    // Per seat: the version stamped by its last state change, shifted up by STAMP_SHIFT, and in the low bits
+    // the number of changes that have taken a version but not stamped it yet. See compareAndSet
+    private final AtomicLongArray seatVersions;
+    private final AtomicLong version;
+
+    /*
+     * Builds the inventory from the seats loaded for the event
+     */
+    public static SeatInventory of(String eventId, List<Seat> seats) {
+        return of(SeatBlock.of(eventId, seats));
+    }
+
+    /*
+     * Builds the inventory from the columnar seats of an event (already in key order)
+     */
+    public static SeatInventory of(SeatBlock block) {
+        return of(block, block.getVersion());
+    }
+
+    /*
+     * Builds the inventory with every seat stamped with the given version, so a reader that last saw
+     * anything older gets all the seats again
+     */
+    public static SeatInventory of(SeatBlock block, long baseVersion) {
+        return new SeatInventory(block, baseVersion);
+    }
+
+    //Constructor
+    private SeatInventory(SeatBlock block, long baseVersion) {
+        this.eventId = block.getEventId();
+        this.version = new AtomicLong(baseVersion);
+        this.seatVersions = new AtomicLongArray(block.size());
+        for (int i = 0; i < block.size(); i++) seatVersions.set(i, baseVersion << STAMP_SHIFT);
+        this.size = block.size();
+        this.words = new AtomicLongArray((size + SEATS_PER_WORD - 1) / SEATS_PER_WORD);
+        this.rowOf = new int[size];
+        this.seatNumbers = new int[size];
+        this.types = new byte[size];
+        this.prices = new int[size];
+        this.holds = new AtomicReferenceArray<>(size);
+
+        // Rows come straight from the block
+        int rows = block.rowCount();
+        this.rowLabels = new String[rows];
+        this.rowStart = new int[rows + 1];
+        this.rowCodes = new int[rows];
+        for (int r = 0; r < rows; r++) {
+            rowLabels[r] = block.rowLabel(r);
+            rowStart[r] = block.rowStart(r);
+            rowCodes[r] = SeatKey.rowCode(rowLabels[r]);
+        }
+        rowStart[rows] = size;
+
+        // Per seat details and initial state
+        this.indexBySeatNumber = new int[rows][];
+        for (int r = 0; r < rows; r++) {
+            int maxNumber = 0;
+            for (int i = rowStart[r]; i < rowStart[r + 1]; i++) {
+                maxNumber = Math.max(maxNumber, block.seatNumber(i));
+            }
+            int[] lookup = new int[maxNumber + 1];
+            Arrays.fill(lookup, -1);
+            for (int i = rowStart[r]; i < rowStart[r + 1]; i++) {
+                rowOf[i] = r;
+                seatNumbers[i] = block.seatNumber(i);
+                types[i] = (byte) block.type(i).ordinal();
+                prices[i] = block.priceCents(i);
+                lookup[seatNumbers[i]] = i;
+                int state = fromStatus(block.status(i));
+                if (state != AVAILABLE) setState(i, state);
+                else available.incrementAndGet();
+            }
+            indexBySeatNumber[r] = lookup;
+        }
+
+        // Free runs and row details used by the allocator
+        this.vipRow = new boolean[rows];
+        this.freeRuns = new FreeRunTree[rows];
+        int widest = 0;
+        for (int r = 0; r < rows; r++) {
+            FreeRunTree tree = new FreeRunTree(rowStart[r + 1] - rowStart[r]);
+            for (int i = rowStart[r]; i < rowStart[r + 1]; i++) {
+                if (state(i) == AVAILABLE) tree.set(i - rowStart[r], true);
+                if (types[i] == SeatType.VIP.ordinal()) vipRow[r] = true;
+            }
+            freeRuns[r] = tree;
+            widest = Math.max(widest, tree.width());
+        }
+        this.widestRow = widest;
+    }
+
+    /*
+     * Maps the persisted seat status onto a bitmap state (SELECTED is a hold)
+     */
+    public static int fromStatus(SeatStatus status) {
+        return switch (status) {
+            case AVAILABLE -> AVAILABLE;
+            case SELECTED -> HELD;
+            case RESERVED -> RESERVED;
+        };
+    }
+
+    /*
+     * Maps a bitmap state back onto the persisted seat status
+     */
+    public static SeatStatus toStatus(int state) {
+        return switch (state) {
+            case HELD -> SeatStatus.SELECTED;
+            case RESERVED -> SeatStatus.RESERVED;
+            default -> SeatStatus.AVAILABLE;
+        };
+    }
+
+    //Getters
+    public String getEventId() { return eventId; }
+    public int size() { return size; }
+    public int rowCount() { return rowLabels.length; }
+    public String rowLabel(int row) { return rowLabels[row]; }
+    public int rowStart(int row) { return rowStart[row]; }
+    public int rowEnd(int row) { return rowStart[row + 1]; }
+    public int rowOf(int index) { return rowOf[index]; }
+    public int seatNumber(int index) { return seatNumbers[index]; }
+    public SeatType type(int index) { return TYPES[types[index]]; }
+    public int priceCents(int index) { return prices[index]; }
+    public int availableCount() { return available.get(); }
+
+    /*
+     * Seat index for a seat key, or -1 if the event has no such seat
+     */
+    public int indexOf(long seatKey) {
+        int r = Arrays.binarySearch(rowCodes, SeatKey.rowCode(seatKey));
+        if (r < 0) return -1;
+        int[] lookup = indexBySeatNumber[r];
+        int seatNumber = SeatKey.seatNumber(seatKey);
+        return (seatNumber >= 0 && seatNumber < lookup.length) ? lookup[seatNumber] : -1;
+    }
+
+    /*
+     * Converts seat keys to sorted, distinct seat indexes. Returns null if any seat is unknown
+     */
+    public int[] indexesOf(long[] seatKeys) {
+        int[] out = new int[seatKeys.length];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = indexOf(seatKeys[i]);
+            if (out[i] < 0) return null;
+        }
+        return Arrays.stream(out).sorted().distinct().toArray();
+    }
+
+    /*
+     * Seat key for a seat index
+     */
+    public long key(int index) {
+        return SeatKey.of(rowCodes[rowOf[index]], seatNumbers[index]);
+    }
+
+    /*
+     * Seat keys for seat indexes
+     */
+    public long[] keys(int[] indexes) {
+        long[] out = new long[indexes.length];
+        for (int k = 0; k < indexes.length; k++) out[k] = key(indexes[k]);
+        return out;
+    }
+
+    /*
+     * Display ID for a seat index, like "A-02" (for rendering only)
+     */
+    public String displayId(int index) {
+        int n = seatNumbers[index];
+        return rowLabels[rowOf[index]] + (n < 10 ? "-0" : "-") + n;
+    }
+
+    /*
+     * Current state of one seat
+     */
+    public int state(int index) {
+        long word = words.get(index / SEATS_PER_WORD);
+        return (int) ((word >>> shift(index)) & STATE_MASK);
+    }
+
+    /*
+     * Lock-free state change of one seat. Fails if the seat is not in the expected state.
+     * After the state CAS the seat is marked in flight, takes the next version and then stamps it (never
+     * lowering a newer stamp from a racing change of the same seat). A reader that sees version V therefore
+     * finds, for every change up to V, either its stamp or its in-flight mark, and the new state
+     */
+    public boolean compareAndSet(int index, int expect, int update) {
+        int wi = index / SEATS_PER_WORD;
+        int shift = shift(index);
+        long mask = STATE_MASK << shift;
+        while (true) {
+            long word = words.get(wi);
+            if (((word >>> shift) & STATE_MASK) != expect) return false;
+            long next = (word & ~mask) | ((long) update << shift);
+            if (words.compareAndSet(wi, word, next)) {
+                seatVersions.getAndIncrement(index);
+                long v = version.incrementAndGet();
+                seatVersions.accumulateAndGet(index, v, SeatInventory::stamp);
+                adjustAvailable(expect, update);
+                if ((expect == AVAILABLE) != (update == AVAILABLE)) refreshFreeRun(index);
+                return true;
+            }
+        }
+    }
+
+    /*
+     * Moves every seat from one state to another, or none of them.
+     * If a seat is not in the expected state the seats changed so far are put back
+     */
+    public boolean transitionAll(int[] indexes, int from, int to) {
+        for (int k = 0; k < indexes.length; k++) {
+            if (!compareAndSet(indexes[k], from, to)) {
+                for (int j = 0; j < k; j++) compareAndSet(indexes[j], to, from);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Sets a seat's state whatever it currently is. Returns the previous state
+     */
+    public int forceState(int index, int update) {
+        while (true) {
+            int current = state(index);
+            if (current == update || compareAndSet(index, current, update)) return current;
+        }
+    }
+
+    /*
+     * Holds every seat for one user until the given time, or none of them. Returns the hold, or null
+     */
+    public Hold hold(int[] indexes, String holderId, long expiresAtMillis) {
+        if (!transitionAll(indexes, AVAILABLE, HELD)) return null;
+        Hold hold = new Hold(holderId, expiresAtMillis);
+        for (int i : indexes) holds.set(i, hold);
+        return hold;
+    }
+
+    /*
+     * Records a hold that was loaded from the DB. Returns null if the seat is not held
+     */
+    public Hold adoptHold(int index, String holderId, long expiresAtMillis) {
+        if (state(index) != HELD) return null;
+        Hold hold = new Hold(holderId, expiresAtMillis);
+        return holds.compareAndSet(index, null, hold) ? hold : null;
+    }
+
+    /*
+     * Turns a user's holds into reservations. Fails, changing nothing, unless every seat is held by that user
+     */
+    public boolean confirmHolds(int[] indexes, String holderId) {
+        Hold[] claimed = new Hold[indexes.length];
+        for (int k = 0; k < indexes.length; k++) {
+            int i = indexes[k];
+            Hold h = holds.get(i);
+            // Claiming the hold slot stops the expiry sweeper from releasing the seat underneath us
+            if (h == null || !h.holderId.equals(holderId) || !holds.compareAndSet(i, h, null)) {
+                for (int j = 0; j < k; j++) holds.set(indexes[j], claimed[j]);
+                return false;
+            }
+            claimed[k] = h;
+        }
+        // A seat can still be forced out of HELD (release) while its slot is claimed; transitionAll then puts
+        // back the seats it already reserved, and the holds go back on the seats that are still held
+        if (!transitionAll(indexes, HELD, RESERVED)) {
+            for (int k = 0; k < indexes.length; k++) {
+                if (state(indexes[k]) == HELD) holds.compareAndSet(indexes[k], null, claimed[k]);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /*
+     * Releases a seat if it is still under this exact hold. Returns whether it was released
+     */
+    public boolean expireHold(int index, Hold hold) {
+        return holds.compareAndSet(index, hold, null) && compareAndSet(index, HELD, AVAILABLE);
+    }
+
+    /*
+     * Makes a seat available whatever state it is in, dropping any hold on it
+     */
+    public void release(int index) {
+        holds.set(index, null);
+        forceState(index, AVAILABLE);
+    }
+
+    /*
+     * Current hold on a seat, or null
+     */
+    public Hold holdOf(int index) {
+        return holds.get(index);
+    }
+
+    /*
+     * Finds the best block of 'count' free seats next to each other in one row, or null if there is none.
+     * Only a suggestion: the caller claims the seats with a CAS (hold/transitionAll) and retries if it loses
+     */
+    public int[] findBest(int count, SeatScoring scoring) {
+        if (count <= 0) return null;
+        int rows = rowLabels.length;
+        double[] rowScores = new double[rows];
+        Integer[] order = new Integer[rows];
+        for (int r = 0; r < rows; r++) {
+            rowScores[r] = scoring.rowScore(r, rows, vipRow[r]);
+            order[r] = r;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(r -> rowScores[r]));
+
+        double bestScore = Double.MAX_VALUE;
+        int bestStart = -1;
+        for (int r : order) {
+            // Rows are in order of their lowest possible score, so nothing later can win
+            if (rowScores[r] >= bestScore) break;
+            FreeRunTree tree = freeRuns[r];
+            int pos;
+            synchronized (tree) {
+                pos = nearestToCentre(tree, count);
+            }
+            if (pos < 0) continue;
+            double offset = Math.abs(pos + count / 2.0 - tree.width() / 2.0);
+            double score = rowScores[r] + scoring.seatScore(offset, widestRow);
+            if (score < bestScore) {
+                bestScore = score;
+                bestStart = rowStart[r] + pos;
+            }
+        }
+        if (bestStart < 0) return null;
+        int[] out = new int[count];
+        for (int k = 0; k < count; k++) out[k] = bestStart + k;
+        return out;
+    }
+
+    /*
+     * Start of the free block of 'count' seats closest to the centre of the row, or -1
+     */
+    private static int nearestToCentre(FreeRunTree tree, int count) {
+        if (tree.longest() < count) return -1;
+        int ideal = (tree.width() - count) / 2;
+        // The closest block starts either at/after the ideal start or at/before it
+        int right = tree.firstFit(ideal, count);
+        int left = tree.lastFit(ideal, count);
+        if (left < 0) return right;
+        if (right < 0) return left;
+        return (ideal - left <= right - ideal) ? left : right;
+    }
+
+    /*
+     * Materialises Seat objects with their current state (used by callers that still work on Seat lists)
+     */
+    public List<Seat> toSeats() {
+        return toBlock().toSeats();
+    }
+
+    /*
+     * Snapshot of the current seats in columnar form (no Seat object per seat).
+     * The version is read first: anything that changes while copying is stamped later and shows up as a change
+     */
+    public SeatBlock toBlock() {
+        long v = version();
+        SeatBlock.Builder b = SeatBlock.builder(eventId, size).version(v);
+        for (int i = 0; i < size; i++) {
+            b.add(rowLabels[rowOf[i]], seatNumbers[i], TYPES[types[i]], toStatus(state(i)), prices[i]);
+        }
+        return b.build();
+    }
+
+    /*
+     * Current version: the stamp of the latest seat change
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /*
+     * Seats whose state changed after the given version, with their current state. A version newer than this
+     * inventory's (it was reloaded since the caller looked) returns every seat.
+     * The version is read before the seats. Each change CASes the state before taking its version, so every
+     * change up to that version is already in the states read here; its seat still has the in-flight mark or
+     * already has the stamp, so it is never left out. Seats still in flight are returned again next time
+     */
+    public SeatBlock changesSince(long sinceVersion) {
+        long v = version();
+        boolean all = sinceVersion > v;
+        SeatBlock.Builder b = SeatBlock.builder(eventId, all ? size : 16).version(v);
+        for (int i = 0; i < size; i++) {
+            long stamp = seatVersions.get(i);
+            if (all || (stamp & IN_FLIGHT_MASK) != 0 || (stamp >>> STAMP_SHIFT) > sinceVersion) {
+                b.add(rowLabels[rowOf[i]], seatNumbers[i], TYPES[types[i]], toStatus(state(i)), prices[i]);
+            }
+        }
+        return b.build();
+    }
+
+    /*
+     * Stamps a seat with a version and clears one in-flight mark
+     */
+    private static long stamp(long current, long version) {
+        long stamped = Math.max(current >>> STAMP_SHIFT, version);
+        return (stamped << STAMP_SHIFT) | ((current & IN_FLIGHT_MASK) - 1);
+    }
+
+    private static int shift(int index) {
+        return (index % SEATS_PER_WORD) * 2;
+    }
+
+    private void setState(int index, int state) {
+        int wi = index / SEATS_PER_WORD;
+        words.set(wi, words.get(wi) | ((long) state << shift(index)));
+    }
+
+    /*
+     * Brings the row's free run tree in line with the seat's current state.
+     * Reading the state under the lock means the last thread through always leaves the tree correct
+     */
+    private void refreshFreeRun(int index) {
+        FreeRunTree[] trees = freeRuns;
+        // Not built yet while the constructor loads the initial states
+        if (trees == null) return;
+        int r = rowOf[index];
+        FreeRunTree tree = trees[r];
+        synchronized (tree) {
+            tree.set(index - rowStart[r], state(index) == AVAILABLE);
+        }
+    }
+
+    private void adjustAvailable(int from, int to) {
+        if (from == AVAILABLE && to != AVAILABLE) available.decrementAndGet();
+        else if (from != AVAILABLE && to == AVAILABLE) available.incrementAndGet();
+    }
+
+
+    /*
+     * A hold on one or more seats of this inventory
+     */
+    public static final class Hold {
+        private final String holderId;
+        private final long expiresAtMillis;
+
+        private Hold(String holderId, long expiresAtMillis) {
+            this.holderId = holderId;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        //Getters
+        public String getHolderId() { return holderId; }
+        public long getExpiresAtMillis() { return expiresAtMillis; }
+    }
+}
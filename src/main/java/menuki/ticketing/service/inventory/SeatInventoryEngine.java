@@ -0,0 +1,316 @@
+package menuki.ticketing.service.inventory;
+
+import menuki.ticketing.data.dao.SeatDao;
+import menuki.ticketing.data.jdbc.JdbcSeatDao;
+import menuki.ticketing.data.metrics.MeteredSeatDao;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.model.SeatHold;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.service.events.SeatChange;
+import menuki.ticketing.service.events.SeatChangeBus;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Keeps one SeatInventory per event in memory and persists changes through a write-behind queue.
+ * An event's inventory is loaded from the seats table the first time it is needed and is then
+ * the authoritative seat state for this process.
+ * Seat holds expire on a timing wheel: every hold is scheduled once and the seats whose holds ran out
+ * on the same tick are released and written back together.
+ * Every change is also published on the seat change bus as it is queued for writing, and seats that
+ * another instance of the app sold (remote changes from the bus) are taken off sale here too.
+ * If the DB refuses a write the event is evicted and only read back once its queued writes have landed.
+ * Sales it refused are passed on to the refused claim listeners (see OrderCompensation).
+ */
+public final class SeatInventoryEngine implements AutoCloseable {
+
+    private static volatile SeatInventoryEngine shared;
+
+    private static final long WHEEL_TICK_MS = 1000;
+    private static final int WHEEL_SIZE = 512;
+    private static final int MAX_ALLOCATION_ATTEMPTS = 8;
+    // How long loading an event waits for its queued writes
+    private static final long RELOAD_WAIT_MS = 10_000;
+
+    private final ConcurrentHashMap<String, SeatInventory> inventories = new ConcurrentHashMap<>();
+    // Last version of each evicted inventory, so its replacement starts above anything a client has seen
+    private final ConcurrentHashMap<String, Long> evictedVersions = new ConcurrentHashMap<>();
+    private final SeatDao seatDao;
+    private final WriteBehindQueue writeBehind;
+    private final HoldExpiryWheel<HeldSeat> expiryWheel;
+    private final Duration holdTtl;
+    private final SeatChangeBus bus;
+    private final SeatChangeBus.Subscription remoteChanges;
+    private final CopyOnWriteArrayList<Consumer<WriteBehindQueue.RefusedClaim>> refusedListeners =
+            new CopyOnWriteArrayList<>();
+
+    //Constructors
+    public SeatInventoryEngine(SeatDao seatDao) {
+        this(seatDao, SeatHold.DEFAULT_TTL);
+    }
+
+    public SeatInventoryEngine(SeatDao seatDao, Duration holdTtl) {
+        this(seatDao, holdTtl, SeatChangeBus.shared());
+    }
+
+    public SeatInventoryEngine(SeatDao seatDao, Duration holdTtl, SeatChangeBus bus) {
+        this.seatDao = seatDao;
+        this.holdTtl = holdTtl;
+        this.bus = bus;
+        // If a write fails the in-memory state no longer matches the DB, so reload that event next time
+        this.writeBehind = new WriteBehindQueue(seatDao, this::evict, this::refused);
+        this.expiryWheel = new HoldExpiryWheel<>(WHEEL_TICK_MS, WHEEL_SIZE, this::expire);
+        this.remoteChanges = bus.subscribeAll(this::onRemoteChange);
+    }
+
+    /*
+     * Engine shared by the whole application, created on first use
+     */
+    public static SeatInventoryEngine shared() {
+        SeatInventoryEngine e = shared;
+        if (e == null) {
+            synchronized (SeatInventoryEngine.class) {
+                e = shared;
+                if (e == null) {
+                    e = new SeatInventoryEngine(new MeteredSeatDao(new JdbcSeatDao()));
+                    shared = e;
+                }
+            }
+        }
+        return e;
+    }
+
+    /*
+     * Inventory for the event, loaded with the given loader if it is not in memory yet.
+     * An event evicted after a failed write can still have later writes queued; reading the DB before they
+     * land would bring back seats sold or held here as available, so those are waited for first (outside
+     * the map, as the writer evicts through it) and the load is retried if more were queued meanwhile
+     */
+    public SeatInventory inventory(String eventId, Function<String, SeatBlock> loader) {
+        while (true) {
+            SeatInventory inv = inventories.get(eventId);
+            if (inv != null) return inv;
+            awaitWrites(eventId);
+            inv = inventories.computeIfAbsent(eventId, id -> writeBehind.pending(id) > 0 ? null : load(id, loader));
+            if (inv != null) return inv;
+        }
+    }
+
+    private void awaitWrites(String eventId) {
+        if (writeBehind.pending(eventId) == 0) return;
+        try {
+            if (!writeBehind.flush(RELOAD_WAIT_MS)) {
+                throw new IllegalStateException("Seat writes for " + eventId + " are still pending");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for seat writes for " + eventId, e);
+        }
+    }
+
+    /*
+     * Loads an event: holds that ran out while nobody was watching are released first,
+     * and the ones still running are scheduled on the wheel again
+     */
+    private SeatInventory load(String eventId, Function<String, SeatBlock> loader) {
+        try {
+            seatDao.releaseExpiredHolds(eventId, Instant.now());
+            SeatBlock block = loader.apply(eventId);
+            // Every seat counts as changed after a reload, so clients patching by version fetch them all again
+            long base = Math.max(block.getVersion(), evictedVersions.getOrDefault(eventId, 0L)) + 1;
+            SeatInventory inv = SeatInventory.of(block, base);
+            for (SeatHold h : seatDao.findHolds(eventId)) {
+                int i = inv.indexOf(h.getSeatKey());
+                if (i < 0) continue;
+                long expiresAt = h.getExpiresAt().toEpochMilli();
+                SeatInventory.Hold hold = inv.adoptHold(i, h.getHolderId(), expiresAt);
+                if (hold != null) expiryWheel.schedule(new HeldSeat(inv, i, hold), expiresAt);
+            }
+            return inv;
+        } catch (SQLException e) {
+            throw new RuntimeException("Loading seat inventory failed", e);
+        }
+    }
+
+    /*
+     * Holds the seats for one user, all or nothing. The hold is persisted behind and expires after the TTL
+     */
+    public boolean hold(SeatInventory inv, long[] seatKeys, String holderId) {
+        int[] indexes = inv.indexesOf(seatKeys);
+        return indexes != null && holdIndexes(inv, indexes, holderId);
+    }
+
+    /*
+     * Finds the best block of seats together and holds it in one step. Returns the held seat keys,
+     * or an empty array if no block of that size is free
+     */
+    public long[] holdBest(SeatInventory inv, int count, SeatScoring scoring, String holderId) {
+        for (int attempt = 0; attempt < MAX_ALLOCATION_ATTEMPTS; attempt++) {
+            int[] indexes = inv.findBest(count, scoring);
+            if (indexes == null) return new long[0];
+            // Someone else may have taken one of the seats since the search; look again if so
+            if (holdIndexes(inv, indexes, holderId)) return inv.keys(indexes);
+        }
+        return new long[0];
+    }
+
+    private boolean holdIndexes(SeatInventory inv, int[] indexes, String holderId) {
+        long expiresAt = System.currentTimeMillis() + holdTtl.toMillis();
+        SeatInventory.Hold hold = inv.hold(indexes, holderId, expiresAt);
+        if (hold == null) return false;
+        for (int i : indexes) expiryWheel.schedule(new HeldSeat(inv, i, hold), expiresAt);
+        record(inv.getEventId(), WriteBehindQueue.Op.HOLD, inv.keys(indexes), holderId,
+                Instant.ofEpochMilli(expiresAt));
+        return true;
+    }
+
+    /*
+     * Turns a user's holds into reservations. Fails if any of the holds has expired or belongs to someone else
+     */
+    public boolean confirm(SeatInventory inv, long[] seatKeys, String holderId) {
+        int[] indexes = inv.indexesOf(seatKeys);
+        if (indexes == null || !inv.confirmHolds(indexes, holderId)) return false;
+        // Wheel entries for these seats are left alone: expiring a hold that was claimed is a no-op
+        record(inv.getEventId(), WriteBehindQueue.Op.CONFIRM, inv.keys(indexes), holderId, null);
+        return true;
+    }
+
+    /*
+     * Called by the wheel with every hold that ran out on a tick
+     */
+    private void expire(List<HeldSeat> expired) {
+        Map<SeatInventory, List<Integer>> released = new LinkedHashMap<>();
+        for (HeldSeat h : expired) {
+            // Skip events that were evicted since; they are reloaded (and swept) from the DB
+            if (inventories.get(h.inventory.getEventId()) != h.inventory) continue;
+            if (h.inventory.expireHold(h.index, h.hold)) {
+                released.computeIfAbsent(h.inventory, k -> new ArrayList<>()).add(h.index);
+            }
+        }
+        released.forEach((inv, indexes) -> record(inv.getEventId(), WriteBehindQueue.Op.EXPIRE,
+                inv.keys(indexes.stream().mapToInt(Integer::intValue).toArray()), null, null));
+    }
+
+    /*
+     * Inventory for the event if it is already loaded, otherwise null
+     */
+    public SeatInventory loaded(String eventId) {
+        return inventories.get(eventId);
+    }
+
+    /*
+     * Drops an event from memory (deleted, re-priced, or out of sync with the DB)
+     */
+    public void evict(String eventId) {
+        SeatInventory inv = inventories.remove(eventId);
+        if (inv != null) evictedVersions.merge(eventId, inv.version(), Math::max);
+    }
+
+    /*
+     * Calls the listener with every sale the DB refused after memory had granted it. Called on the
+     * write-behind thread, after the event was evicted
+     */
+    public void onRefusedClaim(Consumer<WriteBehindQueue.RefusedClaim> listener) {
+        refusedListeners.add(listener);
+    }
+
+    private void refused(WriteBehindQueue.RefusedClaim claim) {
+        for (Consumer<WriteBehindQueue.RefusedClaim> l : refusedListeners) {
+            try {
+                l.accept(claim);
+            } catch (RuntimeException e) {
+                System.err.println("[WRITE-BEHIND] refused claim listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * Queues a seat change to be written to the DB
+     */
+    public void persist(String eventId, WriteBehindQueue.Op op, long[] seatKeys) {
+        record(eventId, op, seatKeys, null, null);
+    }
+
+    /*
+     * Queues a change that was just made in memory for writing and tells the bus about it
+     */
+    private void record(String eventId, WriteBehindQueue.Op op, long[] seatKeys, String holderId, Instant expiresAt) {
+        writeBehind.enqueue(eventId, op, seatKeys, holderId, expiresAt);
+        bus.publish(new SeatChange(eventId, seatKeys, statusAfter(op), false));
+    }
+
+    private static SeatStatus statusAfter(WriteBehindQueue.Op op) {
+        return switch (op) {
+            case RESERVE, CONFIRM -> SeatStatus.RESERVED;
+            case HOLD -> SeatStatus.SELECTED;
+            case RELEASE, EXPIRE -> SeatStatus.AVAILABLE;
+        };
+    }
+
+    /*
+     * Marks seats that the DB says were sold as reserved here too, if this instance still has them available.
+     * Only done while nothing is waiting to be written, so the DB is not behind memory, and only for sales:
+     * a stale read can at worst keep a seat off sale until the event is reloaded.
+     * This only narrows the window in which both instances think a seat is free, it does not guard it: a sale
+     * made here in that window is refused by the write-behind's conditional RESERVE and the event is reloaded.
+     * Holds and releases made elsewhere are picked up when the event is next reloaded
+     */
+    private void onRemoteChange(SeatChange change) {
+        if (!change.isRemote() || change.getStatus() != SeatStatus.RESERVED) return;
+        SeatInventory inv = inventories.get(change.getEventId());
+        if (inv == null || writeBehind.pending() > 0) return;
+        for (long key : change.getSeatKeys()) {
+            int i = inv.indexOf(key);
+            if (i >= 0) inv.compareAndSet(i, SeatInventory.AVAILABLE, SeatInventory.RESERVED);
+        }
+    }
+
+    public WriteBehindQueue writeBehind() {
+        return writeBehind;
+    }
+
+    /*
+     * Writes out pending changes and stops the background writer
+     */
+    @Override
+    public void close() {
+        remoteChanges.close();
+        expiryWheel.close();
+        writeBehind.close();
+    }
+
+    /*
+     * Closes the shared engine if it was ever created
+     */
+    public static synchronized void shutdownShared() {
+        if (shared != null) {
+            shared.close();
+            shared = null;
+        }
+    }
+
+
+    /*
+     * One seat under a hold, as scheduled on the expiry wheel
+     */
+    private static final class HeldSeat {
+        private final SeatInventory inventory;
+        private final int index;
+        private final SeatInventory.Hold hold;
+
+        private HeldSeat(SeatInventory inventory, int index, SeatInventory.Hold hold) {
+            this.inventory = inventory;
+            this.index = index;
+            this.hold = hold;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package menuki.ticketing.service.inventory;
+
+/**
+ * Scoring model for the best-available allocator. Lower scores are better.
+ * A block is scored by how far its row is from the ideal row, how far the block is from the centre of
+ * its row, and whether the row matches the VIP preference. The weights decide how those trade off.
+ */
+public final class SeatScoring {
+
+    /*
+     * How VIP rows should be treated
+     */
+    public enum VipPreference { ANY, PREFER, AVOID }
+
+    private final double idealRow;
+    private final double rowWeight;
+    private final double centreWeight;
+    private final VipPreference vipPreference;
+    private final double vipWeight;
+
+    /*
+     * Middle rows, centre seats, VIP rows neither preferred nor avoided
+     */
+    public static SeatScoring defaults() {
+        return new SeatScoring(0.5, 1.0, 1.0, VipPreference.ANY, 1.0);
+    }
+
+    //Constructor
+    // idealRow: 0 is the front row, 1 the back row
+    public SeatScoring(double idealRow, double rowWeight, double centreWeight,
+                       VipPreference vipPreference, double vipWeight) {
+        if (idealRow < 0 || idealRow > 1) throw new IllegalArgumentException("idealRow must be between 0 and 1");
+        this.idealRow = idealRow;
+        this.rowWeight = rowWeight;
+        this.centreWeight = centreWeight;
+        this.vipPreference = vipPreference;
+        this.vipWeight = vipWeight;
+    }
+
+    /*
+     * Same weights with another VIP preference
+     */
+    public SeatScoring withVipPreference(VipPreference preference) {
+        return new SeatScoring(idealRow, rowWeight, centreWeight, preference, vipWeight);
+    }
+
+    //Getters
+    public double getIdealRow() { return idealRow; }
+    public double getRowWeight() { return rowWeight; }
+    public double getCentreWeight() { return centreWeight; }
+    public VipPreference getVipPreference() { return vipPreference; }
+    public double getVipWeight() { return vipWeight; }
+
+    /*
+     * The part of the score that only depends on the row. It is also the lowest score any block in the row can get
+     */
+    double rowScore(int row, int rowCount, boolean vipRow) {
+        double position = rowCount > 1 ? (double) row / (rowCount - 1) : 0;
+        double score = rowWeight * Math.abs(position - idealRow);
+        if (vipPreference == VipPreference.PREFER && !vipRow) score += vipWeight;
+        if (vipPreference == VipPreference.AVOID && vipRow) score += vipWeight;
+        return score;
+    }
+
+    /*
+     * The part of the score for a block that sits the given number of seats away from the row centre
+     */
+    double seatScore(double offsetFromCentre, int widestRow) {
+        return centreWeight * offsetFromCentre / Math.max(1, widestRow);
+    }
+}
@@ -0,0 +1,267 @@
+package menuki.ticketing.service.inventory;
+
+import menuki.ticketing.data.dao.SeatDao;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Persists seat state changes made in memory by the inventory engine.
+ * Changes are queued and applied by a single background thread in order. Consecutive changes of the
+ * same kind for the same event are merged into one DAO call.
+ * Claims (reserve, hold, confirm) are written with the same conditional all-or-nothing updates as the
+ * JDBC seat service, so a seat another instance already took is never overwritten. If the DB refuses a
+ * claim the event is reported through onFailure and reloaded, and a refused sale (reserve or confirm), which
+ * the caller was already told had succeeded, is also handed to onRefused so it can be undone.
+ * Writes still queued are counted per event, so an event is not read back from the DB before they land.
+ */
+public final class WriteBehindQueue implements AutoCloseable {
+
+    /*
+     * Kinds of seat change that get written to the seats table
+     */
+    public enum Op { RESERVE, RELEASE, HOLD, CONFIRM, EXPIRE }
+
+    private static final int MAX_DRAIN = 256;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final SeatDao seatDao;
+    // Called with the event ID when a write could not be applied, so the event can be reloaded
+    private final Consumer<String> onFailure;
+    // Called with every sale the DB refused, after onFailure
+    private final Consumer<RefusedClaim> onRefused;
+    private final LinkedBlockingQueue<Write> queue = new LinkedBlockingQueue<>();
+    // Writes queued and not yet applied, per event. Events with none have no entry
+    private final ConcurrentHashMap<String, Integer> pendingByEvent = new ConcurrentHashMap<>();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    //Constructors
+    public WriteBehindQueue(SeatDao seatDao, Consumer<String> onFailure) {
+        this(seatDao, onFailure, claim -> { });
+    }
+
+    public WriteBehindQueue(SeatDao seatDao, Consumer<String> onFailure, Consumer<RefusedClaim> onRefused) {
+        this.seatDao = seatDao;
+        this.onFailure = onFailure;
+        this.onRefused = onRefused;
+        this.worker = new Thread(this::run, "seat-write-behind");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /*
+     * Queues a change for the given seats
+     */
+    public void enqueue(String eventId, Op op, long[] seatKeys) {
+        enqueue(eventId, op, seatKeys, null, null);
+    }
+
+    /*
+     * Queues a hold related change. Holds carry the holder and, for new holds, the expiry time
+     */
+    public void enqueue(String eventId, Op op, long[] seatKeys, String holderId, Instant expiresAt) {
+        if (seatKeys == null || seatKeys.length == 0) return;
+        pendingByEvent.merge(eventId, 1, Integer::sum);
+        queue.add(new Write(eventId, op, seatKeys.clone(), holderId, expiresAt, null));
+    }
+
+    /*
+     * Waits until everything queued before this call has been written
+     */
+    public boolean flush(long timeoutMs) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        queue.add(new Write(null, null, new long[0], null, null, done));
+        return done.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    //Getters
+    public int pending() { return queue.size(); }
+    public int pending(String eventId) { return pendingByEvent.getOrDefault(eventId, 0); }
+    public long writtenCount() { return written.get(); }
+    public long failedCount() { return failed.get(); }
+
+    /*
+     * Worker loop: take what is queued, merge neighbours and write
+     */
+    private void run() {
+        List<Write> batch = new ArrayList<>();
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_DRAIN);
+                applyBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void applyBatch(List<Write> batch) throws InterruptedException {
+        int i = 0;
+        while (i < batch.size()) {
+            Write first = batch.get(i);
+            if (first.flushed != null) {
+                first.flushed.countDown();
+                i++;
+                continue;
+            }
+            // Merge the run of writes with the same event and kind
+            int j = i + 1;
+            int total = first.seatKeys.length;
+            while (j < batch.size() && first.sameTarget(batch.get(j))) {
+                total += batch.get(j).seatKeys.length;
+                j++;
+            }
+            long[] seatKeys = new long[total];
+            int n = 0;
+            for (int k = i; k < j; k++) {
+                long[] part = batch.get(k).seatKeys;
+                System.arraycopy(part, 0, seatKeys, n, part.length);
+                n += part.length;
+            }
+            try {
+                apply(first, seatKeys, batch.subList(i, j));
+            } finally {
+                // Only once any failure has been reported, so a reload that waited for these sees the eviction
+                int applied = j - i;
+                pendingByEvent.computeIfPresent(first.eventId, (id, count) -> count > applied ? count - applied : null);
+            }
+            i = j;
+        }
+    }
+
+    /*
+     * Writes a merged run of changes. A refused claim made up of several callers' seats is written again one
+     * caller at a time, so one conflict does not undo the others
+     */
+    private void apply(Write w, long[] seatKeys, List<Write> parts) throws InterruptedException {
+        String eventId = w.eventId;
+        Op op = w.op;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                boolean ok = switch (op) {
+                    case RESERVE -> seatDao.reserveSeatsAtomic(eventId, seatKeys);
+                    case RELEASE -> {
+                        seatDao.markAvailable(eventId, seatKeys);
+                        yield true;
+                    }
+                    case HOLD -> seatDao.holdSeats(eventId, seatKeys, w.holderId, w.expiresAt);
+                    case CONFIRM -> seatDao.confirmHolds(eventId, seatKeys, w.holderId);
+                    case EXPIRE -> {
+                        seatDao.releaseHolds(eventId, seatKeys);
+                        yield true;
+                    }
+                };
+                if (!ok && parts.size() > 1) {
+                    for (Write part : parts) apply(part, part.seatKeys, List.of(part));
+                    return;
+                }
+                if (!ok) {
+                    // The DB disagrees with memory (e.g. another instance took a seat), so resync the event
+                    failed.addAndGet(seatKeys.length);
+                    System.err.println("[WRITE-BEHIND] " + op + " conflict for " + eventId + ", reloading event");
+                    onFailure.accept(eventId);
+                    if (op == Op.RESERVE || op == Op.CONFIRM) {
+                        onRefused.accept(new RefusedClaim(eventId, op, seatKeys, w.holderId));
+                    }
+                    return;
+                }
+                written.addAndGet(seatKeys.length);
+                return;
+            } catch (SQLException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    failed.addAndGet(seatKeys.length);
+                    System.err.println("[WRITE-BEHIND] " + op + " of " + seatKeys.length
+                            + " seat(s) for " + eventId + " failed: " + e.getMessage());
+                    onFailure.accept(eventId);
+                    return;
+                }
+                Thread.sleep(200L * attempt);
+            }
+        }
+    }
+
+    /*
+     * Stops the worker after writing what is already queued
+     */
+    @Override
+    public void close() {
+        try {
+            flush(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        running = false;
+        worker.interrupt();
+    }
+
+
+    /*
+     * A sale that memory granted and the DB refused. The holder is the buyer for confirmed holds, null for
+     * plain reservations
+     */
+    public static final class RefusedClaim {
+        private final String eventId;
+        private final Op op;
+        private final long[] seatKeys;
+        private final String holderId;
+
+        //Constructor
+        public RefusedClaim(String eventId, Op op, long[] seatKeys, String holderId) {
+            this.eventId = eventId;
+            this.op = op;
+            this.seatKeys = seatKeys;
+            this.holderId = holderId;
+        }
+
+        //Getters
+        public String getEventId() { return eventId; }
+        public Op getOp() { return op; }
+        public long[] getSeatKeys() { return seatKeys; }
+        public String getHolderId() { return holderId; }
+    }
+
+    /*
+     * One queued change. A write carrying a latch is a flush marker
+     */
+    private static final class Write {
+        private final String eventId;
+        private final Op op;
+        private final long[] seatKeys;
+        private final String holderId;
+        private final Instant expiresAt;
+        private final CountDownLatch flushed;
+
+        private Write(String eventId, Op op, long[] seatKeys, String holderId, Instant expiresAt,
+                      CountDownLatch flushed) {
+            this.eventId = eventId;
+            this.op = op;
+            this.seatKeys = seatKeys;
+            this.holderId = holderId;
+            this.expiresAt = expiresAt;
+            this.flushed = flushed;
+        }
+
+        private boolean sameTarget(Write other) {
+            return other.flushed == null && op == other.op && eventId.equals(other.eventId)
+                    && Objects.equals(holderId, other.holderId) && Objects.equals(expiresAt, other.expiresAt);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package menuki.ticketing;
+
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the start-up step runner.
+ */
+class StartupTest {
+
+    @Test /* Independent steps overlap, dependent ones wait, and a failure skips what depends on it */
+    void stepsRunByDependency() throws Exception {
+        try (Startup startup = new Startup()) {
+            // Both first steps have to be running at once for either to finish
+            CountDownLatch both = new CountDownLatch(2);
+            Startup.Step meet = () -> {
+                both.countDown();
+                assertTrue(both.await(5, TimeUnit.SECONDS));
+            };
+            CompletableFuture<Void> a = startup.step("a", meet);
+            CompletableFuture<Void> b = startup.step("b", meet);
+
+            AtomicBoolean afterBoth = new AtomicBoolean();
+            CompletableFuture<Void> c = startup.step("c", () -> afterBoth.set(a.isDone() && b.isDone()), a, b);
+            c.get(5, TimeUnit.SECONDS);
+            assertTrue(afterBoth.get());
+
+            AtomicBoolean ran = new AtomicBoolean();
+            CompletableFuture<Void> broken = startup.step("broken", () -> { throw new IllegalStateException("no db"); });
+            CompletableFuture<Void> skipped = startup.step("skipped", () -> ran.set(true), broken);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> skipped.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause().getMessage().contains("broken"));
+            assertFalse(ran.get());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package menuki.ticketing.bench;
+
+import menuki.ticketing.data.jdbc.DatabaseConnection;
+import menuki.ticketing.data.jdbc.JdbcSeatDao;
+import menuki.ticketing.data.jdbc.TestDatabase;
+import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.model.SeatType;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Database setup shared by the benchmarks.
+ * By default an in-memory H2 database in MySQL mode is used. Pass -Dbench.db.url (plus bench.db.user and
+ * bench.db.password) to run against a real MySQL server, where network round trips make the
+ * differences much bigger.
+ */
+final class BenchDatabase {
+
+    private BenchDatabase() {}
+
+    /*
+     * Points DatabaseConnection at the benchmark database and creates the tables
+     */
+    static void open(String name) throws Exception {
+        Properties p = TestDatabase.properties(name);
+        for (String key : new String[]{"db.url", "db.user", "db.password"}) {
+            String override = System.getProperty("bench." + key);
+            if (override != null) p.setProperty(key, override);
+        }
+        p.setProperty("db.pool.minSize", "1");
+        p.setProperty("db.pool.maxSize", "4");
+        DatabaseConnection.configure(p);
+        TestDatabase.createTables();
+    }
+
+    /*
+     * Creates an event with rows x seatsPerRow available seats (row labels R0001, R0002, ...)
+     */
+    static void seedEvent(String eventId, int rows, int seatsPerRow) throws Exception {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM seats WHERE event_id = ?")) {
+                ps.setString(1, eventId);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM events WHERE id = ?")) {
+                ps.setString(1, eventId);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = c.prepareStatement("INSERT INTO events(id, name) VALUES (?, ?)")) {
+                ps.setString(1, eventId);
+                ps.setString(2, "Benchmark " + eventId);
+                ps.executeUpdate();
+            }
+        }
+        List<Seat> seats = new ArrayList<>(rows * seatsPerRow);
+        for (int r = 1; r <= rows; r++) {
+            String label = rowLabel(r);
+            for (int n = 1; n <= seatsPerRow; n++) {
+                seats.add(new Seat(eventId, label, n, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200));
+            }
+        }
+        new JdbcSeatDao().insertAll(eventId, seats);
+    }
+
+    /*
+     * Makes every seat of the event available again between runs
+     */
+    static void resetEvent(String eventId) throws Exception {
+        try (Connection c = DatabaseConnection.getConnection();
+             Statement st = c.createStatement()) {
+            st.executeUpdate("UPDATE seats SET status = 'AVAILABLE', held_by = NULL, hold_expires_at = NULL "
+                    + "WHERE event_id = '" + eventId + "'");
+        }
+    }
+
+    /*
+     * Row labels have to fit the VARCHAR(4) column
+     */
+    static String rowLabel(int row) {
+        return "R" + String.format("%03d", row);
+    }
+
+    static void close() {
+        DatabaseConnection.shutdown();
+    }
+}
@@ -0,0 +1,68 @@
+package menuki.ticketing.bench;
+
+import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.model.SeatType;
+import menuki.ticketing.service.inventory.SeatInventory;
+import menuki.ticketing.service.inventory.SeatScoring;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Latency of the best-available allocator on a 100k seat venue (250 rows of 400).
+ * The venue is first filled at random to 60%, then orders of 1-8 seats are allocated and reserved
+ * until no block of the requested size is left. Purely in memory, no database needed.
+ */
+public final class BestAvailableBenchmark {
+
+    private static final int ROWS = 250;
+    private static final int SEATS_PER_ROW = 400;
+
+    public static void main(String[] args) {
+        // Warm-up runs first, then the measured one
+        for (int i = 0; i < 20; i++) run(false);
+        run(true);
+    }
+
+    private static void run(boolean print) {
+        SeatInventory inv = venue();
+        Random random = new Random(42);
+        for (int i = 0; i < inv.size(); i++) {
+            if (random.nextInt(100) < 60) inv.compareAndSet(i, SeatInventory.AVAILABLE, SeatInventory.RESERVED);
+        }
+
+        SeatScoring scoring = SeatScoring.defaults();
+        long[] nanos = new long[inv.size()];
+        int orders = 0, misses = 0;
+        while (misses < 100) {
+            int count = 1 + random.nextInt(8);
+            long t0 = System.nanoTime();
+            int[] block = inv.findBest(count, scoring);
+            boolean won = block != null && inv.transitionAll(block, SeatInventory.AVAILABLE, SeatInventory.RESERVED);
+            nanos[orders++] = System.nanoTime() - t0;
+            if (!won) misses++;
+        }
+        if (!print) return;
+
+        long[] sorted = Arrays.copyOf(nanos, orders);
+        Arrays.sort(sorted);
+        System.out.printf("seats=%d orders=%d left=%d%n", inv.size(), orders, inv.availableCount());
+        System.out.printf("mean=%.1f us  p50=%.1f us  p99=%.1f us  max=%.1f us%n",
+                Arrays.stream(sorted).average().orElse(0) / 1_000.0,
+                sorted[orders / 2] / 1_000.0,
+                sorted[(int) (orders * 0.99)] / 1_000.0,
+                sorted[orders - 1] / 1_000.0);
+    }
+
+    private static SeatInventory venue() {
+        List<Seat> seats = new ArrayList<>(ROWS * SEATS_PER_ROW);
+        for (int r = 1; r <= ROWS; r++) {
+            for (int n = 1; n <= SEATS_PER_ROW; n++) {
+                seats.add(new Seat("BENCH", BenchDatabase.rowLabel(r), n, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200));
+            }
+        }
+        return SeatInventory.of("BENCH", seats);
+    }
+}
@@ -0,0 +1,120 @@
+package menuki.ticketing.bench;
+
+import menuki.ticketing.data.jdbc.DatabaseConnection;
+import menuki.ticketing.data.jdbc.JdbcSeatDao;
+import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.model.SeatType;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bytes allocated and retained when loading the seats of a 20k seat event: the previous findByEvent
+ * (a Seat per row, valueOf(toUpperCase()) per type and status) against findBlockByEvent (columnar SeatBlock).
+ * Allocation is measured per thread with com.sun.management.ThreadMXBean, so this needs a HotSpot JVM.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=menuki.ticketing.bench.SeatLoadBenchmark
+ */
+public final class SeatLoadBenchmark {
+
+    private static final String EVENT_ID = "BENCH-LOAD";
+    private static final int ROWS = 100;
+    private static final int SEATS_PER_ROW = 200;
+    private static final int ROUNDS = 20;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        BenchDatabase.open("load");
+        BenchDatabase.seedEvent(EVENT_ID, ROWS, SEATS_PER_ROW);
+        JdbcSeatDao dao = new JdbcSeatDao();
+
+        // Warm-up so JIT and driver caches do not count
+        for (int i = 0; i < ROUNDS; i++) {
+            loadSeatsPerRow(EVENT_ID);
+            dao.findBlockByEvent(EVENT_ID);
+        }
+
+        long objects = allocated(() -> loadSeatsPerRow(EVENT_ID));
+        long block = allocated(() -> dao.findBlockByEvent(EVENT_ID));
+        long objectsRetained = retained(() -> loadSeatsPerRow(EVENT_ID));
+        long blockRetained = retained(() -> dao.findBlockByEvent(EVENT_ID));
+
+        System.out.printf("seats=%d%n", ROWS * SEATS_PER_ROW);
+        System.out.printf("%-22s %14s %14s%n", "", "allocated KB", "retained KB");
+        System.out.printf("%-22s %14.0f %14.0f%n", "List<Seat> (before)", objects / 1024.0, objectsRetained / 1024.0);
+        System.out.printf("%-22s %14.0f %14.0f%n", "SeatBlock (after)", block / 1024.0, blockRetained / 1024.0);
+        BenchDatabase.close();
+    }
+
+    /*
+     * Average bytes allocated by this thread for one load
+     */
+    private static long allocated(Load load) throws Exception {
+        long tid = Thread.currentThread().threadId();
+        long before = THREADS.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < ROUNDS; i++) load.run();
+        return (THREADS.getThreadAllocatedBytes(tid) - before) / ROUNDS;
+    }
+
+    /*
+     * Rough size of what one load keeps alive: heap in use after GC with and without the results
+     */
+    private static long retained(Load load) throws Exception {
+        Object[] keep = new Object[ROUNDS];
+        long before = usedAfterGc();
+        for (int i = 0; i < ROUNDS; i++) keep[i] = load.run();
+        long after = usedAfterGc();
+        if (keep[ROUNDS - 1] == null) throw new IllegalStateException();
+        return (after - before) / ROUNDS;
+    }
+
+    private static long usedAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    /*
+     * findByEvent as it was before SeatBlock: one Seat per row
+     */
+    private static List<Seat> loadSeatsPerRow(String eventId) throws Exception {
+        final String sql = """
+            SELECT row_label, seat_number, type, status, price_cents
+            FROM seats
+            WHERE event_id = ?
+            ORDER BY row_label, seat_number
+            """;
+        List<Seat> out = new ArrayList<>();
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(new Seat(
+                            eventId,
+                            rs.getString("row_label"),
+                            rs.getInt("seat_number"),
+                            SeatType.valueOf(rs.getString("type").toUpperCase()),
+                            SeatStatus.valueOf(rs.getString("status").toUpperCase()),
+                            rs.getInt("price_cents")
+                    ));
+                }
+            }
+        }
+        return out;
+    }
+
+    @FunctionalInterface
+    private interface Load {
+        Object run() throws Exception;
+    }
+}
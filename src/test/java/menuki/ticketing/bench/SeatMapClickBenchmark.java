@@ -0,0 +1,192 @@
+package menuki.ticketing.bench;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.stage.Stage;
+import menuki.ticketing.controller.SeatMapController;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.model.SeatType;
+import menuki.ticketing.service.SeatService;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Click-to-paint latency of the seat map on a 5,000 seat button grid (50 rows of 100), headless.
+ * A click is timed from firing the seat button to the end of the layout pass of the pulse that shows it.
+ * "Before" adds what a click used to cost on top (an inline style string rebuilt and set on every seat);
+ * "after" is the controller as it is (pseudo-class flips on the dirty seats only).
+ * Needs the Monocle headless platform from the test classpath, and Pango (libpangoft2) like any JavaFX app on Linux:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=menuki.ticketing.bench.SeatMapClickBenchmark
+ */
+public final class SeatMapClickBenchmark {
+
+    private static final int ROWS = 50;
+    private static final int SEATS_PER_ROW = 100;
+    private static final int CLICKS = 300;
+    private static final int WARMUP_CLICKS = 300;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("glass.platform", "Monocle");
+        System.setProperty("monocle.platform", "Headless");
+        System.setProperty("prism.order", "sw");
+        // Keep the button grid for 5,000 seats instead of switching to the canvas
+        System.setProperty("seatmap.canvasThreshold", String.valueOf(Integer.MAX_VALUE));
+
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+
+        // The FX thread would keep the JVM alive if anything below fails
+        try {
+            Scene scene = onFx(SeatMapClickBenchmark::openSeatMap);
+            // The seats are loaded off the FX thread; wait for the grid to be built
+            List<Button> seats;
+            do {
+                Thread.sleep(50);
+                seats = onFx(() -> {
+                    List<Button> out = new ArrayList<>();
+                    for (Node n : scene.getRoot().lookupAll(".seat")) out.add((Button) n);
+                    return out;
+                });
+            } while (seats.isEmpty());
+
+            measure(scene, seats, true, WARMUP_CLICKS);
+            measure(scene, seats, false, WARMUP_CLICKS);
+            long[] before = measure(scene, seats, true, CLICKS);
+            long[] after = measure(scene, seats, false, CLICKS);
+
+            System.out.printf("seats=%d clicks=%d%n", seats.size(), CLICKS);
+            print("inline styles (before)", before);
+            print("dirty pseudo-classes (after)", after);
+        } finally {
+            Platform.exit();
+        }
+    }
+
+    /*
+     * Loads the real seat map view with a service that serves a 5,000 seat block from memory
+     */
+    private static Scene openSeatMap() throws Exception {
+        FXMLLoader loader = new FXMLLoader(SeatMapController.class.getResource("/views/seat_map.fxml"));
+        Parent root = loader.load();
+        SeatMapController ctrl = loader.getController();
+        ctrl.setSeatService(stubService(venue()));
+        ctrl.initForEvent("BENCH-UI", "Bench", LocalDate.now(), "Hall", LocalTime.NOON, LocalTime.MIDNIGHT);
+
+        Scene scene = new Scene(root, 1600, 1000);
+        Stage stage = new Stage();
+        stage.setScene(scene);
+        stage.show();
+        return scene;
+    }
+
+    /*
+     * Clicks random seats one at a time and times each until its pulse has been laid out
+     */
+    private static long[] measure(Scene scene, List<Button> seats, boolean legacy, int clicks) throws Exception {
+        Random random = new Random(7);
+        long[] nanos = new long[clicks];
+        for (int c = 0; c < clicks; c++) {
+            Button seat = seats.get(random.nextInt(seats.size()));
+            CompletableFuture<Long> painted = new CompletableFuture<>();
+            Runnable[] listener = new Runnable[1];
+            long[] start = new long[1];
+            listener[0] = () -> {
+                scene.removePostLayoutPulseListener(listener[0]);
+                painted.complete(System.nanoTime() - start[0]);
+            };
+            Platform.runLater(() -> {
+                start[0] = System.nanoTime();
+                seat.fire();
+                if (legacy) restyleEverySeat(seats);
+                scene.addPostLayoutPulseListener(listener[0]);
+                Platform.requestNextPulse();
+            });
+            nanos[c] = painted.get(10, TimeUnit.SECONDS);
+        }
+        return nanos;
+    }
+
+    /*
+     * What every click did before: a style string built and set on every seat button
+     */
+    private static void restyleEverySeat(List<Button> seats) {
+        for (Button b : seats) {
+            boolean taken = b.isDisabled();
+            boolean selected = b.getPseudoClassStates().stream().anyMatch(p -> p.getPseudoClassName().equals("selected"));
+            String base = "-fx-pref-width:38; -fx-pref-height:38; "
+                    + "-fx-background-radius:6; -fx-border-radius:6; -fx-border-color:#999;";
+            String bg = taken ? "-fx-background-color:#c7c7c7; -fx-opacity:0.85;"
+                    : selected ? "-fx-background-color:#a0c4ff;"
+                    : "-fx-background-color:#ffffff;";
+            String vip = b.getStyleClass().contains("vip") ? " -fx-border-color:#f59e0b; -fx-border-width:2;" : "";
+            b.setStyle(base + " " + bg + vip);
+            b.setDisable(taken);
+        }
+    }
+
+    private static void print(String label, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-30s mean=%6.2f ms  p50=%6.2f ms  p99=%6.2f ms%n", label,
+                Arrays.stream(sorted).average().orElse(0) / 1e6,
+                sorted[sorted.length / 2] / 1e6,
+                sorted[(int) (sorted.length * 0.99)] / 1e6);
+    }
+
+    private static SeatBlock venue() {
+        SeatBlock.Builder b = SeatBlock.builder("BENCH-UI", ROWS * SEATS_PER_ROW);
+        Random random = new Random(42);
+        for (int r = 0; r < ROWS; r++) {
+            String row = r < 26 ? String.valueOf((char) ('A' + r)) : "A" + (char) ('A' + r - 26);
+            for (int n = 1; n <= SEATS_PER_ROW; n++) {
+                SeatStatus status = random.nextInt(100) < 30 ? SeatStatus.RESERVED : SeatStatus.AVAILABLE;
+                b.add(row, n, r < 5 ? SeatType.VIP : SeatType.STANDARD, status, 1200);
+            }
+        }
+        return b.build();
+    }
+
+    /*
+     * SeatService that only knows how to load the seat block; nothing else is called by clicking seats
+     */
+    private static SeatService stubService(SeatBlock block) {
+        SeatBlock none = SeatBlock.builder(block.getEventId(), 1).version(block.getVersion()).build();
+        return (SeatService) Proxy.newProxyInstance(SeatService.class.getClassLoader(),
+                new Class<?>[]{SeatService.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "loadSeatBlock" -> block;
+                    case "loadSeatChanges" -> none;
+                    default -> method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+                });
+    }
+
+    private static <T> T onFx(FxCall<T> call) throws Exception {
+        CompletableFuture<T> out = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                out.complete(call.run());
+            } catch (Throwable t) {
+                out.completeExceptionally(t);
+            }
+        });
+        return out.get(60, TimeUnit.SECONDS);
+    }
+
+    @FunctionalInterface
+    private interface FxCall<T> {
+        T run() throws Exception;
+    }
+}
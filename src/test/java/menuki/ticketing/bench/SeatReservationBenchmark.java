@@ -0,0 +1,113 @@
+package menuki.ticketing.bench;
+
+import menuki.ticketing.data.jdbc.DatabaseConnection;
+import menuki.ticketing.data.jdbc.JdbcSeatDao;
+import menuki.ticketing.data.jdbc.TransactionScope;
+import menuki.ticketing.model.SeatKey;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the set-based reservation in JdbcSeatDao (one row-value IN UPDATE per order) with the
+ * previous approach (one UPDATE per seat sent as a JDBC batch) for orders of 1, 10 and 100 seats.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=menuki.ticketing.bench.SeatReservationBenchmark
+ */
+public final class SeatReservationBenchmark {
+
+    private static final String EVENT_ID = "BENCH-RES";
+    private static final int ROWS = 200;
+    private static final int SEATS_PER_ROW = 100;
+    private static final int[] ORDER_SIZES = {1, 10, 100};
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        BenchDatabase.open("reservation");
+        BenchDatabase.seedEvent(EVENT_ID, ROWS, SEATS_PER_ROW);
+        JdbcSeatDao dao = new JdbcSeatDao();
+
+        System.out.printf("%-8s %-10s %14s %14s%n", "seats", "orders", "batch us/op", "set us/op");
+        for (int size : ORDER_SIZES) {
+            List<long[]> orders = orders(size);
+            // First round of each is warm-up
+            double batch = 0, set = 0;
+            for (int round = 0; round <= ROUNDS; round++) {
+                BenchDatabase.resetEvent(EVENT_ID);
+                double b = run(orders, ids -> reserveBatched(EVENT_ID, ids));
+                BenchDatabase.resetEvent(EVENT_ID);
+                double s = run(orders, ids -> dao.reserveSeatsAtomic(EVENT_ID, ids));
+                if (round > 0) {
+                    batch += b;
+                    set += s;
+                }
+            }
+            System.out.printf("%-8d %-10d %14.1f %14.1f%n", size, orders.size(), batch / ROUNDS, set / ROUNDS);
+        }
+        BenchDatabase.close();
+    }
+
+    /*
+     * Splits the whole venue into orders of the given size (seats next to each other in a row)
+     */
+    private static List<long[]> orders(int size) {
+        List<long[]> out = new ArrayList<>();
+        int perRow = SEATS_PER_ROW / size;
+        int rows = Math.min(ROWS, Math.max(1, 2000 / perRow));
+        for (int r = 1; r <= rows; r++) {
+            for (int o = 0; o < perRow; o++) {
+                long[] ids = new long[size];
+                for (int k = 0; k < size; k++) {
+                    ids[k] = SeatKey.of(BenchDatabase.rowLabel(r), o * size + k + 1);
+                }
+                out.add(ids);
+            }
+        }
+        return out;
+    }
+
+    /*
+     * Microseconds per order. Every order must succeed, otherwise the comparison is meaningless
+     */
+    private static double run(List<long[]> orders, Reservation reservation) throws Exception {
+        long t0 = System.nanoTime();
+        for (long[] ids : orders) {
+            if (!reservation.reserve(ids)) throw new IllegalStateException("Reservation failed: " + SeatKey.join(ids));
+        }
+        return (System.nanoTime() - t0) / 1_000.0 / orders.size();
+    }
+
+    /*
+     * The reservation as it was before the set-based UPDATE: one statement per seat in a JDBC batch
+     */
+    private static boolean reserveBatched(String eventId, long[] seatKeys) throws Exception {
+        final String update = """
+            UPDATE seats
+               SET status = 'RESERVED'
+             WHERE event_id = ?
+               AND row_label = ?
+               AND seat_number = ?
+               AND status = 'AVAILABLE'
+            """;
+        try (TransactionScope tx = TransactionScope.begin();
+             Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(update)) {
+            for (long key : seatKeys) {
+                ps.setString(1, eventId);
+                ps.setString(2, SeatKey.rowLabel(key));
+                ps.setInt(3, SeatKey.seatNumber(key));
+                ps.addBatch();
+            }
+            int affected = 0;
+            for (int n : ps.executeBatch()) affected += (n > 0 ? 1 : 0);
+            if (affected != seatKeys.length) return false;
+            tx.commit();
+            return true;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Reservation {
+        boolean reserve(long[] seatKeys) throws Exception;
+    }
+}
@@ -0,0 +1,77 @@
+package menuki.ticketing.controller;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the controllers' background executor. A queue stands in for the FX thread and is drained by the test.
+ */
+class FxIoTest {
+
+    private final BlockingQueue<Runnable> fxQueue = new LinkedBlockingQueue<>();
+
+    @Test /* Only the newest load of a key reaches the UI, and the scope reports busy until it has */
+    void newerLoadSupersedesOlder() throws Exception {
+        try (FxIo fx = new FxIo(Executors.newVirtualThreadPerTaskExecutor(), fxQueue::add)) {
+            FxIo.Scope scope = fx.scope();
+            List<Object> applied = new ArrayList<>();
+            scope.setOnBusy(applied::add);
+            CountDownLatch release = new CountDownLatch(1);
+
+            FxIo.Load first = scope.load("events", () -> { release.await(); return "old"; }, applied::add, applied::add);
+            scope.load("events", () -> "new", applied::add, applied::add);
+            assertTrue(first.isCancelled());
+            assertEquals(2, fx.inFlight());
+            release.countDown();
+
+            drainUntil(() -> fx.inFlight() == 0 && !scope.isBusy());
+            drainUntil(() -> applied.size() == 3);
+            assertEquals(List.of(true, "new", false), applied);
+        }
+    }
+
+    @Test /* Errors go to the error handler; closing the scope drops running loads and refuses new ones */
+    void closedScopeDropsResults() throws Exception {
+        try (FxIo fx = new FxIo(Executors.newVirtualThreadPerTaskExecutor(), fxQueue::add)) {
+            FxIo.Scope scope = fx.scope();
+            List<Object> applied = new ArrayList<>();
+
+            scope.load("fail", () -> { throw new IllegalStateException("db down"); }, applied::add,
+                    e -> applied.add(e.getMessage()));
+            drainUntil(() -> applied.size() == 1);
+            assertEquals("db down", applied.get(0));
+
+            CountDownLatch release = new CountDownLatch(1);
+            FxIo.Load running = scope.load("orders", () -> { release.await(); return "late"; }, applied::add, applied::add);
+            assertTrue(scope.isLoading("orders"));
+            scope.close();
+            assertTrue(running.isCancelled());
+            assertTrue(scope.load("orders", () -> "refused", applied::add, applied::add).isCancelled());
+            release.countDown();
+
+            drainUntil(() -> fx.inFlight() == 0);
+            assertEquals(List.of("db down"), applied);
+            assertFalse(scope.isBusy());
+        }
+    }
+
+    /*
+     * Runs what the loads hand to the FX thread until the condition holds
+     */
+    private void drainUntil(java.util.function.BooleanSupplier done) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!done.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for the FX queue");
+            Runnable r = fxQueue.poll(10, TimeUnit.MILLISECONDS);
+            if (r != null) r.run();
+        }
+    }
+}
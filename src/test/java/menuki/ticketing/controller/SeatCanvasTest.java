@@ -0,0 +1,36 @@
+package menuki.ticketing.controller;
+
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.model.SeatType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hit-testing of the canvas seat map (no painting, so no FX toolkit is needed).
+ */
+class SeatCanvasTest {
+
+    @Test /* Pixels map to the seat under them; gaps, padding and space outside the map map to nothing */
+    void seatAtFindsSeatUnderPixel() {
+        SeatBlock.Builder b = SeatBlock.builder("E1", 8);
+        for (int n = 1; n <= 5; n++) b.add("A", n, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200);
+        for (int n = 1; n <= 3; n++) b.add("B", n, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200);
+        SeatBlock seats = b.build();
+        SeatCanvas canvas = SeatCanvas.create();
+        canvas.setSeats(seats);
+
+        // Zoom 1, nothing panned yet: cells are 44px with a 38px seat
+        assertEquals(0, canvas.seatAt(1, 1));
+        assertEquals(4, canvas.seatAt(4 * 44 + 37, 37));
+        assertEquals(-1, canvas.seatAt(40, 10));
+        // Row B has 3 seats centred under 5: one cell of padding
+        assertEquals(-1, canvas.seatAt(10, 44 + 10));
+        assertEquals(5, canvas.seatAt(44 + 10, 44 + 10));
+        assertEquals(7, canvas.seatAt(3 * 44 + 10, 44 + 10));
+        assertEquals(-1, canvas.seatAt(4 * 44 + 10, 44 + 10));
+        assertEquals(-1, canvas.seatAt(10, 2 * 44 + 10));
+        assertEquals(-1, canvas.seatAt(-5, 10));
+    }
+}
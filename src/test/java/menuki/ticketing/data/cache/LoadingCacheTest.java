@@ -0,0 +1,102 @@
+package menuki.ticketing.data.cache;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the LRU/TTL cache behind the caching DAOs. Time is a fake clock moved by the tests.
+ */
+class LoadingCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test /* Values and misses are served until their TTLs run out; the least recently used entry is evicted */
+    void expiresAndEvicts() throws Exception {
+        LoadingCache<String, String> cache = new LoadingCache<>("test", 2, Duration.ofSeconds(60),
+                Duration.ofSeconds(5), now::get);
+        AtomicInteger loads = new AtomicInteger();
+        LoadingCache.Loader<String, String> loader = key -> {
+            loads.incrementAndGet();
+            return key.startsWith("missing") ? null : key.toUpperCase();
+        };
+
+        assertEquals("A", cache.get("a", loader));
+        assertEquals("A", cache.get("a", loader));
+        assertNull(cache.get("missing", loader));
+        assertNull(cache.get("missing", loader));
+        assertEquals(2, loads.get());
+
+        // The miss expires first, the value later
+        now.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        assertNull(cache.get("missing", loader));
+        assertEquals("A", cache.get("a", loader));
+        assertEquals(3, loads.get());
+
+        // "missing" was used longest ago, so it goes when a third key comes in
+        cache.get("a", loader);
+        cache.get("b", loader);
+        assertNull(cache.get("missing", loader));
+        assertEquals(5, loads.get());
+
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.getSize());
+        assertEquals(2, stats.getEvictions());
+        assertEquals(1, stats.getNegativeHits());
+        assertEquals(stats.getLoads(), stats.getMisses());
+    }
+
+    @Test /* Concurrent misses on one key share a single load */
+    void concurrentMissesShareOneLoad() throws Exception {
+        LoadingCache<String, String> cache = new LoadingCache<>("test", 10, Duration.ofSeconds(60), Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LoadingCache.Loader<String, String> slow = key -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return "v";
+        };
+
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<String>> gets = new ArrayList<>();
+            gets.add(pool.submit(() -> cache.get("k", slow)));
+            loading.await();
+            for (int i = 0; i < 20; i++) gets.add(pool.submit(() -> cache.get("k", slow)));
+            // Let the followers reach the shared load before it finishes
+            while (cache.stats().getMisses() < 21) Thread.sleep(1);
+            release.countDown();
+            for (Future<String> get : gets) assertEquals("v", get.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test /* A key invalidated while it loads does not keep the result of that load */
+    void invalidateDuringLoadDropsResult() throws Exception {
+        LoadingCache<String, String> cache = new LoadingCache<>("test", 10, Duration.ofSeconds(60), Duration.ofSeconds(5));
+        assertEquals("old", cache.get("k", key -> {
+            cache.invalidate(key);
+            return "old";
+        }));
+        assertEquals("new", cache.get("k", key -> "new"));
+        assertEquals("new", cache.get("k", key -> "other"));
+    }
+}
@@ -0,0 +1,86 @@
+package menuki.ticketing.data.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConnectionPool.
+ * Uses stub connections so no database is needed.
+ */
+class ConnectionPoolTest {
+
+    private final AtomicInteger opened = new AtomicInteger();
+    private ConnectionPool pool;
+
+    /*
+     * Stub physical connection that only knows about autocommit, validity and closing
+     */
+    private Connection stubConnection() {
+        opened.incrementAndGet();
+        boolean[] state = {true, false}; // autoCommit, closed
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, m, args) -> switch (m.getName()) {
+                    case "getAutoCommit" -> state[0];
+                    case "setAutoCommit" -> { state[0] = (Boolean) args[0]; yield null; }
+                    case "isClosed" -> state[1];
+                    case "close" -> { state[1] = true; yield null; }
+                    case "isValid" -> !state[1];
+                    default -> null;
+                });
+    }
+
+    private ConnectionPool newPool(int min, int max, long borrowTimeoutMs) {
+        return new ConnectionPool(this::stubConnection,
+                new ConnectionPool.Settings(min, max, borrowTimeoutMs, 60_000, 0, 500, 1, 60_000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) pool.close();
+    }
+
+    @Test /* Closing a borrowed connection should return it to the pool instead of opening a new one next time */
+    void closedConnectionsAreReused() throws Exception {
+        pool = newPool(0, 2, 1000);
+        for (int i = 0; i < 5; i++) {
+            try (Connection c = pool.getConnection()) {
+                assertFalse(c.isClosed());
+            }
+        }
+        assertEquals(1, opened.get());
+        assertEquals(5, pool.stats().getBorrowCount());
+        assertEquals(0, pool.stats().getActive());
+    }
+
+    @Test /* Borrowing beyond the max size should time out instead of opening more connections */
+    void borrowTimesOutWhenPoolIsExhausted() throws Exception {
+        pool = newPool(0, 1, 50);
+        try (Connection held = pool.getConnection()) {
+            assertThrows(SQLTimeoutException.class, () -> pool.getConnection());
+            assertFalse(held.isClosed());
+            assertEquals(1, pool.stats().getActive());
+        }
+        assertEquals(1, pool.stats().getBorrowTimeouts());
+        assertEquals(1, opened.get());
+    }
+
+    @Test /* A connection returned mid-transaction should come back with autocommit switched on */
+    void returnedConnectionIsReset() throws Exception {
+        pool = newPool(0, 1, 1000);
+        Connection c = pool.getConnection();
+        c.setAutoCommit(false);
+        c.close();
+        // Closing twice must not return the same connection twice
+        c.close();
+        try (Connection again = pool.getConnection()) {
+            assertTrue(again.getAutoCommit());
+        }
+        assertEquals(1, pool.stats().getTotal());
+    }
+}
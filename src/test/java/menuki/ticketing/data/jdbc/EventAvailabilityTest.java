@@ -0,0 +1,117 @@
+package menuki.ticketing.data.jdbc;
+
+import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.model.SeatKey;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.model.SeatType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that JdbcSeatDao keeps the event_availability counters and seat versions in step with the seats.
+ * Runs against an in-memory H2 database in MySQL mode.
+ */
+class EventAvailabilityTest {
+
+    private static final String EVENT_ID = "E-TEST";
+    private final JdbcSeatDao dao = new JdbcSeatDao();
+
+    @BeforeAll
+    static void openDatabase() throws Exception {
+        TestDatabase.open("availability");
+        TestDatabase.execute("INSERT INTO events(id, name) VALUES ('" + EVENT_ID + "', 'Test')");
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        TestDatabase.close();
+    }
+
+    @Test /* Every kind of seat write moves the counter by exactly the seats it made (un)available */
+    void writesKeepCountersInStep() throws Exception {
+        List<Seat> seats = new ArrayList<>();
+        for (int n = 1; n <= 10; n++) {
+            seats.add(new Seat(EVENT_ID, "A", n, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200));
+        }
+        dao.insertAll(EVENT_ID, seats);
+        assertEquals(10, available());
+
+        assertTrue(dao.reserveSeatsAtomic(EVENT_ID, keys(1, 2)));
+        assertFalse(dao.reserveSeatsAtomic(EVENT_ID, keys(2, 3)));
+        assertEquals(8, available());
+
+        assertTrue(dao.holdSeats(EVENT_ID, keys(3, 4, 5), "u1", Instant.now().plusSeconds(600)));
+        assertEquals(5, available());
+        assertTrue(dao.confirmHolds(EVENT_ID, keys(3), "u1"));
+        assertEquals(1, dao.releaseHolds(EVENT_ID, keys(3, 4)));
+        assertEquals(6, available());
+
+        // Seat 5 is held, 6 is available: only 6 counts
+        dao.markReserved(EVENT_ID, keys(5, 6));
+        assertEquals(5, available());
+        // Seat 1 is reserved, 7 is already available: only 1 counts
+        dao.markAvailable(EVENT_ID, keys(1, 7));
+        assertEquals(6, available());
+
+        assertTrue(dao.holdSeats(EVENT_ID, keys(8), "u2", Instant.now().minusSeconds(1)));
+        assertEquals(1, dao.releaseExpiredHolds(EVENT_ID, Instant.now()));
+        assertEquals(6, available());
+
+        assertEquals(0, dao.reconcileAvailability());
+        assertEquals(0, dao.countAvailable("E-NONE"));
+    }
+
+    @Test /* The reconciler puts a counter that drifted back to the real count */
+    void reconcilerFixesDrift() throws Exception {
+        TestDatabase.execute("INSERT INTO events(id, name) VALUES ('E-DRIFT', 'Drift')");
+        dao.createGrid("E-DRIFT", "AB", 5);
+        assertEquals(10, dao.countAvailableByEvent().get("E-DRIFT"));
+
+        TestDatabase.execute("UPDATE event_availability SET available = 99 WHERE event_id = 'E-DRIFT'");
+        assertEquals(1, dao.reconcileAvailability());
+        assertEquals(10, dao.countAvailableByEvent().get("E-DRIFT"));
+        assertEquals(0, dao.reconcileAvailability());
+    }
+
+    @Test /* Each write stamps a newer version, and asking since a version returns only the seats changed after it */
+    void changesSinceReturnOnlyChangedSeats() throws Exception {
+        TestDatabase.execute("INSERT INTO events(id, name) VALUES ('E-VERSION', 'Version')");
+        dao.createGrid("E-VERSION", "AB", 5);
+        SeatBlock all = dao.findBlockByEvent("E-VERSION");
+        assertEquals(10, all.size());
+        assertEquals(0, dao.findChangedSince("E-VERSION", all.getVersion()).size());
+
+        assertTrue(dao.reserveSeatsAtomic("E-VERSION", keys(2, 3)));
+        assertFalse(dao.reserveSeatsAtomic("E-VERSION", keys(3, 4)));
+        SeatBlock changed = dao.findChangedSince("E-VERSION", all.getVersion());
+        assertEquals(2, changed.size());
+        assertEquals(SeatKey.of("A", 2), changed.key(0));
+        assertEquals(SeatStatus.RESERVED, changed.status(1));
+        assertTrue(changed.getVersion() > all.getVersion());
+
+        dao.markAvailable("E-VERSION", keys(3));
+        SeatBlock next = dao.findChangedSince("E-VERSION", changed.getVersion());
+        assertEquals(1, next.size());
+        assertEquals(SeatStatus.AVAILABLE, next.status(0));
+        assertEquals(next.getVersion(), dao.findBlockByEvent("E-VERSION").getVersion());
+    }
+
+    private int available() throws Exception {
+        int available = dao.countAvailable(EVENT_ID);
+        assertEquals(available, dao.countAvailableByEvent().getOrDefault(EVENT_ID, 0));
+        return available;
+    }
+
+    private static long[] keys(int... seatNumbers) {
+        long[] out = new long[seatNumbers.length];
+        for (int i = 0; i < out.length; i++) out[i] = SeatKey.of("A", seatNumbers[i]);
+        return out;
+    }
+}
@@ -0,0 +1,60 @@
+package menuki.ticketing.data.jdbc;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the hi-lo id blocks behind event ids. Runs against an in-memory H2 database in MySQL mode.
+ */
+class HiLoIdAllocatorTest {
+
+    @BeforeAll
+    static void openDatabase() throws Exception {
+        TestDatabase.open("hilo");
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        TestDatabase.close();
+    }
+
+    @Test /* Event ids keep the E-NNNN format and continue after the ids already in the table */
+    void eventIdsContinueAfterExistingOnes() throws Exception {
+        TestDatabase.execute("INSERT INTO events(id, name) VALUES ('E-2001', 'a'), ('E-2005', 'b'), ('E-demo', 'c')");
+        JdbcEventDao dao = new JdbcEventDao();
+        assertEquals("E-2006", dao.getNextEventId());
+        assertEquals("E-2007", new JdbcEventDao().getNextEventId());
+    }
+
+    @Test /* Two allocators on one sequence (two app instances) never hand out the same id */
+    void instancesGetDisjointBlocks() throws Exception {
+        HiLoIdAllocator first = new HiLoIdAllocator("test", 7, c -> 100);
+        HiLoIdAllocator second = new HiLoIdAllocator("test", 7, c -> 100);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Long>> ids = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                HiLoIdAllocator allocator = i % 2 == 0 ? first : second;
+                ids.add(pool.submit(allocator::next));
+            }
+            Set<Long> seen = new HashSet<>();
+            for (Future<Long> id : ids) {
+                long value = id.get();
+                assertTrue(value >= 100);
+                assertTrue(seen.add(value), "duplicate id " + value);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
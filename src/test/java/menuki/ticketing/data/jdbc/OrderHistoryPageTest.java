@@ -0,0 +1,68 @@
+package menuki.ticketing.data.jdbc;
+
+import menuki.ticketing.model.OrderPage;
+import menuki.ticketing.model.OrderSummary;
+import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.model.SeatType;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for paging through a user's order history. Runs against an in-memory H2 database in MySQL mode.
+ */
+class OrderHistoryPageTest {
+
+    @Test /* Pages come newest first, without gaps or repeats even where orders share a booking time */
+    void pagesCoverHistoryInOrder() throws Exception {
+        TestDatabase.open("orderpages");
+        try {
+            JdbcOrderDao orders = new JdbcOrderDao(new JdbcOrderItemDao(), null);
+            TestDatabase.execute(
+                    "INSERT INTO users(username, password, role) VALUES ('u1', 'x', 'USER'), ('u2', 'x', 'USER')",
+                    "INSERT INTO events(id, name) VALUES ('E-1', 'Concert')");
+            new JdbcSeatDao().insertAll("E-1", List.of(
+                    new Seat("E-1", "A", 1, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200),
+                    new Seat("E-1", "A", 2, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200)));
+            // Orders 3 and 4 are booked in the same second, so the id breaks the tie
+            TestDatabase.execute("""
+                    INSERT INTO orders(id, user_id, booked_at, total_cents) VALUES
+                      (1, 'u1', '2025-03-01 10:00:00', 2400),
+                      (2, 'u1', '2025-03-02 10:00:00', 0),
+                      (3, 'u1', '2025-03-03 10:00:00', 0),
+                      (4, 'u1', '2025-03-03 10:00:00', 0),
+                      (5, 'u1', '2025-03-04 10:00:00', 0),
+                      (6, 'u2', '2025-03-05 10:00:00', 0)
+                    """, """
+                    INSERT INTO order_items(id, order_id, event_id, row_label, seat_number, price_cents) VALUES
+                      (10, 1, 'E-1', 'A', 1, 1200),
+                      (11, 1, 'E-1', 'A', 2, 1200)
+                    """);
+
+            List<Long> seen = new ArrayList<>();
+            OrderSummary after = null;
+            int pages = 0;
+            OrderPage page;
+            do {
+                page = orders.findPageByUser("u1", after, 2);
+                for (OrderSummary o : page.getOrders()) seen.add(o.getId());
+                after = page.last();
+                pages++;
+            } while (page.hasMore());
+
+            assertEquals(List.of(5L, 4L, 3L, 2L, 1L), seen);
+            assertEquals(3, pages);
+
+            OrderSummary oldest = page.last();
+            assertEquals(1, oldest.getId());
+            assertEquals(2, oldest.getSeatCount());
+            assertEquals("Concert", oldest.getEventName());
+            assertEquals(2400, oldest.getTotalCents());
+        } finally {
+            TestDatabase.close();
+        }
+    }
+}
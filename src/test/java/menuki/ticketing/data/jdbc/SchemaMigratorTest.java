@@ -0,0 +1,121 @@
+package menuki.ticketing.data.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the versioned schema migrations. Runs against a fresh in-memory H2 database in MySQL mode.
+ */
+class SchemaMigratorTest {
+
+    @BeforeEach
+    void openDatabase() {
+        TestDatabase.configure("migrations");
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        TestDatabase.close();
+    }
+
+    @Test /* The app's migrations build an empty database once; after that startup only reads the version */
+    void appMigrationsRunOnce() throws Exception {
+        SchemaMigrator migrator = new SchemaMigrator(DatabaseInitializer.MIGRATIONS);
+        assertFalse(migrator.isUpToDate());
+        assertEquals(DatabaseInitializer.MIGRATIONS.size(), migrator.migrate());
+        assertTrue(migrator.isUpToDate());
+        assertEquals(0, migrator.migrate());
+
+        try (Connection c = DatabaseConnection.getConnection(); Statement st = c.createStatement()) {
+            assertTrue(Migration.hasIndexCovering(c, "events", "date"));
+            assertTrue(Migration.hasIndexCovering(c, "order_items", "event_id"));
+            assertTrue(Migration.hasIndexCovering(c, "orders", "user_id", "booked_at"));
+            try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM users WHERE username = 'admin'")) {
+                rs.next();
+                assertEquals(1, rs.getInt(1));
+            }
+        }
+    }
+
+    @Test /* New migrations run in version order on top of old ones, and an edited migration is refused */
+    void pendingRunInOrderAndEditsAreRefused() throws Exception {
+        TestDatabase.execute("CREATE TABLE legacy (a INT, b INT)");
+        AtomicInteger runs = new AtomicInteger();
+        Migration first = Migration.java(1, "count a run", "runs + 1", c -> runs.incrementAndGet());
+        SchemaMigrator v1 = new SchemaMigrator(List.of(first));
+        assertEquals(1, v1.migrate());
+
+        SchemaMigrator v3 = new SchemaMigrator(List.of(
+                Migration.java(3, "needs the index", "check",
+                        c -> assertTrue(Migration.hasIndexCovering(c, "legacy", "a", "b"))),
+                first,
+                Migration.index(2, "legacy", "idx_legacy_ab", "a", "b")));
+        assertEquals(3, v3.latestVersion());
+        assertEquals(2, v3.migrate());
+        assertEquals(1, runs.get());
+
+        // Same version and description, different work
+        SchemaMigrator edited = new SchemaMigrator(List.of(Migration.java(1, "count a run", "runs + 2", c -> { })));
+        assertThrows(SQLException.class, edited::isUpToDate);
+        assertThrows(SQLException.class, edited::migrate);
+        SchemaMigrator editedSql = new SchemaMigrator(List.of(first,
+                Migration.index(2, "legacy", "idx_legacy_ab", "a", "b"),
+                Migration.sql(3, "needs the index", "SELECT 1")));
+        assertThrows(SQLException.class, editedSql::migrate);
+    }
+
+    @Test /* A database made by the first release (no schema_version, INT order ids) is upgraded in place */
+    void firstReleaseDatabaseIsUpgraded() throws Exception {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            DatabaseInitializer.SCHEMA.get(0).apply(c);
+        }
+        TestDatabase.execute(
+                "INSERT INTO events(id, name) VALUES ('E-1', 'Old')",
+                "INSERT INTO users(username, password) VALUES ('u', 'pw')",
+                "INSERT INTO seats(event_id, row_label, seat_number, type, status, price_cents) "
+                        + "VALUES ('E-1', 'A', 1, 'STANDARD', 'RESERVED', 100), "
+                        + "('E-1', 'A', 2, 'STANDARD', 'AVAILABLE', 100)",
+                "INSERT INTO orders(user_id, total_cents) VALUES ('u', 100)",
+                "INSERT INTO order_items(order_id, event_id, row_label, seat_number, price_cents) "
+                        + "SELECT id, 'E-1', 'A', 1, 100 FROM orders",
+                // A later build added this one outside the migrations
+                "ALTER TABLE seats ADD COLUMN held_by VARCHAR(50) NULL");
+
+        SchemaMigrator migrator = new SchemaMigrator(DatabaseInitializer.SCHEMA);
+        assertEquals(DatabaseInitializer.SCHEMA.size(), migrator.migrate());
+        assertTrue(migrator.isUpToDate());
+
+        try (Connection c = DatabaseConnection.getConnection(); Statement st = c.createStatement()) {
+            assertTrue(Migration.hasColumn(c, "seats", "hold_expires_at"));
+            assertTrue(Migration.hasColumn(c, "seats", "version"));
+            assertTrue(Migration.hasColumn(c, "event_availability", "version"));
+            assertTrue(Migration.hasIndexCovering(c, "seats", "status", "hold_expires_at"));
+            try (ResultSet rs = c.getMetaData().getColumns(c.getCatalog(), null, "order_items", "order_id")) {
+                assertTrue(rs.next());
+                assertEquals(Types.BIGINT, rs.getInt("DATA_TYPE"));
+            }
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT available, total FROM event_availability WHERE event_id = 'E-1'")) {
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt(1));
+                assertEquals(2, rs.getInt(2));
+            }
+            // Ids now come from the app and no longer fit an INT
+            st.executeUpdate("INSERT INTO orders(id, user_id, total_cents) VALUES (" + Long.MAX_VALUE + ", 'u', 1)");
+            try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM order_items")) {
+                rs.next();
+                assertEquals(1, rs.getInt(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package menuki.ticketing.data.jdbc;
+
+import menuki.ticketing.model.SeatKey;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the bucketed IN-list statements used by JdbcSeatDao.
+ */
+class SeatInListTest {
+
+    @Test /* Carts of different sizes in the same bucket must share one SQL string */
+    void sameBucketSharesSql() {
+        SeatInList update = SeatInList.of("UPDATE seats SET status = 'RESERVED' WHERE event_id = ? AND %s");
+        String three = update.sql(keys("A-01", "A-02", "A-03"));
+        String four = update.sql(keys("A-04", "A-05", "A-06", "A-07"));
+        assertSame(three, four);
+        assertEquals(4, countOf(three, "(?,?)"));
+        assertTrue(three.contains("row_label IN (?)"));
+
+        // A second row changes the row bucket only
+        String twoRows = update.sql(keys("A-01", "B-01", "B-02"));
+        assertTrue(twoRows.contains("row_label IN (?,?)"));
+        assertTrue(twoRows.contains("(row_label, seat_number) IN ((?,?),(?,?),(?,?),(?,?))"));
+    }
+
+    @Test /* Duplicates are dropped and big lists are split at the largest bucket */
+    void chunksAreDistinctAndBounded() {
+        long[] ids = new long[601];
+        for (int n = 1; n <= 600; n++) ids[n - 1] = SeatKey.of("A", n);
+        ids[600] = SeatKey.of("A", 1);
+        List<long[]> chunks = SeatInList.chunks(ids);
+        assertEquals(2, chunks.size());
+        assertEquals(SeatInList.MAX_BUCKET, chunks.get(0).length);
+        assertEquals(600 - SeatInList.MAX_BUCKET, chunks.get(1).length);
+        assertEquals(600, SeatInList.distinctCount(ids));
+        assertEquals(16, SeatInList.bucketFor(10));
+    }
+
+    private static long[] keys(String... displayIds) {
+        long[] out = new long[displayIds.length];
+        for (int i = 0; i < out.length; i++) out[i] = SeatKey.parse(displayIds[i]);
+        return out;
+    }
+
+    private static int countOf(String s, String part) {
+        int count = 0;
+        for (int i = s.indexOf(part); i >= 0; i = s.indexOf(part, i + 1)) count++;
+        return count;
+    }
+}
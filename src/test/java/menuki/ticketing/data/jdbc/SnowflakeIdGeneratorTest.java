@@ -0,0 +1,76 @@
+package menuki.ticketing.data.jdbc;
+
+import menuki.ticketing.model.OrderItem;
+import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.model.SeatType;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for client-side order ids: their layout, node leases and writing an order with them.
+ * The database tests run against an in-memory H2 database in MySQL mode.
+ */
+class SnowflakeIdGeneratorTest {
+
+    @Test /* Ids of a node increase, carry its node id and time, and survive running out of sequence in a millisecond */
+    void idsIncreaseAndDecode() {
+        long start = SnowflakeIdGenerator.EPOCH_MILLIS + 1_000_000;
+        AtomicLong calls = new AtomicLong();
+        // 10,000 clock reads per millisecond, so the 4,096 ids of a millisecond run out
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(() -> 42, () -> start + calls.getAndIncrement() / 10_000);
+
+        long previous = 0;
+        for (int i = 0; i < 20_000; i++) {
+            long id = ids.nextId();
+            assertTrue(id > previous);
+            assertEquals(42, SnowflakeIdGenerator.nodeOf(id));
+            previous = id;
+        }
+        assertTrue(SnowflakeIdGenerator.millisOf(previous) >= start + 4);
+    }
+
+    @Test /* A clock that jumps back further than a few milliseconds fails the call instead of repeating ids */
+    void clockGoingBackwardsFails() {
+        AtomicLong now = new AtomicLong(SnowflakeIdGenerator.EPOCH_MILLIS + 5_000);
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(() -> 1, now::get);
+        ids.nextId();
+        now.addAndGet(-1_000);
+        assertThrows(IllegalStateException.class, ids::nextId);
+    }
+
+    @Test /* Instances lease different node ids, and an order and its items are written under generated ids */
+    void leasedNodesAndOrderWrites() throws Exception {
+        TestDatabase.open("orderids");
+        try {
+            TestDatabase.execute(
+                    "INSERT INTO users(username, password, role) VALUES ('u1', 'x', 'USER')",
+                    "INSERT INTO events(id, name) VALUES ('E-1', 'Test')");
+            List<Seat> seats = List.of(
+                    new Seat("E-1", "A", 1, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200),
+                    new Seat("E-1", "A", 2, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200));
+            new JdbcSeatDao().insertAll("E-1", seats);
+
+            try (NodeLease first = NodeLease.acquire(SnowflakeIdGenerator.MAX_NODE, Duration.ofSeconds(30));
+                 NodeLease second = NodeLease.acquire(SnowflakeIdGenerator.MAX_NODE, Duration.ofSeconds(30))) {
+                assertNotEquals(first.nodeId(), second.nodeId());
+
+                SnowflakeIdGenerator ids = new SnowflakeIdGenerator(first::nodeId, System::currentTimeMillis);
+                JdbcOrderItemDao items = new JdbcOrderItemDao(ids);
+                long orderId = new JdbcOrderDao(items, ids).createOrder("u1", "E-1", seats);
+                assertEquals(first.nodeId(), SnowflakeIdGenerator.nodeOf(orderId));
+
+                List<OrderItem> written = items.findByOrderId(orderId);
+                assertEquals(2, written.size());
+                assertNotEquals(written.get(0).getId(), written.get(1).getId());
+                assertEquals(orderId, written.get(0).getOrderId());
+            }
+        } finally {
+            TestDatabase.close();
+        }
+    }
+}
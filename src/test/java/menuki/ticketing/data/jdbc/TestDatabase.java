@@ -0,0 +1,69 @@
+package menuki.ticketing.data.jdbc;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * In-memory H2 database (MySQL mode) for the tests that need real SQL.
+ * Each test class opens its own database by name, so they never see each other's rows.
+ */
+public final class TestDatabase {
+
+    private TestDatabase() {}
+
+    /*
+     * Connection settings for the named in-memory database
+     */
+    public static Properties properties(String name) {
+        Properties p = new Properties();
+        p.setProperty("db.url", "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        p.setProperty("db.user", "sa");
+        p.setProperty("db.password", "");
+        return p;
+    }
+
+    /*
+     * Points DatabaseConnection at the named database without creating anything in it
+     */
+    public static void configure(String name) {
+        DatabaseConnection.configure(properties(name));
+    }
+
+    /*
+     * Points DatabaseConnection at the named database and creates the app's tables
+     */
+    public static void open(String name) throws Exception {
+        configure(name);
+        createTables();
+    }
+
+    /*
+     * Creates the app's tables in the configured database by running the schema migrations (no demo data)
+     */
+    public static void createTables() throws Exception {
+        DatabaseInitializer.createSchema();
+    }
+
+    /*
+     * Runs statements on a connection of its own
+     */
+    public static void execute(String... sql) throws Exception {
+        try (Connection c = DatabaseConnection.getConnection();
+             Statement st = c.createStatement()) {
+            for (String s : sql) st.execute(s);
+        }
+    }
+
+    /*
+     * Empties the database (so the name can be opened fresh again) and closes the pool
+     */
+    public static void close() {
+        try {
+            execute("DROP ALL OBJECTS");
+        } catch (Exception e) {
+            System.err.println("[TEST-DB] could not drop the test database: " + e);
+        }
+        DatabaseConnection.shutdown();
+    }
+}
@@ -0,0 +1,158 @@
+package menuki.ticketing.data.jdbc;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the thread-bound unit of work. Runs against an in-memory H2 database in MySQL mode.
+ */
+class TransactionScopeTest {
+
+    @BeforeAll
+    static void openDatabase() throws Exception {
+        TestDatabase.configure("transactions");
+        TestDatabase.execute("CREATE TABLE tx_rows (id INT PRIMARY KEY)");
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        TestDatabase.close();
+    }
+
+    @BeforeEach
+    void emptyTable() throws Exception {
+        TestDatabase.execute("DELETE FROM tx_rows");
+    }
+
+    @Test /* Writes on every connection taken inside the scope commit together; the connection goes back to the pool */
+    void commitWritesEveryStatement() throws Exception {
+        int written = TransactionScope.inTransaction(() -> {
+            assertTrue(TransactionScope.isActive());
+            insert(1);
+            insert(2);
+            return 2;
+        });
+        assertEquals(2, written);
+        assertFalse(TransactionScope.isActive());
+        assertEquals(2, rows());
+        assertEquals(0, DatabaseConnection.poolStats().getActive());
+    }
+
+    @Test /* Closing without commit, or throwing out of the work, rolls everything back */
+    void closeWithoutCommitRollsBack() throws Exception {
+        TransactionScope tx = TransactionScope.begin();
+        insert(1);
+        insert(2);
+        tx.close();
+        assertEquals(0, rows());
+
+        assertThrows(SQLException.class, () -> TransactionScope.inTransaction(() -> {
+            insert(3);
+            insert(3);
+            return null;
+        }));
+        assertEquals(0, rows());
+        assertFalse(TransactionScope.isActive());
+        assertEquals(0, DatabaseConnection.poolStats().getActive());
+    }
+
+    @Test /* A nested scope shares the outer connection and only the outer commit writes */
+    void nestedScopeJoinsTheOuterOne() throws Exception {
+        try (TransactionScope outer = TransactionScope.begin()) {
+            Connection outerConnection = DatabaseConnection.getConnection();
+            try (TransactionScope inner = TransactionScope.begin()) {
+                assertSame(outerConnection, DatabaseConnection.getConnection());
+                insert(1);
+                inner.commit();
+            }
+            // Still open: the nested commit did not write anything yet
+            assertEquals(0, rowsElsewhere());
+            insert(2);
+            outer.commit();
+        }
+        assertEquals(2, rows());
+    }
+
+    @Test /* A nested scope that closes without commit makes the whole unit of work roll back */
+    void failedNestedScopeRollsBackTheOuterOne() throws Exception {
+        try (TransactionScope outer = TransactionScope.begin()) {
+            insert(1);
+            TransactionScope inner = TransactionScope.begin();
+            insert(2);
+            inner.close();
+            assertThrows(SQLException.class, outer::commit);
+        }
+        assertEquals(0, rows());
+    }
+
+    @Test /* DAOs cannot end the scope's transaction: close, commit and autocommit are ignored, rollback marks it */
+    void participantConnectionLeavesControlToTheScope() throws Exception {
+        TransactionScope first = TransactionScope.begin();
+        Connection c = DatabaseConnection.getConnection();
+        insert(c, 1);
+        c.commit();
+        c.setAutoCommit(true);
+        c.close();
+        assertFalse(c.getAutoCommit());
+        // Closing did not hand the connection back, it is still the scope's
+        insert(DatabaseConnection.getConnection(), 2);
+        first.close();
+        assertEquals(0, rows());
+
+        try (TransactionScope tx = TransactionScope.begin()) {
+            insert(1);
+            DatabaseConnection.getConnection().rollback();
+            assertThrows(SQLException.class, tx::commit);
+        }
+        assertEquals(0, rows());
+    }
+
+    /*
+     * Inserts on a connection taken the way DAOs take them
+     */
+    private static void insert(int id) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            insert(c, id);
+        } catch (Exception e) {
+            if (e instanceof SQLException se) throw se;
+            throw new SQLException("insert failed", e);
+        }
+    }
+
+    private static void insert(Connection c, int id) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.executeUpdate("INSERT INTO tx_rows(id) VALUES (" + id + ")");
+        }
+    }
+
+    private static int rows() throws Exception {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            return count(c);
+        }
+    }
+
+    /*
+     * Counts from a connection of its own, outside the scope open on this thread
+     */
+    private static int rowsElsewhere() throws Exception {
+        try (Connection c = DatabaseConnection.getDataSource().getConnection()) {
+            return count(c);
+        }
+    }
+
+    private static int count(Connection c) throws SQLException {
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM tx_rows")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package menuki.ticketing.data.metrics;
+
+import menuki.ticketing.data.dao.UserDao;
+import menuki.ticketing.model.User;
+import org.junit.jupiter.api.Test;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the metered DAO decorators, with a fake UserDao. The counters are process-wide, so every
+ * check looks at the difference from a snapshot taken first.
+ */
+class MeteredDaoTest {
+
+    /*
+     * Fake user table: two users, and inserting "broken" fails
+     */
+    private static final class FakeUserDao implements UserDao {
+        @Override
+        public User findByUsername(String username) {
+            return username.equals("nobody") ? null : new User(username, "pw", "USER");
+        }
+
+        @Override
+        public List<User> findAll() {
+            return List.of(new User("a", "pw", "USER"), new User("b", "pw", "ADMIN"));
+        }
+
+        @Override
+        public boolean existsByUsername(String username) {
+            return true;
+        }
+
+        @Override
+        public void insert(User user) throws SQLException {
+            if (user.getUsername().equals("broken")) throw new SQLException("duplicate key");
+        }
+    }
+
+    private static MethodMetrics.Snapshot since(MethodMetrics.Snapshot before, String name) {
+        MethodMetrics.Snapshot now = DaoMetrics.snapshot(name);
+        return before == null ? now : now.minus(before);
+    }
+
+    @Test /* Calls, rows read and written, and errors are counted per method, and the results pass through */
+    void countsCallsRowsAndErrors() {
+        UserDao dao = new MeteredUserDao(new FakeUserDao());
+        MethodMetrics.Snapshot find = DaoMetrics.snapshot("UserDao.findByUsername");
+        MethodMetrics.Snapshot all = DaoMetrics.snapshot("UserDao.findAll");
+        MethodMetrics.Snapshot insert = DaoMetrics.snapshot("UserDao.insert");
+
+        assertEquals("x", dao.findByUsername("x").getUsername());
+        assertNull(dao.findByUsername("nobody"));
+        assertEquals(2, dao.findAll().size());
+        assertDoesNotThrow(() -> dao.insert(new User("ok", "pw", "USER")));
+        SQLException e = assertThrows(SQLException.class, () -> dao.insert(new User("broken", "pw", "USER")));
+        assertEquals("duplicate key", e.getMessage());
+
+        MethodMetrics.Snapshot f = since(find, "UserDao.findByUsername");
+        assertEquals(2, f.getCalls());
+        assertEquals(1, f.getRowsRead());
+        assertEquals(2, f.getLatency().getCount());
+        assertEquals(2, since(all, "UserDao.findAll").getRowsRead());
+        MethodMetrics.Snapshot i = since(insert, "UserDao.insert");
+        assertEquals(2, i.getCalls());
+        assertEquals(1, i.getErrors());
+        assertEquals(1, i.getRowsWritten());
+    }
+
+    @Test /* Every instance adds to the same counters, and a report only shows what happened since the last one */
+    void reporterShowsIntervals() {
+        UserDao first = new MeteredUserDao(new FakeUserDao());
+        UserDao second = new MeteredUserDao(new FakeUserDao());
+        try (DaoMetricsReporter reporter = new DaoMetricsReporter()) {
+            reporter.reportOnce();
+            first.findAll();
+            second.findAll();
+
+            List<MethodMetrics.Snapshot> interval = reporter.reportOnce();
+            MethodMetrics.Snapshot findAll = interval.stream()
+                    .filter(s -> s.getName().equals("UserDao.findAll")).findFirst().orElseThrow();
+            assertEquals(2, findAll.getCalls());
+            assertEquals(4, findAll.getRowsRead());
+
+            assertTrue(reporter.reportOnce().stream().noneMatch(s -> s.getName().startsWith("UserDao.")));
+        }
+    }
+}
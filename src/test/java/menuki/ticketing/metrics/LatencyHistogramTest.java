@@ -0,0 +1,75 @@
+package menuki.ticketing.metrics;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the lock-free latency histogram: bucket bounds, percentile accuracy and concurrent recording.
+ */
+class LatencyHistogramTest {
+
+    @Test /* Every value lands in a bucket whose bounds contain it, and buckets are at most ~1.6% wide */
+    void bucketsContainTheirValues() {
+        for (long v = 0; v < 5_000_000; v = v < 200 ? v + 1 : v + v / 7) {
+            int i = LatencyHistogram.indexOf(v);
+            assertTrue(LatencyHistogram.lowestOf(i) <= v && v <= LatencyHistogram.highestOf(i), "value " + v);
+            if (v >= 128) {
+                double width = LatencyHistogram.highestOf(i) - LatencyHistogram.lowestOf(i) + 1;
+                assertTrue(width / v <= 1.0 / 64 + 1e-9, "bucket of " + v + " is too wide");
+            }
+        }
+
+        // Anything past the trackable range goes to the last bucket, but the max stays exact
+        LatencyHistogram h = new LatencyHistogram();
+        h.recordNanos(Long.MAX_VALUE);
+        assertEquals(1, h.snapshot().getCount());
+        assertEquals(Long.MAX_VALUE, h.snapshot().getMaxNanos());
+    }
+
+    @Test /* Percentiles of 1..100000 us come back within the bucket precision, and the count/mean/max are exact */
+    void percentilesAreWithinPrecision() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long us = 1; us <= 100_000; us++) h.recordNanos(us * 1000);
+        LatencyHistogram.Snapshot s = h.snapshot();
+
+        assertEquals(100_000, s.getCount());
+        assertEquals(100_000_000L, s.getMaxNanos());
+        assertEquals(50_000.5 * 1000, s.getMeanNanos(), 1e-6);
+        for (double p : new double[]{50, 90, 99, 99.9}) {
+            double expected = p / 100 * 100_000_000L;
+            assertEquals(expected, s.percentileNanos(p), expected * 0.02, "p" + p);
+        }
+        assertEquals(50_000, s.countAtOrBelow(50_000_000L), 50_000 * 0.02);
+    }
+
+    @Test /* Values recorded from many threads at once are all counted, and snapshots can be subtracted */
+    void concurrentRecordingLosesNothing() throws Exception {
+        LatencyHistogram h = new LatencyHistogram();
+        h.recordNanos(5);
+        LatencyHistogram.Snapshot before = h.snapshot();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 10_000; i++) h.recordNanos(1_000 + i);
+            }));
+        }
+        start.countDown();
+        for (Thread t : threads) t.join();
+
+        LatencyHistogram.Snapshot delta = h.snapshot().minus(before);
+        assertEquals(80_000, delta.getCount());
+        assertEquals(80_001, h.snapshot().getCount());
+        assertEquals(0, new LatencyHistogram().snapshot().percentileNanos(99));
+    }
+}
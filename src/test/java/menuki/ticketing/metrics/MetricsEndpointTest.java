@@ -0,0 +1,82 @@
+package menuki.ticketing.metrics;
+
+import menuki.ticketing.data.dao.OrderDao;
+import menuki.ticketing.data.metrics.MeteredOrderDao;
+import menuki.ticketing.model.Order;
+import menuki.ticketing.model.OrderPage;
+import menuki.ticketing.model.OrderSummary;
+import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.model.SeatType;
+import menuki.ticketing.service.BookingMetrics;
+import menuki.ticketing.service.JdbcOrderService;
+import org.junit.jupiter.api.Test;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Prometheus endpoint, scraped over HTTP on a free port. Orders go to a fake OrderDao.
+ */
+class MetricsEndpointTest {
+
+    /*
+     * Fake order table: every order gets id 1
+     */
+    private static final class FakeOrderDao implements OrderDao {
+        @Override public long createOrder(String userId, String eventId, List<Seat> seats) { return 1; }
+        @Override public List<Order> findByUser(String username) { return List.of(); }
+        @Override public OrderPage findPageByUser(String username, OrderSummary after, int limit) {
+            return new OrderPage(List.of(), false);
+        }
+        @Override public List<Long> cancelOrdersWithSeats(String userId, String eventId, long[] seatKeys,
+                                                          String reason) { return List.of(); }
+        @Override public int countItemsForEvent(String eventId) { return 0; }
+        @Override public int deleteOrderItemsByEvent(String eventId) { return 0; }
+    }
+
+    @Test /* A scrape returns the text format with DAO histograms, booking counters, caches and JVM metrics */
+    void servesPrometheusText() throws Exception {
+        long ordersBefore = BookingMetrics.ordersCreated();
+        JdbcOrderService orders = new JdbcOrderService(new MeteredOrderDao(new FakeOrderDao()));
+        orders.createOrder("alice", "E1", List.of(
+                new Seat("E1", "A", 1, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200),
+                new Seat("E1", "A", 2, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200)));
+        assertEquals(ordersBefore + 1, BookingMetrics.ordersCreated());
+
+        try (MetricsEndpoint endpoint = MetricsEndpoint.start(0)) {
+            // Not reachable from other machines unless metrics.host says so
+            assertTrue(endpoint.getAddress().isLoopbackAddress());
+            HttpClient client = HttpClient.newHttpClient();
+            URI uri = URI.create("http://" + endpoint.getAddress().getHostAddress() + ":" + endpoint.getPort()
+                    + "/metrics");
+            HttpResponse<String> res = client.send(HttpRequest.newBuilder(uri).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, res.statusCode());
+            assertTrue(res.headers().firstValue("Content-Type").orElse("").startsWith("text/plain; version=0.0.4"));
+            String body = res.body();
+            assertTrue(body.contains("# TYPE ticketing_dao_call_duration_seconds histogram"));
+            assertTrue(body.contains(
+                    "ticketing_dao_call_duration_seconds_bucket{dao=\"OrderDao\",method=\"createOrder\",le=\"+Inf\"}"));
+            assertTrue(body.contains("ticketing_dao_rows_written_total{dao=\"OrderDao\",method=\"createOrder\"}"));
+            assertTrue(body.contains("ticketing_orders_created_total " + BookingMetrics.ordersCreated() + "\n"));
+            assertTrue(body.contains("ticketing_seat_claims_total{op=\"hold\",outcome=\"conflict\"}"));
+            assertTrue(body.contains("ticketing_cache_requests_total{cache=\"users.byUsername\",result=\"hit\"}"));
+            assertTrue(body.contains("jvm_memory_bytes_used{area=\"heap\"}"));
+            assertTrue(body.contains("jvm_gc_collection_seconds_count{gc="));
+            // Every sample line is "name{labels} value" or "name value"
+            for (String line : body.split("\n")) {
+                if (!line.startsWith("#")) assertTrue(line.matches("[a-z_]+(\\{.*\\})? [-+0-9.EInfNa]+"), line);
+            }
+
+            HttpResponse<String> post = client.send(HttpRequest.newBuilder(uri)
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(405, post.statusCode());
+        }
+    }
+}
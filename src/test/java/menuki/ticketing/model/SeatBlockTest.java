@@ -0,0 +1,56 @@
+package menuki.ticketing.model;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the columnar SeatBlock.
+ */
+class SeatBlockTest {
+
+    @Test /* Sorted input is stored as is, with one label per row and contiguous rows */
+    void sortedInputKeepsRowsContiguous() {
+        SeatBlock block = SeatBlock.builder("E1", 4)
+                .add("A", 1, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200)
+                .add("A", 2, SeatType.STANDARD, SeatStatus.RESERVED, 1200)
+                .add("B", 1, SeatType.VIP, SeatStatus.SELECTED, 2500)
+                .build();
+
+        assertEquals(3, block.size());
+        assertEquals(2, block.rowCount());
+        assertEquals(0, block.rowStart(0));
+        assertEquals(2, block.rowEnd(0));
+        assertEquals("B", block.rowLabel(block.rowOf(2)));
+        assertEquals(SeatStatus.RESERVED, block.status(1));
+        assertEquals(SeatType.VIP, block.type(2));
+        assertEquals(2500, block.priceCents(2));
+        assertEquals("A-02", block.displayId(1));
+        assertEquals(2, block.indexOf(SeatKey.of("B", 1)));
+        assertEquals(-1, block.indexOf(SeatKey.of("B", 2)));
+        assertEquals(-1, block.indexOf(SeatKey.of("C", 1)));
+
+        block.setStatus(0, SeatStatus.SELECTED);
+        assertEquals(SeatStatus.SELECTED, block.seat(0).getStatus());
+    }
+
+    @Test /* Unsorted input is put in key order and duplicate seats are dropped */
+    void unsortedInputIsSorted() {
+        SeatBlock block = SeatBlock.of("E1", List.of(
+                new Seat("E1", "B", 2, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200),
+                new Seat("E1", "AA", 1, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200),
+                new Seat("E1", "B", 1, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200),
+                new Seat("E1", "A", 3, SeatType.STANDARD, SeatStatus.RESERVED, 1200),
+                new Seat("E1", "B", 2, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200)));
+
+        assertEquals(4, block.size());
+        for (int i = 1; i < block.size(); i++) {
+            assertTrue(block.key(i - 1) < block.key(i));
+        }
+        assertEquals("A", block.rowLabel(0));
+        assertEquals("AA", block.rowLabel(1));
+        assertEquals("B", block.rowLabel(2));
+        assertEquals(SeatStatus.RESERVED, block.status(block.indexOf(SeatKey.of("A", 3))));
+    }
+}
@@ -0,0 +1,47 @@
+package menuki.ticketing.model;
+
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the packed seat keys and the collections keyed by them.
+ */
+class SeatKeyTest {
+
+    @Test /* Keys must round trip to row label and seat number and sort like (row, seat) */
+    void keysRoundTripAndSortBySeat() {
+        long a2 = SeatKey.of("A", 2);
+        assertEquals("A", SeatKey.rowLabel(a2));
+        assertEquals(2, SeatKey.seatNumber(a2));
+        assertEquals("A-02", SeatKey.displayId(a2));
+        assertEquals(a2, SeatKey.parse("A-02"));
+        assertEquals("R012-140", SeatKey.displayId(SeatKey.parse("R012-140")));
+
+        assertTrue(SeatKey.of("A", 10) < SeatKey.of("AA", 1));
+        assertTrue(SeatKey.of("A", 9) < SeatKey.of("A", 10));
+        assertTrue(SeatKey.of("B", 1) > SeatKey.of("A", 99));
+        assertThrows(IllegalArgumentException.class, () -> SeatKey.of("ABCDE", 1));
+    }
+
+    @Test /* The open addressing map must behave like a HashMap through random puts and removes */
+    void keyMapMatchesHashMap() {
+        Random random = new Random(11);
+        SeatKeyMap<Integer> map = new SeatKeyMap<>();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int step = 0; step < 20_000; step++) {
+            long key = SeatKey.of(String.valueOf((char) ('A' + random.nextInt(6))), 1 + random.nextInt(60));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, step), map.put(key, step));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        map.forEach((key, value) -> assertEquals(expected.get(key), value));
+    }
+}
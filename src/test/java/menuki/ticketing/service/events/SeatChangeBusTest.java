@@ -0,0 +1,113 @@
+package menuki.ticketing.service.events;
+
+import menuki.ticketing.data.jdbc.JdbcSeatDao;
+import menuki.ticketing.data.jdbc.TestDatabase;
+import menuki.ticketing.model.SeatKey;
+import menuki.ticketing.model.SeatStatus;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the seat change bus, the per-frame coalescing of its changes and the DB poller.
+ */
+class SeatChangeBusTest {
+
+    @Test /* Listeners only get their event's changes, and closing a subscription stops them */
+    void subscribersGetTheirEventsUntilClosed() {
+        SeatChangeBus bus = new SeatChangeBus();
+        List<SeatChange> e1 = new ArrayList<>();
+        List<SeatChange> all = new ArrayList<>();
+        SeatChangeBus.Subscription sub = bus.subscribe("E1", e1::add);
+        bus.subscribeAll(all::add);
+        assertEquals(Set.of("E1"), bus.watchedEvents());
+
+        bus.publish(new SeatChange("E1", new long[]{SeatKey.of("A", 1)}, SeatStatus.RESERVED, false));
+        bus.publish(new SeatChange("E2", new long[]{SeatKey.of("A", 1)}, SeatStatus.RESERVED, false));
+        assertEquals(1, e1.size());
+        assertEquals(2, all.size());
+
+        sub.close();
+        assertTrue(bus.watchedEvents().isEmpty());
+        bus.publish(new SeatChange("E1", new long[]{SeatKey.of("A", 2)}, SeatStatus.AVAILABLE, false));
+        assertEquals(1, e1.size());
+    }
+
+    @Test /* A burst of changes before the UI gets to run becomes a single update */
+    void burstIsCoalescedIntoOneRun() {
+        List<Runnable> frame = new ArrayList<>();
+        AtomicInteger runs = new AtomicInteger();
+        Coalescer coalescer = new Coalescer(frame::add, runs::incrementAndGet);
+        SeatChangeBus bus = new SeatChangeBus();
+        bus.subscribe("E1", change -> coalescer.signal());
+
+        for (int n = 1; n <= 500; n++) {
+            bus.publish(new SeatChange("E1", new long[]{SeatKey.of("A", n)}, SeatStatus.RESERVED, false));
+        }
+        assertEquals(1, frame.size());
+        frame.remove(0).run();
+        assertEquals(1, runs.get());
+
+        // Anything after the run starts a new one
+        coalescer.signal();
+        assertEquals(1, frame.size());
+    }
+
+    @Test /* The poller publishes what changed in the DB since its last look, grouped by status */
+    void pollerPublishesDatabaseChanges() throws Exception {
+        TestDatabase.open("seatchanges");
+        try {
+            JdbcSeatDao dao = new JdbcSeatDao();
+            TestDatabase.execute("INSERT INTO events(id, name) VALUES ('E-LIVE', 'Live')");
+            dao.createGrid("E-LIVE", "A", 10);
+
+            SeatChangeBus bus = new SeatChangeBus();
+            List<SeatChange> seen = new ArrayList<>();
+            bus.subscribe("E-LIVE", seen::add);
+            SeatChangePoller poller = new SeatChangePoller(dao, bus);
+            assertEquals(0, poller.runOnce());
+
+            // As if another instance wrote them
+            assertTrue(dao.reserveSeatsAtomic("E-LIVE", new long[]{SeatKey.of("A", 1), SeatKey.of("A", 2)}));
+            dao.markAvailable("E-LIVE", new long[]{SeatKey.of("A", 2)});
+            assertEquals(2, poller.runOnce());
+            assertEquals(2, seen.size());
+            assertTrue(seen.stream().allMatch(SeatChange::isRemote));
+            assertArrayEquals(new long[]{SeatKey.of("A", 2)}, seen.get(0).getSeatKeys());
+            assertEquals(SeatStatus.AVAILABLE, seen.get(0).getStatus());
+            assertEquals(0, poller.runOnce());
+            poller.close();
+        } finally {
+            TestDatabase.close();
+        }
+    }
+
+    @Test /* A change committed between a subscriber's load and the poller's first look is still published */
+    void pollerStartsFromTheVersionTheSubscriberLoaded() throws Exception {
+        TestDatabase.open("seatchangesgap");
+        try {
+            JdbcSeatDao dao = new JdbcSeatDao();
+            TestDatabase.execute("INSERT INTO events(id, name) VALUES ('E-GAP', 'Gap')");
+            dao.createGrid("E-GAP", "A", 10);
+            long loaded = dao.findBlockByEvent("E-GAP").getVersion();
+            // Committed before the poller has seen the subscription
+            assertTrue(dao.reserveSeatsAtomic("E-GAP", new long[]{SeatKey.of("A", 3)}));
+
+            SeatChangeBus bus = new SeatChangeBus();
+            List<SeatChange> seen = new ArrayList<>();
+            bus.subscribe("E-GAP", loaded, seen::add);
+            SeatChangePoller poller = new SeatChangePoller(dao, bus);
+            assertEquals(1, poller.runOnce());
+            assertArrayEquals(new long[]{SeatKey.of("A", 3)}, seen.get(0).getSeatKeys());
+            assertEquals(SeatStatus.RESERVED, seen.get(0).getStatus());
+            assertEquals(0, poller.runOnce());
+            poller.close();
+        } finally {
+            TestDatabase.close();
+        }
+    }
+}
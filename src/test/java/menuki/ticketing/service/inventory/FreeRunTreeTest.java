@@ -0,0 +1,63 @@
+package menuki.ticketing.service.inventory;
+
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the per-row free run segment tree, checked against a plain scan of the row.
+ */
+class FreeRunTreeTest {
+
+    @Test /* Longest run, first fit and last fit must match a brute force scan for random rows */
+    void matchesBruteForce() {
+        Random random = new Random(7);
+        for (int width : new int[]{1, 5, 16, 37, 100}) {
+            FreeRunTree tree = new FreeRunTree(width);
+            boolean[] free = new boolean[width];
+            for (int step = 0; step < 300; step++) {
+                int pos = random.nextInt(width);
+                free[pos] = random.nextInt(3) > 0;
+                tree.set(pos, free[pos]);
+
+                int n = 1 + random.nextInt(Math.min(width, 6));
+                int at = random.nextInt(width);
+                assertEquals(longest(free), tree.longest());
+                assertEquals(firstFit(free, at, n), tree.firstFit(at, n), "firstFit width=" + width);
+                assertEquals(lastFit(free, at, n), tree.lastFit(at, n), "lastFit width=" + width);
+            }
+        }
+    }
+
+    private static int longest(boolean[] free) {
+        int best = 0, run = 0;
+        for (boolean f : free) {
+            run = f ? run + 1 : 0;
+            best = Math.max(best, run);
+        }
+        return best;
+    }
+
+    private static boolean fits(boolean[] free, int start, int n) {
+        if (start < 0 || start + n > free.length) return false;
+        for (int i = start; i < start + n; i++) {
+            if (!free[i]) return false;
+        }
+        return true;
+    }
+
+    private static int firstFit(boolean[] free, int from, int n) {
+        for (int s = from; s < free.length; s++) {
+            if (fits(free, s, n)) return s;
+        }
+        return -1;
+    }
+
+    private static int lastFit(boolean[] free, int to, int n) {
+        for (int s = to; s >= 0; s--) {
+            if (fits(free, s, n)) return s;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,61 @@
+package menuki.ticketing.service.inventory;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the timing wheel that expires seat holds.
+ */
+class HoldExpiryWheelTest {
+
+    @Test /* Items expire on the tick of their deadline, in one batch, and not before */
+    void expiresInBatchesOnDeadlineTick() {
+        AtomicLong now = new AtomicLong(0);
+        List<List<String>> batches = new ArrayList<>();
+        HoldExpiryWheel<String> wheel = new HoldExpiryWheel<>(100, 8, batches::add, now::get, false);
+
+        wheel.schedule("A-01", 250);
+        wheel.schedule("A-02", 300);
+        wheel.schedule("B-01", 900);
+
+        now.set(200);
+        wheel.advance();
+        assertTrue(batches.isEmpty());
+
+        now.set(300);
+        wheel.advance();
+        assertEquals(List.of(List.of("A-01", "A-02")), batches);
+
+        // 900ms is more than one turn of an 8 slot wheel away, so it must wait for the right turn
+        now.set(800);
+        wheel.advance();
+        assertEquals(1, batches.size());
+        now.set(900);
+        wheel.advance();
+        assertEquals(List.of("B-01"), batches.get(1));
+    }
+
+    @Test /* Cancelled items are never handed out, and overdue deadlines fire on the next tick */
+    void cancelledAndOverdueItems() {
+        AtomicLong now = new AtomicLong(1_000);
+        List<String> expired = new ArrayList<>();
+        HoldExpiryWheel<String> wheel = new HoldExpiryWheel<>(100, 16, expired::addAll, now::get, false);
+
+        HoldExpiryWheel.Entry<String> cancelled = wheel.schedule("A-01", 1_200);
+        wheel.schedule("A-02", 0);
+        cancelled.cancel();
+
+        now.set(1_100);
+        wheel.advance();
+        assertEquals(List.of("A-02"), expired);
+
+        // Ticker fell far behind: catching up still finds nothing cancelled
+        now.set(10_000);
+        wheel.advance();
+        assertEquals(List.of("A-02"), expired);
+    }
+}
@@ -0,0 +1,211 @@
+package menuki.ticketing.service.inventory;
+
+import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.model.SeatKey;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.model.SeatType;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the bitmap based SeatInventory.
+ */
+class SeatInventoryTest {
+
+    /*
+     * Builds an inventory with the given number of rows and seats per row, all available
+     */
+    private SeatInventory inventory(int rows, int perRow) {
+        List<Seat> seats = new ArrayList<>();
+        for (int r = 0; r < rows; r++) {
+            for (int n = 1; n <= perRow; n++) {
+                seats.add(new Seat("E1", String.valueOf((char) ('A' + r)), n, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200));
+            }
+        }
+        return SeatInventory.of("E1", seats);
+    }
+
+    private static long[] keys(String... displayIds) {
+        long[] out = new long[displayIds.length];
+        for (int i = 0; i < out.length; i++) out[i] = SeatKey.parse(displayIds[i]);
+        return out;
+    }
+
+    @Test /* Loading should keep seat details and the persisted status of every seat */
+    void loadKeepsSeatDetailsAndStatus() {
+        List<Seat> seats = List.of(
+                new Seat("E1", "B", 2, SeatType.VIP, SeatStatus.RESERVED, 2500),
+                new Seat("E1", "A", 1, SeatType.STANDARD, SeatStatus.AVAILABLE, 1200),
+                new Seat("E1", "A", 2, SeatType.STANDARD, SeatStatus.SELECTED, 1200));
+        SeatInventory inv = SeatInventory.of("E1", seats);
+
+        int b2 = inv.indexOf(SeatKey.parse("B-02"));
+        assertEquals(SeatInventory.RESERVED, inv.state(b2));
+        assertEquals(SeatType.VIP, inv.type(b2));
+        assertEquals(2500, inv.priceCents(b2));
+        assertEquals(SeatInventory.HELD, inv.state(inv.indexOf(SeatKey.of("A", 2))));
+        assertEquals(1, inv.availableCount());
+        assertEquals(-1, inv.indexOf(SeatKey.parse("Z-01")));
+        assertEquals("A-01", inv.displayId(inv.indexOf(SeatKey.of("A", 1))));
+    }
+
+    @Test /* Reserving several seats is all or nothing */
+    void transitionAllIsAllOrNothing() {
+        SeatInventory inv = inventory(2, 40);
+        int[] first = inv.indexesOf(keys("A-01", "A-02"));
+        assertTrue(inv.transitionAll(first, SeatInventory.AVAILABLE, SeatInventory.RESERVED));
+
+        // A-02 is taken, so A-03 must not stay reserved
+        int[] overlapping = inv.indexesOf(keys("A-03", "A-02"));
+        assertFalse(inv.transitionAll(overlapping, SeatInventory.AVAILABLE, SeatInventory.RESERVED));
+        assertEquals(SeatInventory.AVAILABLE, inv.state(inv.indexOf(SeatKey.parse("A-03"))));
+        assertEquals(78, inv.availableCount());
+    }
+
+    @Test /* Confirming holds is all or nothing even if a held seat changes state underneath the confirm */
+    void confirmHoldsPutsBackHoldsWhenASeatIsNoLongerHeld() {
+        SeatInventory inv = inventory(1, 10);
+        int[] seats = inv.indexesOf(keys("A-01", "A-02", "A-03"));
+        SeatInventory.Hold hold = inv.hold(seats, "u1", Long.MAX_VALUE);
+        assertNotNull(hold);
+        // A-03 leaves HELD without its hold slot being cleared
+        inv.forceState(seats[2], SeatInventory.RESERVED);
+
+        assertFalse(inv.confirmHolds(seats, "u1"));
+        assertEquals(SeatInventory.HELD, inv.state(seats[0]));
+        assertEquals(SeatInventory.HELD, inv.state(seats[1]));
+        assertSame(hold, inv.holdOf(seats[0]));
+        assertSame(hold, inv.holdOf(seats[1]));
+        assertNull(inv.holdOf(seats[2]));
+        assertEquals(7, inv.availableCount());
+    }
+
+    @Test /* Only seats whose state changed after a snapshot's version come back as changes */
+    void changesSinceReturnsOnlyChangedSeats() {
+        SeatInventory inv = inventory(2, 40);
+        SeatBlock before = inv.toBlock();
+        assertEquals(0, inv.changesSince(before.getVersion()).size());
+
+        int[] taken = inv.indexesOf(keys("B-07", "A-03"));
+        assertTrue(inv.transitionAll(taken, SeatInventory.AVAILABLE, SeatInventory.RESERVED));
+        SeatBlock changed = inv.changesSince(before.getVersion());
+        assertEquals(2, changed.size());
+        assertEquals(SeatKey.parse("A-03"), changed.key(0));
+        assertEquals(SeatStatus.RESERVED, changed.status(1));
+        assertEquals(0, inv.changesSince(changed.getVersion()).size());
+
+        // A version this inventory never reached means it was reloaded: everything is sent again
+        assertEquals(80, inv.changesSince(changed.getVersion() + 100).size());
+    }
+
+    @Test /* A seat map kept in sync by polling changes while buyers race on the same seats ends up exact */
+    void pollingChangesNeverMissesAConcurrentChange() throws Exception {
+        SeatInventory inv = inventory(1, 8);
+        int threads = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger(threads);
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            pool.submit(() -> {
+                start.await();
+                Random random = new Random(seed);
+                for (int n = 0; n < 50_000; n++) {
+                    int i = random.nextInt(inv.size());
+                    inv.forceState(i, random.nextBoolean() ? SeatInventory.RESERVED : SeatInventory.AVAILABLE);
+                }
+                running.decrementAndGet();
+                return null;
+            });
+        }
+
+        SeatStatus[] mirror = new SeatStatus[inv.size()];
+        SeatBlock first = inv.toBlock();
+        for (int i = 0; i < mirror.length; i++) mirror[i] = first.status(i);
+        long seen = first.getVersion();
+        start.countDown();
+        boolean done;
+        do {
+            done = running.get() == 0;
+            SeatBlock changes = inv.changesSince(seen);
+            for (int k = 0; k < changes.size(); k++) mirror[inv.indexOf(changes.key(k))] = changes.status(k);
+            seen = changes.getVersion();
+        } while (!done);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        SeatBlock now = inv.toBlock();
+        for (int i = 0; i < mirror.length; i++) assertEquals(now.status(i), mirror[i], "seat " + i);
+    }
+
+    @Test /* Concurrent buyers racing for the same seats must never double book */
+    void concurrentReservationsNeverDoubleBook() throws Exception {
+        SeatInventory inv = inventory(10, 100);
+        int threads = 8;
+        AtomicInteger won = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                start.await();
+                // Everyone tries every pair of neighbouring seats
+                for (int i = 0; i + 1 < inv.size(); i += 2) {
+                    if (inv.transitionAll(new int[]{i, i + 1}, SeatInventory.AVAILABLE, SeatInventory.RESERVED)) {
+                        won.addAndGet(2);
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(inv.size(), won.get());
+        assertEquals(0, inv.availableCount());
+    }
+
+    @Test /* Best available picks the middle of the middle row and skips blocks that are partly taken */
+    void findBestPrefersCentreAndSkipsTakenSeats() {
+        SeatInventory inv = inventory(5, 20);
+        int[] block = inv.findBest(4, SeatScoring.defaults());
+        assertArrayEquals(inv.indexesOf(keys("C-09", "C-10", "C-11", "C-12")), block);
+
+        // Take C-10: the nearest block of 4 in row C is now C-11..C-14 which beats moving to row B or D
+        assertTrue(inv.compareAndSet(inv.indexOf(SeatKey.parse("C-10")), SeatInventory.AVAILABLE, SeatInventory.RESERVED));
+        block = inv.findBest(4, SeatScoring.defaults());
+        assertArrayEquals(inv.indexesOf(keys("C-11", "C-12", "C-13", "C-14")), block);
+
+        // Releasing it again puts the tree back
+        assertTrue(inv.compareAndSet(inv.indexOf(SeatKey.parse("C-10")), SeatInventory.RESERVED, SeatInventory.AVAILABLE));
+        assertArrayEquals(inv.indexesOf(keys("C-09", "C-10", "C-11", "C-12")), inv.findBest(4, SeatScoring.defaults()));
+
+        // No row has 21 seats together
+        assertNull(inv.findBest(21, SeatScoring.defaults()));
+    }
+
+    @Test /* VIP preference moves the block to (or away from) the VIP row */
+    void findBestHonoursVipPreference() {
+        List<Seat> seats = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            SeatType type = r == 0 ? SeatType.VIP : SeatType.STANDARD;
+            for (int n = 1; n <= 10; n++) {
+                seats.add(new Seat("E1", String.valueOf((char) ('A' + r)), n, type, SeatStatus.AVAILABLE, 1200));
+            }
+        }
+        SeatInventory inv = SeatInventory.of("E1", seats);
+        SeatScoring prefer = SeatScoring.defaults().withVipPreference(SeatScoring.VipPreference.PREFER);
+        assertEquals(0, inv.rowOf(inv.findBest(2, prefer)[0]));
+        assertEquals(1, inv.rowOf(inv.findBest(2, SeatScoring.defaults())[0]));
+    }
+}
@@ -0,0 +1,226 @@
+package menuki.ticketing.service.inventory;
+
+import menuki.ticketing.data.jdbc.JdbcOrderDao;
+import menuki.ticketing.data.jdbc.JdbcOrderItemDao;
+import menuki.ticketing.data.jdbc.JdbcSeatDao;
+import menuki.ticketing.data.jdbc.SnowflakeIdGenerator;
+import menuki.ticketing.data.jdbc.TestDatabase;
+import menuki.ticketing.model.OrderSummary;
+import menuki.ticketing.model.Seat;
+import menuki.ticketing.model.SeatBlock;
+import menuki.ticketing.model.SeatKey;
+import menuki.ticketing.model.SeatStatus;
+import menuki.ticketing.model.SeatType;
+import menuki.ticketing.service.InventorySeatService;
+import menuki.ticketing.service.JdbcOrderService;
+import menuki.ticketing.service.JdbcSeatService;
+import menuki.ticketing.service.OrderCompensation;
+import menuki.ticketing.service.events.SeatChangeBus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the engine's write-behind never overwrites seats another instance took in the DB.
+ * Runs against an in-memory H2 database in MySQL mode.
+ */
+class WriteBehindQueueTest {
+
+    private static final String EVENT_ID = "E-WB";
+    private static final JdbcSeatDao dao = new JdbcSeatDao();
+
+    @BeforeAll
+    static void openDatabase() throws Exception {
+        TestDatabase.open("writebehind");
+        TestDatabase.execute("INSERT INTO events(id, name) VALUES ('" + EVENT_ID + "', 'Write behind')");
+        dao.createGrid(EVENT_ID, "A", 10);
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        TestDatabase.close();
+    }
+
+    @Test /* A reservation made on stale memory is refused by the DB, other buyers' seats still go through */
+    void conflictingReserveIsRejectedAndEventReloaded() throws Exception {
+        SeatChangeBus bus = new SeatChangeBus();
+        // Holds the writer back until every reservation below is made, so none of them sees a reload
+        CountDownLatch reserved = new CountDownLatch(1);
+        JdbcSeatDao gatedDao = new JdbcSeatDao() {
+            @Override
+            public boolean reserveSeatsAtomic(String eventId, long[] seatKeys) throws SQLException {
+                try {
+                    reserved.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.reserveSeatsAtomic(eventId, seatKeys);
+            }
+        };
+        try (SeatInventoryEngine engine = new SeatInventoryEngine(gatedDao, Duration.ofMinutes(10), bus)) {
+            InventorySeatService seats = new InventorySeatService(new JdbcSeatService(dao, bus), engine);
+            assertEquals(10, seats.countAvailable(EVENT_ID));
+
+            // Another instance sells A-1 and holds A-2 after this one loaded the event
+            assertTrue(dao.reserveSeatsAtomic(EVENT_ID, keys(1)));
+            assertTrue(dao.holdSeats(EVENT_ID, keys(2), "other", Instant.now().plusSeconds(600)));
+
+            // Memory still has them available, so these succeed here
+            assertTrue(seats.reserveSeats(EVENT_ID, keys(1, 3)));
+            assertTrue(seats.reserveSeats(EVENT_ID, keys(5)));
+            assertTrue(seats.reserveSeats(EVENT_ID, keys(2, 4)));
+            reserved.countDown();
+            assertTrue(engine.writeBehind().flush(5000));
+
+            // Both conflicting reservations were refused whole; the other buyer's seat was written
+            assertEquals(SeatStatus.RESERVED, status(1));
+            assertEquals(SeatStatus.SELECTED, status(2));
+            assertEquals(SeatStatus.AVAILABLE, status(3));
+            assertEquals(SeatStatus.AVAILABLE, status(4));
+            assertEquals(SeatStatus.RESERVED, status(5));
+            assertEquals(List.of("other"), dao.findHolds(EVENT_ID).stream().map(h -> h.getHolderId()).toList());
+            assertEquals(4, engine.writeBehind().failedCount());
+            assertEquals(0, dao.reconcileAvailability());
+
+            // The event was dropped from memory and comes back as the DB has it
+            assertNull(engine.loaded(EVENT_ID));
+            assertEquals(7, seats.countAvailable(EVENT_ID));
+            assertFalse(seats.reserveSeats(EVENT_ID, keys(1)));
+        }
+    }
+
+    @Test /* An event evicted after a conflict is only read back once the writes queued behind the conflict land */
+    void reloadWaitsForQueuedWrites() throws Exception {
+        String eventId = "E-WB-RELOAD";
+        TestDatabase.execute("INSERT INTO events(id, name) VALUES ('" + eventId + "', 'Reload')");
+        dao.createGrid(eventId, "A", 10);
+        SeatChangeBus bus = new SeatChangeBus();
+        // The conflicting reservation waits until the hold is queued behind it; the hold then waits for 'written'
+        CountDownLatch queued = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        JdbcSeatDao gatedDao = new JdbcSeatDao() {
+            @Override
+            public boolean reserveSeatsAtomic(String eventId, long[] seatKeys) throws SQLException {
+                await(queued);
+                return super.reserveSeatsAtomic(eventId, seatKeys);
+            }
+
+            @Override
+            public boolean holdSeats(String eventId, long[] seatKeys, String holderId, Instant expiresAt)
+                    throws SQLException {
+                await(written);
+                return super.holdSeats(eventId, seatKeys, holderId, expiresAt);
+            }
+        };
+        try (SeatInventoryEngine engine = new SeatInventoryEngine(gatedDao, Duration.ofMinutes(10), bus)) {
+            InventorySeatService seats = new InventorySeatService(new JdbcSeatService(dao, bus), engine);
+            assertEquals(10, seats.countAvailable(eventId));
+            assertTrue(dao.reserveSeatsAtomic(eventId, keys(1)));
+
+            assertTrue(seats.reserveSeats(eventId, keys(1)));
+            assertTrue(seats.holdSeats(eventId, keys(3), "u1"));
+            queued.countDown();
+            while (engine.loaded(eventId) != null) Thread.sleep(10);
+
+            // The hold of A-3 is still queued, so reading the seats now would show it available
+            CompletableFuture<Integer> reloaded = CompletableFuture.supplyAsync(() -> seats.countAvailable(eventId));
+            Thread.sleep(300);
+            assertFalse(reloaded.isDone());
+            written.countDown();
+            assertEquals(8, reloaded.get(5, TimeUnit.SECONDS));
+            assertEquals(0, engine.writeBehind().pending(eventId));
+        }
+    }
+
+    @Test /* A checkout the DB refuses behind memory is cancelled, whether its order is saved before or after */
+    void refusedConfirmCancelsTheOrder() throws Exception {
+        String eventId = "E-WB-ORDERS";
+        TestDatabase.execute(
+                "INSERT INTO users(username, password, role) VALUES ('u1', 'x', 'USER'), ('u2', 'x', 'USER')",
+                "INSERT INTO events(id, name) VALUES ('" + eventId + "', 'Orders')");
+        dao.createGrid(eventId, "A", 10);
+        SeatChangeBus bus = new SeatChangeBus();
+        // Each buyer's writes wait until their checkout has gone through in memory
+        Map<String, CountDownLatch> checkedOut = Map.of("u1", new CountDownLatch(1), "u2", new CountDownLatch(1));
+        JdbcSeatDao gatedDao = new JdbcSeatDao() {
+            @Override
+            public boolean holdSeats(String eventId, long[] seatKeys, String holderId, Instant expiresAt)
+                    throws SQLException {
+                await(checkedOut.get(holderId));
+                return super.holdSeats(eventId, seatKeys, holderId, expiresAt);
+            }
+        };
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(() -> 1, System::currentTimeMillis);
+        JdbcOrderDao orderDao = new JdbcOrderDao(new JdbcOrderItemDao(ids), ids);
+        OrderCompensation compensation = new OrderCompensation(orderDao);
+        JdbcOrderService orders = new JdbcOrderService(orderDao, compensation);
+        try (SeatInventoryEngine engine = new SeatInventoryEngine(gatedDao, Duration.ofMinutes(10), bus)) {
+            engine.onRefusedClaim(compensation);
+            InventorySeatService seats = new InventorySeatService(new JdbcSeatService(dao, bus), engine);
+
+            // u1: another instance sells A-6 after this one loaded the event. The order is saved before the
+            // DB refuses the seats
+            assertEquals(10, seats.countAvailable(eventId));
+            assertTrue(dao.reserveSeatsAtomic(eventId, keys(6)));
+            assertTrue(seats.holdSeats(eventId, keys(5, 6), "u1"));
+            assertTrue(seats.confirmHolds(eventId, keys(5, 6), "u1"));
+            long first = orders.createOrder("u1", eventId, seatList(eventId, 5, 6));
+            checkedOut.get("u1").countDown();
+            assertTrue(engine.writeBehind().flush(5000));
+            assertEquals(List.of("Order #" + first + " was cancelled: seat(s) A-05, A-06 were sold elsewhere first."),
+                    compensation.takeNotices("u1"));
+            OrderSummary cancelled = orderDao.findPageByUser("u1", null, 10).getOrders().get(0);
+            assertTrue(cancelled.isCancelled());
+            assertEquals("seat(s) A-05, A-06 were sold elsewhere first", cancelled.getCancelReason());
+
+            // u2: the same with A-8, but the DB refuses the seats before the order is saved
+            assertEquals(9, seats.countAvailable(eventId));
+            assertTrue(dao.reserveSeatsAtomic(eventId, keys(8)));
+            assertTrue(seats.holdSeats(eventId, keys(8), "u2"));
+            assertTrue(seats.confirmHolds(eventId, keys(8), "u2"));
+            checkedOut.get("u2").countDown();
+            assertTrue(engine.writeBehind().flush(5000));
+            assertTrue(compensation.takeNotices("u2").isEmpty());
+            long second = orders.createOrder("u2", eventId, seatList(eventId, 8));
+            assertEquals(List.of("Order #" + second + " was cancelled: seat(s) A-08 were sold elsewhere first."),
+                    compensation.takeNotices("u2"));
+            assertTrue(orderDao.findPageByUser("u2", null, 10).getOrders().get(0).isCancelled());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<Seat> seatList(String eventId, int... seatNumbers) {
+        List<Seat> out = new ArrayList<>();
+        for (int n : seatNumbers) out.add(new Seat(eventId, "A", n, SeatType.STANDARD, SeatStatus.RESERVED, 1200));
+        return out;
+    }
+
+    private static SeatStatus status(int seatNumber) throws Exception {
+        SeatBlock block = dao.findBlockByEvent(EVENT_ID);
+        return block.status(block.indexOf(SeatKey.of("A", seatNumber)));
+    }
+
+    private static long[] keys(int... seatNumbers) {
+        long[] out = new long[seatNumbers.length];
+        for (int i = 0; i < out.length; i++) out[i] = SeatKey.of("A", seatNumbers[i]);
+        return out;
+    }
+}